@@ -0,0 +1,73 @@
+package com.menux.menu_x_backend.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.menux.menu_x_backend.util.InputSanitizer;
+
+/**
+ * Regex-based sanitizing applied to public order and feedback input
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputSanitizerBenchmark {
+
+    private static final String CUSTOMER_NAME = "  Rahim Uddin  ";
+    private static final String INSTRUCTIONS =
+            "Less spicy please, no onions. Extra sauce on the side; we are at the window table.";
+    private static final String HOSTILE =
+            "Great food <script>alert('x')</script><img src=x onerror=alert(1)> ' OR 1=1; DROP TABLE orders --";
+    private static final String FEEDBACK =
+            "The biryani was excellent and the staff were friendly. Waited about twenty minutes for dessert, "
+            + "which was a bit long on a quiet evening, but overall a very good experience. Will come back!";
+
+    private final InputSanitizer sanitizer = new InputSanitizer();
+
+    @Benchmark
+    public String sanitizeInputPlain() {
+        return sanitizer.sanitizeInput(INSTRUCTIONS);
+    }
+
+    @Benchmark
+    public String sanitizeInputHostile() {
+        return sanitizer.sanitizeInput(HOSTILE);
+    }
+
+    @Benchmark
+    public String sanitizeFeedbackComment() {
+        return sanitizer.sanitizeFeedbackComment(FEEDBACK);
+    }
+
+    @Benchmark
+    public String sanitizeText() {
+        return sanitizer.sanitizeText(CUSTOMER_NAME, 100);
+    }
+
+    @Benchmark
+    public boolean containsSQLInjection() {
+        return sanitizer.containsSQLInjection(HOSTILE);
+    }
+
+    @Benchmark
+    public boolean containsXSS() {
+        return sanitizer.containsXSS(FEEDBACK);
+    }
+
+    @Benchmark
+    public boolean isValidEmail() {
+        return sanitizer.isValidEmail("owner.name+menu@example-restaurant.com");
+    }
+}
@@ -0,0 +1,65 @@
+package com.menux.menu_x_backend.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.menux.menu_x_backend.service.NotificationService;
+
+import java.lang.reflect.Method;
+
+/**
+ * Serializing the notification data payload (NotificationService.toJson, called once per notification),
+ * next to the same payload through a shared ObjectMapper for reference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationJsonBenchmark {
+
+    private final ObjectMapper sharedMapper = new ObjectMapper();
+    private NotificationService notificationService;
+    private Method toJson;
+    private Map<String, Object> data;
+
+    @Setup
+    public void setUp() {
+        notificationService = new NotificationService();
+        toJson = ReflectionUtils.findMethod(NotificationService.class, "toJson", Map.class);
+        ReflectionUtils.makeAccessible(toJson);
+
+        data = new LinkedHashMap<>();
+        data.put("orderId", 981234L);
+        data.put("orderNumber", "ORD-20240101-0042");
+        data.put("tableNumber", "T12");
+        data.put("status", "READY");
+        data.put("totalAmount", 1450.0);
+        data.put("url", "/dashboard/orders/981234");
+    }
+
+    @Benchmark
+    public Object toJson() {
+        return ReflectionUtils.invokeMethod(toJson, notificationService, data);
+    }
+
+    @Benchmark
+    public String sharedObjectMapper() throws Exception {
+        return sharedMapper.writeValueAsString(data);
+    }
+}
@@ -0,0 +1,148 @@
+package com.menux.menu_x_backend.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.menux.menu_x_backend.dto.order.OrderDTO;
+import com.menux.menu_x_backend.entity.Order;
+import com.menux.menu_x_backend.entity.OrderItem;
+import com.menux.menu_x_backend.repository.OrderItemRepository;
+import com.menux.menu_x_backend.service.OrderDTOService;
+
+/**
+ * Order to OrderDTO mapping as used by the order board and public order tracking. The two repository
+ * queries it issues (items of the order, then one name lookup per item) run as the same SQL against an
+ * in-memory H2 database, so the per-item round trips show up in the numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderDTOServiceBenchmark {
+
+    private static final long ORDER_ID = 1L;
+
+    @Param({"3", "12"})
+    public int itemsPerOrder;
+
+    private Connection connection;
+    private OrderDTOService orderDTOService;
+    private Order order;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:orderdto;MODE=PostgreSQL;DATABASE_TO_UPPER=false", "sa", "");
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TABLE menu_items (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL)");
+            st.execute("CREATE TABLE order_items (id BIGINT PRIMARY KEY, order_id BIGINT NOT NULL, menu_item_id BIGINT NOT NULL,"
+                    + " quantity INT NOT NULL, price DECIMAL(10,2) NOT NULL, special_instructions TEXT)");
+            st.execute("CREATE INDEX idx_order_items_order_id ON order_items(order_id)");
+        }
+        try (PreparedStatement menu = connection.prepareStatement("INSERT INTO menu_items VALUES (?, ?)");
+             PreparedStatement item = connection.prepareStatement("INSERT INTO order_items VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= itemsPerOrder; i++) {
+                menu.setLong(1, i);
+                menu.setString(2, "Menu item " + i);
+                menu.executeUpdate();
+                item.setLong(1, i);
+                item.setLong(2, ORDER_ID);
+                item.setLong(3, i);
+                item.setInt(4, 1 + i % 3);
+                item.setBigDecimal(5, BigDecimal.valueOf(120 + i * 15L, 0));
+                item.setString(6, i % 4 == 0 ? "No onions" : null);
+                item.executeUpdate();
+            }
+        }
+
+        orderDTOService = new OrderDTOService();
+        ReflectionTestUtils.setField(orderDTOService, "orderItemRepository", jdbcOrderItemRepository());
+
+        order = new Order();
+        order.setId(ORDER_ID);
+        order.setOrderNumber("ORD-20240101-0001");
+        order.setCustomerName("Rahim");
+        order.setTableNumber("T12");
+        order.setTotalAmount(BigDecimal.valueOf(1450));
+        order.setStatus(Order.OrderStatus.PREPARING);
+        order.setPaymentStatus(Order.PaymentStatus.PENDING);
+        order.setCreatedAt(LocalDateTime.now());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public OrderDTO createOrderDTO() {
+        return orderDTOService.createOrderDTO(order);
+    }
+
+    // Only the two queries OrderDTOService uses, with the SQL Spring Data would issue for them
+    private OrderItemRepository jdbcOrderItemRepository() {
+        return (OrderItemRepository) Proxy.newProxyInstance(
+                OrderItemRepository.class.getClassLoader(),
+                new Class<?>[]{OrderItemRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByOrderId" -> findByOrderId((Long) args[0]);
+                    case "getMenuItemNameByOrderItemId" -> menuItemName((Long) args[0]);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private List<OrderItem> findByOrderId(Long orderId) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT id, quantity, price, special_instructions FROM order_items WHERE order_id = ?")) {
+            ps.setLong(1, orderId);
+            List<OrderItem> items = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    OrderItem item = new OrderItem();
+                    item.setId(rs.getLong(1));
+                    item.setQuantity(rs.getInt(2));
+                    item.setPrice(rs.getBigDecimal(3));
+                    item.setSpecialInstructions(rs.getString(4));
+                    items.add(item);
+                }
+            }
+            return items;
+        }
+    }
+
+    private String menuItemName(Long orderItemId) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT mi.name FROM order_items oi JOIN menu_items mi ON oi.menu_item_id = mi.id WHERE oi.id = ?")) {
+            ps.setLong(1, orderItemId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.menux.menu_x_backend.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.menux.menu_x_backend.entity.MenuItem;
+
+/**
+ * JSON body of GET /api/public/menu/{restaurantId}: the same response map PublicMenuController builds,
+ * written with an ObjectMapper configured the way Spring Boot configures the application's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicMenuSerializationBenchmark {
+
+    @Param({"25", "150"})
+    public int menuItems;
+
+    private ObjectMapper objectMapper;
+    private Map<String, Object> response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .timeZone(TimeZone.getTimeZone("Asia/Dhaka"))
+                .build();
+
+        MenuItem.Category[] categories = MenuItem.Category.values();
+        List<MenuItem> items = new ArrayList<>();
+        for (int i = 1; i <= menuItems; i++) {
+            MenuItem item = new MenuItem();
+            item.setId((long) i);
+            item.setName("Menu item " + i);
+            item.setDescription("Slow-cooked with house spices, served with basmati rice and a side of raita.");
+            item.setAiDescription(i % 3 == 0 ? "A fragrant, mildly spiced favourite of regulars." : null);
+            item.setPrice(BigDecimal.valueOf(150 + i * 10L));
+            item.setImageUrl("https://cdn.example.com/restaurants/42/menu/" + i + ".webp");
+            item.setCategory(categories[i % categories.length]);
+            item.setIsVegetarian(i % 4 == 0);
+            item.setIsSpicy(i % 5 == 0);
+            item.setPreparationTime(10 + i % 20);
+            item.setDisplayOrder(i);
+            item.setCreatedAt(LocalDateTime.now().minusDays(i));
+            item.setUpdatedAt(LocalDateTime.now());
+            items.add(item);
+        }
+
+        Map<String, Object> restaurantInfo = new HashMap<>();
+        restaurantInfo.put("id", 42L);
+        restaurantInfo.put("name", "Dhaka Spice House");
+        restaurantInfo.put("description", "Home-style Bangladeshi cooking");
+        restaurantInfo.put("address", "House 12, Road 5, Dhanmondi, Dhaka");
+        restaurantInfo.put("phoneNumber", "+8801234567890");
+        restaurantInfo.put("email", "hello@spicehouse.example.com");
+        restaurantInfo.put("subscriptionPlan", "PRO");
+
+        response = new HashMap<>();
+        response.put("restaurant", restaurantInfo);
+        response.put("menuItems", items);
+        response.put("isPro", true);
+        response.put("tableNumber", "T12");
+    }
+
+    @Benchmark
+    public byte[] publicMenuJson() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,51 @@
+package com.menux.menu_x_backend.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.menux.menu_x_backend.service.QRCodeService;
+
+/**
+ * Uncached QR rendering (encode + PNG), plain and branded with the restaurant/table caption
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class QRCodeRenderBenchmark {
+
+    @Param({"300", "600"})
+    public int size;
+
+    private QRCodeService qrCodeService;
+
+    @Setup
+    public void setUp() {
+        qrCodeService = new QRCodeService();
+        ReflectionTestUtils.setField(qrCodeService, "frontendUrl", "https://menux.example.com");
+    }
+
+    @Benchmark
+    public byte[] tableQRCode() throws Exception {
+        return qrCodeService.generateTableQRCode(42L, "T12", size);
+    }
+
+    @Benchmark
+    public byte[] brandedTableQRCode() throws Exception {
+        return qrCodeService.generateBrandedTableQRCode(42L, "Dhaka Spice House", "T12", size);
+    }
+}
@@ -0,0 +1,65 @@
+package com.menux.menu_x_backend.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.menux.menu_x_backend.config.RateLimitingConfig;
+
+/**
+ * Per-request rate limiting: one hot client (quickly over its limit, so the 429 path) and a rotating
+ * population of distinct client addresses (bucket creation and lookup).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitingFilterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private RateLimitingConfig.RateLimitingFilter filter;
+    private String[] clientAddresses;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        filter = new RateLimitingConfig().rateLimitingFilter();
+        clientAddresses = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clientAddresses[i] = "10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255);
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse singleClient() throws Exception {
+        return filter(new MockHttpServletRequest("GET", "/api/public/menu/42"));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse manyClients() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/menu/42");
+        request.addHeader("X-Forwarded-For", clientAddresses[next++ % CLIENTS] + ", 172.16.0.1");
+        return filter(request);
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,50 @@
+package com.menux.menu_x_backend.benchmarks.load;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of one endpoint, in microseconds. Samples are kept in full (a run is at most a few hundred
+ * thousand requests) so percentiles are exact.
+ */
+class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+
+    synchronized void record(long micros, boolean success) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = micros;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    synchronized Snapshot snapshot() {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new Snapshot(sorted, errors);
+    }
+
+    record Snapshot(long[] sorted, long errors) {
+
+        int count() {
+            return sorted.length;
+        }
+
+        /**
+         * Nearest-rank percentile in milliseconds
+         */
+        double percentileMs(double percentile) {
+            if (sorted.length == 0) return 0;
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))] / 1000.0;
+        }
+
+        double maxMs() {
+            return sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1000.0;
+        }
+    }
+}
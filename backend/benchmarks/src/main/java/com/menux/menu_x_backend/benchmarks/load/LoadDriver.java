@@ -0,0 +1,313 @@
+package com.menux.menu_x_backend.benchmarks.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Replays diner journeys against a running backend (normally the seeded loadtest profile): QR scan,
+ * menu, order, then the owner moving the order through CONFIRMED, PREPARING, READY and SERVED while the
+ * diner polls its status. Journeys start as a Poisson process at the configured rate (open model), so a
+ * slow server does not slow the offered load down. Journeys that find every worker busy are counted as
+ * dropped rather than queued.
+ *
+ * Usage: java -cp target/benchmarks.jar com.menux.menu_x_backend.benchmarks.load.LoadDriver [--key=value ...]
+ * Options: base-url, manifest, rate (journeys/s), duration (s), warmup (s), max-concurrency, think-ms,
+ * status-updates (true/false), seed, csv (path for the per-endpoint summary).
+ */
+public class LoadDriver {
+
+    private static final String[] STATUS_FLOW = {"CONFIRMED", "PREPARING", "READY", "SERVED"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, String> ownerTokens = new ConcurrentHashMap<>();
+    private final AtomicLong journeysStarted = new AtomicLong();
+    private final AtomicLong journeysDropped = new AtomicLong();
+
+    private final String baseUrl;
+    private final double rate;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final int maxConcurrency;
+    private final long thinkMs;
+    private final boolean statusUpdates;
+    private final long seed;
+    private final String csvPath;
+
+    private final HttpClient http;
+    private final List<JsonNode> restaurants = new ArrayList<>();
+    private double[] cumulativeWeights;
+    private String ownerPassword;
+    private volatile boolean measuring;
+
+    LoadDriver(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        this.rate = Double.parseDouble(options.getOrDefault("rate", "5"));
+        this.durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        this.warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        this.maxConcurrency = Integer.parseInt(options.getOrDefault("max-concurrency", "200"));
+        this.thinkMs = Long.parseLong(options.getOrDefault("think-ms", "0"));
+        this.statusUpdates = Boolean.parseBoolean(options.getOrDefault("status-updates", "true"));
+        this.seed = Long.parseLong(options.getOrDefault("seed", "7"));
+        this.csvPath = options.get("csv");
+        this.http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        LoadDriver driver = new LoadDriver(options);
+        driver.loadManifest(Path.of(options.getOrDefault("manifest", "../target/loadtest-manifest.json")));
+        driver.run();
+    }
+
+    void loadManifest(Path path) throws IOException {
+        JsonNode manifest = objectMapper.readTree(path.toFile());
+        ownerPassword = manifest.path("ownerPassword").asText();
+        manifest.path("restaurants").forEach(restaurants::add);
+        if (restaurants.isEmpty()) {
+            throw new IllegalStateException("No restaurants in manifest " + path);
+        }
+        cumulativeWeights = new double[restaurants.size()];
+        double sum = 0;
+        for (int i = 0; i < restaurants.size(); i++) {
+            sum += restaurants.get(i).path("weight").asDouble(1.0);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    void run() throws InterruptedException, IOException {
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 30, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), r -> {
+                    Thread t = new Thread(r, "journey");
+                    t.setDaemon(true);
+                    return t;
+                });
+        Random arrivals = new Random(seed);
+
+        System.out.printf("Driving %s at %.1f journeys/s for %ds (+%ds warmup), %d restaurants%n",
+                baseUrl, rate, durationSeconds, warmupSeconds, restaurants.size());
+        long start = System.nanoTime();
+        long warmupEnd = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long nextArrival = start;
+        long nextProgress = start + TimeUnit.SECONDS.toNanos(10);
+
+        while (nextArrival < end) {
+            long wait = nextArrival - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            if (!measuring && System.nanoTime() >= warmupEnd) {
+                recorders.clear();
+                journeysStarted.set(0);
+                journeysDropped.set(0);
+                measuring = true;
+            }
+            long journeySeed = arrivals.nextLong();
+            try {
+                workers.execute(() -> journey(new Random(journeySeed)));
+                journeysStarted.incrementAndGet();
+            } catch (RejectedExecutionException e) {
+                journeysDropped.incrementAndGet();
+            }
+            // Exponential inter-arrival times: Poisson arrivals at `rate`
+            nextArrival += (long) (-Math.log(1 - arrivals.nextDouble()) / rate * 1_000_000_000L);
+
+            if (System.nanoTime() >= nextProgress) {
+                printProgress(start);
+                nextProgress += TimeUnit.SECONDS.toNanos(10);
+            }
+        }
+
+        workers.shutdown();
+        workers.awaitTermination(60, TimeUnit.SECONDS);
+        // Rates are over the offered-load window; journeys still running at its end finish but do not stretch it
+        double measuredSeconds = Math.max(1, durationSeconds);
+        report(System.out, measuredSeconds);
+        if (csvPath != null) {
+            try (PrintStream csv = new PrintStream(Files.newOutputStream(Path.of(csvPath)))) {
+                csv.println("endpoint,count,errors,rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+                snapshots().forEach((endpoint, s) -> csv.printf("%s,%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f%n",
+                        endpoint, s.count(), s.errors(), s.count() / measuredSeconds, s.percentileMs(50),
+                        s.percentileMs(90), s.percentileMs(99), s.percentileMs(99.9), s.maxMs()));
+            }
+        }
+    }
+
+    private void journey(Random random) {
+        JsonNode restaurant = restaurants.get(pick(random));
+        long restaurantId = restaurant.path("id").asLong();
+        JsonNode tables = restaurant.path("tables");
+        String table = tables.size() > 0 ? tables.get(random.nextInt(tables.size())).asText() : "T1";
+        String dinerIp = "10." + random.nextInt(200) + "." + random.nextInt(256) + "." + random.nextInt(256);
+        String menuBase = "/api/public/menu/" + restaurantId;
+
+        if (send("scan", get(menuBase + "/info"), dinerIp) == null) return;
+        think();
+        if (send("menu", get(menuBase + "?table=" + table), dinerIp) == null) return;
+        if (!restaurant.path("pro").asBoolean()) return;
+        think();
+
+        JsonNode placed = send("order", post(menuBase + "/order", orderBody(restaurant, table, random)), dinerIp);
+        if (placed == null || !placed.hasNonNull("orderId")) return;
+        long orderId = placed.path("orderId").asLong();
+        String orderNumber = placed.path("orderNumber").asText();
+        if (!statusUpdates) return;
+
+        String token = ownerToken(restaurant.path("ownerUsername").asText());
+        if (token == null) return;
+        String ownerIp = "10.250." + (restaurantId >> 8 & 255) + "." + (restaurantId & 255);
+        for (String status : STATUS_FLOW) {
+            think();
+            HttpRequest.Builder update = HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders/manage/" + orderId + "/status"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"status\":\"" + status + "\"}"));
+            if (send("status-update", update, ownerIp) == null) return;
+            send("order-status", get(menuBase + "/order/" + orderNumber), dinerIp);
+        }
+    }
+
+    private String orderBody(JsonNode restaurant, String table, Random random) {
+        JsonNode items = restaurant.path("items");
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("customerName", "Load Guest " + random.nextInt(10_000));
+        body.put("tableNumber", table);
+        ArrayNode lines = body.putArray("orderItems");
+        int count = 1 + random.nextInt(Math.min(4, Math.max(1, items.size())));
+        for (int i = 0; i < count; i++) {
+            // Favour the first (most popular) items, like the seeded history does
+            JsonNode item = items.get((int) Math.min(items.size() - 1, Math.abs(random.nextGaussian()) * items.size() / 4));
+            lines.addObject()
+                    .put("menuItemName", item.path("name").asText())
+                    .put("quantity", 1 + (random.nextDouble() < 0.25 ? 1 : 0))
+                    .put("price", item.path("price").asDouble());
+        }
+        return body.toString();
+    }
+
+    private String ownerToken(String username) {
+        return ownerTokens.computeIfAbsent(username, u -> {
+            String body = objectMapper.createObjectNode().put("username", u).put("password", ownerPassword).toString();
+            JsonNode response = send("login", post("/api/auth/login", body), "10.251.0.1");
+            return response != null && response.hasNonNull("token") ? response.path("token").asText() : null;
+        });
+    }
+
+    /**
+     * Send one request and record its latency under the endpoint name; returns the parsed body, or null
+     * on a transport error or non-2xx status
+     */
+    private JsonNode send(String endpoint, HttpRequest.Builder request, String clientIp) {
+        request.header("X-Forwarded-For", clientIp).timeout(Duration.ofSeconds(30));
+        long started = System.nanoTime();
+        boolean success = false;
+        try {
+            HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            success = response.statusCode() / 100 == 2;
+            if (!success) return null;
+            String body = response.body();
+            return body == null || body.isBlank() ? objectMapper.nullNode() : objectMapper.readTree(body);
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            long micros = (System.nanoTime() - started) / 1000;
+            recorders.computeIfAbsent(endpoint, k -> new LatencyRecorder()).record(micros, success);
+        }
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private void think() {
+        if (thinkMs <= 0) return;
+        try {
+            // +-50% jitter so journeys do not move in lockstep
+            Thread.sleep(thinkMs / 2 + ThreadLocalRandom.current().nextLong(thinkMs + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int pick(Random random) {
+        double target = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (target < cumulativeWeights[i]) return i;
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+    private Map<String, LatencyRecorder.Snapshot> snapshots() {
+        Map<String, LatencyRecorder.Snapshot> snapshots = new LinkedHashMap<>();
+        for (String endpoint : new String[]{"scan", "menu", "order", "status-update", "order-status", "login"}) {
+            LatencyRecorder recorder = recorders.get(endpoint);
+            if (recorder != null) {
+                snapshots.put(endpoint, recorder.snapshot());
+            }
+        }
+        return snapshots;
+    }
+
+    private void printProgress(long start) {
+        long requests = 0;
+        long errors = 0;
+        for (LatencyRecorder.Snapshot s : snapshots().values()) {
+            requests += s.count();
+            errors += s.errors();
+        }
+        System.out.printf("[%3ds]%s journeys=%d dropped=%d requests=%d errors=%d%n",
+                (System.nanoTime() - start) / 1_000_000_000L, measuring ? "" : " (warmup)",
+                journeysStarted.get(), journeysDropped.get(), requests, errors);
+    }
+
+    private void report(PrintStream out, double measuredSeconds) {
+        out.printf("%nJourneys started: %d (%.2f/s), dropped (all workers busy): %d%n",
+                journeysStarted.get(), journeysStarted.get() / measuredSeconds, journeysDropped.get());
+        out.printf("%-14s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        snapshots().forEach((endpoint, s) -> out.printf("%-14s %8d %7d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint, s.count(), s.errors(), s.count() / measuredSeconds, s.percentileMs(50),
+                s.percentileMs(90), s.percentileMs(99), s.percentileMs(99.9), s.maxMs()));
+    }
+}
@@ -52,11 +52,10 @@ public class DataInitializer implements CommandLineRunner {
             testRestaurant.setDescription("A test restaurant for Menu.X");
             testRestaurant.setPhoneNumber("+8801234567890");
             testRestaurant.setEmail("restaurant@test.com");
-            // Owner relationship is managed by owner_id foreign key in database
+            // Owner relationship is managed by owner_id foreign key in database (NOT NULL)
+            testRestaurant.setOwnerId(testUser.getId());
 
-            testRestaurant = restaurantRepository.save(testRestaurant);
-            // Ensure owner_id FK is set to avoid any ORM relationship pitfalls
-            restaurantRepository.updateOwnerIdNative(testRestaurant.getId(), testUser.getId());
+            restaurantRepository.save(testRestaurant);
 
             logger.info("Test data initialized:");
             logger.info("Username: testowner");
@@ -79,9 +78,9 @@ public class DataInitializer implements CommandLineRunner {
                     testRestaurant.setEmail("restaurant@test.com");
                     // Owner relationship is managed by owner_id foreign key in database
                     testRestaurant.setSubscriptionPlan(Restaurant.SubscriptionPlan.PRO);
+                    testRestaurant.setOwnerId(testUser.getId());
 
-                    testRestaurant = restaurantRepository.save(testRestaurant);
-                    restaurantRepository.updateOwnerIdNative(testRestaurant.getId(), testUser.getId());
+                    restaurantRepository.save(testRestaurant);
 
                     logger.info("Restaurant created for existing testowner user:");
                     logger.info("Restaurant: Testing");
@@ -0,0 +1,570 @@
+package com.menux.menu_x_backend.config;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.menux.menu_x_backend.entity.MenuItem;
+
+/**
+ * Seeds a reproducible load-test dataset (loadtest profile only): restaurants with owners, PRO
+ * subscriptions, menus, tables, order history, feedback and menu views. Popularity of restaurants and
+ * menu items is Zipf-distributed and orders cluster around lunch and dinner, so indexes and caches see
+ * a realistic skew. Everything is derived from app.loadtest.seed.random-seed.
+ *
+ * Rows are written with JDBC batches. A manifest (restaurant ids, owner logins, tables, item names and
+ * prices) is written for the load driver in backend/benchmarks.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestDataSeeder implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestDataSeeder.class);
+
+    private static final String OWNER_PREFIX = "loadowner";
+
+    private static final String[] DISHES = {
+        "Kacchi Biryani", "Chicken Tikka", "Beef Bhuna", "Shorshe Ilish", "Morog Polao", "Dal Makhani",
+        "Paneer Butter Masala", "Chicken Rezala", "Mutton Kala Bhuna", "Vegetable Khichuri", "Fish Fry",
+        "Prawn Malai Curry", "Tandoori Chicken", "Garlic Naan", "Plain Rice", "Shahi Tukra", "Firni",
+        "Mango Lassi", "Borhani", "Masala Chai", "Fuchka", "Chotpoti", "Beef Tehari", "Chicken Soup",
+        "Caesar Salad", "Club Sandwich", "Beef Burger", "French Fries", "Chocolate Brownie", "Cold Coffee"
+    };
+
+    private static final String[] FEEDBACK_COMMENTS = {
+        "Great food and quick service.", "Loved the biryani, will order again.",
+        "A bit slow during the dinner rush.", "Portions were generous and the staff were friendly.",
+        "Food arrived cold this time.", "Good value for money.", "Too spicy for my taste.",
+        "Best kacchi in the area!", "Order was mixed up but they fixed it quickly.", "Nice ambience."
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.loadtest.seed.restaurants:50}")
+    private int restaurantCount;
+
+    @Value("${app.loadtest.seed.pro-share:0.7}")
+    private double proShare;
+
+    @Value("${app.loadtest.seed.menu-items:30}")
+    private int menuItemsPerRestaurant;
+
+    @Value("${app.loadtest.seed.tables:12}")
+    private int tablesPerRestaurant;
+
+    @Value("${app.loadtest.seed.orders:20000}")
+    private int orderCount;
+
+    @Value("${app.loadtest.seed.days:30}")
+    private int days;
+
+    @Value("${app.loadtest.seed.feedback-rate:0.12}")
+    private double feedbackRate;
+
+    @Value("${app.loadtest.seed.views-per-order:4}")
+    private int viewsPerOrder;
+
+    @Value("${app.loadtest.seed.random-seed:42}")
+    private long randomSeed;
+
+    @Value("${app.loadtest.seed.owner-password:loadtest123}")
+    private String ownerPassword;
+
+    @Value("${app.loadtest.seed.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.loadtest.seed.manifest-path:target/loadtest-manifest.json}")
+    private String manifestPath;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username = ?", Integer.class, OWNER_PREFIX + 1);
+        if (existing != null && existing > 0) {
+            logger.info("Load-test data already present, skipping seed");
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        Random random = new Random(randomSeed);
+        LocalDateTime now = LocalDateTime.now();
+        List<SeedRestaurant> restaurants = seedRestaurants(random, now);
+        int orders = seedOrders(random, now, restaurants);
+        writeManifest(restaurants);
+        logger.info("Load-test data seeded in {} ms: {} restaurants, {} orders (manifest: {})",
+                System.currentTimeMillis() - started, restaurants.size(), orders, manifestPath);
+    }
+
+    private List<SeedRestaurant> seedRestaurants(Random random, LocalDateTime now) {
+        // One hash for all owners; BCrypt per row would dominate the seed time
+        String passwordHash = passwordEncoder.encode(ownerPassword);
+        Timestamp created = Timestamp.valueOf(now.minusDays(days + 30L));
+
+        List<SeedRestaurant> restaurants = new ArrayList<>();
+        for (int i = 1; i <= restaurantCount; i++) {
+            SeedRestaurant r = new SeedRestaurant();
+            r.ownerUsername = OWNER_PREFIX + i;
+            r.name = "Load Restaurant " + i;
+            r.pro = random.nextDouble() < proShare;
+            // Zipf(1): restaurant i gets ~1/i of the traffic of the most popular one
+            r.weight = 1.0 / i;
+            restaurants.add(r);
+        }
+
+        List<Long> ownerIds = insert(
+                "INSERT INTO users (username, email, password, full_name, phone_number, role, is_active, created_at, updated_at)"
+                + " VALUES (?, ?, ?, ?, ?, 'RESTAURANT_OWNER', TRUE, ?, ?)",
+                restaurants, (ps, r) -> {
+                    ps.setString(1, r.ownerUsername);
+                    ps.setString(2, r.ownerUsername + "@loadtest.menux.local");
+                    ps.setString(3, passwordHash);
+                    ps.setString(4, "Owner of " + r.name);
+                    ps.setString(5, "+88017" + String.format("%08d", r.ownerUsername.hashCode() & 0x7ffffff));
+                    ps.setTimestamp(6, created);
+                    ps.setTimestamp(7, created);
+                });
+        for (int i = 0; i < restaurants.size(); i++) {
+            restaurants.get(i).ownerId = ownerIds.get(i);
+        }
+
+        List<Long> restaurantIds = insert(
+                "INSERT INTO restaurants (name, description, address, phone_number, email, subscription_plan, is_active,"
+                + " qr_code_size, created_at, updated_at, owner_id) VALUES (?, ?, ?, ?, ?, ?, TRUE, 256, ?, ?, ?)",
+                restaurants, (ps, r) -> {
+                    ps.setString(1, r.name);
+                    ps.setString(2, "Seeded for load testing");
+                    ps.setString(3, "Road " + (r.ownerId % 40 + 1) + ", Dhaka");
+                    ps.setString(4, "+8802" + String.format("%07d", r.ownerId));
+                    ps.setString(5, r.ownerUsername + "@restaurant.loadtest.menux.local");
+                    ps.setString(6, r.pro ? "PRO" : "BASIC");
+                    ps.setTimestamp(7, created);
+                    ps.setTimestamp(8, created);
+                    ps.setLong(9, r.ownerId);
+                });
+        for (int i = 0; i < restaurants.size(); i++) {
+            restaurants.get(i).id = restaurantIds.get(i);
+        }
+
+        // PRO restaurants get an ACTIVE period so the subscription checks leave them on PRO
+        List<SeedRestaurant> pro = restaurants.stream().filter(r -> r.pro).toList();
+        insert("INSERT INTO restaurant_subscriptions (restaurant_id, plan, status, current_period_start_at,"
+                + " current_period_end_at, cancel_at_period_end, created_at, updated_at)"
+                + " VALUES (?, 'PRO', 'ACTIVE', ?, ?, FALSE, ?, ?)",
+                pro, (ps, r) -> {
+                    ps.setLong(1, r.id);
+                    ps.setTimestamp(2, Timestamp.valueOf(now.minusDays(5)));
+                    ps.setTimestamp(3, Timestamp.valueOf(now.plusDays(25)));
+                    ps.setTimestamp(4, created);
+                    ps.setTimestamp(5, created);
+                });
+
+        List<Long> menuIds = insert(
+                "INSERT INTO menus (name, description, is_active, display_order, created_at, updated_at, restaurant_id)"
+                + " VALUES ('Main Menu', NULL, TRUE, 0, ?, ?, ?)",
+                restaurants, (ps, r) -> {
+                    ps.setTimestamp(1, created);
+                    ps.setTimestamp(2, created);
+                    ps.setLong(3, r.id);
+                });
+
+        MenuItem.Category[] categories = MenuItem.Category.values();
+        List<SeedItem> items = new ArrayList<>();
+        List<SeedTable> tables = new ArrayList<>();
+        for (int i = 0; i < restaurants.size(); i++) {
+            SeedRestaurant r = restaurants.get(i);
+            int itemCount = Math.max(3, (int) Math.round(menuItemsPerRestaurant * (0.6 + 0.8 * random.nextDouble())));
+            for (int j = 0; j < itemCount; j++) {
+                SeedItem item = new SeedItem();
+                item.restaurant = r;
+                item.menuId = menuIds.get(i);
+                // Names must be unique per restaurant: orders look items up by name
+                item.name = DISHES[j % DISHES.length] + (j < DISHES.length ? "" : " " + (j / DISHES.length + 1));
+                item.category = categories[random.nextInt(categories.length)];
+                // Log-normal prices around 250 BDT, rounded to 10
+                item.price = BigDecimal.valueOf(Math.max(30, Math.round(Math.exp(5.5 + 0.5 * random.nextGaussian()) / 10) * 10));
+                item.displayOrder = j;
+                items.add(item);
+                r.items.add(item);
+            }
+            int tableCount = Math.max(2, (int) Math.round(tablesPerRestaurant * (0.5 + random.nextDouble())));
+            for (int t = 1; t <= tableCount; t++) {
+                SeedTable table = new SeedTable();
+                table.restaurant = r;
+                table.number = "T" + t;
+                table.capacity = 2 + 2 * random.nextInt(3);
+                tables.add(table);
+                r.tables.add(table);
+            }
+            r.itemWeights = zipfCumulative(r.items.size());
+        }
+
+        List<Long> itemIds = insert(
+                "INSERT INTO menu_items (name, description, price, category, is_available, is_vegetarian, is_spicy,"
+                + " preparation_time, display_order, created_at, updated_at, menu_id)"
+                + " VALUES (?, ?, ?, ?, TRUE, ?, ?, ?, ?, ?, ?, ?)",
+                items, (ps, item) -> {
+                    ps.setString(1, item.name);
+                    ps.setString(2, "House special " + item.name.toLowerCase());
+                    ps.setBigDecimal(3, item.price);
+                    ps.setString(4, item.category.name());
+                    ps.setBoolean(5, item.displayOrder % 4 == 0);
+                    ps.setBoolean(6, item.displayOrder % 5 == 0);
+                    ps.setInt(7, 10 + item.displayOrder % 20);
+                    ps.setInt(8, item.displayOrder);
+                    ps.setTimestamp(9, created);
+                    ps.setTimestamp(10, created);
+                    ps.setLong(11, item.menuId);
+                });
+        for (int i = 0; i < items.size(); i++) {
+            items.get(i).id = itemIds.get(i);
+        }
+
+        List<Long> tableIds = insert(
+                "INSERT INTO restaurant_tables (restaurant_id, table_number, table_name, capacity, status, is_active,"
+                + " created_at, updated_at) VALUES (?, ?, ?, ?, 'AVAILABLE', TRUE, ?, ?)",
+                tables, (ps, table) -> {
+                    ps.setLong(1, table.restaurant.id);
+                    ps.setString(2, table.number);
+                    ps.setString(3, "Table " + table.number.substring(1));
+                    ps.setInt(4, table.capacity);
+                    ps.setTimestamp(5, created);
+                    ps.setTimestamp(6, created);
+                });
+        for (int i = 0; i < tables.size(); i++) {
+            tables.get(i).id = tableIds.get(i);
+        }
+        return restaurants;
+    }
+
+    private int seedOrders(Random random, LocalDateTime now, List<SeedRestaurant> restaurants) {
+        double[] restaurantWeights = cumulative(restaurants.stream().mapToDouble(r -> r.weight).toArray());
+        int written = 0;
+        long sequence = 0;
+
+        while (written < orderCount) {
+            int chunk = Math.min(batchSize, orderCount - written);
+            List<SeedOrder> orders = new ArrayList<>(chunk);
+            for (int i = 0; i < chunk; i++) {
+                SeedOrder order = new SeedOrder();
+                order.restaurant = restaurants.get(pick(random, restaurantWeights));
+                order.table = order.restaurant.tables.get(random.nextInt(order.restaurant.tables.size()));
+                order.number = "LOAD-" + (++sequence);
+                order.createdAt = orderTime(random, now);
+                boolean open = order.createdAt.isAfter(now.minusHours(2));
+                if (open) {
+                    order.status = new String[]{"PENDING", "CONFIRMED", "PREPARING", "READY"}[random.nextInt(4)];
+                    order.paymentStatus = "PENDING";
+                } else if (random.nextDouble() < 0.08) {
+                    order.status = "CANCELLED";
+                    order.paymentStatus = "PENDING";
+                } else {
+                    order.status = "SERVED";
+                    order.paymentStatus = "PAID";
+                    order.completedAt = order.createdAt.plusMinutes(20 + random.nextInt(40));
+                }
+                // 1 + geometric items (mean ~2.4), mostly single quantities
+                int lines = 1;
+                while (lines < 8 && random.nextDouble() < 0.58) lines++;
+                BigDecimal total = BigDecimal.ZERO;
+                for (int l = 0; l < lines; l++) {
+                    SeedItem item = order.restaurant.items.get(pick(random, order.restaurant.itemWeights));
+                    double q = random.nextDouble();
+                    int quantity = q < 0.7 ? 1 : q < 0.92 ? 2 : 3;
+                    order.lines.add(new SeedLine(item, quantity));
+                    total = total.add(item.price.multiply(BigDecimal.valueOf(quantity)));
+                }
+                order.total = total;
+                orders.add(order);
+            }
+
+            List<Long> orderIds = insert(
+                    "INSERT INTO orders (order_number, customer_name, customer_phone, table_number, total_amount, status,"
+                    + " payment_status, special_instructions, estimated_preparation_time, created_at, updated_at,"
+                    + " completed_at, restaurant_id, table_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    orders, (ps, o) -> {
+                        ps.setString(1, o.number);
+                        ps.setString(2, "Guest " + (o.number.hashCode() & 0xffff));
+                        ps.setString(3, null);
+                        ps.setString(4, o.table.number);
+                        ps.setBigDecimal(5, o.total);
+                        ps.setString(6, o.status);
+                        ps.setString(7, o.paymentStatus);
+                        ps.setString(8, o.lines.size() > 3 ? "Please serve together" : null);
+                        ps.setInt(9, 20);
+                        ps.setTimestamp(10, Timestamp.valueOf(o.createdAt));
+                        ps.setTimestamp(11, Timestamp.valueOf(o.completedAt != null ? o.completedAt : o.createdAt));
+                        if (o.completedAt != null) {
+                            ps.setTimestamp(12, Timestamp.valueOf(o.completedAt));
+                        } else {
+                            ps.setNull(12, Types.TIMESTAMP);
+                        }
+                        ps.setLong(13, o.restaurant.id);
+                        ps.setLong(14, o.table.id);
+                    });
+            List<SeedLine> lines = new ArrayList<>();
+            for (int i = 0; i < orders.size(); i++) {
+                SeedOrder order = orders.get(i);
+                order.id = orderIds.get(i);
+                for (SeedLine line : order.lines) {
+                    line.order = order;
+                    lines.add(line);
+                }
+            }
+
+            batch("INSERT INTO order_items (quantity, price, special_instructions, created_at, order_id, menu_item_id)"
+                    + " VALUES (?, ?, NULL, ?, ?, ?)",
+                    lines, (ps, line) -> {
+                        ps.setInt(1, line.quantity);
+                        ps.setBigDecimal(2, line.item.price);
+                        ps.setTimestamp(3, Timestamp.valueOf(line.order.createdAt));
+                        ps.setLong(4, line.order.id);
+                        ps.setLong(5, line.item.id);
+                    });
+
+            seedFeedback(random, orders);
+            seedMenuViews(random, orders);
+            written += chunk;
+        }
+        return written;
+    }
+
+    private void seedFeedback(Random random, List<SeedOrder> orders) {
+        List<SeedOrder> reviewed = orders.stream()
+                .filter(o -> "SERVED".equals(o.status) && random.nextDouble() < feedbackRate)
+                .toList();
+        batch("INSERT INTO feedbacks (customer_name, customer_email, rating, comment, ai_sentiment, order_number,"
+                + " created_at, updated_at, restaurant_id, order_id) VALUES (?, NULL, ?, ?, ?, ?, ?, ?, ?, ?)",
+                reviewed, (ps, o) -> {
+                    // Skewed to 4-5 stars with a small angry tail, as real review data is
+                    double r = random.nextDouble();
+                    int rating = r < 0.45 ? 5 : r < 0.75 ? 4 : r < 0.87 ? 3 : r < 0.93 ? 2 : 1;
+                    Timestamp at = Timestamp.valueOf(o.completedAt.plusMinutes(5));
+                    ps.setString(1, "Guest " + (o.number.hashCode() & 0xffff));
+                    ps.setInt(2, rating);
+                    ps.setString(3, FEEDBACK_COMMENTS[random.nextInt(FEEDBACK_COMMENTS.length)]);
+                    ps.setString(4, rating >= 4 ? "POSITIVE" : rating == 3 ? "NEUTRAL" : "NEGATIVE");
+                    ps.setString(5, o.number);
+                    ps.setTimestamp(6, at);
+                    ps.setTimestamp(7, at);
+                    ps.setLong(8, o.restaurant.id);
+                    ps.setLong(9, o.id);
+                });
+    }
+
+    private void seedMenuViews(Random random, List<SeedOrder> orders) {
+        // Views precede each order: mostly scans, then item views of what was ordered
+        List<Object[]> views = new ArrayList<>();
+        for (SeedOrder o : orders) {
+            for (int v = 0; v < viewsPerOrder; v++) {
+                double r = random.nextDouble();
+                String type = r < 0.6 ? "MENU_SCAN" : r < 0.95 ? "ITEM_VIEW" : "CATEGORY_VIEW";
+                Long itemId = "ITEM_VIEW".equals(type) ? o.lines.get(random.nextInt(o.lines.size())).item.id : null;
+                views.add(new Object[]{o, type, itemId, o.createdAt.minusMinutes(1 + random.nextInt(10))});
+            }
+        }
+        batch("INSERT INTO menu_views (restaurant_id, menu_item_id, visitor_ip, user_agent, table_number, view_type,"
+                + " created_at) VALUES (?, ?, ?, 'loadtest-seed', ?, ?, ?)",
+                views, (ps, view) -> {
+                    SeedOrder o = (SeedOrder) view[0];
+                    ps.setLong(1, o.restaurant.id);
+                    if (view[2] != null) {
+                        ps.setLong(2, (Long) view[2]);
+                    } else {
+                        ps.setNull(2, Types.BIGINT);
+                    }
+                    ps.setString(3, "10.20." + (o.id >> 8 & 255) + "." + (o.id & 255));
+                    ps.setString(4, o.table.number);
+                    ps.setString(5, (String) view[1]);
+                    ps.setTimestamp(6, Timestamp.valueOf((LocalDateTime) view[3]));
+                });
+    }
+
+    /**
+     * Order time within the last N days: lunch and dinner peaks plus a flat daytime share
+     */
+    private LocalDateTime orderTime(Random random, LocalDateTime now) {
+        double r = random.nextDouble();
+        double hour = r < 0.4 ? 13.5 + random.nextGaussian()
+                : r < 0.85 ? 20.5 + 1.25 * random.nextGaussian()
+                : 10 + 13 * random.nextDouble();
+        hour = Math.max(9, Math.min(23.98, hour));
+        LocalDateTime at = now.toLocalDate().minusDays(random.nextInt(Math.max(1, days)))
+                .atStartOfDay().plusSeconds((long) (hour * 3600));
+        return at.isAfter(now) ? at.minusDays(1) : at;
+    }
+
+    private void writeManifest(List<SeedRestaurant> restaurants) throws IOException {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (SeedRestaurant r : restaurants) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", r.id);
+            entry.put("pro", r.pro);
+            entry.put("weight", r.weight);
+            entry.put("ownerUsername", r.ownerUsername);
+            entry.put("tables", r.tables.stream().map(t -> t.number).toList());
+            entry.put("items", r.items.stream().map(i -> Map.of("name", i.name, "price", i.price)).toList());
+            entries.add(entry);
+        }
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("randomSeed", randomSeed);
+        manifest.put("ownerPassword", ownerPassword);
+        manifest.put("restaurants", entries);
+
+        Path path = Path.of(manifestPath);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), manifest);
+    }
+
+    // --- JDBC batch helpers ---
+
+    private interface RowSetter<T> {
+        void set(PreparedStatement ps, T row) throws java.sql.SQLException;
+    }
+
+    /**
+     * Batch insert returning the generated ids in row order
+     */
+    private <T> List<Long> insert(String sql, List<T> rows, RowSetter<T> setter) {
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<T> chunk = rows.subList(from, Math.min(rows.size(), from + batchSize));
+            GeneratedKeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(sql, new String[]{"id"}),
+                    setter(chunk, setter), keys);
+            for (Map<String, Object> key : keys.getKeyList()) {
+                ids.add(((Number) key.values().iterator().next()).longValue());
+            }
+        }
+        return ids;
+    }
+
+    private <T> void batch(String sql, List<T> rows, RowSetter<T> setter) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<T> chunk = rows.subList(from, Math.min(rows.size(), from + batchSize));
+            jdbcTemplate.batchUpdate(sql, setter(chunk, setter));
+        }
+    }
+
+    private static <T> BatchPreparedStatementSetter setter(List<T> rows, RowSetter<T> setter) {
+        return new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws java.sql.SQLException {
+                setter.set(ps, rows.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        };
+    }
+
+    // --- Sampling helpers ---
+
+    private static double[] zipfCumulative(int n) {
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = 1.0 / (i + 1);
+        }
+        return cumulative(weights);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    private static int pick(Random random, double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[cumulative.length - 1]);
+        return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+    }
+
+    private static class SeedRestaurant {
+        Long id;
+        Long ownerId;
+        String ownerUsername;
+        String name;
+        boolean pro;
+        double weight;
+        double[] itemWeights;
+        final List<SeedItem> items = new ArrayList<>();
+        final List<SeedTable> tables = new ArrayList<>();
+    }
+
+    private static class SeedItem {
+        Long id;
+        Long menuId;
+        SeedRestaurant restaurant;
+        String name;
+        MenuItem.Category category;
+        BigDecimal price;
+        int displayOrder;
+    }
+
+    private static class SeedTable {
+        Long id;
+        SeedRestaurant restaurant;
+        String number;
+        int capacity;
+    }
+
+    private static class SeedOrder {
+        Long id;
+        SeedRestaurant restaurant;
+        SeedTable table;
+        String number;
+        String status;
+        String paymentStatus;
+        BigDecimal total;
+        LocalDateTime createdAt;
+        LocalDateTime completedAt;
+        final List<SeedLine> lines = new ArrayList<>();
+    }
+
+    private static class SeedLine {
+        final SeedItem item;
+        final int quantity;
+        SeedOrder order;
+
+        SeedLine(SeedItem item, int quantity) {
+            this.item = item;
+            this.quantity = quantity;
+        }
+    }
+}
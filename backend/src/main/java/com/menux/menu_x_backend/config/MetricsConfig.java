@@ -0,0 +1,96 @@
+package com.menux.menu_x_backend.config;
+
+import com.menux.menu_x_backend.service.AuditService;
+import com.menux.menu_x_backend.service.MediaCacheService;
+import com.menux.menu_x_backend.service.MediaStorageService;
+import com.menux.menu_x_backend.service.QRCodeCacheService;
+import com.menux.menu_x_backend.service.SubscriptionTimeline;
+import com.menux.menu_x_backend.service.realtime.SseEmitterRegistry;
+import com.menux.menu_x_backend.service.realtime.UserPresenceRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exposes the counters the services already keep (caches, realtime delivery, audit writer,
+ * subscription timeline) as Micrometer meters for /actuator/prometheus.
+ *
+ * Request timings (http.server.requests), the Hikari pool and the ResilienceConfig executors are bound
+ * by Spring Boot itself; the services time their own hot paths under the menux.* prefix.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder cacheMetrics(MediaCacheService mediaCacheService,
+                                    QRCodeCacheService qrCodeCacheService,
+                                    MediaStorageService mediaStorageService,
+                                    SubscriptionTimeline subscriptionTimeline) {
+        return registry -> {
+            cacheRequests(registry, "media", "hit", mediaCacheService, MediaCacheService::getHitCount);
+            cacheRequests(registry, "media", "miss", mediaCacheService, MediaCacheService::getMissCount);
+            Gauge.builder("menux.cache.size", mediaCacheService, MediaCacheService::getTotalBytes)
+                    .tag("cache", "media").baseUnit("bytes").register(registry);
+
+            cacheRequests(registry, "qr", "hit", qrCodeCacheService, QRCodeCacheService::getMemoryHitCount);
+            cacheRequests(registry, "qr", "disk_hit", qrCodeCacheService, QRCodeCacheService::getDiskHitCount);
+            cacheRequests(registry, "qr", "miss", qrCodeCacheService, QRCodeCacheService::getMissCount);
+            Gauge.builder("menux.cache.entries", qrCodeCacheService, QRCodeCacheService::getMemoryEntryCount)
+                    .tag("cache", "qr").register(registry);
+
+            cacheRequests(registry, "signed_url", "hit", mediaStorageService, MediaStorageService::getSignedUrlHitCount);
+            cacheRequests(registry, "signed_url", "miss", mediaStorageService, MediaStorageService::getSignedUrlMissCount);
+            Gauge.builder("menux.cache.entries", mediaStorageService, MediaStorageService::getSignedUrlCacheSize)
+                    .tag("cache", "signed_url").register(registry);
+
+            cacheRequests(registry, "pro_access", "hit", subscriptionTimeline, SubscriptionTimeline::getAccessHitCount);
+            cacheRequests(registry, "pro_access", "miss", subscriptionTimeline, SubscriptionTimeline::getAccessMissCount);
+            Gauge.builder("menux.cache.entries", subscriptionTimeline, SubscriptionTimeline::getCachedAccessCount)
+                    .tag("cache", "pro_access").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder realtimeMetrics(SseEmitterRegistry sseEmitterRegistry, UserPresenceRegistry userPresenceRegistry) {
+        return registry -> {
+            Gauge.builder("menux.realtime.ws.online.users", userPresenceRegistry, UserPresenceRegistry::getOnlineUserCount)
+                    .register(registry);
+            Gauge.builder("menux.realtime.sse.connections", sseEmitterRegistry, SseEmitterRegistry::getConnectionCount)
+                    .register(registry);
+            Gauge.builder("menux.realtime.sse.queued.events", sseEmitterRegistry, SseEmitterRegistry::getQueuedEventCount)
+                    .register(registry);
+            FunctionCounter.builder("menux.realtime.sse.dropped.events", sseEmitterRegistry, SseEmitterRegistry::getDroppedEventCount)
+                    .register(registry);
+            FunctionCounter.builder("menux.realtime.sse.evicted.connections", sseEmitterRegistry, SseEmitterRegistry::getEvictedConnectionCount)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder backgroundWorkMetrics(AuditService auditService, SubscriptionTimeline subscriptionTimeline) {
+        return registry -> {
+            Gauge.builder("menux.audit.buffered", auditService, AuditService::getBufferedCount)
+                    .description("Audit events waiting for the background writer").register(registry);
+            FunctionCounter.builder("menux.audit.events", auditService, AuditService::getWrittenCount)
+                    .tag("result", "written").register(registry);
+            FunctionCounter.builder("menux.audit.events", auditService, AuditService::getDroppedCount)
+                    .tag("result", "dropped").register(registry);
+            FunctionCounter.builder("menux.audit.events", auditService, AuditService::getFailedCount)
+                    .tag("result", "failed").register(registry);
+            Gauge.builder("menux.subscriptions.timeline.scheduled", subscriptionTimeline, SubscriptionTimeline::getScheduledCount)
+                    .register(registry);
+        };
+    }
+
+    private static <T> void cacheRequests(MeterRegistry registry, String cache, String result, T source, ToDoubleFunction<T> count) {
+        FunctionCounter.builder("menux.cache.requests", source, count)
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -1,7 +1,21 @@
 package com.menux.menu_x_backend.config;
 
+import com.menux.menu_x_backend.exception.ExternalServiceException;
+import com.menux.menu_x_backend.security.RestaurantContext;
+import com.menux.menu_x_backend.service.DownstreamLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -9,6 +23,8 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.concurrent.Executor;
 
 /**
@@ -20,30 +36,85 @@ import java.util.concurrent.Executor;
 @EnableTransactionManagement
 public class ResilienceConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(ResilienceConfig.class);
+
+    // Same switch and JVM check Spring Boot uses for Tomcat, @Scheduled and its own executors: the build
+    // targets Java 17, and spring.threads.virtual.enabled only takes effect on a Java 21+ runtime
+    private final boolean virtualThreads;
+
+    public ResilienceConfig(Environment environment,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsRequested) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        if (virtualThreadsRequested && !virtualThreads) {
+            logger.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; using platform thread pools",
+                    Runtime.version().feature());
+        }
+    }
+
+    // Concurrent uploads, signing and deletes against Supabase storage through the shared RestTemplate
+    @Value("${app.concurrency.storage-limit:32}")
+    private int storageConcurrencyLimit;
+
+    // Concurrent object reads (media proxy streams, variant fetches); a separate pool so slow readers cannot starve writes
+    @Value("${app.concurrency.storage-read-limit:64}")
+    private int storageReadConcurrencyLimit;
+
     /**
      * RestTemplate with timeout configuration
      */
     @Bean
-    public RestTemplate restTemplate() {
+    public RestTemplate restTemplate(DownstreamLimiter downstreamLimiter) {
         SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
         factory.setConnectTimeout(10000); // 10 seconds
         factory.setReadTimeout(30000);    // 30 seconds
 
         RestTemplate restTemplate = new RestTemplate(factory);
+        restTemplate.getInterceptors().add(storageConcurrencyLimit(downstreamLimiter));
         return restTemplate;
     }
 
+    /**
+     * Holds a storage permit until the response is closed, so streamed media downloads count while they
+     * stream. Reads (GET) and everything else draw from separate limiters: the public media proxy
+     * streams at the client's pace and must not take the permits uploads and URL signing need.
+     * A saturated limiter surfaces as an IOException (ResourceAccessException to callers), the
+     * same as storage being unreachable.
+     */
+    private ClientHttpRequestInterceptor storageConcurrencyLimit(DownstreamLimiter downstreamLimiter) {
+        return (request, body, execution) -> {
+            boolean read = HttpMethod.GET.equals(request.getMethod());
+            DownstreamLimiter.Permit permit;
+            try {
+                permit = read
+                        ? downstreamLimiter.acquire("storage-read", storageReadConcurrencyLimit)
+                        : downstreamLimiter.acquire("storage", storageConcurrencyLimit);
+            } catch (ExternalServiceException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            try {
+                return new PermitReleasingResponse(execution.execute(request, body), permit);
+            } catch (IOException | RuntimeException e) {
+                permit.close();
+                throw e;
+            }
+        };
+    }
+
     /**
      * Async executor for background tasks
      */
     @Bean(name = "taskExecutor")
     public Executor taskExecutor() {
+        if (virtualThreads) {
+            return virtualThreadExecutor("MenuX-Async-");
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(20);
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("MenuX-Async-");
         executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(RestaurantContext::wrap);
         executor.initialize();
         return executor;
     }
@@ -53,12 +124,16 @@ public class ResilienceConfig {
      */
     @Bean(name = "databaseExecutor")
     public Executor databaseExecutor() {
+        if (virtualThreads) {
+            return virtualThreadExecutor("MenuX-DB-");
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(3);
         executor.setMaxPoolSize(10);
         executor.setQueueCapacity(50);
         executor.setThreadNamePrefix("MenuX-DB-");
         executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(RestaurantContext::wrap);
         executor.initialize();
         return executor;
     }
@@ -68,13 +143,85 @@ public class ResilienceConfig {
      */
     @Bean(name = "externalApiExecutor")
     public Executor externalApiExecutor() {
+        if (virtualThreads) {
+            return virtualThreadExecutor("MenuX-API-");
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
         executor.setMaxPoolSize(8);
         executor.setQueueCapacity(25);
         executor.setThreadNamePrefix("MenuX-API-");
         executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(RestaurantContext::wrap);
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Executor for CPU-bound QR rendering in bulk exports. Stays a platform pool sized to the cores in
+     * both thread modes: virtual threads do not help CPU-bound work.
+     */
+    @Bean(name = "qrRenderExecutor")
+    public Executor qrRenderExecutor() {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 4);
+        executor.setThreadNamePrefix("MenuX-QR-");
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Unbounded executor starting one virtual thread per task; concurrency towards each downstream is
+     * capped by {@link DownstreamLimiter} (and the Hikari pool for the database) instead of a pool size
+     */
+    private Executor virtualThreadExecutor(String threadNamePrefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(RestaurantContext::wrap);
+        executor.setTaskTerminationTimeout(30000);
+        return executor;
+    }
+
+    private static final class PermitReleasingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final DownstreamLimiter.Permit permit;
+
+        private PermitReleasingResponse(ClientHttpResponse delegate, DownstreamLimiter.Permit permit) {
+            this.delegate = delegate;
+            this.permit = permit;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                permit.close();
+            }
+        }
+    }
 }
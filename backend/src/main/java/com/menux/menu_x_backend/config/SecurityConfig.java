@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -22,6 +23,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -39,6 +41,9 @@ public class SecurityConfig {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private Environment environment;
+
     @Value("${CORS_ALLOWED_ORIGINS:http://localhost:5173,http://localhost:5174}")
     private String allowedOrigins;
 
@@ -96,6 +101,10 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/**", "/api/public/**", "/api/menu/public/**", "/api/feedback/public/**").permitAll()
                         // Allow unauthenticated image streaming via backend proxy
                         .requestMatchers(HttpMethod.GET, "/api/media/stream").permitAll()
+                        // Prometheus scrape and actuator health, open only on the internal management port (see management.server.*)
+                        .requestMatchers(managementEndpointMatcher()).permitAll()
+                        // Kubernetes probes; both answer from memory (cached SystemHealthService status)
+                        .requestMatchers(HttpMethod.GET, "/api/health/ready", "/api/health/live").permitAll()
                         // Secure all other endpoints
                         .anyRequest().authenticated()
                 )
@@ -104,4 +113,21 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    /**
+     * GET /actuator/prometheus and /actuator/health/** arriving on the management port. The port is read
+     * when it is known (it may be random), so a request on the public port never matches.
+     */
+    private RequestMatcher managementEndpointMatcher() {
+        return request -> {
+            if (!HttpMethod.GET.matches(request.getMethod())) return false;
+            String path = request.getRequestURI();
+            if (!path.equals("/actuator/prometheus") && !path.equals("/actuator/health") && !path.startsWith("/actuator/health/")) {
+                return false;
+            }
+            Integer managementPort = environment.getProperty("local.management.port", Integer.class);
+            Integer serverPort = environment.getProperty("local.server.port", Integer.class);
+            return managementPort != null && !managementPort.equals(serverPort) && request.getLocalPort() == managementPort;
+        };
+    }
 }
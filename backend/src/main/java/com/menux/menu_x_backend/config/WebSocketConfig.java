@@ -3,11 +3,13 @@ package com.menux.menu_x_backend.config;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import com.menux.menu_x_backend.security.RestaurantTopicSubscriptionInterceptor;
 import com.menux.menu_x_backend.security.WebSocketAuthHandshakeHandler;
 import com.menux.menu_x_backend.security.WebSocketAuthInterceptor;
 
@@ -24,12 +26,23 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Autowired
     private WebSocketAuthHandshakeHandler handshakeHandler;
 
+    @Autowired
+    private RestaurantTopicSubscriptionInterceptor restaurantTopicInterceptor;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable simple broker for user and topic destinations
         config.enableSimpleBroker("/user", "/topic");
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
+        // Deliver each session's messages in publish order (order board sequences rely on it)
+        config.setPreservePublishOrder(true);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Per-restaurant topics (e.g. live order board) are only for the owning restaurant
+        registration.interceptors(restaurantTopicInterceptor);
     }
 
     @Override
@@ -1,13 +1,16 @@
 package com.menux.menu_x_backend.controller;
 
+import com.menux.menu_x_backend.dto.audit.AuditLogCursorPage;
 import com.menux.menu_x_backend.dto.audit.AuditLogDTO;
 import com.menux.menu_x_backend.dto.common.PageResponse;
 import com.menux.menu_x_backend.service.AdminAuditService;
+import com.menux.menu_x_backend.service.AuditService;
 import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,8 +19,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin/audit")
@@ -27,6 +32,9 @@ public class AdminAuditController {
     @Autowired
     private AdminAuditService adminAuditService;
 
+    @Autowired
+    private AuditService auditService;
+
     @GetMapping({"", "/logs"})
     public ResponseEntity<PageResponse<AuditLogDTO>> list(
             @RequestParam(required = false) String action,
@@ -44,6 +52,32 @@ public class AdminAuditController {
         return ResponseEntity.ok(PageResponse.from(result));
     }
 
+    // Keyset pagination for deep browsing, newest first: pass the returned nextCursor to continue
+    @GetMapping("/logs/cursor")
+    public ResponseEntity<AuditLogCursorPage> listByCursor(
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String resourceType,
+            @RequestParam(required = false) Long actorId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") @Min(1) int size
+    ) {
+        try {
+            AuditLogCursorPage result = adminAuditService.findLogsBefore(action, resourceType, actorId,
+                    parseDateTime(from), parseDateTime(to), cursor, Math.min(200, size));
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Background audit writer: buffered, written, dropped (buffer full) and failed event counts
+    @GetMapping("/writer-stats")
+    public ResponseEntity<Map<String, Object>> writerStats() {
+        return ResponseEntity.ok(auditService.getWriterStats());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<AuditLogDTO> getById(@PathVariable("id") Long id) {
         return adminAuditService.getById(id)
@@ -1,15 +1,16 @@
 package com.menux.menu_x_backend.controller;
 
-import com.menux.menu_x_backend.entity.Restaurant;
-import com.menux.menu_x_backend.entity.User;
-import com.menux.menu_x_backend.repository.RestaurantRepository;
-import com.menux.menu_x_backend.repository.UserRepository;
+import com.menux.menu_x_backend.service.AdminConsistencyService;
+import com.menux.menu_x_backend.service.AdminJobService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.*;
@@ -20,55 +21,35 @@ import java.util.*;
 public class AdminConsistencyController {
 
     @Autowired
-    private UserRepository userRepository;
+    private AdminConsistencyService consistencyService;
 
     @Autowired
-    private RestaurantRepository restaurantRepository;
+    private AdminJobService jobService;
 
     @GetMapping("/report")
     public ResponseEntity<Map<String, Object>> report() {
-        Map<String, Object> report = new HashMap<>();
-        List<User> owners = userRepository.findByRole(User.Role.RESTAURANT_OWNER);
-        List<Long> ownerIds = owners.stream().map(User::getId).toList();
-
-        List<Long> ownersWithRestaurant = new ArrayList<>();
-        List<Long> ownersWithoutRestaurant = new ArrayList<>();
-
-        for (Long ownerId : ownerIds) {
-            if (restaurantRepository.findByOwnerId(ownerId).isPresent()) {
-                ownersWithRestaurant.add(ownerId);
-            } else {
-                ownersWithoutRestaurant.add(ownerId);
-            }
-        }
-
-        report.put("totalOwners", owners.size());
-        report.put("ownersWithRestaurant", ownersWithRestaurant.size());
-        report.put("ownersWithoutRestaurant", ownersWithoutRestaurant.size());
-        report.put("missingOwnerIds", ownersWithoutRestaurant);
-        return ResponseEntity.ok(report);
+        return ResponseEntity.ok(consistencyService.report());
     }
 
     @PostMapping("/repair-missing")
-    public ResponseEntity<Map<String, Object>> repairMissing() {
-        Map<String, Object> result = new HashMap<>();
-        int created = 0;
-        for (User owner : userRepository.findByRole(User.Role.RESTAURANT_OWNER)) {
-            Optional<Restaurant> r = restaurantRepository.findByOwnerId(owner.getId());
-            if (r.isEmpty()) {
-                Restaurant restaurant = new Restaurant();
-                restaurant.setName(owner.getFullName() + "'s Restaurant");
-                restaurant.setAddress("Unknown Address");
-                restaurant.setIsActive(true);
-                restaurant = restaurantRepository.save(restaurant);
-                restaurantRepository.updateOwnerIdNative(restaurant.getId(), owner.getId());
-                created++;
-            }
+    public ResponseEntity<?> repairMissing(@RequestParam(value = "async", defaultValue = "false") boolean async) {
+        if (async) {
+            AdminJobService.Job job = jobService.submit("repair-missing-restaurants", consistencyService::repairMissing);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
         }
-        result.put("created", created);
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(consistencyService.repairMissing(AdminJobService.Job.detached("repair-missing-restaurants")));
     }
-}
-
 
+    // Background admin jobs (consistency repairs, subscription audits), most recent first
+    @GetMapping("/jobs")
+    public ResponseEntity<List<AdminJobService.Job>> jobs() {
+        return ResponseEntity.ok(jobService.list());
+    }
 
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> job(@PathVariable("jobId") String jobId) {
+        return jobService.get(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Job not found")));
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -110,6 +111,21 @@ public class AdminController {
         return ResponseEntity.ok(users);
     }
 
+    // Paginated directory: sort=<field>,<asc|desc> over username, email, fullName, role, status, joinDate,
+    // lastLogin; q searches username, email and full name
+    @GetMapping("/users/page")
+    public ResponseEntity<PageResponse<UserManagementDTO>> listUsers(
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "sort", defaultValue = "joinDate,desc") String sort,
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "role", required = false) User.Role role,
+            @RequestParam(value = "active", required = false) Boolean active
+    ) {
+        Page<UserManagementDTO> result = adminService.getUsers(q, role, active, pageRequest(page, size, sort));
+        return ResponseEntity.ok(PageResponse.from(result));
+    }
+
     @GetMapping("/users/{id}")
     public ResponseEntity<UserManagementDTO> getUserById(@PathVariable Long id) {
         UserManagementDTO user = adminService.getUserById(id);
@@ -167,6 +183,21 @@ public class AdminController {
         return ResponseEntity.ok(restaurants);
     }
 
+    // Paginated listing: sort=<field>,<asc|desc> over name, joinDate, subscriptionPlan, status, ownerName,
+    // totalOrders, monthlyRevenue; q searches restaurant and owner name/email
+    @GetMapping("/restaurants/page")
+    public ResponseEntity<PageResponse<RestaurantManagementDTO>> listRestaurants(
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "sort", defaultValue = "name,asc") String sort,
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "plan", required = false) Restaurant.SubscriptionPlan plan,
+            @RequestParam(value = "active", required = false) Boolean active
+    ) {
+        Page<RestaurantManagementDTO> result = adminService.getRestaurants(q, plan, active, pageRequest(page, size, sort));
+        return ResponseEntity.ok(PageResponse.from(result));
+    }
+
     @GetMapping("/restaurants/{id}")
     public ResponseEntity<RestaurantManagementDTO> getRestaurantById(@PathVariable Long id) {
         RestaurantManagementDTO restaurant = adminService.getRestaurantById(id);
@@ -180,6 +211,13 @@ public class AdminController {
         return ResponseEntity.ok(analytics);
     }
 
+    // Recompute the metrics snapshot now instead of waiting for the next scheduled refresh
+    @PostMapping("/analytics/refresh")
+    public ResponseEntity<PlatformAnalyticsDTO> refreshPlatformAnalytics() {
+        PlatformAnalyticsDTO analytics = adminService.refreshPlatformAnalytics();
+        return ResponseEntity.ok(analytics);
+    }
+
     // System Health Endpoints
     @GetMapping("/system-health")
     @PreAuthorize("hasAuthority('PERM_VIEW_SYSTEM_HEALTH')")
@@ -457,4 +495,12 @@ public class AdminController {
 
 
 
+    // page/size clamped as elsewhere; sort is "<field>[,asc|desc]", validated by the service
+    private static Pageable pageRequest(int page, int size, String sort) {
+        String[] sortParts = sort.split(",");
+        Sort.Direction direction = sortParts.length > 1 && "desc".equalsIgnoreCase(sortParts[1].trim())
+                ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return PageRequest.of(Math.max(0, page), Math.min(100, Math.max(1, size)),
+                Sort.by(direction, sortParts[0].trim()));
+    }
 }
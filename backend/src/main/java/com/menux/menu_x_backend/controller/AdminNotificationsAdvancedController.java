@@ -6,9 +6,10 @@ import com.menux.menu_x_backend.entity.NotificationSegment;
 import com.menux.menu_x_backend.entity.NotificationTemplate;
 import com.menux.menu_x_backend.repository.DeliveryAttemptRepository;
 import com.menux.menu_x_backend.repository.NotificationCampaignRepository;
-import com.menux.menu_x_backend.repository.NotificationRepository;
 import com.menux.menu_x_backend.repository.NotificationSegmentRepository;
 import com.menux.menu_x_backend.repository.NotificationTemplateRepository;
+import com.menux.menu_x_backend.service.NotificationRetentionService;
+import com.menux.menu_x_backend.service.NotificationService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -32,20 +33,23 @@ public class AdminNotificationsAdvancedController {
     private final NotificationTemplateRepository templateRepository;
     private final NotificationSegmentRepository segmentRepository;
     private final NotificationCampaignRepository campaignRepository;
-    private final NotificationRepository notificationRepository;
+    private final NotificationService notificationService;
+    private final NotificationRetentionService retentionService;
 
     public AdminNotificationsAdvancedController(
             DeliveryAttemptRepository deliveryAttemptRepository,
             NotificationTemplateRepository templateRepository,
             NotificationSegmentRepository segmentRepository,
             NotificationCampaignRepository campaignRepository,
-            NotificationRepository notificationRepository
+            NotificationService notificationService,
+            NotificationRetentionService retentionService
     ) {
         this.deliveryAttemptRepository = deliveryAttemptRepository;
         this.templateRepository = templateRepository;
         this.segmentRepository = segmentRepository;
         this.campaignRepository = campaignRepository;
-        this.notificationRepository = notificationRepository;
+        this.notificationService = notificationService;
+        this.retentionService = retentionService;
     }
 
     // ===== Templates =====
@@ -254,8 +258,8 @@ public class AdminNotificationsAdvancedController {
                 return badRequest("Date range is required for safety. Use 'from' and/or 'to' parameters.");
             }
 
-            // Clear notifications in the specified date range
-            int deletedCount = notificationRepository.deleteByCreatedAtBetween(start, end);
+            // Clear notifications in the specified date range (chunked set-based deletes)
+            int deletedCount = notificationService.clearByCreatedAtBetween(start, end);
 
             return ResponseEntity.ok(Map.of(
                 "success", true,
@@ -273,6 +277,19 @@ public class AdminNotificationsAdvancedController {
         }
     }
 
+    // Run the retention job now (drops monthly partitions older than NOTIFICATIONS_RETENTION_MONTHS)
+    @PostMapping("/retention/run")
+    public ResponseEntity<?> runRetention() {
+        try {
+            return ResponseEntity.ok(retentionService.runRetention());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of(
+                "success", false,
+                "error", "Failed to run retention: " + e.getMessage()
+            ));
+        }
+    }
+
     // ===== Analytics =====
     @GetMapping("/analytics/summary")
     public ResponseEntity<?> analyticsSummary(
@@ -3,6 +3,7 @@ package com.menux.menu_x_backend.controller;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.menux.menu_x_backend.dto.subscription.GrantPaidDaysRequest;
@@ -20,6 +22,7 @@ import com.menux.menu_x_backend.dto.subscription.SetTrialDaysRequest;
 import com.menux.menu_x_backend.dto.subscription.SuspendSubscriptionRequest;
 import com.menux.menu_x_backend.entity.RestaurantSubscription;
 import com.menux.menu_x_backend.repository.RestaurantSubscriptionEventRepository;
+import com.menux.menu_x_backend.service.AdminJobService;
 import com.menux.menu_x_backend.service.SubscriptionService;
 
 @RestController
@@ -33,6 +36,9 @@ public class AdminSubscriptionController {
     @Autowired
     private RestaurantSubscriptionEventRepository eventRepository;
 
+    @Autowired
+    private AdminJobService jobService;
+
     @GetMapping("/{restaurantId}")
     public ResponseEntity<?> get(@PathVariable("restaurantId") Long restaurantId) {
         try {
@@ -155,10 +161,15 @@ public class AdminSubscriptionController {
         }
     }
 
-    // Admin: audit and repair subscription inconsistencies
+    // Admin: audit and repair subscription inconsistencies; async=true returns a job to poll
+    // at /api/admin/consistency/jobs/{jobId}
     @PostMapping("/audit-repair")
-    public ResponseEntity<?> auditAndRepair() {
+    public ResponseEntity<?> auditAndRepair(@RequestParam(value = "async", defaultValue = "false") boolean async) {
         try {
+            if (async) {
+                AdminJobService.Job job = jobService.submit("subscription-audit", subscriptionService::auditAndRepairSubscriptions);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+            }
             var report = subscriptionService.auditAndRepairSubscriptions();
             return ResponseEntity.ok(report);
         } catch (Exception e) {
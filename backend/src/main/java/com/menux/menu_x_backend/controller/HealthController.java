@@ -1,7 +1,10 @@
 package com.menux.menu_x_backend.controller;
 
-import com.menux.menu_x_backend.service.DatabaseResilienceService;
 import com.menux.menu_x_backend.service.ExternalApiResilienceService;
+import com.menux.menu_x_backend.service.MediaCacheService;
+import com.menux.menu_x_backend.service.SystemHealthService;
+import com.menux.menu_x_backend.service.realtime.SseEmitterRegistry;
+import com.menux.menu_x_backend.service.realtime.UserPresenceRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,7 +21,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Health check endpoints for monitoring application status
+ * Health check endpoints for monitoring application status. Database state comes from the cached
+ * SystemHealthService result, so probes never open a connection or read table data themselves.
  */
 @RestController
 @RequestMapping("/api/health")
@@ -27,7 +31,7 @@ public class HealthController {
     private static final Logger logger = LoggerFactory.getLogger(HealthController.class);
 
     @Autowired
-    private DatabaseResilienceService databaseResilienceService;
+    private SystemHealthService systemHealthService;
 
     @Autowired
     private ExternalApiResilienceService externalApiResilienceService;
@@ -35,6 +39,15 @@ public class HealthController {
     @Autowired
     private DataSource dataSource;
 
+    @Autowired
+    private SseEmitterRegistry sseEmitterRegistry;
+
+    @Autowired
+    private UserPresenceRegistry userPresenceRegistry;
+
+    @Autowired
+    private MediaCacheService mediaCacheService;
+
     /**
      * Basic health check endpoint
      */
@@ -121,16 +134,22 @@ public class HealthController {
         
         // System metrics
         metrics.put("system", getSystemMetrics());
+
+        // Realtime (SSE) delivery metrics
+        metrics.put("realtime", getRealtimeMetrics());
+
+        // Local disk cache in front of the media proxy
+        metrics.put("mediaCache", mediaCacheService.getStats());
         
         return ResponseEntity.ok(metrics);
     }
 
     /**
-     * Readiness probe for Kubernetes
+     * Readiness probe for Kubernetes: the last background database check, if it is recent
      */
     @GetMapping("/ready")
     public ResponseEntity<Map<String, String>> readiness() {
-        boolean ready = databaseResilienceService.isDatabaseHealthy();
+        boolean ready = systemHealthService.isReady();
         
         Map<String, String> response = new HashMap<>();
         response.put("status", ready ? "READY" : "NOT_READY");
@@ -157,13 +176,15 @@ public class HealthController {
         Map<String, Object> health = new HashMap<>();
         
         try {
-            long startTime = System.currentTimeMillis();
-            boolean healthy = databaseResilienceService.isDatabaseHealthy();
-            long responseTime = System.currentTimeMillis() - startTime;
+            SystemHealthService.SystemHealthStatus status = systemHealthService.getDetailedHealthStatus();
+            boolean healthy = status.isDatabaseHealthy();
             
             health.put("status", healthy ? "UP" : "DOWN");
-            health.put("responseTime", responseTime + "ms");
-            health.put("timestamp", LocalDateTime.now());
+            health.put("responseTime", status.getDbResponseMs() + "ms");
+            health.put("poolWait", status.getPoolWaitMs() + "ms");
+            health.put("poolActiveConnections", status.getPoolActiveConnections());
+            health.put("poolPendingThreads", status.getPoolPendingThreads());
+            health.put("timestamp", status.getTimestamp());
             
             if (healthy) {
                 health.put("details", "Database connection successful");
@@ -255,6 +276,19 @@ public class HealthController {
         return system;
     }
 
+    private Map<String, Object> getRealtimeMetrics() {
+        Map<String, Object> realtime = new HashMap<>();
+
+        realtime.put("wsOnlineUsers", userPresenceRegistry.getOnlineUserCount());
+        realtime.put("sseConnections", sseEmitterRegistry.getConnectionCount());
+        realtime.put("sseQueuedEvents", sseEmitterRegistry.getQueuedEventCount());
+        realtime.put("sseMaxQueueDepth", sseEmitterRegistry.getMaxQueueDepth());
+        realtime.put("sseDroppedEvents", sseEmitterRegistry.getDroppedEventCount());
+        realtime.put("sseEvictedConnections", sseEmitterRegistry.getEvictedConnectionCount());
+
+        return realtime;
+    }
+
     private String formatBytes(long bytes) {
         if (bytes < 1024) return bytes + " B";
         if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
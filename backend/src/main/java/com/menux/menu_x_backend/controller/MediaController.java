@@ -2,19 +2,27 @@ package com.menux.menu_x_backend.controller;
 
 import com.menux.menu_x_backend.dto.media.UploadResponse;
 import com.menux.menu_x_backend.service.MediaStorageService;
+import com.menux.menu_x_backend.service.MediaVariantService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/media")
 public class MediaController {
 
+    private static final int MAX_BATCH_PATHS = 500;
+
     private final MediaStorageService mediaStorageService;
 
     public MediaController(MediaStorageService mediaStorageService) {
@@ -30,6 +38,13 @@ public class MediaController {
         // Provide backend proxy URL so frontend doesn't expose storage domain
         String proxy = "/api/media/stream?path=" + URLEncoder.encode(result.getPath(), StandardCharsets.UTF_8);
         result.setProxyUrl(proxy);
+        if (MediaVariantService.supports(result.getPath())) {
+            Map<String, String> variants = new LinkedHashMap<>();
+            for (int i = 0; i < MediaVariantService.WIDTHS.length; i++) {
+                variants.put(MediaVariantService.NAMES[i], proxy + "&w=" + MediaVariantService.WIDTHS[i]);
+            }
+            result.setVariants(variants);
+        }
         return ResponseEntity.ok(result);
     }
 
@@ -45,9 +60,37 @@ public class MediaController {
         return ResponseEntity.ok(map);
     }
 
-    // Stream the object via backend proxy to hide storage domain
+    // Sign many objects at once (e.g. all item images of a menu) with at most one storage call
+    @PostMapping("/signed/batch")
+    public ResponseEntity<Map<String, String>> getSignedUrls(@RequestBody SignedUrlBatchRequest request) {
+        if (request.getPaths() == null || request.getPaths().isEmpty()) {
+            return ResponseEntity.ok(Map.of());
+        }
+        if (request.getPaths().size() > MAX_BATCH_PATHS) {
+            return ResponseEntity.badRequest().build();
+        }
+        int expiresIn = request.getExpiresIn() != null ? request.getExpiresIn() : 3600;
+        return ResponseEntity.ok(mediaStorageService.generateSignedUrls(request.getPaths(), expiresIn));
+    }
+
+    // Stream the object via backend proxy to hide storage domain (supports Range / If-None-Match);
+    // w selects the smallest resized variant at least that wide (falls back to the original)
     @GetMapping("/stream")
-    public ResponseEntity<byte[]> stream(@RequestParam("path") String path) {
-        return mediaStorageService.fetchObject(path);
+    public void stream(@RequestParam("path") String path,
+                       @RequestParam(value = "w", required = false) Integer width,
+                       HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        mediaStorageService.streamObject(path, width, request, response);
+    }
+
+    public static class SignedUrlBatchRequest {
+        private List<String> paths;
+        private Integer expiresIn;
+
+        public List<String> getPaths() { return paths; }
+        public void setPaths(List<String> paths) { this.paths = paths; }
+
+        public Integer getExpiresIn() { return expiresIn; }
+        public void setExpiresIn(Integer expiresIn) { this.expiresIn = expiresIn; }
     }
 }
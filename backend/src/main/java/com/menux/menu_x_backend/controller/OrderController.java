@@ -1,5 +1,7 @@
 package com.menux.menu_x_backend.controller;
 
+import com.menux.menu_x_backend.dto.order.OrderBoardEvent;
+import com.menux.menu_x_backend.dto.order.OrderBoardReplay;
 import com.menux.menu_x_backend.dto.order.OrderDTO;
 import com.menux.menu_x_backend.dto.order.PublicOrderRequest;
 import com.menux.menu_x_backend.entity.MenuItem;
@@ -15,6 +17,7 @@ import com.menux.menu_x_backend.repository.TableRepository;
 import com.menux.menu_x_backend.repository.UserRepository;
 import com.menux.menu_x_backend.service.RestaurantService;
 import com.menux.menu_x_backend.service.OrderDTOService;
+import com.menux.menu_x_backend.service.realtime.OrderBoardPublisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -52,6 +55,9 @@ public class OrderController {
     @Autowired
     private TableRepository tableRepository;
 
+    @Autowired
+    private OrderBoardPublisher orderBoardPublisher;
+
     // Restaurant owner endpoints (also accessible by admin for impersonation)
     @GetMapping("/manage")
     @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('SUPER_ADMIN')")
@@ -92,6 +98,36 @@ public class OrderController {
         return ResponseEntity.ok(orderDTOs);
     }
 
+    /**
+     * Resume handshake for the live order board. Clients subscribe to
+     * /topic/restaurant/{id}/orders (or the SSE "order-board" event) and call this with the
+     * last epoch/sequence they applied to receive the deltas they missed.
+     */
+    @GetMapping("/manage/events")
+    @PreAuthorize("hasRole('RESTAURANT_OWNER') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<OrderBoardReplay> getOrderBoardEvents(@RequestParam(required = false) Long restaurantId,
+                                                                @RequestParam(required = false) String epoch,
+                                                                @RequestParam(defaultValue = "0") long since) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Optional<User> userOpt = userRepository.findByUsername(auth.getName());
+        if (userOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Long boardRestaurantId;
+        if (userOpt.get().getRole() == User.Role.SUPER_ADMIN && restaurantId != null) {
+            boardRestaurantId = restaurantId;
+        } else {
+            Optional<Long> restaurantIdOpt = restaurantService.getCurrentUserRestaurantId();
+            if (restaurantIdOpt.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            boardRestaurantId = restaurantIdOpt.get();
+        }
+
+        return ResponseEntity.ok(orderBoardPublisher.replay(boardRestaurantId, epoch, since));
+    }
+
     @GetMapping("/manage/{id}")
     @PreAuthorize("hasRole('RESTAURANT_OWNER')")
     public ResponseEntity<OrderDTO> getOrderById(@PathVariable Long id) {
@@ -135,6 +171,8 @@ public class OrderController {
 
         order.setStatus(Order.OrderStatus.valueOf(request.getStatus()));
         Order savedOrder = orderRepository.save(order);
+        orderBoardPublisher.publish(restaurantId, userOpt.get().getId(),
+                OrderBoardEvent.of(OrderBoardEvent.Type.STATUS_CHANGED, savedOrder));
         return ResponseEntity.ok(orderDTOService.createOrderDTO(savedOrder));
     }
 
@@ -161,6 +199,8 @@ public class OrderController {
         Order.PaymentStatus newPaymentStatus = Order.PaymentStatus.valueOf(request.getPaymentStatus());
         order.setPaymentStatus(newPaymentStatus);
         Order saved = orderRepository.save(order);
+        orderBoardPublisher.publish(restaurantId, userOpt.get().getId(),
+                OrderBoardEvent.of(OrderBoardEvent.Type.PAYMENT_CHANGED, saved));
 
         // If paid and order has a table, consider freeing the table if no open orders remain
         if (newPaymentStatus == Order.PaymentStatus.PAID) {
@@ -266,7 +306,9 @@ public class OrderController {
         order.setTotalAmount(order.calculateTotalAmount());
 
         Order savedOrder = orderRepository.save(order);
-        return ResponseEntity.ok(orderDTOService.createOrderDTO(savedOrder));
+        OrderDTO savedDTO = orderDTOService.createOrderDTO(savedOrder);
+        orderBoardPublisher.publish(restaurantId, restaurant.getOwnerId(), OrderBoardEvent.created(savedDTO));
+        return ResponseEntity.ok(savedDTO);
     }
 
     // Helper class for status update requests
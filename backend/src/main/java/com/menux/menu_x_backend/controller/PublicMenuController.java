@@ -1,5 +1,6 @@
 package com.menux.menu_x_backend.controller;
 
+import com.menux.menu_x_backend.dto.order.OrderBoardEvent;
 import com.menux.menu_x_backend.entity.Restaurant;
 import com.menux.menu_x_backend.entity.MenuItem;
 import com.menux.menu_x_backend.entity.Feedback;
@@ -15,6 +16,8 @@ import com.menux.menu_x_backend.repository.TableRepository;
 import com.menux.menu_x_backend.repository.OrderItemRepository;
 import com.menux.menu_x_backend.service.MenuViewTrackingService;
 import com.menux.menu_x_backend.service.NotificationService;
+import com.menux.menu_x_backend.service.OrderDTOService;
+import com.menux.menu_x_backend.service.realtime.OrderBoardPublisher;
 import com.menux.menu_x_backend.util.InputSanitizer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -67,6 +70,12 @@ public class PublicMenuController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private OrderDTOService orderDTOService;
+
+    @Autowired
+    private OrderBoardPublisher orderBoardPublisher;
+
     /**
      * Get restaurant information and menu for public viewing
      */
@@ -300,6 +309,11 @@ public class PublicMenuController {
                 orderRepository.save(savedOrder);
             }
 
+            // Push the new order to the live kitchen board (best effort, never throws); the payload is
+            // built from the items saved above inside the publisher's guard
+            orderBoardPublisher.publish(restaurant.getId(), restaurant.getOwnerId(),
+                    () -> OrderBoardEvent.created(orderDTOService.createOrderDTO(savedOrder, orderItems)));
+
             // Create notification for restaurant owner (non-blocking if it fails)
             try {
                 Map<String, Object> data = new HashMap<>();
@@ -472,6 +486,8 @@ public class PublicMenuController {
 
         order.setPaymentStatus(Order.PaymentStatus.BILL_REQUESTED);
         orderRepository.save(order);
+        orderBoardPublisher.publish(restaurant.getId(), restaurant.getOwnerId(),
+                OrderBoardEvent.of(OrderBoardEvent.Type.PAYMENT_CHANGED, order));
 
         Map<String, Object> resp = new HashMap<>();
         resp.put("message", "Bill requested successfully");
@@ -3,6 +3,7 @@ package com.menux.menu_x_backend.controller;
 import com.menux.menu_x_backend.entity.Restaurant;
 import com.menux.menu_x_backend.entity.QRCustomizationSettings;
 import com.menux.menu_x_backend.service.RestaurantService;
+import com.menux.menu_x_backend.service.QRCodeCacheService;
 import com.menux.menu_x_backend.service.QRCodeService;
 import com.menux.menu_x_backend.service.QRCustomizationService;
 import com.menux.menu_x_backend.dto.qr.QRCustomizationSettingsDTO;
@@ -39,7 +40,8 @@ public class QRCodeController {
     @GetMapping("/generate")
     public ResponseEntity<byte[]> generateQRCode(
             @RequestParam(required = false) Integer size,
-            @RequestParam(required = false) Boolean branded) {
+            @RequestParam(required = false) Boolean branded,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         try {
             Restaurant restaurant = getCurrentRestaurant();
@@ -59,31 +61,31 @@ public class QRCodeController {
             }
 
             int validatedSize = qrCodeService.validateSize(customSettings.getSize());
-            byte[] qrCodeBytes;
-
-            if (customSettings.getBranded()) {
-                qrCodeBytes = qrCodeService.generateCustomizedBrandedTableQRCode(
-                    restaurant.getId(),
-                    restaurant.getName(),
-                    "1", // Default table number for generic QR
-                    validatedSize,
-                    customSettings
-                );
-            } else {
-                qrCodeBytes = qrCodeService.generateTableQRCode(restaurant.getId(), "1", validatedSize);
-            }
+            QRCodeCacheService.CachedQRCode qrCode = qrCodeService.getTableQRCode(
+                restaurant.getId(),
+                restaurant.getName(),
+                "1", // Default table number for generic QR
+                validatedSize,
+                customSettings,
+                "png"
+            );
 
             // Update restaurant QR code metadata
             restaurant.setQrCodeSize(validatedSize);
             restaurant.setQrCodeGeneratedAt(LocalDateTime.now());
             restaurantService.updateRestaurant(restaurant);
 
+            if (qrCode.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(qrCode.getETag()).build();
+            }
+
             HttpHeaders headers = new HttpHeaders();
+            headers.setETag(qrCode.getETag());
             headers.setContentType(MediaType.IMAGE_PNG);
             headers.setContentDispositionFormData("attachment",
                 "menu-qr-" + restaurant.getName().replaceAll("[^a-zA-Z0-9]", "-") + ".png");
 
-            return new ResponseEntity<>(qrCodeBytes, headers, HttpStatus.OK);
+            return new ResponseEntity<>(qrCode.getBytes(), headers, HttpStatus.OK);
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -119,7 +121,8 @@ public class QRCodeController {
     public ResponseEntity<byte[]> downloadQRCode(
             @PathVariable String format,
             @RequestParam(required = false) Integer size,
-            @RequestParam(required = false) Boolean branded) {
+            @RequestParam(required = false) Boolean branded,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         try {
             Restaurant restaurant = getCurrentRestaurant();
@@ -144,26 +147,26 @@ public class QRCodeController {
             }
 
             int validatedSize = qrCodeService.validateSize(customSettings.getSize());
-            byte[] qrCodeBytes;
-
-            if (customSettings.getBranded()) {
-                qrCodeBytes = qrCodeService.generateCustomizedBrandedTableQRCode(
-                    restaurant.getId(),
-                    restaurant.getName(),
-                    "1", // Default table number for generic QR
-                    validatedSize,
-                    customSettings
-                );
-            } else {
-                qrCodeBytes = qrCodeService.generateTableQRCode(restaurant.getId(), "1", validatedSize);
+            QRCodeCacheService.CachedQRCode qrCode = qrCodeService.getTableQRCode(
+                restaurant.getId(),
+                restaurant.getName(),
+                "1", // Default table number for generic QR
+                validatedSize,
+                customSettings,
+                format
+            );
+
+            if (qrCode.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(qrCode.getETag()).build();
             }
 
             HttpHeaders headers = new HttpHeaders();
+            headers.setETag(qrCode.getETag());
             headers.setContentType(format.equalsIgnoreCase("png") ? MediaType.IMAGE_PNG : MediaType.IMAGE_JPEG);
             headers.setContentDispositionFormData("attachment",
                 "menu-qr-" + restaurant.getName().replaceAll("[^a-zA-Z0-9]", "-") + "." + format.toLowerCase());
 
-            return new ResponseEntity<>(qrCodeBytes, headers, HttpStatus.OK);
+            return new ResponseEntity<>(qrCode.getBytes(), headers, HttpStatus.OK);
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -180,7 +183,8 @@ public class QRCodeController {
             @RequestParam(required = false) String restaurantNameDisplay,
             @RequestParam(required = false) String tableNameFormat,
             @RequestParam(required = false) String fontSize,
-            @RequestParam(required = false) String textPosition) {
+            @RequestParam(required = false) String textPosition,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         try {
             Restaurant restaurant = getCurrentRestaurant();
@@ -216,25 +220,26 @@ public class QRCodeController {
             }
 
             int validatedSize = qrCodeService.validateSize(customSettings.getSize());
-            byte[] qrCodeBytes;
-
-            if (customSettings.getBranded()) {
-                qrCodeBytes = qrCodeService.generateCustomizedBrandedTableQRCode(
-                    restaurant.getId(),
-                    restaurant.getName(),
-                    "1", // Sample table number for preview
-                    validatedSize,
-                    customSettings
-                );
-            } else {
-                qrCodeBytes = qrCodeService.generateTableQRCode(restaurant.getId(), "1", validatedSize);
+            QRCodeCacheService.CachedQRCode qrCode = qrCodeService.getTableQRCode(
+                restaurant.getId(),
+                restaurant.getName(),
+                "1", // Sample table number for preview
+                validatedSize,
+                customSettings,
+                "png",
+                false // arbitrary override combinations stay out of the disk cache
+            );
+
+            if (qrCode.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(qrCode.getETag()).build();
             }
 
             HttpHeaders headers = new HttpHeaders();
+            headers.setETag(qrCode.getETag());
             headers.setContentType(MediaType.IMAGE_PNG);
             headers.setCacheControl("no-cache");
 
-            return new ResponseEntity<>(qrCodeBytes, headers, HttpStatus.OK);
+            return new ResponseEntity<>(qrCode.getBytes(), headers, HttpStatus.OK);
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
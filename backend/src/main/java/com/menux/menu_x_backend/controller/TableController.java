@@ -5,15 +5,18 @@ import com.menux.menu_x_backend.entity.Restaurant;
 import com.menux.menu_x_backend.entity.QRCustomizationSettings;
 import com.menux.menu_x_backend.service.RestaurantService;
 import com.menux.menu_x_backend.service.TableService;
+import com.menux.menu_x_backend.service.QRCodeCacheService;
 import com.menux.menu_x_backend.service.QRCodeService;
 import com.menux.menu_x_backend.service.QRCustomizationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -36,6 +39,9 @@ public class TableController {
     @Autowired
     private QRCustomizationService qrCustomizationService;
 
+    @Value("${app.qr.export.max-tables:500}")
+    private int maxExportTables;
+
     /**
      * Get all tables for current restaurant
      */
@@ -194,7 +200,8 @@ public class TableController {
     @GetMapping("/{tableId}/qr-code")
     public ResponseEntity<byte[]> generateTableQRCode(@PathVariable Long tableId,
                                                      @RequestParam(required = false) Integer size,
-                                                     @RequestParam(required = false) Boolean branded) {
+                                                     @RequestParam(required = false) Boolean branded,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         Restaurant restaurant = getCurrentRestaurant();
         if (restaurant == null) {
             return ResponseEntity.notFound().build();
@@ -220,33 +227,29 @@ public class TableController {
             }
 
             int validatedSize = qrCodeService.validateSize(customSettings.getSize());
-            byte[] qrCodeBytes;
-
-            if (customSettings.getBranded()) {
-                qrCodeBytes = qrCodeService.generateCustomizedBrandedTableQRCode(
-                    restaurant.getId(),
-                    restaurant.getName(),
-                    table.getTableNumber(),
-                    validatedSize,
-                    customSettings
-                );
-            } else {
-                qrCodeBytes = qrCodeService.generateTableQRCode(
-                    restaurant.getId(),
-                    table.getTableNumber(),
-                    validatedSize
-                );
-            }
+            QRCodeCacheService.CachedQRCode qrCode = qrCodeService.getTableQRCode(
+                restaurant.getId(),
+                restaurant.getName(),
+                table.getTableNumber(),
+                validatedSize,
+                customSettings,
+                "png"
+            );
 
             // Update table QR code info
             tableService.updateTableQRCode(tableId, restaurant.getId(), "generated");
 
+            if (qrCode.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(qrCode.getETag()).build();
+            }
+
             HttpHeaders headers = new HttpHeaders();
+            headers.setETag(qrCode.getETag());
             headers.setContentType(MediaType.IMAGE_PNG);
             headers.setContentDispositionFormData("attachment",
                 "table-" + table.getTableNumber() + "-qr.png");
 
-            return new ResponseEntity<>(qrCodeBytes, headers, HttpStatus.OK);
+            return new ResponseEntity<>(qrCode.getBytes(), headers, HttpStatus.OK);
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -254,34 +257,89 @@ public class TableController {
     }
 
     /**
-     * Generate QR code sheet for multiple tables
+     * Generate QR code sheet for multiple tables (streamed PNG)
      */
     @PostMapping("/qr-code-sheet")
-    public ResponseEntity<byte[]> generateQRCodeSheet(@RequestBody QRCodeSheetRequest request) {
+    public ResponseEntity<StreamingResponseBody> generateQRCodeSheet(@RequestBody QRCodeSheetRequest request) {
         Restaurant restaurant = getCurrentRestaurant();
         if (restaurant == null) {
             return ResponseEntity.notFound().build();
         }
 
-        try {
-            byte[] sheetBytes = qrCodeService.generateTableQRCodeSheet(
-                restaurant.getId(),
-                restaurant.getName(),
-                request.getTableNumbers(),
-                request.getQrSize(),
-                request.getTablesPerRow()
-            );
+        List<String> tableNumbers = request.getTableNumbers();
+        if (tableNumbers == null || tableNumbers.isEmpty() || tableNumbers.size() > maxExportTables) {
+            return ResponseEntity.badRequest().build();
+        }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.IMAGE_PNG);
-            headers.setContentDispositionFormData("attachment",
-                restaurant.getName().replaceAll("[^a-zA-Z0-9]", "-") + "-table-qr-sheet.png");
+        int qrSize = qrCodeService.validateSize(request.getQrSize());
+        int tablesPerRow = Math.max(1, Math.min(request.getTablesPerRow() != null ? request.getTablesPerRow() : 3, 20));
 
-            return new ResponseEntity<>(sheetBytes, headers, HttpStatus.OK);
+        StreamingResponseBody body = out -> qrCodeService.writeTableQRCodeSheet(
+            restaurant.getId(),
+            restaurant.getName(),
+            tableNumbers,
+            qrSize,
+            tablesPerRow,
+            out
+        );
 
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.IMAGE_PNG);
+        headers.setContentDispositionFormData("attachment",
+            restaurant.getName().replaceAll("[^a-zA-Z0-9]", "-") + "-table-qr-sheet.png");
+
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Export QR codes for many tables as a ZIP of PNGs (streamed). Uses the saved customization
+     * settings; without tableNumbers every table of the restaurant is exported.
+     */
+    @PostMapping("/qr-code-export")
+    public ResponseEntity<StreamingResponseBody> exportQRCodes(@RequestBody(required = false) QRCodeExportRequest request) {
+        Restaurant restaurant = getCurrentRestaurant();
+        if (restaurant == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request == null) {
+            request = new QRCodeExportRequest();
         }
+
+        List<String> tableNumbers = request.getTableNumbers();
+        if (tableNumbers == null || tableNumbers.isEmpty()) {
+            tableNumbers = tableService.getTablesByRestaurant(restaurant.getId()).stream()
+                .map(Table::getTableNumber)
+                .toList();
+        }
+        if (tableNumbers.isEmpty() || tableNumbers.size() > maxExportTables) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        QRCustomizationSettings customSettings = qrCustomizationService.getSettingsForRestaurant(restaurant.getId());
+        if (request.getSize() != null) {
+            customSettings.setSize(request.getSize());
+        }
+        if (request.getBranded() != null) {
+            customSettings.setBranded(request.getBranded());
+        }
+        int validatedSize = qrCodeService.validateSize(customSettings.getSize());
+
+        List<String> exportTables = tableNumbers;
+        StreamingResponseBody body = out -> qrCodeService.writeTableQRCodeZip(
+            restaurant.getId(),
+            restaurant.getName(),
+            exportTables,
+            validatedSize,
+            customSettings,
+            out
+        );
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDispositionFormData("attachment",
+            restaurant.getName().replaceAll("[^a-zA-Z0-9]", "-") + "-table-qr-codes.zip");
+
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
 
     /**
@@ -352,4 +410,19 @@ public class TableController {
         public Integer getTablesPerRow() { return tablesPerRow; }
         public void setTablesPerRow(Integer tablesPerRow) { this.tablesPerRow = tablesPerRow; }
     }
+
+    public static class QRCodeExportRequest {
+        private List<String> tableNumbers;
+        private Integer size;
+        private Boolean branded;
+
+        public List<String> getTableNumbers() { return tableNumbers; }
+        public void setTableNumbers(List<String> tableNumbers) { this.tableNumbers = tableNumbers; }
+
+        public Integer getSize() { return size; }
+        public void setSize(Integer size) { this.size = size; }
+
+        public Boolean getBranded() { return branded; }
+        public void setBranded(Boolean branded) { this.branded = branded; }
+    }
 }
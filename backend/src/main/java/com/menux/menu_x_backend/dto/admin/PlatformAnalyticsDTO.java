@@ -1,5 +1,7 @@
 package com.menux.menu_x_backend.dto.admin;
 
+import java.time.LocalDateTime;
+
 public class PlatformAnalyticsDTO {
     private Long totalUsers;
     private Long totalRestaurants;
@@ -18,6 +20,9 @@ public class PlatformAnalyticsDTO {
     private Double monthlyRevenueChange;
     private Double activeUsersChange;
 
+    // When the underlying metrics snapshot was computed
+    private LocalDateTime computedAt;
+
     // Constructors
     public PlatformAnalyticsDTO() {}
 
@@ -93,4 +98,7 @@ public class PlatformAnalyticsDTO {
 
     public Double getActiveUsersChange() { return activeUsersChange; }
     public void setActiveUsersChange(Double activeUsersChange) { this.activeUsersChange = activeUsersChange; }
+
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
 }
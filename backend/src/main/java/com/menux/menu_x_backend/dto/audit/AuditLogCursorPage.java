@@ -0,0 +1,22 @@
+package com.menux.menu_x_backend.dto.audit;
+
+import java.util.List;
+
+/**
+ * One keyset page of audit logs, newest first. Pass nextCursor back to get the following page.
+ */
+public class AuditLogCursorPage {
+    public List<AuditLogDTO> content;
+    public int size;
+    public boolean hasNext;
+    public String nextCursor;
+
+    public AuditLogCursorPage() {}
+
+    public AuditLogCursorPage(List<AuditLogDTO> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+}
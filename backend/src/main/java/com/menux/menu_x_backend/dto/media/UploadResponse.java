@@ -1,10 +1,13 @@
 package com.menux.menu_x_backend.dto.media;
 
+import java.util.Map;
+
 public class UploadResponse {
     private String url;       // public URL (may be disabled in production)
     private String path;      // internal storage path
     private String signedUrl; // short-lived URL
     private String proxyUrl;  // backend proxy URL
+    private Map<String, String> variants; // variant name (thumb/medium/full) -> proxy URL
 
     public UploadResponse() {}
 
@@ -24,4 +27,7 @@ public class UploadResponse {
 
     public String getProxyUrl() { return proxyUrl; }
     public void setProxyUrl(String proxyUrl) { this.proxyUrl = proxyUrl; }
+
+    public Map<String, String> getVariants() { return variants; }
+    public void setVariants(Map<String, String> variants) { this.variants = variants; }
 }
@@ -0,0 +1,93 @@
+package com.menux.menu_x_backend.dto.order;
+
+import com.menux.menu_x_backend.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Compact delta pushed on the per-restaurant order board channel.
+ * Only ORDER_CREATED carries the full order; status/payment changes carry just the changed fields.
+ */
+public class OrderBoardEvent {
+
+    public enum Type { ORDER_CREATED, STATUS_CHANGED, PAYMENT_CHANGED }
+
+    private String epoch;
+    private long sequence;
+    private Type type;
+    private Long restaurantId;
+    private Long orderId;
+    private String orderNumber;
+    private String tableNumber;
+    private String status;
+    private String paymentStatus;
+    private BigDecimal totalAmount;
+    private LocalDateTime occurredAt;
+    private OrderDTO order;
+
+    public OrderBoardEvent() {}
+
+    public static OrderBoardEvent of(Type type, Order order) {
+        OrderBoardEvent event = new OrderBoardEvent();
+        event.type = type;
+        event.orderId = order.getId();
+        event.orderNumber = order.getOrderNumber();
+        event.tableNumber = order.getTableNumber();
+        event.status = order.getStatus() != null ? order.getStatus().name() : null;
+        event.paymentStatus = order.getPaymentStatus() != null ? order.getPaymentStatus().name() : null;
+        event.totalAmount = order.getTotalAmount();
+        event.occurredAt = LocalDateTime.now();
+        return event;
+    }
+
+    public static OrderBoardEvent created(OrderDTO dto) {
+        OrderBoardEvent event = new OrderBoardEvent();
+        event.type = Type.ORDER_CREATED;
+        event.orderId = dto.getId();
+        event.orderNumber = dto.getOrderNumber();
+        event.tableNumber = dto.getTableNumber();
+        event.status = dto.getStatus();
+        event.paymentStatus = dto.getPaymentStatus();
+        event.totalAmount = dto.getTotalAmount();
+        event.occurredAt = LocalDateTime.now();
+        event.order = dto;
+        return event;
+    }
+
+    public String getEpoch() { return epoch; }
+    public void setEpoch(String epoch) { this.epoch = epoch; }
+
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public Long getRestaurantId() { return restaurantId; }
+    public void setRestaurantId(Long restaurantId) { this.restaurantId = restaurantId; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+
+    public String getTableNumber() { return tableNumber; }
+    public void setTableNumber(String tableNumber) { this.tableNumber = tableNumber; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(String paymentStatus) { this.paymentStatus = paymentStatus; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+
+    public OrderDTO getOrder() { return order; }
+    public void setOrder(OrderDTO order) { this.order = order; }
+}
@@ -0,0 +1,36 @@
+package com.menux.menu_x_backend.dto.order;
+
+import java.util.List;
+
+/**
+ * Response of the order board resume handshake.
+ * When {@code resetRequired} is true the client missed events that are no longer buffered
+ * (or the server restarted) and must reload the board via GET /api/orders/manage.
+ */
+public class OrderBoardReplay {
+    private String epoch;
+    private long sequence;
+    private boolean resetRequired;
+    private List<OrderBoardEvent> events;
+
+    public OrderBoardReplay() {}
+
+    public OrderBoardReplay(String epoch, long sequence, boolean resetRequired, List<OrderBoardEvent> events) {
+        this.epoch = epoch;
+        this.sequence = sequence;
+        this.resetRequired = resetRequired;
+        this.events = events;
+    }
+
+    public String getEpoch() { return epoch; }
+    public void setEpoch(String epoch) { this.epoch = epoch; }
+
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+
+    public boolean isResetRequired() { return resetRequired; }
+    public void setResetRequired(boolean resetRequired) { this.resetRequired = resetRequired; }
+
+    public List<OrderBoardEvent> getEvents() { return events; }
+    public void setEvents(List<OrderBoardEvent> events) { this.events = events; }
+}
@@ -13,6 +13,7 @@ public class SubscriptionAuditReport {
     private List<Long> orphanedSubscriptions;
     private List<MismatchRepair> mismatchesFixed;
     private List<Long> expiredSubscriptionsFixed;
+    private List<Long> missingSubscriptionsCreated;
     private int totalSubscriptionsChecked;
     
     public SubscriptionAuditReport() {
@@ -20,6 +21,7 @@ public class SubscriptionAuditReport {
         this.orphanedSubscriptions = new ArrayList<>();
         this.mismatchesFixed = new ArrayList<>();
         this.expiredSubscriptionsFixed = new ArrayList<>();
+        this.missingSubscriptionsCreated = new ArrayList<>();
         this.totalSubscriptionsChecked = 0;
     }
     
@@ -35,6 +37,10 @@ public class SubscriptionAuditReport {
         this.expiredSubscriptionsFixed.add(restaurantId);
     }
     
+    public void addMissingSubscriptionCreated(Long restaurantId) {
+        this.missingSubscriptionsCreated.add(restaurantId);
+    }
+    
     public void incrementTotalChecked() {
         this.totalSubscriptionsChecked++;
     }
@@ -42,13 +48,15 @@ public class SubscriptionAuditReport {
     public boolean hasIssues() {
         return !orphanedSubscriptions.isEmpty() || 
                !mismatchesFixed.isEmpty() || 
-               !expiredSubscriptionsFixed.isEmpty();
+               !expiredSubscriptionsFixed.isEmpty() ||
+               !missingSubscriptionsCreated.isEmpty();
     }
     
     public int getTotalIssuesFixed() {
         return orphanedSubscriptions.size() + 
                mismatchesFixed.size() + 
-               expiredSubscriptionsFixed.size();
+               expiredSubscriptionsFixed.size() +
+               missingSubscriptionsCreated.size();
     }
     
     // Getters and setters
@@ -84,6 +92,14 @@ public class SubscriptionAuditReport {
         this.expiredSubscriptionsFixed = expiredSubscriptionsFixed;
     }
     
+    public List<Long> getMissingSubscriptionsCreated() {
+        return missingSubscriptionsCreated;
+    }
+    
+    public void setMissingSubscriptionsCreated(List<Long> missingSubscriptionsCreated) {
+        this.missingSubscriptionsCreated = missingSubscriptionsCreated;
+    }
+    
     public int getTotalSubscriptionsChecked() {
         return totalSubscriptionsChecked;
     }
@@ -0,0 +1,43 @@
+package com.menux.menu_x_backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized unread notification count per user, kept in step with notifications by
+ * NotificationService so the unread badge is a primary-key read.
+ */
+@Entity
+@jakarta.persistence.Table(name = "notification_unread_counters")
+public class NotificationUnreadCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public NotificationUnreadCounter() {}
+
+    public NotificationUnreadCounter(Long userId, long unreadCount) {
+        this.userId = userId;
+        this.unreadCount = unreadCount;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public long getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(long unreadCount) { this.unreadCount = unreadCount; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
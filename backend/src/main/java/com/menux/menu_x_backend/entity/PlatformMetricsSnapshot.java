@@ -0,0 +1,98 @@
+package com.menux.menu_x_backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed admin dashboard metrics. A single row (SINGLETON_ID) is rewritten by
+ * PlatformAnalyticsService on a schedule; computedAt says how fresh it is.
+ */
+@Entity
+@jakarta.persistence.Table(name = "platform_metrics_snapshots")
+public class PlatformMetricsSnapshot {
+
+    public static final long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id = SINGLETON_ID;
+
+    @Column(name = "total_users", nullable = false)
+    private long totalUsers;
+
+    @Column(name = "total_restaurants", nullable = false)
+    private long totalRestaurants;
+
+    @Column(name = "pro_subscriptions", nullable = false)
+    private long proSubscriptions;
+
+    @Column(name = "basic_subscriptions", nullable = false)
+    private long basicSubscriptions;
+
+    @Column(name = "monthly_revenue", nullable = false)
+    private double monthlyRevenue;
+
+    @Column(name = "active_users", nullable = false)
+    private long activeUsers;
+
+    @Column(name = "system_health", nullable = false)
+    private double systemHealth;
+
+    @Column(name = "total_orders", nullable = false)
+    private long totalOrders;
+
+    @Column(name = "conversion_rate", nullable = false)
+    private double conversionRate;
+
+    @Column(name = "total_users_change", nullable = false)
+    private double totalUsersChange;
+
+    @Column(name = "total_restaurants_change", nullable = false)
+    private double totalRestaurantsChange;
+
+    @Column(name = "pro_subscriptions_change", nullable = false)
+    private double proSubscriptionsChange;
+
+    @Column(name = "monthly_revenue_change", nullable = false)
+    private double monthlyRevenueChange;
+
+    @Column(name = "active_users_change", nullable = false)
+    private double activeUsersChange;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    public PlatformMetricsSnapshot() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public long getTotalUsers() { return totalUsers; }
+    public void setTotalUsers(long totalUsers) { this.totalUsers = totalUsers; }
+    public long getTotalRestaurants() { return totalRestaurants; }
+    public void setTotalRestaurants(long totalRestaurants) { this.totalRestaurants = totalRestaurants; }
+    public long getProSubscriptions() { return proSubscriptions; }
+    public void setProSubscriptions(long proSubscriptions) { this.proSubscriptions = proSubscriptions; }
+    public long getBasicSubscriptions() { return basicSubscriptions; }
+    public void setBasicSubscriptions(long basicSubscriptions) { this.basicSubscriptions = basicSubscriptions; }
+    public double getMonthlyRevenue() { return monthlyRevenue; }
+    public void setMonthlyRevenue(double monthlyRevenue) { this.monthlyRevenue = monthlyRevenue; }
+    public long getActiveUsers() { return activeUsers; }
+    public void setActiveUsers(long activeUsers) { this.activeUsers = activeUsers; }
+    public double getSystemHealth() { return systemHealth; }
+    public void setSystemHealth(double systemHealth) { this.systemHealth = systemHealth; }
+    public long getTotalOrders() { return totalOrders; }
+    public void setTotalOrders(long totalOrders) { this.totalOrders = totalOrders; }
+    public double getConversionRate() { return conversionRate; }
+    public void setConversionRate(double conversionRate) { this.conversionRate = conversionRate; }
+    public double getTotalUsersChange() { return totalUsersChange; }
+    public void setTotalUsersChange(double totalUsersChange) { this.totalUsersChange = totalUsersChange; }
+    public double getTotalRestaurantsChange() { return totalRestaurantsChange; }
+    public void setTotalRestaurantsChange(double totalRestaurantsChange) { this.totalRestaurantsChange = totalRestaurantsChange; }
+    public double getProSubscriptionsChange() { return proSubscriptionsChange; }
+    public void setProSubscriptionsChange(double proSubscriptionsChange) { this.proSubscriptionsChange = proSubscriptionsChange; }
+    public double getMonthlyRevenueChange() { return monthlyRevenueChange; }
+    public void setMonthlyRevenueChange(double monthlyRevenueChange) { this.monthlyRevenueChange = monthlyRevenueChange; }
+    public double getActiveUsersChange() { return activeUsersChange; }
+    public void setActiveUsersChange(double activeUsersChange) { this.activeUsersChange = activeUsersChange; }
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
@@ -0,0 +1,38 @@
+package com.menux.menu_x_backend.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Per-restaurant order count and served revenue, kept current on a schedule by PlatformAnalyticsService so
+ * the admin restaurant listing can sort by them without aggregating the orders table per request.
+ */
+@Entity
+@jakarta.persistence.Table(name = "restaurant_order_totals")
+public class RestaurantOrderTotals {
+
+    @Id
+    @Column(name = "restaurant_id")
+    private Long restaurantId;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "served_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal servedRevenue = BigDecimal.ZERO;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    public RestaurantOrderTotals() {}
+
+    public Long getRestaurantId() { return restaurantId; }
+    public void setRestaurantId(Long restaurantId) { this.restaurantId = restaurantId; }
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+    public BigDecimal getServedRevenue() { return servedRevenue; }
+    public void setServedRevenue(BigDecimal servedRevenue) { this.servedRevenue = servedRevenue; }
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
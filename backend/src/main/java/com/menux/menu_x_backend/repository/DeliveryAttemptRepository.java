@@ -2,6 +2,9 @@ package com.menux.menu_x_backend.repository;
 
 import com.menux.menu_x_backend.entity.DeliveryAttempt;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -9,6 +12,20 @@ import java.util.List;
 public interface DeliveryAttemptRepository extends JpaRepository<DeliveryAttempt, Long> {
     List<DeliveryAttempt> findByNotificationId(Long notificationId);
 
+    // delivery_attempts is partitioned and has no FK cascade from notifications; delete explicitly
+    @Modifying
+    @Query("DELETE FROM DeliveryAttempt a WHERE a.notificationId IN :ids")
+    int deleteByNotificationIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM DeliveryAttempt a WHERE a.notificationId = :notificationId")
+    int deleteByNotificationId(@Param("notificationId") Long notificationId);
+
+    @Modifying
+    @Query("DELETE FROM DeliveryAttempt a WHERE a.notificationId IN " +
+           "(SELECT n.id FROM Notification n WHERE n.targetUserId = :userId)")
+    int deleteByNotificationTargetUserId(@Param("userId") Long userId);
+
     long countByAttemptAtBetween(LocalDateTime start, LocalDateTime end);
 
     long countByStatusAndAttemptAtBetween(DeliveryAttempt.Status status, LocalDateTime start, LocalDateTime end);
@@ -23,14 +23,50 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     List<Notification> findByTargetUserIdAndReadAtIsNull(Long targetUserId);
 
+    // Set-based mark-all-read; returns number of rows updated
+    @Modifying
+    @Query("UPDATE Notification n SET n.readAt = :now, n.status = :status, " +
+           "n.updatedAt = :now WHERE n.targetUserId = :userId AND n.readAt IS NULL")
+    int markAllReadByTargetUserId(@Param("userId") Long userId, @Param("status") Notification.Status status,
+                                  @Param("now") LocalDateTime now);
+
+    // Mark a single notification read only if it is still unread; returns 1 when this call flipped it
+    @Modifying
+    @Query("UPDATE Notification n SET n.readAt = :now, n.status = :status, " +
+           "n.updatedAt = :now WHERE n.id = :id AND n.targetUserId = :userId AND n.readAt IS NULL")
+    int markReadIfUnread(@Param("id") Long id, @Param("userId") Long userId, @Param("status") Notification.Status status,
+                         @Param("now") LocalDateTime now);
+
+    // Ids in a created_at range, in id order, for chunked admin deletes
+    @Query("SELECT n.id FROM Notification n WHERE n.createdAt >= :start AND n.createdAt <= :end ORDER BY n.id")
+    List<Long> findIdsByCreatedAtBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end, Pageable pageable);
+
+    // Unread rows per target user among the given ids: [targetUserId, count]
+    @Query("SELECT n.targetUserId, COUNT(n) FROM Notification n WHERE n.id IN :ids AND n.readAt IS NULL " +
+           "AND n.targetUserId IS NOT NULL GROUP BY n.targetUserId")
+    List<Object[]> countUnreadByTargetUserForIds(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
     // Admin: list recent notifications across all users
     Page<Notification> findAllByOrderByCreatedAtDesc(Pageable pageable);
 
     // Delete a single notification for a user; returns number of rows deleted
-    int deleteByIdAndTargetUserId(Long id, Long targetUserId);
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id = :id AND n.targetUserId = :userId")
+    int deleteByIdAndTargetUserId(@Param("id") Long id, @Param("userId") Long targetUserId);
 
-    // Delete all notifications for a user; returns number of rows deleted
-    int deleteByTargetUserId(Long targetUserId);
+    // Delete a user's unread notifications; the row count is what the unread counter loses
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.targetUserId = :userId AND n.readAt IS NULL")
+    int deleteUnreadByTargetUserId(@Param("userId") Long targetUserId);
+
+    // Delete a user's read notifications; returns number of rows deleted
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.targetUserId = :userId AND n.readAt IS NOT NULL")
+    int deleteReadByTargetUserId(@Param("userId") Long targetUserId);
 
     // Admin: Delete notifications by date range; returns number of rows deleted
     @Modifying
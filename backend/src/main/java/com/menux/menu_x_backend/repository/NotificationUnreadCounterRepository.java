@@ -0,0 +1,29 @@
+package com.menux.menu_x_backend.repository;
+
+import com.menux.menu_x_backend.entity.NotificationUnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface NotificationUnreadCounterRepository extends JpaRepository<NotificationUnreadCounter, Long> {
+
+    @Modifying
+    @Query("UPDATE NotificationUnreadCounter c SET c.unreadCount = c.unreadCount + :delta, c.updatedAt = :now WHERE c.userId = :userId")
+    int increment(@Param("userId") Long userId, @Param("delta") long delta, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE NotificationUnreadCounter c SET c.unreadCount = CASE WHEN c.unreadCount > :delta THEN c.unreadCount - :delta ELSE 0 END, " +
+           "c.updatedAt = :now WHERE c.userId = :userId")
+    int decrement(@Param("userId") Long userId, @Param("delta") long delta, @Param("now") LocalDateTime now);
+
+    // Seed a missing counter from the notifications table; no-op if a concurrent request already did
+    @Modifying
+    @Query(value = "INSERT INTO notification_unread_counters (user_id, unread_count, updated_at) " +
+                   "SELECT :userId, COUNT(*), CURRENT_TIMESTAMP FROM notifications " +
+                   "WHERE target_user_id = :userId AND read_at IS NULL " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int seedFromNotifications(@Param("userId") Long userId);
+}
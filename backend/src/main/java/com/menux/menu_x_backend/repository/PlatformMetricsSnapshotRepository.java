@@ -0,0 +1,7 @@
+package com.menux.menu_x_backend.repository;
+
+import com.menux.menu_x_backend.entity.PlatformMetricsSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PlatformMetricsSnapshotRepository extends JpaRepository<PlatformMetricsSnapshot, Long> {
+}
@@ -7,6 +7,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +17,9 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     
     @Query(value = "SELECT * FROM restaurants WHERE owner_id = :ownerId", nativeQuery = true)
     Optional<Restaurant> findByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT r FROM Restaurant r WHERE r.ownerId IN :ownerIds")
+    List<Restaurant> findByOwnerIdIn(@Param("ownerIds") Collection<Long> ownerIds);
     
     List<Restaurant> findByIsActiveTrue();
     
@@ -36,4 +41,10 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     @Modifying
     @Query(value = "UPDATE restaurants SET owner_id = :ownerId WHERE id = :restaurantId", nativeQuery = true)
     void updateOwnerIdNative(@Param("restaurantId") Long restaurantId, @Param("ownerId") Long ownerId);
+
+    @Modifying
+    @Query("UPDATE Restaurant r SET r.subscriptionPlan = :plan, r.updatedAt = :now WHERE r.id IN :ids")
+    int updateSubscriptionPlan(@Param("ids") Collection<Long> ids,
+                               @Param("plan") Restaurant.SubscriptionPlan plan,
+                               @Param("now") LocalDateTime now);
 }
@@ -1,11 +1,104 @@
 package com.menux.menu_x_backend.repository;
 
 import com.menux.menu_x_backend.entity.RestaurantSubscription;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface RestaurantSubscriptionRepository extends JpaRepository<RestaurantSubscription, Long> {
     Optional<RestaurantSubscription> findByRestaurantId(Long restaurantId);
     boolean existsByRestaurantId(Long restaurantId);
+
+    List<RestaurantSubscription> findByStatusInAndIdGreaterThanOrderByIdAsc(
+            Collection<RestaurantSubscription.Status> statuses, Long afterId, Pageable pageable);
+
+    /**
+     * Keyset page of subscription ids with a trial/period/grace boundary at or before the given horizons.
+     * Each branch is served by the matching *_end_at index; rows with nothing due are never read.
+     */
+    @Query("select s.id from RestaurantSubscription s " +
+           "where s.id > :afterId and s.status in :statuses and (" +
+           " (s.trialEndAt <= :trialHorizon and (s.currentPeriodEndAt is null or s.currentPeriodEndAt <= :now))" +
+           " or s.currentPeriodEndAt <= :periodHorizon" +
+           " or s.graceEndAt <= :now" +
+           " or (s.status = com.menux.menu_x_backend.entity.RestaurantSubscription.Status.ACTIVE" +
+           "     and s.currentPeriodEndAt is null and s.trialEndAt is null)" +
+           ") order by s.id")
+    List<Long> findDueIds(@Param("afterId") Long afterId,
+                          @Param("statuses") Collection<RestaurantSubscription.Status> statuses,
+                          @Param("now") LocalDateTime now,
+                          @Param("trialHorizon") LocalDateTime trialHorizon,
+                          @Param("periodHorizon") LocalDateTime periodHorizon,
+                          Pageable pageable);
+
+    /**
+     * Keyset page of ids of subscriptions outside the given statuses whose restaurant still has the PRO plan.
+     */
+    @Query("select s.id from RestaurantSubscription s, Restaurant r " +
+           "where r.id = s.restaurantId and s.id > :afterId and s.status not in :statuses" +
+           " and r.subscriptionPlan = com.menux.menu_x_backend.entity.Restaurant.SubscriptionPlan.PRO" +
+           " order by s.id")
+    List<Long> findProPlanDriftIds(@Param("afterId") Long afterId,
+                                   @Param("statuses") Collection<RestaurantSubscription.Status> statuses,
+                                   Pageable pageable);
+
+    /**
+     * Keyset page of ids of subscriptions in the given statuses whose restaurant is not on the PRO plan.
+     */
+    @Query("select s.id from RestaurantSubscription s, Restaurant r " +
+           "where r.id = s.restaurantId and s.id > :afterId and s.status in :statuses" +
+           " and (r.subscriptionPlan is null" +
+           " or r.subscriptionPlan <> com.menux.menu_x_backend.entity.Restaurant.SubscriptionPlan.PRO)" +
+           " order by s.id")
+    List<Long> findBasicPlanDriftIds(@Param("afterId") Long afterId,
+                                     @Param("statuses") Collection<RestaurantSubscription.Status> statuses,
+                                     Pageable pageable);
+
+    // Audit detection queries: each is one set-based pass, keyset-paged where repairs follow
+
+    @Query(value = "SELECT s.id FROM restaurant_subscriptions s " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM restaurants r WHERE r.id = s.restaurant_id) ORDER BY s.id",
+           nativeQuery = true)
+    List<Long> findOrphanedIds();
+
+    @Query(value = "SELECT r.id FROM restaurants r WHERE r.id > :afterId " +
+                   "AND NOT EXISTS (SELECT 1 FROM restaurant_subscriptions s WHERE s.restaurant_id = r.id) ORDER BY r.id",
+           nativeQuery = true)
+    List<Long> findRestaurantIdsWithoutSubscription(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Subscriptions whose restaurant plan disagrees with the PRO access the subscription grants, as
+     * [subscription_id, restaurant_id, should_be_pro (1/0)]. Mirrors SubscriptionService.proAccessUntil;
+     * graceCutoff is now minus the default grace days, for legacy GRACE rows without grace_end_at.
+     */
+    @Query(value = "SELECT m.subscription_id, m.restaurant_id, m.should_be_pro FROM (" +
+                   " SELECT s.id AS subscription_id, r.id AS restaurant_id, r.subscription_plan AS plan," +
+                   "  CASE WHEN (s.status = 'TRIALING' AND s.trial_end_at > :now)" +
+                   "    OR (s.status = 'ACTIVE' AND s.current_period_end_at > :now)" +
+                   "    OR (s.status = 'GRACE' AND (s.grace_end_at > :now" +
+                   "        OR (s.grace_end_at IS NULL AND s.current_period_end_at IS NULL AND s.trial_end_at > :graceCutoff)" +
+                   "        OR (s.grace_end_at IS NULL AND s.current_period_end_at > :graceCutoff)))" +
+                   "  THEN 1 ELSE 0 END AS should_be_pro" +
+                   " FROM restaurant_subscriptions s JOIN restaurants r ON r.id = s.restaurant_id" +
+                   " WHERE s.id > :afterId" +
+                   ") m WHERE (m.should_be_pro = 1 AND m.plan <> 'PRO') OR (m.should_be_pro = 0 AND m.plan = 'PRO')" +
+                   " ORDER BY m.subscription_id",
+           nativeQuery = true)
+    List<Object[]> findPlanMismatches(@Param("afterId") Long afterId,
+                                      @Param("now") LocalDateTime now,
+                                      @Param("graceCutoff") LocalDateTime graceCutoff,
+                                      Pageable pageable);
+
+    @Query("select s.id from RestaurantSubscription s where s.id > :afterId" +
+           " and s.status = com.menux.menu_x_backend.entity.RestaurantSubscription.Status.ACTIVE" +
+           " and s.currentPeriodEndAt < :cutoff order by s.id")
+    List<Long> findLapsedActiveIds(@Param("afterId") Long afterId,
+                                   @Param("cutoff") LocalDateTime cutoff,
+                                   Pageable pageable);
 }
@@ -41,4 +41,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmailAndIdNot(String email, Long id);
     List<User> findByRoleAndUsernameContainingIgnoreCaseOrEmailContainingIgnoreCaseOrFullNameContainingIgnoreCase(
         User.Role role, String username, String email, String fullName);
+
+    /**
+     * Admin user directory page. pattern is a lower-case LIKE pattern ("%" matches everyone); role and
+     * active are optional filters.
+     */
+    @Query("SELECT u FROM User u WHERE (:role IS NULL OR u.role = :role)" +
+           " AND (:active IS NULL OR u.isActive = :active)" +
+           " AND (LOWER(u.username) LIKE :pattern OR LOWER(u.email) LIKE :pattern OR LOWER(u.fullName) LIKE :pattern)")
+    Page<User> searchDirectory(@Param("role") User.Role role,
+                               @Param("active") Boolean active,
+                               @Param("pattern") String pattern,
+                               Pageable pageable);
+
+    @Query(value = "SELECT u.id FROM users u WHERE u.role = 'RESTAURANT_OWNER' AND u.id > :afterId " +
+                   "AND NOT EXISTS (SELECT 1 FROM restaurants r WHERE r.owner_id = u.id) ORDER BY u.id",
+           nativeQuery = true)
+    List<Long> findOwnerIdsWithoutRestaurant(@Param("afterId") Long afterId, Pageable pageable);
 }
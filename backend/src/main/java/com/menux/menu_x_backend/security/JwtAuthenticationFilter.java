@@ -35,7 +35,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
-        
+        try {
+            authenticate(request);
+            filterChain.doFilter(request, response);
+        } finally {
+            // Always clear context to avoid leakage across threads (pooled or virtual)
+            RestaurantContext.clear();
+        }
+    }
+
+    /**
+     * Populate the security and restaurant context from the request's JWT, if any
+     */
+    private void authenticate(HttpServletRequest request) {
         final String authorizationHeader = request.getHeader("Authorization");
 
         String username = null;
@@ -123,13 +135,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 }
             }
         }
-
-        try {
-            filterChain.doFilter(request, response);
-        } finally {
-            // Always clear context to avoid leakage across threads
-            RestaurantContext.clear();
-        }
     }
 
     /**
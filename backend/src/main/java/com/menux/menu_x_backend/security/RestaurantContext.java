@@ -3,6 +3,8 @@ package com.menux.menu_x_backend.security;
 /**
  * Thread-local request-scoped holder for restaurant context extracted from JWT.
  * Keeps the current user's associated restaurant ID (if any) available without extra DB queries.
+ * The value belongs to the thread handling the request (a pooled or a virtual thread); work handed to
+ * an executor only sees it when the task is wrapped with {@link #wrap(Runnable)}.
  */
 public final class RestaurantContext {
 
@@ -21,6 +23,29 @@ public final class RestaurantContext {
     public static void clear() {
         restaurantIdHolder.remove();
     }
-}
-
 
+    /**
+     * Carries the submitting thread's restaurant ID into {@code task} and restores whatever the executing
+     * thread held before, so pooled threads never keep a stale value (used as the executors' task decorator)
+     */
+    public static Runnable wrap(Runnable task) {
+        Long captured = restaurantIdHolder.get();
+        return () -> {
+            Long previous = restaurantIdHolder.get();
+            if (captured != null) {
+                restaurantIdHolder.set(captured);
+            } else {
+                restaurantIdHolder.remove();
+            }
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    restaurantIdHolder.set(previous);
+                } else {
+                    restaurantIdHolder.remove();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package com.menux.menu_x_backend.security;
+
+import com.menux.menu_x_backend.entity.User;
+import com.menux.menu_x_backend.repository.UserRepository;
+import com.menux.menu_x_backend.service.RestaurantService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Restricts SUBSCRIBE to /topic/restaurant/{id}/** to the restaurant's owner or a super admin.
+ */
+@Component
+public class RestaurantTopicSubscriptionInterceptor implements ChannelInterceptor {
+    private static final Logger log = LoggerFactory.getLogger(RestaurantTopicSubscriptionInterceptor.class);
+
+    private static final Pattern RESTAURANT_TOPIC = Pattern.compile("^/topic/restaurant/(\\d+)(/.*)?$");
+
+    private final UserRepository userRepository;
+    private final RestaurantService restaurantService;
+
+    public RestaurantTopicSubscriptionInterceptor(UserRepository userRepository, RestaurantService restaurantService) {
+        this.userRepository = userRepository;
+        this.restaurantService = restaurantService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.SUBSCRIBE) {
+            return message;
+        }
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith("/topic/restaurant/")) {
+            return message;
+        }
+        Matcher matcher = RESTAURANT_TOPIC.matcher(destination);
+        Principal principal = accessor.getUser();
+        if (!matcher.matches() || principal == null) {
+            throw new MessagingException("Subscription denied: " + destination);
+        }
+        Long restaurantId = Long.valueOf(matcher.group(1));
+        Optional<User> userOpt = userRepository.findByUsername(principal.getName());
+        boolean allowed = userOpt.isPresent() && (userOpt.get().getRole() == User.Role.SUPER_ADMIN
+                || restaurantService.userOwnsRestaurant(userOpt.get().getId(), restaurantId));
+        if (!allowed) {
+            log.debug("Rejected STOMP subscription user={} destination={}", principal.getName(), destination);
+            throw new MessagingException("Subscription denied: " + destination);
+        }
+        return message;
+    }
+}
@@ -1,5 +1,8 @@
 package com.menux.menu_x_backend.security;
 
+import com.menux.menu_x_backend.entity.User;
+import com.menux.menu_x_backend.repository.UserRepository;
+import com.menux.menu_x_backend.service.realtime.UserPresenceRegistry;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.WebSocketHandler;
@@ -7,23 +10,41 @@ import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
 
 import java.security.Principal;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class WebSocketAuthHandshakeHandler extends DefaultHandshakeHandler {
 
+    private final UserRepository userRepository;
+    private final UserPresenceRegistry presenceRegistry;
+
+    public WebSocketAuthHandshakeHandler(UserRepository userRepository, UserPresenceRegistry presenceRegistry) {
+        this.userRepository = userRepository;
+        this.presenceRegistry = presenceRegistry;
+    }
+
     @Override
     protected Principal determineUser(ServerHttpRequest request, WebSocketHandler wsHandler, Map<String, Object> attributes) {
         Object usernameObj = attributes.get("ws_username");
         if (usernameObj instanceof String username && !username.isBlank()) {
-            return new StompPrincipal(username);
+            // Resolve the id once per connection so realtime pushes can map id -> principal without a lookup
+            Optional<User> userOpt = userRepository.findByUsername(username);
+            Long userId = userOpt.map(User::getId).orElse(null);
+            presenceRegistry.rememberUsername(userId, username);
+            return new StompPrincipal(username, userId);
         }
         return null; // reject if no principal; interceptor should have blocked earlier
     }
 
-    static class StompPrincipal implements Principal {
+    public static class StompPrincipal implements Principal {
         private final String name;
-        StompPrincipal(String name) { this.name = name; }
+        private final Long userId;
+        StompPrincipal(String name, Long userId) {
+            this.name = name;
+            this.userId = userId;
+        }
         @Override
         public String getName() { return name; }
+        public Long getUserId() { return userId; }
     }
 }
@@ -1,5 +1,6 @@
 package com.menux.menu_x_backend.service;
 
+import com.menux.menu_x_backend.dto.audit.AuditLogCursorPage;
 import com.menux.menu_x_backend.dto.audit.AuditLogDTO;
 import com.menux.menu_x_backend.entity.AuditLog;
 import com.menux.menu_x_backend.entity.User;
@@ -7,15 +8,24 @@ import com.menux.menu_x_backend.repository.AuditLogRepository;
 import com.menux.menu_x_backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.criteria.Predicate;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class AdminAuditService {
@@ -32,43 +42,65 @@ public class AdminAuditService {
                                       LocalDateTime from,
                                       LocalDateTime to,
                                       Pageable pageable) {
-        Specification<AuditLog> spec = (root, query, cb) -> {
-            var predicates = new ArrayList<Predicate>();
-            if (action != null && !action.isBlank()) {
-                predicates.add(cb.equal(root.get("action"), action));
-            }
-            if (resourceType != null && !resourceType.isBlank()) {
-                predicates.add(cb.equal(root.get("resourceType"), resourceType));
-            }
-            if (actorId != null) {
-                predicates.add(cb.equal(root.get("actorId"), actorId));
-            }
-            if (from != null) {
-                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), from));
-            }
-            if (to != null) {
-                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), to));
-            }
-            return cb.and(predicates.toArray(Predicate[]::new));
-        };
+        Page<AuditLog> page = auditLogRepository.findAll(filters(action, resourceType, actorId, from, to), pageable);
+        return new PageImpl<>(toDtos(page.getContent()), pageable, page.getTotalElements());
+    }
 
-        return auditLogRepository.findAll(spec, pageable)
-                .map(this::toDto);
+    /**
+     * Keyset page of logs older than the cursor (newest first when cursor is null). Served by the
+     * (created_at, id) index, so deep pages cost the same as the first one and no count query runs.
+     */
+    public AuditLogCursorPage findLogsBefore(String action,
+                                             String resourceType,
+                                             Long actorId,
+                                             LocalDateTime from,
+                                             LocalDateTime to,
+                                             String cursor,
+                                             int size) {
+        Specification<AuditLog> spec = filters(action, resourceType, actorId, from, to);
+        Cursor after = Cursor.decode(cursor);
+        if (after != null) {
+            spec = spec.and((root, query, cb) -> cb.or(
+                    cb.lessThan(root.get("createdAt"), after.createdAt()),
+                    cb.and(cb.equal(root.get("createdAt"), after.createdAt()), cb.lessThan(root.get("id"), after.id()))));
+        }
+        Sort newestFirst = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+        List<AuditLog> rows = auditLogRepository.findBy(spec, q -> q.sortBy(newestFirst).limit(size + 1).all());
+
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = rows.subList(0, size);
+        }
+        String nextCursor = hasNext ? Cursor.encode(rows.get(rows.size() - 1)) : null;
+        return new AuditLogCursorPage(toDtos(rows), size, hasNext, nextCursor);
     }
 
     public Optional<AuditLogDTO> getById(Long id) {
         if (id == null) return Optional.empty();
-        return auditLogRepository.findById(id).map(this::toDto);
+        return auditLogRepository.findById(id).map(e -> toDto(e, e.getActorId() == null ? null :
+                userRepository.findById(e.getActorId()).map(User::getUsername).orElse(null)));
     }
 
-    private AuditLogDTO toDto(AuditLog e) {
-        String actorUsername = null;
-        if (e.getActorId() != null) {
-            actorUsername = userRepository.findById(e.getActorId())
-                    .map(User::getUsername)
-                    .orElse(null);
+    // Actor usernames for a whole page come from one IN query
+    private List<AuditLogDTO> toDtos(List<AuditLog> logs) {
+        Set<Long> actorIds = new HashSet<>();
+        for (AuditLog log : logs) {
+            if (log.getActorId() != null) actorIds.add(log.getActorId());
         }
+        Map<Long, String> usernames = new HashMap<>();
+        if (!actorIds.isEmpty()) {
+            for (User user : userRepository.findAllById(actorIds)) {
+                usernames.put(user.getId(), user.getUsername());
+            }
+        }
+        List<AuditLogDTO> dtos = new ArrayList<>(logs.size());
+        for (AuditLog log : logs) {
+            dtos.add(toDto(log, usernames.get(log.getActorId())));
+        }
+        return dtos;
+    }
 
+    private AuditLogDTO toDto(AuditLog e, String actorUsername) {
         return new AuditLogDTO(
                 e.getId(),
                 e.getActorId(),
@@ -83,20 +115,9 @@ public class AdminAuditService {
         );
     }
 
-    @Transactional
-    public void deleteLog(Long id) {
-        auditLogRepository.deleteById(id);
-    }
-
-    @Transactional
-    public void clearAllLogs() {
-        auditLogRepository.deleteAll();
-    }
-
-    @Transactional
-    public void clearLogsByCriteria(String action, String resourceType, Long actorId,
-                                   LocalDateTime from, LocalDateTime to) {
-        Specification<AuditLog> spec = (root, query, cb) -> {
+    private static Specification<AuditLog> filters(String action, String resourceType, Long actorId,
+                                                   LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
             var predicates = new ArrayList<Predicate>();
             if (action != null && !action.isBlank()) {
                 predicates.add(cb.equal(root.get("action"), action));
@@ -115,7 +136,41 @@ public class AdminAuditService {
             }
             return cb.and(predicates.toArray(Predicate[]::new));
         };
+    }
+
+    // Opaque keyset position: base64url of "<createdAt>|<id>" of the last row returned
+    private record Cursor(LocalDateTime createdAt, Long id) {
+        static String encode(AuditLog last) {
+            String raw = last.getCreatedAt() + "|" + last.getId();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
 
+        static Cursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) return null;
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = raw.lastIndexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid audit log cursor");
+            }
+        }
+    }
+
+    @Transactional
+    public void deleteLog(Long id) {
+        auditLogRepository.deleteById(id);
+    }
+
+    @Transactional
+    public void clearAllLogs() {
+        auditLogRepository.deleteAll();
+    }
+
+    @Transactional
+    public void clearLogsByCriteria(String action, String resourceType, Long actorId,
+                                   LocalDateTime from, LocalDateTime to) {
+        Specification<AuditLog> spec = filters(action, resourceType, actorId, from, to);
         auditLogRepository.deleteAll(auditLogRepository.findAll(spec));
     }
 }
@@ -0,0 +1,88 @@
+package com.menux.menu_x_backend.service;
+
+import com.menux.menu_x_backend.entity.Restaurant;
+import com.menux.menu_x_backend.entity.User;
+import com.menux.menu_x_backend.repository.RestaurantRepository;
+import com.menux.menu_x_backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owner/restaurant consistency checks for the admin consistency endpoints. Detection is a single
+ * anti-join; repairs are created in chunked transactions.
+ */
+@Service
+public class AdminConsistencyService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.admin.consistency.chunk-size:500}")
+    private int chunkSize;
+
+    public Map<String, Object> report() {
+        Map<String, Object> report = new HashMap<>();
+        long totalOwners = userRepository.countByRole(User.Role.RESTAURANT_OWNER);
+        List<Long> ownersWithoutRestaurant = userRepository.findOwnerIdsWithoutRestaurant(0L, Pageable.unpaged());
+
+        report.put("totalOwners", totalOwners);
+        report.put("ownersWithRestaurant", totalOwners - ownersWithoutRestaurant.size());
+        report.put("ownersWithoutRestaurant", ownersWithoutRestaurant.size());
+        report.put("missingOwnerIds", ownersWithoutRestaurant);
+        return report;
+    }
+
+    /**
+     * Create a placeholder restaurant for every owner that has none
+     */
+    public Map<String, Object> repairMissing(AdminJobService.Job job) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Pageable chunk = PageRequest.of(0, Math.max(1, chunkSize));
+        job.setPhase("create-restaurants");
+
+        long afterId = 0L;
+        int created = 0;
+        while (true) {
+            List<Long> ownerIds = userRepository.findOwnerIdsWithoutRestaurant(afterId, chunk);
+            if (ownerIds.isEmpty()) break;
+            afterId = ownerIds.get(ownerIds.size() - 1);
+
+            Integer count = tx.execute(status -> {
+                List<Restaurant> restaurants = new ArrayList<>();
+                for (User owner : userRepository.findAllById(ownerIds)) {
+                    Restaurant restaurant = new Restaurant();
+                    restaurant.setName(owner.getFullName() + "'s Restaurant");
+                    restaurant.setAddress("Unknown Address");
+                    restaurant.setIsActive(true);
+                    restaurant.setOwnerId(owner.getId());
+                    restaurants.add(restaurant);
+                }
+                return restaurantRepository.saveAll(restaurants).size();
+            });
+            created += count == null ? 0 : count;
+            job.advance(ownerIds.size());
+            if (ownerIds.size() < chunk.getPageSize()) break;
+        }
+
+        job.setPhase("done");
+        Map<String, Object> result = new HashMap<>();
+        result.put("created", created);
+        return result;
+    }
+}
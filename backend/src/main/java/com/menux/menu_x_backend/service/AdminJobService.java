@@ -0,0 +1,128 @@
+package com.menux.menu_x_backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Runs long admin maintenance tasks (audits, bulk repairs) in the background and keeps their progress
+ * for polling, so the triggering HTTP request returns immediately. Only the most recent jobs are kept,
+ * in memory; at most one job of each type runs at a time.
+ */
+@Service
+public class AdminJobService {
+
+    private static final int MAX_JOBS = 50;
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    private Executor taskExecutor;
+
+    private final Map<String, Job> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+            return size() > MAX_JOBS;
+        }
+    };
+
+    /**
+     * Start a job, or return the one of the same type that is still running
+     */
+    public Job submit(String type, Function<Job, Object> work) {
+        Job job;
+        synchronized (jobs) {
+            for (Job existing : jobs.values()) {
+                if (existing.getType().equals(type) && existing.getStatus() == Status.RUNNING) {
+                    return existing;
+                }
+            }
+            job = new Job(UUID.randomUUID().toString(), type);
+            jobs.put(job.getId(), job);
+        }
+        taskExecutor.execute(() -> {
+            try {
+                job.complete(work.apply(job));
+            } catch (Exception e) {
+                job.fail(e.getMessage());
+            }
+        });
+        return job;
+    }
+
+    public Optional<Job> get(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id));
+        }
+    }
+
+    public List<Job> list() {
+        synchronized (jobs) {
+            List<Job> list = new ArrayList<>(jobs.values());
+            Collections.reverse(list);
+            return list;
+        }
+    }
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    public static class Job {
+        private final String id;
+        private final String type;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong processed = new AtomicLong();
+        private volatile Status status = Status.RUNNING;
+        private volatile String phase;
+        private volatile LocalDateTime finishedAt;
+        private volatile Object result;
+        private volatile String error;
+
+        Job(String id, String type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        /**
+         * Progress sink for synchronous callers; not registered anywhere
+         */
+        public static Job detached(String type) {
+            return new Job(null, type);
+        }
+
+        public void setPhase(String phase) { this.phase = phase; }
+        public void advance(long count) { processed.addAndGet(count); }
+
+        void complete(Object result) {
+            this.result = result;
+            this.finishedAt = LocalDateTime.now();
+            this.status = Status.COMPLETED;
+        }
+
+        void fail(String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = Status.FAILED;
+        }
+
+        public String getId() { return id; }
+        public String getType() { return type; }
+        public Status getStatus() { return status; }
+        public String getPhase() { return phase; }
+        public long getProcessed() { return processed.get(); }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+        public Object getResult() { return result; }
+        public String getError() { return error; }
+    }
+}
@@ -1,6 +1,9 @@
 package com.menux.menu_x_backend.service;
 
-import java.time.LocalDateTime;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -10,8 +13,14 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -61,31 +70,70 @@ public class AdminService {
     private OrderRepository orderRepository;
 
     @Autowired
-    private SystemHealthService systemHealthService;
+    private PlatformAnalyticsService platformAnalyticsService;
 
     // User Management Methods
+
+    // Bind-parameter budget for one IN (...) lookup (owners, listed restaurants)
+    private static final int OWNER_LOOKUP_BATCH = 1000;
+
+    // Directory sort keys (DTO names) mapped to entity properties
+    private static final Map<String, String> USER_SORT_PROPERTIES = Map.of(
+            "id", "id",
+            "username", "username",
+            "email", "email",
+            "fullName", "fullName",
+            "role", "role",
+            "status", "isActive",
+            "joinDate", "createdAt",
+            "lastLogin", "updatedAt");
+
     public List<UserManagementDTO> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        return users.stream()
-                .map(user -> {
-                    if (user.getRole() == User.Role.RESTAURANT_OWNER) {
-                        Optional<Restaurant> restaurantOpt = restaurantRepository.findByOwnerId(user.getId());
-                        return new UserManagementDTO(user, restaurantOpt.orElse(null));
-                    } else {
-                        return new UserManagementDTO(user);
-                    }
-                })
-                .collect(Collectors.toList());
+        return toUserManagementDTOs(userRepository.findAll());
     }
 
     // Get only restaurant owners for user management
     public List<UserManagementDTO> getRestaurantOwners() {
-        List<User> users = userRepository.findByRole(User.Role.RESTAURANT_OWNER);
+        return toUserManagementDTOs(userRepository.findByRole(User.Role.RESTAURANT_OWNER));
+    }
+
+    /**
+     * Admin user directory page; search matches username, email and full name (case-insensitive).
+     * Unknown sort keys are ignored in favour of id.
+     */
+    public Page<UserManagementDTO> getUsers(String search, User.Role role, Boolean active, Pageable pageable) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            String property = USER_SORT_PROPERTIES.get(order.getProperty());
+            if (property != null) orders.add(new Sort.Order(order.getDirection(), property));
+        }
+        orders.add(Sort.Order.asc("id"));
+        Pageable sorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(orders));
+
+        String pattern = search == null || search.isBlank() ? "%" : "%" + search.trim().toLowerCase() + "%";
+        Page<User> users = userRepository.searchDirectory(role, active, pattern, sorted);
+        return new PageImpl<>(toUserManagementDTOs(users.getContent()), sorted, users.getTotalElements());
+    }
+
+    /**
+     * Attach restaurant info to owners with one IN query per batch instead of a lookup per owner
+     */
+    private List<UserManagementDTO> toUserManagementDTOs(List<User> users) {
+        List<Long> ownerIds = users.stream()
+                .filter(user -> user.getRole() == User.Role.RESTAURANT_OWNER)
+                .map(User::getId)
+                .toList();
+        Map<Long, Restaurant> restaurantsByOwner = new HashMap<>();
+        for (int from = 0; from < ownerIds.size(); from += OWNER_LOOKUP_BATCH) {
+            List<Long> batch = ownerIds.subList(from, Math.min(ownerIds.size(), from + OWNER_LOOKUP_BATCH));
+            for (Restaurant restaurant : restaurantRepository.findByOwnerIdIn(batch)) {
+                restaurantsByOwner.putIfAbsent(restaurant.getOwnerId(), restaurant);
+            }
+        }
         return users.stream()
-                .map(user -> {
-                    Optional<Restaurant> restaurantOpt = restaurantRepository.findByOwnerId(user.getId());
-                    return new UserManagementDTO(user, restaurantOpt.orElse(null));
-                })
+                .map(user -> user.getRole() == User.Role.RESTAURANT_OWNER
+                        ? new UserManagementDTO(user, restaurantsByOwner.get(user.getId()))
+                        : new UserManagementDTO(user))
                 .collect(Collectors.toList());
     }
 
@@ -255,205 +303,150 @@ public class AdminService {
     }
 
     // Restaurant Management Methods
+
+    // Sortable listing columns; the sort key never reaches the SQL unless it is listed here
+    private static final Map<String, String> RESTAURANT_SORT_COLUMNS = Map.of(
+            "id", "r.id",
+            "name", "r.name",
+            "joinDate", "r.created_at",
+            "subscriptionPlan", "r.subscription_plan",
+            "status", "r.is_active",
+            "ownerName", "u.full_name",
+            // Sorted by the scheduled restaurant_order_totals snapshot; displayed totals are live
+            "totalOrders", "COALESCE(t.order_count, 0)",
+            "monthlyRevenue", "COALESCE(t.served_revenue, 0)");
+
+    private static final String RESTAURANT_FROM =
+            " FROM restaurants r LEFT JOIN users u ON u.id = r.owner_id";
+
+    // The page of restaurants is selected first; order totals are then aggregated for those ids only
+    private static final String RESTAURANT_PROJECTION =
+            "SELECT r.id, r.name, r.description, r.address, r.phone_number, r.email, r.subscription_plan," +
+            " r.is_active, r.created_at, u.full_name AS owner_name, u.email AS owner_email" +
+            RESTAURANT_FROM +
+            " LEFT JOIN restaurant_order_totals t ON t.restaurant_id = r.id";
+
+    private static final RowMapper<RestaurantManagementDTO> RESTAURANT_ROW_MAPPER = (rs, rowNum) -> {
+        RestaurantManagementDTO dto = new RestaurantManagementDTO();
+        dto.setId(rs.getLong("id"));
+        dto.setName(rs.getString("name"));
+        dto.setDescription(rs.getString("description"));
+        dto.setAddress(rs.getString("address"));
+        dto.setPhone(rs.getString("phone_number"));
+        dto.setEmail(rs.getString("email"));
+        dto.setSubscriptionPlan(Restaurant.SubscriptionPlan.valueOf(rs.getString("subscription_plan")));
+        dto.setStatus(rs.getBoolean("is_active") ? "active" : "inactive");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        dto.setJoinDate(createdAt != null ? createdAt.toLocalDateTime() : null);
+        dto.setOwnerName(rs.getString("owner_name"));
+        dto.setOwnerEmail(rs.getString("owner_email"));
+        dto.setTotalOrders(0L);
+        dto.setMonthlyRevenue(0.0);
+        return dto;
+    };
+
     public List<RestaurantManagementDTO> getAllRestaurants() {
-        List<Restaurant> restaurants = restaurantRepository.findAll();
-        return restaurants.stream()
-                .map(restaurant -> {
-                    // Create basic DTO without owner data to avoid lazy loading
-                    RestaurantManagementDTO dto = new RestaurantManagementDTO(restaurant);
-
-                    // Try to find owner by restaurant ID using safe repository method
-                    List<User> restaurantOwners = userRepository.findByRole(User.Role.RESTAURANT_OWNER);
-                    for (User owner : restaurantOwners) {
-                        Optional<Restaurant> ownerRestaurant = restaurantRepository.findByOwnerId(owner.getId());
-                        if (ownerRestaurant.isPresent() && ownerRestaurant.get().getId().equals(restaurant.getId())) {
-                            dto.setOwnerName(owner.getFullName());
-                            dto.setOwnerEmail(owner.getEmail());
-                            break;
-                        }
-                    }
-
-                    // Calculate real revenue and order count for this restaurant
-                    dto.setTotalOrders(orderRepository.countByRestaurantId(restaurant.getId()));
-                    dto.setMonthlyRevenue(calculateRestaurantRevenue(restaurant.getId()));
-
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return getRestaurants(null, null, null, Pageable.unpaged()).getContent();
     }
 
-    public RestaurantManagementDTO getRestaurantById(Long id) {
-        Restaurant restaurant = restaurantRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Restaurant not found with id: " + id));
-
-        // Create basic DTO without owner data to avoid lazy loading
-        RestaurantManagementDTO dto = new RestaurantManagementDTO(restaurant);
-
-        // Try to find owner by restaurant ID using safe repository method
-        List<User> restaurantOwners = userRepository.findByRole(User.Role.RESTAURANT_OWNER);
-        for (User owner : restaurantOwners) {
-            Optional<Restaurant> ownerRestaurant = restaurantRepository.findByOwnerId(owner.getId());
-            if (ownerRestaurant.isPresent() && ownerRestaurant.get().getId().equals(restaurant.getId())) {
-                dto.setOwnerName(owner.getFullName());
-                dto.setOwnerEmail(owner.getEmail());
-                break;
-            }
+    /**
+     * Admin restaurant listing as one joined projection. search matches restaurant name/email and owner
+     * name/email (case-insensitive); plan and active narrow the result when given.
+     */
+    public Page<RestaurantManagementDTO> getRestaurants(String search, Restaurant.SubscriptionPlan plan,
+                                                        Boolean active, Pageable pageable) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (search != null && !search.isBlank()) {
+            String pattern = "%" + search.trim().toLowerCase() + "%";
+            where.append(" AND (LOWER(r.name) LIKE ? OR LOWER(r.email) LIKE ?" +
+                         " OR LOWER(u.full_name) LIKE ? OR LOWER(u.email) LIKE ?)");
+            for (int i = 0; i < 4; i++) args.add(pattern);
+        }
+        if (plan != null) {
+            where.append(" AND r.subscription_plan = ?");
+            args.add(plan.name());
+        }
+        if (active != null) {
+            where.append(" AND r.is_active = ?");
+            args.add(active);
         }
 
-        // Calculate real revenue and order count for this restaurant
-        dto.setTotalOrders(orderRepository.countByRestaurantId(restaurant.getId()));
-        dto.setMonthlyRevenue(calculateRestaurantRevenue(restaurant.getId()));
+        StringBuilder sql = new StringBuilder(RESTAURANT_PROJECTION).append(where).append(orderBy(pageable.getSort()));
+        List<Object> pageArgs = new ArrayList<>(args);
+        if (pageable.isPaged()) {
+            sql.append(" LIMIT ? OFFSET ?");
+            pageArgs.add(pageable.getPageSize());
+            pageArgs.add(pageable.getOffset());
+        }
+        List<RestaurantManagementDTO> content = jdbcTemplate.query(sql.toString(), RESTAURANT_ROW_MAPPER, pageArgs.toArray());
+        attachOrderTotals(content);
 
-        return dto;
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(content);
+        }
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            Long total = jdbcTemplate.queryForObject("SELECT COUNT(*)" + RESTAURANT_FROM + where, Long.class, args.toArray());
+            return total != null ? total : 0L;
+        });
     }
 
-    // Platform Analytics Methods
-    public PlatformAnalyticsDTO getPlatformAnalytics() {
-        // Count only restaurant owners (exclude SUPER_ADMIN users from public metrics)
-        Long totalUsers = userRepository.countByRole(User.Role.RESTAURANT_OWNER);
-        Long totalRestaurants = restaurantRepository.count();
-
-        Long proSubscriptions = restaurantRepository.countBySubscriptionPlan(Restaurant.SubscriptionPlan.PRO);
-        Long basicSubscriptions = restaurantRepository.countBySubscriptionPlan(Restaurant.SubscriptionPlan.BASIC);
-
-        // Calculate monthly revenue from actual orders and subscriptions
-        Double orderRevenue = calculateTotalOrderRevenue();
-        Double subscriptionRevenue = proSubscriptions * 1500.0; // Pro subscription fee
-        Double monthlyRevenue = orderRevenue + subscriptionRevenue;
-
-        // Count only active restaurant owners (exclude SUPER_ADMIN users)
-        Long activeUsers = userRepository.countActiveRestaurantOwners();
-
-        // Get real system health from SystemHealthService
-        Double systemHealth = systemHealthService.calculateSystemHealth();
-
-        // Get total orders count from database
-        Long totalOrders = orderRepository.count();
-        
-        // Conversion rate calculation (Pro / Total restaurants)
-        Double conversionRate = totalRestaurants > 0 ? (proSubscriptions.doubleValue() / totalRestaurants.doubleValue()) * 100 : 0.0;
-        
-        // Calculate real trend data (percentage changes from previous month)
-        Double totalUsersChange = calculateRealTrendChange(totalUsers, "users");
-        Double totalRestaurantsChange = calculateRealTrendChange(totalRestaurants, "restaurants");
-        Double proSubscriptionsChange = calculateRealTrendChange(proSubscriptions, "pro_subscriptions");
-        Double monthlyRevenueChange = calculateRealTrendChange(monthlyRevenue.longValue(), "revenue");
-        Double activeUsersChange = calculateRealTrendChange(activeUsers, "active_users");
-        
-        return new PlatformAnalyticsDTO(
-            totalUsers,
-            totalRestaurants,
-            proSubscriptions,
-            basicSubscriptions,
-            monthlyRevenue,
-            activeUsers,
-            systemHealth,
-            totalOrders,
-            conversionRate,
-            totalUsersChange,
-            totalRestaurantsChange,
-            proSubscriptionsChange,
-            monthlyRevenueChange,
-            activeUsersChange
-        );
-    }
-    
     /**
-     * Calculate total revenue from all served orders across all restaurants
+     * Fill order count and served revenue from the orders of the listed restaurants only,
+     * one grouped IN query per batch (served by idx_orders_restaurant_status)
      */
-    private Double calculateTotalOrderRevenue() {
-        try {
-            // Sum all served orders' total amounts
-            return jdbcTemplate.queryForObject(
-                "SELECT COALESCE(SUM(total_amount), 0) FROM orders WHERE status = 'SERVED'",
-                Double.class
-            );
-        } catch (DataAccessException e) {
-            logger.warn("Failed to calculate total order revenue: {}", e.getMessage());
-            return 0.0;
+    private void attachOrderTotals(List<RestaurantManagementDTO> restaurants) {
+        Map<Long, RestaurantManagementDTO> byId = new HashMap<>();
+        for (RestaurantManagementDTO dto : restaurants) byId.put(dto.getId(), dto);
+        List<Long> ids = new ArrayList<>(byId.keySet());
+        for (int from = 0; from < ids.size(); from += OWNER_LOOKUP_BATCH) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + OWNER_LOOKUP_BATCH));
+            String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+            jdbcTemplate.query(
+                    "SELECT restaurant_id, COUNT(*) AS order_count," +
+                    " SUM(CASE WHEN status = 'SERVED' THEN total_amount ELSE 0 END) AS served_revenue" +
+                    " FROM orders WHERE restaurant_id IN (" + placeholders + ") GROUP BY restaurant_id",
+                    rs -> {
+                        RestaurantManagementDTO dto = byId.get(rs.getLong("restaurant_id"));
+                        dto.setTotalOrders(rs.getLong("order_count"));
+                        BigDecimal revenue = rs.getBigDecimal("served_revenue");
+                        dto.setMonthlyRevenue(revenue != null ? revenue.doubleValue() : 0.0);
+                    },
+                    batch.toArray());
         }
     }
 
-    /**
-     * Calculate revenue for a specific restaurant from served orders
-     */
-    private Double calculateRestaurantRevenue(Long restaurantId) {
-        try {
-            // Use the existing repository method to get served orders revenue
-            java.math.BigDecimal revenue = orderRepository.sumTotalAmountByRestaurantIdAndServed(restaurantId);
-            return revenue != null ? revenue.doubleValue() : 0.0;
-        } catch (Exception e) {
-            logger.warn("Failed to calculate restaurant revenue for restaurant {}: {}", restaurantId, e.getMessage());
-            return 0.0;
+    private static String orderBy(Sort sort) {
+        StringBuilder orderBy = new StringBuilder();
+        for (Sort.Order order : sort) {
+            String column = RESTAURANT_SORT_COLUMNS.get(order.getProperty());
+            if (column == null || "r.id".equals(column)) continue;
+            orderBy.append(orderBy.length() == 0 ? " ORDER BY " : ", ")
+                   .append(column).append(order.isAscending() ? " ASC" : " DESC").append(" NULLS LAST");
         }
+        // r.id keeps pages stable when the sort key has ties
+        Sort.Order byId = sort.getOrderFor("id");
+        String idDirection = byId != null && byId.isDescending() ? " DESC" : " ASC";
+        return orderBy.length() == 0 ? " ORDER BY r.id" + idDirection : orderBy + ", r.id" + idDirection;
     }
 
-    /**
-     * Calculate real trend change percentage by comparing current vs previous month data
-     */
-    private Double calculateRealTrendChange(Long currentValue, String metric) {
-        if (currentValue == null || currentValue == 0) {
-            return 0.0;
+    public RestaurantManagementDTO getRestaurantById(Long id) {
+        List<RestaurantManagementDTO> rows = jdbcTemplate.query(
+                RESTAURANT_PROJECTION + " WHERE r.id = ?", RESTAURANT_ROW_MAPPER, id);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Restaurant not found with id: " + id);
         }
+        attachOrderTotals(rows);
+        return rows.get(0);
+    }
 
-        try {
-            // Get the count from 30 days ago for comparison
-            LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-            Long previousValue = getPreviousMonthValue(metric, thirtyDaysAgo);
-
-            if (previousValue == null || previousValue == 0) {
-                // If no previous data, return 0% change
-                return 0.0;
-            }
-
-            // Calculate percentage change: ((current - previous) / previous) * 100
-            double change = ((currentValue.doubleValue() - previousValue.doubleValue()) / previousValue.doubleValue()) * 100.0;
-
-            // Round to 1 decimal place
-            return Math.round(change * 10.0) / 10.0;
-
-        } catch (Exception e) {
-            // If there's an error calculating real trends, return 0% change
-            logger.warn("Failed to calculate trend change for metric {}: {}", metric, e.getMessage());
-            return 0.0;
-        }
+    // Platform Analytics Methods
+    public PlatformAnalyticsDTO getPlatformAnalytics() {
+        return platformAnalyticsService.getAnalytics();
     }
 
-    /**
-     * Get the count of a specific metric from a previous date
-     */
-    private Long getPreviousMonthValue(String metric, LocalDateTime date) {
-        try {
-            return switch (metric) {
-                case "users" -> jdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM users WHERE created_at <= ?",
-                    Long.class, date
-                );
-                case "restaurants" -> jdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM restaurants WHERE created_at <= ?",
-                    Long.class, date
-                );
-                case "pro_subscriptions" -> jdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM restaurant_subscriptions WHERE subscription_plan = 'PRO' AND created_at <= ?",
-                    Long.class, date
-                );
-                case "revenue" -> {
-                    Double revenue = jdbcTemplate.queryForObject(
-                        "SELECT COALESCE(SUM(amount), 0) FROM manual_payments WHERE created_at <= ? AND created_at >= ?",
-                        Double.class, date, date.minusDays(30)
-                    );
-                    yield revenue != null ? revenue.longValue() : 0L;
-                }
-                case "active_users" -> jdbcTemplate.queryForObject(
-                    "SELECT COUNT(DISTINCT user_id) FROM menu_views WHERE created_at <= ? AND created_at >= ?",
-                    Long.class, date, date.minusDays(7)
-                );
-                default -> 0L;
-            };
-        } catch (DataAccessException e) {
-            logger.warn("Failed to get previous month value for metric {}: {}", metric, e.getMessage());
-            return 0L;
-        }
+    public PlatformAnalyticsDTO refreshPlatformAnalytics() {
+        return platformAnalyticsService.refreshAnalytics();
     }
 
     @Transactional
@@ -1,53 +1,274 @@
 package com.menux.menu_x_backend.service;
 
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.menux.menu_x_backend.entity.AuditLog;
-import com.menux.menu_x_backend.repository.AuditLogRepository;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
 
+/**
+ * Audit trail writer. log() only captures the actor and request details on the caller's thread and
+ * queues the event in a bounded buffer; a background writer serializes metadata and inserts the
+ * events in JDBC batches, so auditing never takes a second pool connection from the caller.
+ *
+ * When the buffer is full the event is dropped and counted. On shutdown the writer drains what is
+ * buffered before the datasource goes away; events logged after that are written synchronously.
+ * Transient database failures are retried with backoff; any other batch failure is retried row by
+ * row so a single bad event does not take the rest of its batch down with it.
+ */
 @Service
 public class AuditService {
 
-    @Autowired
-    private AuditLogRepository auditLogRepository;
+    private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
 
     @Autowired
     private ObjectMapper objectMapper;
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.audit.buffer-capacity:10000}")
+    private int bufferCapacity;
+
+    @Value("${app.audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.audit.flush-ms:500}")
+    private long flushMs;
+
+    @Value("${app.audit.shutdown-drain-ms:10000}")
+    private long shutdownDrainMs;
+
+    @Value("${app.audit.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${app.audit.retry-backoff-ms:200}")
+    private long retryBackoffMs;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private BlockingQueue<PendingAudit> buffer;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile String insertSql;
+
+    @PostConstruct
+    void init() {
+        buffer = new ArrayBlockingQueue<>(Math.max(1, bufferCapacity));
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        try {
+            writer.join(shutdownDrainMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!buffer.isEmpty()) {
+            logger.warn("Audit writer stopped with {} events still buffered", buffer.size());
+        }
+    }
+
     public void log(String action, String resourceType, String resourceId, Object metadataObj) {
-        AuditLog log = new AuditLog();
-        Long actorId = getCurrentUserId();
-        log.setActorId(actorId);
-        log.setAction(action);
-        log.setResourceType(resourceType);
-        log.setResourceId(resourceId);
-        if (metadataObj != null) {
+        String ip = null;
+        String userAgent = null;
+        HttpServletRequest req = getCurrentHttpRequest();
+        if (req != null) {
+            ip = getClientIp(req);
+            userAgent = req.getHeader("User-Agent");
+        }
+        PendingAudit event = new PendingAudit(getCurrentUserId(), action, resourceType, resourceId,
+                metadataObj, ip, userAgent, LocalDateTime.now());
+
+        if (!running) {
+            // Writer already drained for shutdown
+            writeBatch(List.of(event));
+            return;
+        }
+        if (buffer.offer(event)) {
+            enqueued.incrementAndGet();
+        } else {
+            long total = dropped.incrementAndGet();
+            // Log the first drop and then every power of two so a burst does not flood the log
+            if ((total & (total - 1)) == 0) {
+                logger.warn("Audit buffer full ({} events); {} audit events dropped so far", bufferCapacity, total);
+            }
+        }
+    }
+
+    public Map<String, Object> getWriterStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("buffered", getBufferedCount());
+        stats.put("capacity", bufferCapacity);
+        stats.put("enqueued", enqueued.get());
+        stats.put("written", written.get());
+        stats.put("dropped", dropped.get());
+        stats.put("failed", failed.get());
+        return stats;
+    }
+
+    public int getBufferedCount() { return buffer == null ? 0 : buffer.size(); }
+    public long getWrittenCount() { return written.get(); }
+    public long getDroppedCount() { return dropped.get(); }
+    public long getFailedCount() { return failed.get(); }
+
+    private void writeLoop() {
+        int maxBatch = Math.max(1, batchSize);
+        while (running || !buffer.isEmpty()) {
+            PendingAudit first;
             try {
-                log.setMetadata(objectMapper.writeValueAsString(metadataObj));
-            } catch (JsonProcessingException e) {
-                // Fallback: toString
-                log.setMetadata(String.valueOf(metadataObj));
+                first = buffer.poll(flushMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
             }
+            if (first == null) continue;
+            List<PendingAudit> batch = new ArrayList<>(maxBatch);
+            batch.add(first);
+            buffer.drainTo(batch, maxBatch - 1);
+            writeBatch(batch);
         }
-        HttpServletRequest req = getCurrentHttpRequest();
-        if (req != null) {
-            log.setIp(getClientIp(req));
-            log.setUserAgent(req.getHeader("User-Agent"));
+    }
+
+    private void writeBatch(List<PendingAudit> batch) {
+        try {
+            insertWithRetry(batch);
+            written.addAndGet(batch.size());
+        } catch (Exception e) {
+            if (batch.size() == 1 || isTransient(e)) {
+                failed.addAndGet(batch.size());
+                logger.error("Failed to write {} audit events: {}", batch.size(), e.getMessage());
+                return;
+            }
+            // Something in the batch is unwritable; isolate it so the other events still land
+            logger.warn("Audit batch of {} failed ({}); retrying row by row", batch.size(), e.getMessage());
+            for (PendingAudit event : batch) {
+                try {
+                    insertWithRetry(List.of(event));
+                    written.incrementAndGet();
+                } catch (Exception rowError) {
+                    failed.incrementAndGet();
+                    logger.error("Failed to write audit event action={} resource={}/{}: {}",
+                            event.action(), event.resourceType(), event.resourceId(), rowError.getMessage());
+                }
+            }
+        }
+    }
+
+    private void insertWithRetry(List<PendingAudit> batch) {
+        long backoff = Math.max(1, retryBackoffMs);
+        for (int attempt = 0; ; attempt++) {
+            try {
+                insert(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (!isTransient(e) || attempt >= maxRetries) throw e;
+                logger.debug("Transient audit write failure (attempt {}): {}", attempt + 1, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                backoff *= 2;
+            }
+        }
+    }
+
+    private void insert(List<PendingAudit> batch) {
+        jdbcTemplate.batchUpdate(insertSql(), batch, batch.size(), (ps, event) -> {
+            if (event.actorId() != null) ps.setLong(1, event.actorId()); else ps.setNull(1, Types.BIGINT);
+            ps.setString(2, event.action());
+            ps.setString(3, event.resourceType());
+            ps.setString(4, event.resourceId());
+            ps.setString(5, serializeMetadata(event.metadata()));
+            ps.setString(6, event.ip());
+            ps.setString(7, event.userAgent());
+            ps.setTimestamp(8, Timestamp.valueOf(event.createdAt()));
+        });
+    }
+
+    // Connection loss, pool timeouts, deadlocks and the like may succeed on a later attempt
+    private static boolean isTransient(Throwable e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException;
+    }
+
+    // metadata is a JSON column, so the text parameter has to be marked as JSON for the database
+    private String insertSql() {
+        String sql = insertSql;
+        if (sql != null) return sql;
+        String metadataParam = "?";
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            if ("PostgreSQL".equalsIgnoreCase(product)) {
+                metadataParam = "CAST(? AS jsonb)";
+            } else if ("H2".equalsIgnoreCase(product)) {
+                metadataParam = "? FORMAT JSON";
+            }
+        } catch (Exception e) {
+            logger.debug("Could not determine database product for audit writes: {}", e.getMessage());
+        }
+        sql = "INSERT INTO audit_logs (actor_id, action, resource_type, resource_id, metadata, ip, user_agent, created_at) " +
+              "VALUES (?, ?, ?, ?, " + metadataParam + ", ?, ?, ?)";
+        insertSql = sql;
+        return sql;
+    }
+
+    String serializeMetadata(Object metadataObj) {
+        if (metadataObj == null) return null;
+        try {
+            return objectMapper.writeValueAsString(metadataObj);
+        } catch (JsonProcessingException e) {
+            // Fallback: toString, still as a JSON value so the column accepts it
+            try {
+                return objectMapper.writeValueAsString(String.valueOf(metadataObj));
+            } catch (JsonProcessingException ignored) {
+                return null;
+            }
         }
-        auditLogRepository.save(log);
     }
 
     private Long getCurrentUserId() {
@@ -82,4 +303,8 @@ public class AuditService {
         }
         return request.getRemoteAddr();
     }
+
+    // Captured on the caller's thread; metadata is serialized by the writer
+    private record PendingAudit(Long actorId, String action, String resourceType, String resourceId,
+                                Object metadata, String ip, String userAgent, LocalDateTime createdAt) {}
 }
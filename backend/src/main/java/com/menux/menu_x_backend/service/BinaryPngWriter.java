@@ -0,0 +1,133 @@
+package com.menux.menu_x_backend.service;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Streams a 1-bit grayscale PNG band by band, so a tall image never needs a full raster.
+ * Bands are full-width TYPE_BYTE_BINARY images; their packed rows (palette 0 = black,
+ * 1 = white) are exactly PNG's 1-bit grayscale scanlines, so rows are written as-is.
+ */
+final class BinaryPngWriter {
+
+    private static final byte[] SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n' };
+    private static final int IDAT_CHUNK_SIZE = 64 * 1024;
+
+    private final DataOutputStream out;
+    private final int width;
+    private final int height;
+    private final int stride;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final IdatStream idat = new IdatStream();
+    private final DeflaterOutputStream compressed;
+    private int rowsWritten;
+
+    BinaryPngWriter(OutputStream out, int width, int height) throws IOException {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Width (" + width + ") and height (" + height + ") must be > 0");
+        }
+        this.out = new DataOutputStream(out);
+        this.width = width;
+        this.height = height;
+        this.stride = (width + 7) / 8;
+        this.compressed = new DeflaterOutputStream(idat, deflater, IDAT_CHUNK_SIZE);
+
+        this.out.write(SIGNATURE);
+        byte[] header = new byte[13];
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 1;  // bit depth
+        header[9] = 0;  // grayscale
+        writeChunk("IHDR", header, header.length);
+    }
+
+    /**
+     * Append every row of the band, or only the first {@code rows} of them
+     */
+    void writeBand(BufferedImage band, int rows) throws IOException {
+        if (band.getType() != BufferedImage.TYPE_BYTE_BINARY || band.getWidth() != width) {
+            throw new IllegalArgumentException("Band must be a " + width + " px wide TYPE_BYTE_BINARY image");
+        }
+        if (rows > band.getHeight() || rowsWritten + rows > height) {
+            throw new IllegalStateException("Band overruns the image height");
+        }
+        byte[] data = ((DataBufferByte) band.getRaster().getDataBuffer()).getData();
+        for (int y = 0; y < rows; y++) {
+            compressed.write(0); // filter: none
+            compressed.write(data, y * stride, stride);
+        }
+        rowsWritten += rows;
+    }
+
+    /**
+     * Flush the compressed data and write IEND; the underlying stream is left open
+     */
+    void finish() throws IOException {
+        if (rowsWritten != height) {
+            throw new IllegalStateException("Wrote " + rowsWritten + " of " + height + " rows");
+        }
+        try {
+            compressed.finish();
+            idat.flushChunk();
+            writeChunk("IEND", new byte[0], 0);
+            out.flush();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeChunk(String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+        out.writeInt(length);
+        out.write(typeBytes);
+        out.write(data, 0, length);
+        out.writeInt((int) crc.getValue());
+    }
+
+    private static void putInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    // Collects deflated bytes into bounded IDAT chunks
+    private final class IdatStream extends OutputStream {
+        private final byte[] buffer = new byte[IDAT_CHUNK_SIZE];
+        private int count;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) flushChunk();
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buffer.length) flushChunk();
+                int n = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        void flushChunk() throws IOException {
+            if (count == 0) return;
+            writeChunk("IDAT", buffer, count);
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.menux.menu_x_backend.service;
+
+import com.menux.menu_x_backend.exception.ExternalServiceException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps concurrent calls per downstream (each AI provider, Supabase storage) with a semaphore.
+ * Request and async threads are no longer a bounded pool once virtual threads are enabled, so this is
+ * what keeps a slow provider from collecting every in-flight request; it applies in both thread modes.
+ */
+@Service
+public class DownstreamLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DownstreamLimiter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.concurrency.acquire-timeout-ms:2000}")
+    private long acquireTimeoutMs;
+
+    private final ConcurrentHashMap<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    /**
+     * Take a permit for {@code downstream}, waiting up to the acquire timeout. {@code limit} sizes the
+     * semaphore the first time a downstream is seen. Throws a retryable CONCURRENCY_LIMIT error when the
+     * downstream stays saturated.
+     */
+    public Permit acquire(String downstream, int limit) {
+        Semaphore semaphore = permits.computeIfAbsent(downstream, name -> register(name, limit));
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalServiceException(downstream, "Interrupted waiting for a call slot", "INTERRUPTED", false);
+        }
+        if (!acquired) {
+            meterRegistry.counter("menux.downstream.rejected", "downstream", downstream).increment();
+            logger.warn("Concurrency limit reached for downstream '{}' (limit {})", downstream, limit);
+            throw new ExternalServiceException(downstream, "Too many concurrent calls", "CONCURRENCY_LIMIT", true);
+        }
+        return new Permit(semaphore);
+    }
+
+    private Semaphore register(String downstream, int limit) {
+        int size = Math.max(1, limit);
+        Semaphore semaphore = new Semaphore(size, true);
+        Gauge.builder("menux.downstream.in_flight", semaphore, s -> size - s.availablePermits())
+                .description("Calls currently holding a downstream concurrency permit")
+                .tag("downstream", downstream)
+                .register(meterRegistry);
+        return semaphore;
+    }
+
+    /**
+     * A held permit; closing it more than once releases only once
+     */
+    public static final class Permit implements AutoCloseable {
+        private final Semaphore semaphore;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        }
+    }
+}
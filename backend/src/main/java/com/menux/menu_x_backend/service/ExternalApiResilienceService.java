@@ -1,8 +1,12 @@
 package com.menux.menu_x_backend.service;
 
 import com.menux.menu_x_backend.exception.ExternalServiceException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.net.ConnectException;
@@ -19,6 +23,16 @@ public class ExternalApiResilienceService {
 
     private static final Logger logger = LoggerFactory.getLogger(ExternalApiResilienceService.class);
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DownstreamLimiter downstreamLimiter;
+
+    // Concurrent calls allowed per AI provider (retries and backoff included)
+    @Value("${app.concurrency.ai-provider-limit:8}")
+    private int providerConcurrencyLimit;
+
     // Circuit breaker state tracking
     private final ConcurrentHashMap<String, CircuitBreakerState> circuitBreakers = new ConcurrentHashMap<>();
     
@@ -29,23 +43,46 @@ public class ExternalApiResilienceService {
      * Execute external API call with comprehensive resilience patterns
      */
     public <T> T executeWithResilience(String serviceName, Supplier<T> apiCall, Supplier<T> fallback) {
-        // Check circuit breaker
-        if (isCircuitOpen(serviceName)) {
-            logger.warn("Circuit breaker is open for service: {}", serviceName);
-            return executeFallback(serviceName, fallback);
-        }
+        // Timed end to end (retries and fallback included), tagged with how the call ended
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            // Check circuit breaker
+            if (isCircuitOpen(serviceName)) {
+                logger.warn("Circuit breaker is open for service: {}", serviceName);
+                outcome = "circuit_open";
+                return executeFallback(serviceName, fallback);
+            }
 
-        // Check rate limiting
-        if (isRateLimited(serviceName)) {
-            logger.warn("Rate limit exceeded for service: {}", serviceName);
-            throw new ExternalServiceException(serviceName, "Rate limit exceeded", "RATE_LIMIT_EXCEEDED", false);
-        }
+            // Check rate limiting
+            if (isRateLimited(serviceName)) {
+                logger.warn("Rate limit exceeded for service: {}", serviceName);
+                outcome = "rate_limited";
+                throw new ExternalServiceException(serviceName, "Rate limit exceeded", "RATE_LIMIT_EXCEEDED", false);
+            }
 
-        try {
-            return executeWithRetryAndTimeout(serviceName, apiCall);
-        } catch (Exception e) {
-            recordFailure(serviceName, e);
-            return executeFallback(serviceName, fallback);
+            // Saturation is not a provider failure: fall back without touching the circuit breaker
+            DownstreamLimiter.Permit permit;
+            try {
+                permit = downstreamLimiter.acquire(serviceName, providerConcurrencyLimit);
+            } catch (ExternalServiceException e) {
+                outcome = "saturated";
+                return executeFallback(serviceName, fallback);
+            }
+
+            try (permit) {
+                return executeWithRetryAndTimeout(serviceName, apiCall);
+            } catch (Exception e) {
+                recordFailure(serviceName, e);
+                outcome = "fallback";
+                return executeFallback(serviceName, fallback);
+            }
+        } finally {
+            sample.stop(Timer.builder("menux.external.calls")
+                    .description("External API (AI provider) calls")
+                    .tag("service", serviceName)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
     }
 
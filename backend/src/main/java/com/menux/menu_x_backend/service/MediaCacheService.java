@@ -0,0 +1,425 @@
+package com.menux.menu_x_backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded LRU cache of storage objects on local disk, in front of the media proxy.
+ *
+ * Files are keyed by SHA-256 of the storage path and written to a temp file then atomically moved
+ * in. Entries are never revalidated: originals are uploaded once under fresh UUID paths, variants
+ * are upserted but always re-rendered from that same original, and deletes call invalidate().
+ * Each data file has a small .meta sidecar with content type and validators. Reads are served
+ * from a memory-mapped view of the file, including single byte ranges and If-None-Match.
+ * The LRU index lives in memory and is rebuilt from the directory on startup.
+ */
+@Service
+public class MediaCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MediaCacheService.class);
+
+    public static final class CachedObject {
+        private final String key;
+        private final Path file;
+        private final long size;
+        private final String contentType;
+        private final String etag;
+        private final String lastModified;
+
+        CachedObject(String key, Path file, long size, String contentType, String etag, String lastModified) {
+            this.key = key;
+            this.file = file;
+            this.size = size;
+            this.contentType = contentType;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public long getSize() { return size; }
+        public String getContentType() { return contentType; }
+        public String getEtag() { return etag; }
+        public String getLastModified() { return lastModified; }
+    }
+
+    @Value("${app.media.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.media.cache.dir:${java.io.tmpdir}/menux-media-cache}")
+    private String dir;
+
+    @Value("${app.media.cache.max-bytes:536870912}")
+    private long maxBytes;
+
+    @Value("${app.media.cache.max-object-bytes:5242880}")
+    private long maxObjectBytes;
+
+    private Path root;
+
+    // key -> size, access-ordered
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(1024, 0.75f, true);
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        if (!enabled) return;
+        try {
+            root = Paths.get(dir);
+            Files.createDirectories(root);
+            rebuildIndex();
+        } catch (IOException e) {
+            logger.warn("Media cache disabled, directory {} unusable: {}", dir, e.getMessage());
+            enabled = false;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getMaxObjectBytes() {
+        return maxObjectBytes;
+    }
+
+    /**
+     * Cached entry for the storage path, or null on a miss
+     */
+    public CachedObject lookup(String path) {
+        if (!enabled || path == null) return null;
+        String key = keyOf(path);
+        synchronized (index) {
+            if (index.get(key) == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+        }
+        Path file = dataFile(key);
+        Properties meta = readMeta(key);
+        if (meta == null || !Files.isRegularFile(file)) {
+            misses.incrementAndGet();
+            remove(key);
+            return null;
+        }
+        hits.incrementAndGet();
+        try {
+            // Keep the access time on disk roughly in step so a restart rebuilds a similar LRU order
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // best effort
+        }
+        return new CachedObject(key, file, Long.parseLong(meta.getProperty("size", "0")),
+                meta.getProperty("contentType"), meta.getProperty("etag"), meta.getProperty("lastModified"));
+    }
+
+    /**
+     * Copy the stream into the cache. Returns the new entry, or null when the object is larger
+     * than max-object-bytes or could not be written.
+     */
+    public CachedObject store(String path, InputStream in, String contentType, String etag, String lastModified) {
+        if (!enabled || path == null) return null;
+        String key = keyOf(path);
+        Path target = dataFile(key);
+        Path tmp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            tmp = Files.createTempFile(target.getParent(), key, ".tmp");
+            long size = 0;
+            byte[] buffer = new byte[16 * 1024];
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    size += n;
+                    if (size > maxObjectBytes) {
+                        Files.deleteIfExists(tmp);
+                        return null;
+                    }
+                    out.write(buffer, 0, n);
+                }
+            }
+
+            Properties meta = new Properties();
+            meta.setProperty("path", path);
+            meta.setProperty("size", Long.toString(size));
+            if (contentType != null) meta.setProperty("contentType", contentType);
+            if (etag != null) meta.setProperty("etag", etag);
+            if (lastModified != null) meta.setProperty("lastModified", lastModified);
+            writeMeta(key, meta);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tmp = null;
+
+            writes.incrementAndGet();
+            synchronized (index) {
+                Long previous = index.put(key, size);
+                totalBytes += size - (previous != null ? previous : 0L);
+            }
+            evictIfNeeded();
+            return new CachedObject(key, target, size, contentType, etag, lastModified);
+        } catch (IOException e) {
+            logger.debug("Could not cache media object {}: {}", path, e.getMessage());
+            return null;
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // leftover temp files are cleaned on the next startup
+                }
+            }
+        }
+    }
+
+    public void invalidate(String path) {
+        if (!enabled || path == null) return;
+        remove(keyOf(path));
+    }
+
+    /**
+     * Write a cached object to the response, honouring If-None-Match and a single byte Range
+     */
+    public void serve(CachedObject object, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (object.contentType != null) response.setContentType(object.contentType);
+        if (object.etag != null) response.setHeader(HttpHeaders.ETAG, object.etag);
+        if (object.lastModified != null) response.setHeader(HttpHeaders.LAST_MODIFIED, object.lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=86400, immutable");
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (object.etag != null && ifNoneMatch != null && etagMatches(ifNoneMatch, object.etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long start = 0;
+        long length = object.size;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(object.etag))) {
+            long[] parsed = parseRange(range, object.size);
+            if (parsed == null) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + object.size);
+                return;
+            }
+            if (parsed.length == 2) {
+                start = parsed[0];
+                length = parsed[1] - parsed[0] + 1;
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + parsed[0] + "-" + parsed[1] + "/" + object.size);
+            }
+        }
+
+        response.setContentLengthLong(length);
+        if (length == 0) return;
+        try (FileChannel channel = FileChannel.open(object.file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            while (mapped.hasRemaining()) {
+                out.write(mapped);
+            }
+        } catch (NoSuchFileException e) {
+            // Evicted between lookup and read
+            remove(object.key);
+            if (!response.isCommitted()) {
+                response.reset();
+                response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            }
+        }
+    }
+
+    public long getHitCount() { return hits.get(); }
+    public long getMissCount() { return misses.get(); }
+
+    public long getTotalBytes() {
+        synchronized (index) {
+            return totalBytes;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        synchronized (index) {
+            stats.put("entries", index.size());
+            stats.put("bytes", totalBytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("writes", writes.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    // Returns {start, end} for a satisfiable single range, an empty array to ignore the header
+    // (multi-range or malformed: serve the full body), or null when unsatisfiable
+    static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) return new long[0];
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) return new long[0];
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) return null;
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? size - 1 : Math.min(size - 1, Long.parseLong(spec.substring(dash + 1)));
+            }
+            if (start >= size || start > end) return null;
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        String bare = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) value = value.substring(2);
+            if (value.equals("*") || value.equals(bare)) return true;
+        }
+        return false;
+    }
+
+    private void evictIfNeeded() {
+        List<String> victims = new ArrayList<>();
+        synchronized (index) {
+            Iterator<Map.Entry<String, Long>> it = index.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, Long> eldest = it.next();
+                totalBytes -= eldest.getValue();
+                victims.add(eldest.getKey());
+                it.remove();
+            }
+        }
+        for (String key : victims) {
+            evictions.incrementAndGet();
+            deleteFiles(key);
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (index) {
+            Long size = index.remove(key);
+            if (size != null) totalBytes -= size;
+        }
+        deleteFiles(key);
+    }
+
+    private void deleteFiles(String key) {
+        try {
+            Files.deleteIfExists(dataFile(key));
+            Files.deleteIfExists(metaFile(key));
+        } catch (IOException e) {
+            logger.debug("Could not delete cached media {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void rebuildIndex() throws IOException {
+        record Found(String key, long size, long lastUsed) {}
+        List<Found> found = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                if (name.length() != 64 || !Files.isRegularFile(file)) continue;
+                if (!Files.exists(metaFile(name))) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                found.add(new Found(name, attrs.size(), attrs.lastModifiedTime().toMillis()));
+            }
+        }
+        found.sort(Comparator.comparingLong(Found::lastUsed));
+        synchronized (index) {
+            for (Found f : found) {
+                index.put(f.key(), f.size());
+                totalBytes += f.size();
+            }
+        }
+        evictIfNeeded();
+        logger.info("Media cache at {}: {} entries, {} bytes", root, found.size(), totalBytes);
+    }
+
+    private Path dataFile(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private Path metaFile(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key + ".meta");
+    }
+
+    private Properties readMeta(String key) {
+        try (Reader reader = Files.newBufferedReader(metaFile(key), StandardCharsets.UTF_8)) {
+            Properties meta = new Properties();
+            meta.load(reader);
+            return meta;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeMeta(String key, Properties meta) throws IOException {
+        Path target = metaFile(key);
+        Path tmp = Files.createTempFile(target.getParent(), key, ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            meta.store(writer, null);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String keyOf(String path) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(path.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
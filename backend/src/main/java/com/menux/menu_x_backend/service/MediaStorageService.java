@@ -3,23 +3,60 @@ package com.menux.menu_x_backend.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.menux.menu_x_backend.dto.media.UploadResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class MediaStorageService {
 
+    private static final Logger logger = LoggerFactory.getLogger(MediaStorageService.class);
+
+    // Variants not found upstream (legacy/WebP uploads) are not re-probed for this long
+    private static final long MISSING_VARIANT_TTL_MS = 10 * 60 * 1000L;
+
     private final RestTemplate restTemplate;
+    private final MediaCacheService mediaCacheService;
+    private final MediaVariantService mediaVariantService;
+    private final Executor taskExecutor;
+    private final Map<String, Long> missingVariants = new ConcurrentHashMap<>();
+
+    // Signed URLs keyed by "path|expiry bucket"; requested expiries are rounded up to the bucket
+    private static final int SIGNED_URL_BUCKET_SECONDS = 300;
+    private static final int SIGNED_URL_MAX_SECONDS = 365 * 24 * 3600;
+    private static final int SIGNED_URL_CACHE_MAX = 20_000;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private final Map<String, SignedUrl> signedUrls = new ConcurrentHashMap<>();
+    private final AtomicLong signedUrlHits = new AtomicLong();
+    private final AtomicLong signedUrlMisses = new AtomicLong();
 
     @Value("${app.media.supabase.url:}")
     private String supabaseUrl;
@@ -35,8 +72,21 @@ public class MediaStorageService {
 
     private static final long MAX_IMAGE_BYTES = 1 * 1024 * 1024; // 1MB
 
-    public MediaStorageService(RestTemplate restTemplate) {
+    // Conditional/range request headers passed through to storage, and response headers passed back
+    private static final List<String> FORWARDED_REQUEST_HEADERS = List.of(
+            HttpHeaders.RANGE, HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE, HttpHeaders.IF_RANGE);
+    private static final List<String> FORWARDED_RESPONSE_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_RANGE, HttpHeaders.ACCEPT_RANGES,
+            HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.CACHE_CONTROL);
+    private static final String DEFAULT_CACHE_CONTROL = "public, max-age=3600";
+
+    public MediaStorageService(RestTemplate restTemplate, MediaCacheService mediaCacheService,
+                               MediaVariantService mediaVariantService,
+                               @Qualifier("taskExecutor") Executor taskExecutor) {
         this.restTemplate = restTemplate;
+        this.mediaCacheService = mediaCacheService;
+        this.mediaVariantService = mediaVariantService;
+        this.taskExecutor = taskExecutor;
     }
 
     @PostConstruct
@@ -89,14 +139,35 @@ public class MediaStorageService {
         String filename = UUID.randomUUID() + "." + ext;
         String path = folder + "/" + filename;
 
+        byte[] bytes;
+        try {
+            bytes = file.getBytes();
+        } catch (IOException ex) {
+            throw new RuntimeException("Upload failed: " + ex.getMessage(), ex);
+        }
+        putObject(path, bytes, contentType, false);
+
+        // Resized variants are produced off the request thread; the proxy falls back to the original until they exist
+        if (mediaVariantService.isEnabled() && MediaVariantService.supports(path)) {
+            taskExecutor.execute(() -> uploadVariants(path, bytes));
+        }
+
+        String publicUrl = String.format("%s/storage/v1/object/public/%s/%s", supabaseUrl, bucket, path);
+        String signedUrl = generateSignedUrl(path, 3600);
+        UploadResponse resp = new UploadResponse(publicUrl, path);
+        resp.setSignedUrl(signedUrl);
+        return resp;
+    }
+
+    private void putObject(String path, byte[] bytes, String contentType, boolean upsert) {
         String uploadUrl = String.format("%s/storage/v1/object/%s/%s", supabaseUrl, bucket, path);
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.parseMediaType(contentType));
         headers.setBearerAuth(supabaseServiceKey);
-        headers.add("x-upsert", "false");
+        headers.add("x-upsert", Boolean.toString(upsert));
 
         try {
-            HttpEntity<byte[]> requestEntity = new HttpEntity<>(file.getBytes(), headers);
+            HttpEntity<byte[]> requestEntity = new HttpEntity<>(bytes, headers);
             ResponseEntity<String> resp = restTemplate.exchange(uploadUrl, HttpMethod.POST, requestEntity, String.class);
             if (!resp.getStatusCode().is2xxSuccessful()) {
                 throw new RuntimeException("Upload failed with status: " + resp.getStatusCode());
@@ -106,16 +177,33 @@ public class MediaStorageService {
         } catch (Exception ex) {
             throw new RuntimeException("Upload failed: " + ex.getMessage(), ex);
         }
+    }
 
-        String publicUrl = String.format("%s/storage/v1/object/public/%s/%s", supabaseUrl, bucket, path);
-        String signedUrl = generateSignedUrl(path, 3600);
-        UploadResponse resp = new UploadResponse(publicUrl, path);
-        resp.setSignedUrl(signedUrl);
-        return resp;
+    private void uploadVariants(String path, byte[] original) {
+        try {
+            for (Map.Entry<Integer, byte[]> variant : mediaVariantService.renderVariants(original).entrySet()) {
+                String variantPath = MediaVariantService.variantPath(path, variant.getKey());
+                putObject(variantPath, variant.getValue(), MediaType.IMAGE_JPEG_VALUE, true);
+                missingVariants.remove(variantPath);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not create image variants for {}: {}", path, e.getMessage());
+        }
     }
 
+    /**
+     * Signed URL for one object. URLs are cached per (path, expiry bucket) and signed for one
+     * bucket longer than asked; a cached URL is only handed out while it is still valid for at
+     * least the requested time, so repeated calls for the same image do not hit storage.
+     */
     public String generateSignedUrl(String maybePath, int expiresInSeconds) {
         String path = extractPath(maybePath);
+        int requestedSeconds = clampExpiry(expiresInSeconds);
+        int bucketSeconds = expiryBucket(requestedSeconds);
+        String cached = cachedSignedUrl(path, bucketSeconds, requestedSeconds);
+        if (cached != null) {
+            return cached;
+        }
         try {
             // Do NOT URL-encode slashes in the key; Supabase expects path segments
             String signUrl = String.format("%s/storage/v1/object/sign/%s/%s", supabaseUrl, bucket, path);
@@ -123,30 +211,169 @@ public class MediaStorageService {
             headers.setBearerAuth(supabaseServiceKey);
             headers.setContentType(MediaType.APPLICATION_JSON);
             Map<String, Object> body = new HashMap<>();
-            body.put("expiresIn", expiresInSeconds);
+            body.put("expiresIn", signedLifetime(bucketSeconds));
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
+            long signedAt = System.currentTimeMillis();
             ResponseEntity<String> resp = restTemplate.exchange(signUrl, HttpMethod.POST, entity, String.class);
             if (!resp.getStatusCode().is2xxSuccessful() || resp.getBody() == null) {
                 throw new RuntimeException("Failed to create signed URL: " + resp.getStatusCode());
             }
-            ObjectMapper om = new ObjectMapper();
-            JsonNode node = om.readTree(resp.getBody());
+            JsonNode node = OBJECT_MAPPER.readTree(resp.getBody());
             String signed = node.path("signedURL").asText();
             if (signed == null || signed.isBlank()) {
                 throw new RuntimeException("Signed URL not returned by Supabase");
             }
-            // Supabase returns a relative URL starting with /storage/...
-            if (signed.startsWith("/")) {
-                return supabaseUrl + signed;
-            }
+            signed = absoluteSignedUrl(signed);
+            cacheSignedUrl(path, bucketSeconds, signed, signedAt);
             return signed;
         } catch (Exception e) {
             throw new RuntimeException("Failed to create signed URL: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Signed URLs for many objects with at most one storage call: cached entries are reused and
+     * the rest are signed through the bulk sign endpoint. Result is keyed by the caller's input;
+     * inputs storage could not sign are left out.
+     */
+    public Map<String, String> generateSignedUrls(Collection<String> pathsOrUrls, int expiresInSeconds) {
+        int requestedSeconds = clampExpiry(expiresInSeconds);
+        int bucketSeconds = expiryBucket(requestedSeconds);
+        Map<String, String> result = new LinkedHashMap<>();
+        Map<String, List<String>> missing = new LinkedHashMap<>(); // normalized path -> inputs
+        for (String input : pathsOrUrls) {
+            if (input == null || input.isBlank()) continue;
+            String path = extractPath(input);
+            String cached = cachedSignedUrl(path, bucketSeconds, requestedSeconds);
+            if (cached != null) {
+                result.put(input, cached);
+            } else {
+                missing.computeIfAbsent(path, k -> new ArrayList<>()).add(input);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        try {
+            String signUrl = String.format("%s/storage/v1/object/sign/%s", supabaseUrl, bucket);
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(supabaseServiceKey);
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            Map<String, Object> body = new HashMap<>();
+            body.put("expiresIn", signedLifetime(bucketSeconds));
+            body.put("paths", new ArrayList<>(missing.keySet()));
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
+            long signedAt = System.currentTimeMillis();
+            ResponseEntity<String> resp = restTemplate.exchange(signUrl, HttpMethod.POST, entity, String.class);
+            if (!resp.getStatusCode().is2xxSuccessful() || resp.getBody() == null) {
+                throw new RuntimeException("Failed to create signed URLs: " + resp.getStatusCode());
+            }
+            for (JsonNode item : OBJECT_MAPPER.readTree(resp.getBody())) {
+                String path = item.path("path").asText(null);
+                String signed = item.path("signedURL").asText(null);
+                if (path == null || signed == null || signed.isBlank() || !item.path("error").isMissingNode() && !item.path("error").isNull()) {
+                    continue;
+                }
+                signed = absoluteSignedUrl(signed);
+                cacheSignedUrl(path, bucketSeconds, signed, signedAt);
+                for (String input : missing.getOrDefault(path, List.of())) {
+                    result.put(input, signed);
+                }
+            }
+            return result;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to create signed URLs: " + e.getMessage(), e);
+        }
+    }
+
+    // Supabase returns a relative URL starting with /storage/...
+    private String absoluteSignedUrl(String signed) {
+        return signed.startsWith("/") ? supabaseUrl + signed : signed;
+    }
+
+    // Requested lifetime, at least 1s and at most a year, so bucketing below cannot overflow
+    static int clampExpiry(int expiresInSeconds) {
+        return Math.min(Math.max(1, expiresInSeconds), SIGNED_URL_MAX_SECONDS);
+    }
+
+    static int expiryBucket(int requestedSeconds) {
+        int seconds = Math.max(SIGNED_URL_BUCKET_SECONDS, requestedSeconds);
+        return ((seconds + SIGNED_URL_BUCKET_SECONDS - 1) / SIGNED_URL_BUCKET_SECONDS) * SIGNED_URL_BUCKET_SECONDS;
+    }
+
+    // One bucket of headroom over the bucket itself: every request in the bucket can reuse the URL for at least that long
+    static int signedLifetime(int bucketSeconds) {
+        return bucketSeconds + SIGNED_URL_BUCKET_SECONDS;
+    }
+
+    public int getSignedUrlCacheSize() { return signedUrls.size(); }
+    public long getSignedUrlHitCount() { return signedUrlHits.get(); }
+    public long getSignedUrlMissCount() { return signedUrlMisses.get(); }
+
+    private String cachedSignedUrl(String path, int bucketSeconds, int requestedSeconds) {
+        SignedUrl entry = signedUrls.get(path + "|" + bucketSeconds);
+        if (entry == null) {
+            signedUrlMisses.incrementAndGet();
+            return null;
+        }
+        // The caller gets at least the validity it asked for, never a URL about to expire
+        if (entry.expiresAt - System.currentTimeMillis() < requestedSeconds * 1000L) {
+            signedUrls.remove(path + "|" + bucketSeconds, entry);
+            signedUrlMisses.incrementAndGet();
+            return null;
+        }
+        signedUrlHits.incrementAndGet();
+        return entry.url;
+    }
+
+    // signedAt is taken before the sign request, so the recorded expiry never overstates the URL's validity
+    private void cacheSignedUrl(String path, int bucketSeconds, String url, long signedAt) {
+        if (signedUrls.size() >= SIGNED_URL_CACHE_MAX) {
+            long now = System.currentTimeMillis();
+            signedUrls.values().removeIf(e -> now >= e.expiresAt);
+            if (signedUrls.size() >= SIGNED_URL_CACHE_MAX) {
+                signedUrls.clear();
+            }
+        }
+        long expiresAt = signedAt + signedLifetime(bucketSeconds) * 1000L;
+        signedUrls.put(path + "|" + bucketSeconds, new SignedUrl(url, expiresAt));
+    }
+
+    private void evictSignedUrls(String path) {
+        String prefix = path + "|";
+        signedUrls.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private static final class SignedUrl {
+        final String url;
+        final long expiresAt;
+
+        SignedUrl(String url, long expiresAt) {
+            this.url = url;
+            this.expiresAt = expiresAt;
+        }
+    }
+
     public void deleteObject(String maybePathOrUrl) {
         String path = extractPath(maybePathOrUrl);
+        mediaCacheService.invalidate(path);
+        evictSignedUrls(path);
+        if (MediaVariantService.supports(path)) {
+            for (int width : MediaVariantService.WIDTHS) {
+                String variantPath = MediaVariantService.variantPath(path, width);
+                mediaCacheService.invalidate(variantPath);
+                try {
+                    deleteOne(variantPath);
+                } catch (RuntimeException e) {
+                    logger.debug("Could not delete variant {}: {}", variantPath, e.getMessage());
+                }
+            }
+        }
+        deleteOne(path);
+    }
+
+    private void deleteOne(String path) {
         String deleteUrl = String.format("%s/storage/v1/object/%s/%s", supabaseUrl, bucket, path);
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(supabaseServiceKey);
@@ -196,4 +423,145 @@ public class MediaStorageService {
             return ResponseEntity.status(httpEx.getStatusCode()).body(httpEx.getResponseBodyAsByteArray());
         }
     }
+
+    /**
+     * Proxy an object to the client without buffering it in memory.
+     *
+     * Cache hits are served from local disk (ranges and If-None-Match answered locally). A miss costs
+     * one upstream GET with Range and conditional headers forwarded, relayed to the servlet output as
+     * it arrives; a full 200 of known length up to app.media.cache.max-object-bytes is also written
+     * to the disk cache on the way through, anything else (206, 304, larger) is only relayed.
+     */
+    public void streamObject(String maybePathOrUrl, Integer width,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = extractPath(maybePathOrUrl);
+        int variantWidth = mediaVariantService.pickWidth(width);
+        if (variantWidth > 0 && MediaVariantService.supports(path)) {
+            String variantPath = MediaVariantService.variantPath(path, variantWidth);
+            Long missingSince = missingVariants.get(variantPath);
+            if (missingSince == null || System.currentTimeMillis() - missingSince > MISSING_VARIANT_TTL_MS) {
+                if (streamPath(variantPath, request, response, true)) {
+                    return;
+                }
+                if (missingVariants.size() > 10_000) {
+                    missingVariants.clear();
+                }
+                missingVariants.put(variantPath, System.currentTimeMillis());
+            }
+        }
+        streamPath(path, request, response, false);
+    }
+
+    /**
+     * Stream one storage path. With probe=true an upstream 404 writes nothing and returns false.
+     */
+    private boolean streamPath(String path, HttpServletRequest request, HttpServletResponse response,
+                               boolean probe) throws IOException {
+        String getUrl = String.format("%s/storage/v1/object/%s/%s", supabaseUrl, bucket, path);
+
+        boolean useCache = mediaCacheService.isEnabled();
+        if (useCache) {
+            MediaCacheService.CachedObject cached = mediaCacheService.lookup(path);
+            if (cached != null) {
+                mediaCacheService.serve(cached, request, response);
+                return true;
+            }
+        }
+
+        RequestCallback requestCallback = upstreamRequest -> {
+            HttpHeaders headers = upstreamRequest.getHeaders();
+            headers.setBearerAuth(supabaseServiceKey);
+            for (String name : FORWARDED_REQUEST_HEADERS) {
+                String value = request.getHeader(name);
+                if (value != null) {
+                    headers.set(name, value);
+                }
+            }
+        };
+        ResponseExtractor<Void> responseExtractor = upstream -> {
+            HttpHeaders headers = upstream.getHeaders();
+            response.setStatus(upstream.getStatusCode().value());
+            copyResponseHeaders(headers, response, true);
+            if (upstream.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                return null;
+            }
+            long length = headers.getContentLength();
+            try (InputStream in = upstream.getBody()) {
+                if (useCache && upstream.getStatusCode() == HttpStatus.OK
+                        && length >= 0 && length <= mediaCacheService.getMaxObjectBytes()) {
+                    // Fill the cache from the bytes relayed to this client; if the local write
+                    // gives up part way, the rest of the body is still relayed
+                    InputStream tee = new TeeInputStream(in, response.getOutputStream());
+                    mediaCacheService.store(path, tee,
+                            headers.getFirst(HttpHeaders.CONTENT_TYPE),
+                            headers.getFirst(HttpHeaders.ETAG),
+                            headers.getFirst(HttpHeaders.LAST_MODIFIED));
+                    tee.transferTo(OutputStream.nullOutputStream());
+                } else {
+                    in.transferTo(response.getOutputStream());
+                }
+            }
+            return null;
+        };
+
+        try {
+            restTemplate.execute(getUrl, HttpMethod.GET, requestCallback, responseExtractor);
+        } catch (HttpStatusCodeException httpEx) {
+            if (probe && httpEx.getStatusCode() == HttpStatus.NOT_FOUND) {
+                return false;
+            }
+            writeUpstreamError(httpEx, response);
+        } catch (ResourceAccessException ex) {
+            // Client disconnects surface here as well; only answer if nothing was sent yet
+            if (!response.isCommitted()) {
+                response.sendError(HttpStatus.BAD_GATEWAY.value());
+            }
+        }
+        return true;
+    }
+
+    // Copies every byte read from the upstream body to the client as well
+    private static final class TeeInputStream extends FilterInputStream {
+        private final OutputStream copy;
+
+        TeeInputStream(InputStream in, OutputStream copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) copy.write(b);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) copy.write(b, off, n);
+            return n;
+        }
+    }
+
+    private void writeUpstreamError(HttpStatusCodeException httpEx, HttpServletResponse response) throws IOException {
+        if (!response.isCommitted()) {
+            response.setStatus(httpEx.getStatusCode().value());
+            copyResponseHeaders(httpEx.getResponseHeaders(), response, false);
+            response.getOutputStream().write(httpEx.getResponseBodyAsByteArray());
+        }
+    }
+
+    private void copyResponseHeaders(HttpHeaders upstreamHeaders, HttpServletResponse response, boolean success) {
+        if (upstreamHeaders == null) return;
+        for (String name : FORWARDED_RESPONSE_HEADERS) {
+            String value = upstreamHeaders.getFirst(name);
+            if (value != null) {
+                response.setHeader(name, value);
+            }
+        }
+        if (success && upstreamHeaders.getFirst(HttpHeaders.CACHE_CONTROL) == null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, DEFAULT_CACHE_CONTROL);
+        }
+    }
 }
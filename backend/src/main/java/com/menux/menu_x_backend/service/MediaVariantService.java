@@ -0,0 +1,195 @@
+package com.menux.menu_x_backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Responsive variants of uploaded menu images.
+ *
+ * Every JPG/PNG upload gets a JPEG re-encode at each configured width (thumb/medium/full),
+ * never wider than the original and at most {@link #MAX_ASPECT} times as tall as that width,
+ * stored next to it as {@code <path-without-ext>_w<width>.jpg}.
+ * The media proxy maps a requested {@code w} to the smallest variant at least that wide.
+ * Dimensions are read from the header before decoding: images over the pixel budget get no
+ * variants, and large ones are decoded subsampled to just above the largest variant.
+ */
+@Service
+public class MediaVariantService {
+
+    public static final int[] WIDTHS = { 320, 800, 1600 };
+    public static final String[] NAMES = { "thumb", "medium", "full" };
+    // A variant is at most this many times as tall as its width, so very tall images shrink by height
+    public static final int MAX_ASPECT = 3;
+
+    @Value("${app.media.variants.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.media.variants.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    // Declared width x height above which an upload is not decoded at all (a small PNG can declare 50k x 50k)
+    @Value("${app.media.variants.max-pixels:50000000}")
+    private long maxPixels;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Variants are only produced for formats the JDK can decode */
+    public static boolean supports(String path) {
+        if (path == null) return false;
+        String lower = path.toLowerCase();
+        return lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png");
+    }
+
+    public static String variantPath(String path, int width) {
+        int slash = path.lastIndexOf('/');
+        int dot = path.lastIndexOf('.');
+        String base = dot > slash ? path.substring(0, dot) : path;
+        return base + "_w" + width + ".jpg";
+    }
+
+    /**
+     * Variant width to serve for a requested width; 0 means the original
+     */
+    public int pickWidth(Integer requested) {
+        if (!enabled || requested == null || requested <= 0) return 0;
+        for (int width : WIDTHS) {
+            if (width >= requested) return width;
+        }
+        return WIDTHS[WIDTHS.length - 1];
+    }
+
+    /**
+     * Render all variants of an original image, keyed by width. Empty if it cannot be decoded.
+     */
+    public Map<Integer, byte[]> renderVariants(byte[] original) throws IOException {
+        Map<Integer, byte[]> variants = new LinkedHashMap<>();
+        BufferedImage source;
+        int sourceWidth;
+        int sourceHeight;
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(original))) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) return variants;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                sourceWidth = reader.getWidth(0);
+                sourceHeight = reader.getHeight(0);
+                if ((long) sourceWidth * sourceHeight > maxPixels) {
+                    throw new IOException("image is " + sourceWidth + "x" + sourceHeight
+                            + " pixels, over the budget of " + maxPixels);
+                }
+                int step = decodeStep(sourceWidth, sourceHeight);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                source = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+        if (source == null) return variants;
+
+        // Flatten once onto white: JPEG has no alpha channel
+        BufferedImage current = toRgb(source);
+        for (int width : WIDTHS) {
+            int[] target = variantSize(width, sourceWidth, sourceHeight);
+            variants.put(width, encodeJpeg(scale(current, target[0], target[1])));
+        }
+        return variants;
+    }
+
+    /**
+     * Subsampling step that keeps every decoded row/column needed for the largest variant and skips the rest
+     */
+    static int decodeStep(int sourceWidth, int sourceHeight) {
+        int[] largest = variantSize(WIDTHS[WIDTHS.length - 1], sourceWidth, sourceHeight);
+        return Math.max(1, Math.min(sourceWidth / largest[0], sourceHeight / largest[1]));
+    }
+
+    /**
+     * Width and height of the variant for {@code width}: no wider than the source or the variant,
+     * no taller than {@link #MAX_ASPECT} times the variant width, aspect ratio kept
+     */
+    static int[] variantSize(int width, int sourceWidth, int sourceHeight) {
+        int targetWidth = Math.min(width, sourceWidth);
+        int targetHeight = Math.max(1, (int) Math.round((double) sourceHeight * targetWidth / sourceWidth));
+        int maxHeight = width * MAX_ASPECT;
+        if (targetHeight > maxHeight) {
+            targetHeight = maxHeight;
+            targetWidth = Math.max(1, (int) Math.round((double) sourceWidth * targetHeight / sourceHeight));
+        }
+        return new int[] { targetWidth, targetHeight };
+    }
+
+    private static BufferedImage toRgb(BufferedImage source) {
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, source.getWidth(), source.getHeight());
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+        return rgb;
+    }
+
+    // Halve repeatedly before the final bilinear step so large downscales don't alias
+    private static BufferedImage scale(BufferedImage source, int targetWidth, int targetHeight) {
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        while (w / 2 >= targetWidth && h / 2 >= targetHeight) {
+            w /= 2;
+            h /= 2;
+            current = draw(current, w, h);
+        }
+        if (w != targetWidth || h != targetHeight) {
+            current = draw(current, targetWidth, targetHeight);
+        }
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(source, 0, 0, width, height, null);
+        g.dispose();
+        return scaled;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
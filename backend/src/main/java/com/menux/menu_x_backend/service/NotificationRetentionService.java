@@ -0,0 +1,186 @@
+package com.menux.menu_x_backend.service;
+
+import com.menux.menu_x_backend.repository.NotificationUnreadCounterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Retention for notifications and delivery_attempts.
+ *
+ * On PostgreSQL both tables are partitioned by month (V104): the job pre-creates upcoming
+ * partitions and detaches/drops whole partitions older than NOTIFICATIONS_RETENTION_MONTHS,
+ * so cleanup cost does not depend on row counts. Rows that landed in the default partition, and
+ * all rows on other databases, are removed with the chunked delete in NotificationService.
+ */
+@Service
+public class NotificationRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetentionService.class);
+
+    static final String RETENTION_SETTING = "NOTIFICATIONS_RETENTION_MONTHS";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PlatformSettingService platformSettingService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationUnreadCounterRepository unreadCounterRepository;
+
+    @Value("${app.notifications.retention.months-ahead:3}")
+    private int monthsAhead;
+
+    private volatile Boolean partitioned;
+
+    // Run daily at 03:40 (after the subscription checks)
+    @Scheduled(cron = "${app.notifications.retention.cron:0 40 3 * * *}")
+    public void daily() {
+        try {
+            Map<String, Object> result = runRetention();
+            logger.info("Notification retention finished: {}", result);
+        } catch (Exception e) {
+            logger.error("Notification retention failed", e);
+        }
+    }
+
+    public Map<String, Object> runRetention() {
+        Map<String, Object> result = new HashMap<>();
+        int retentionMonths = platformSettingService.getIntegerSetting(RETENTION_SETTING, 6);
+        boolean usePartitions = isPartitioned();
+        result.put("partitioned", usePartitions);
+        result.put("retentionMonths", retentionMonths);
+
+        if (usePartitions) {
+            result.put("partitionsEnsured", ensureUpcomingPartitions());
+        }
+        if (retentionMonths <= 0) {
+            result.put("skipped", "retention disabled");
+            return result;
+        }
+
+        YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+        LocalDateTime cutoff = oldestKept.atDay(1).atStartOfDay();
+        result.put("cutoff", cutoff.toString());
+
+        if (usePartitions) {
+            List<String> dropped = new ArrayList<>();
+            dropped.addAll(dropPartitionsBefore("notifications", oldestKept, true));
+            dropped.addAll(dropPartitionsBefore("delivery_attempts", oldestKept, false));
+            result.put("droppedPartitions", dropped);
+        }
+
+        // Leftovers in the default partition (or everything on non-partitioned databases)
+        int deletedRows = notificationService.clearByCreatedAtBetween(LocalDateTime.of(1970, 1, 1, 0, 0), cutoff.minusNanos(1000));
+        result.put("deletedRows", deletedRows);
+        return result;
+    }
+
+    private List<String> ensureUpcomingPartitions() {
+        List<String> ensured = new ArrayList<>();
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= Math.max(0, monthsAhead); i++) {
+            LocalDate start = month.plusMonths(i).atDay(1);
+            for (String parent : List.of("notifications", "delivery_attempts")) {
+                try {
+                    ensured.add(jdbcTemplate.queryForObject(
+                            "SELECT menux_ensure_monthly_partition(?, ?)", String.class, parent, java.sql.Date.valueOf(start)));
+                } catch (Exception e) {
+                    // Typically rows for that month already sit in the default partition
+                    logger.warn("Could not create partition of {} for {}: {}", parent, start, e.getMessage());
+                }
+            }
+        }
+        return ensured;
+    }
+
+    private List<String> dropPartitionsBefore(String parent, YearMonth oldestKept, boolean adjustUnreadCounters) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ? ORDER BY c.relname", String.class, parent);
+
+        String prefix = parent + "_p";
+        List<String> dropped = new ArrayList<>();
+        for (String partition : partitions) {
+            if (!partition.startsWith(prefix)) continue; // skips the default partition
+            YearMonth month;
+            try {
+                month = YearMonth.parse(partition.substring(prefix.length()), PARTITION_SUFFIX);
+            } catch (Exception e) {
+                continue;
+            }
+            if (!month.isBefore(oldestKept)) continue;
+
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            tx.executeWithoutResult(status -> {
+                if (adjustUnreadCounters) {
+                    releaseUnreadCounts(partition);
+                }
+                jdbcTemplate.execute("ALTER TABLE " + parent + " DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            });
+            dropped.add(partition);
+        }
+        return dropped;
+    }
+
+    // Unread rows disappearing with a partition must come off the per-user counters
+    private void releaseUnreadCounts(String partition) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT target_user_id, COUNT(*) AS unread FROM " + partition +
+                " WHERE read_at IS NULL AND target_user_id IS NOT NULL GROUP BY target_user_id");
+        LocalDateTime now = LocalDateTime.now();
+        for (Map<String, Object> row : rows) {
+            Long userId = ((Number) row.get("target_user_id")).longValue();
+            long unread = ((Number) row.get("unread")).longValue();
+            unreadCounterRepository.decrement(userId, unread, now);
+        }
+    }
+
+    private boolean isPartitioned() {
+        Boolean cached = partitioned;
+        if (cached != null) return cached;
+        boolean result = false;
+        try (Connection connection = dataSource.getConnection()) {
+            if ("PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+                String kind = jdbcTemplate.queryForObject(
+                        "SELECT c.relkind::text FROM pg_class c WHERE c.relname = 'notifications' LIMIT 1", String.class);
+                result = "p".equals(kind);
+            }
+        } catch (Exception e) {
+            logger.debug("Could not determine notifications partitioning: {}", e.getMessage());
+        }
+        partitioned = result;
+        return result;
+    }
+}
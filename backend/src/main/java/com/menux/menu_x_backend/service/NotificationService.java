@@ -5,16 +5,25 @@ import com.menux.menu_x_backend.dto.notifications.NotificationPreferenceDto;
 import com.menux.menu_x_backend.dto.notifications.UpdatePreferencesRequest;
 import com.menux.menu_x_backend.entity.Notification;
 import com.menux.menu_x_backend.entity.NotificationPreference;
+import com.menux.menu_x_backend.entity.NotificationUnreadCounter;
+import com.menux.menu_x_backend.repository.DeliveryAttemptRepository;
 import com.menux.menu_x_backend.repository.NotificationPreferenceRepository;
 import com.menux.menu_x_backend.repository.NotificationRepository;
+import com.menux.menu_x_backend.repository.NotificationUnreadCounterRepository;
 import com.menux.menu_x_backend.service.realtime.RealtimeNotificationGateway;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -30,6 +39,18 @@ public class NotificationService {
     @Autowired
     private NotificationPreferenceRepository preferenceRepository;
 
+    @Autowired
+    private NotificationUnreadCounterRepository unreadCounterRepository;
+
+    @Autowired
+    private DeliveryAttemptRepository deliveryAttemptRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.notifications.clear-chunk-size:1000}")
+    private int clearChunkSize;
+
     // Legacy Web Push dependencies removed
 
     @Autowired
@@ -38,6 +59,9 @@ public class NotificationService {
     @Autowired
     private FcmService fcmService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     public Page<NotificationDto> list(Long userId, boolean unreadOnly, Pageable pageable) {
         Page<Notification> page = unreadOnly
                 ? notificationRepository.findByTargetUserIdAndReadAtIsNullOrderByCreatedAtDesc(userId, pageable)
@@ -45,35 +69,37 @@ public class NotificationService {
         return page.map(NotificationDto::from);
     }
 
+    /**
+     * Unread badge count, served from the denormalized counter. The counter is seeded from the
+     * notifications table the first time a user is seen.
+     */
+    @Transactional
     public long unreadCount(Long userId) {
-        return notificationRepository.countByTargetUserIdAndReadAtIsNull(userId);
+        Optional<NotificationUnreadCounter> counter = unreadCounterRepository.findById(userId);
+        if (counter.isPresent()) {
+            return counter.get().getUnreadCount();
+        }
+        return seedUnreadCounter(userId);
     }
 
     @Transactional
     public boolean markRead(Long userId, Long notificationId) {
-        Optional<Notification> opt = notificationRepository.findByIdAndTargetUserId(notificationId, userId);
-        if (opt.isEmpty()) return false;
-        Notification n = opt.get();
-        if (n.getReadAt() == null) {
-            n.setReadAt(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        if (notificationRepository.markReadIfUnread(notificationId, userId, Notification.Status.READ, now) > 0) {
+            unreadCounterRepository.decrement(userId, 1, now);
+            return true;
         }
-        n.setStatus(Notification.Status.READ);
-        notificationRepository.save(n);
-        return true;
+        // Already read (idempotent) or not owned by the user
+        return notificationRepository.findByIdAndTargetUserId(notificationId, userId).isPresent();
     }
 
     @Transactional
     public int markAllRead(Long userId) {
-        List<Notification> unread = notificationRepository.findByTargetUserIdAndReadAtIsNull(userId);
         LocalDateTime now = LocalDateTime.now();
-        for (Notification n : unread) {
-            n.setReadAt(now);
-            n.setStatus(Notification.Status.READ);
-        }
-        if (!unread.isEmpty()) {
-            notificationRepository.saveAll(unread);
-        }
-        return unread.size();
+        int updated = notificationRepository.markAllReadByTargetUserId(userId, Notification.Status.READ, now);
+        // Subtract what was actually marked: a notification created after the UPDATE stays counted
+        unreadCounterRepository.decrement(userId, updated, now);
+        return updated;
     }
 
     /**
@@ -105,21 +131,40 @@ public class NotificationService {
         n.setPriority(Notification.Priority.NORMAL);
         n.setStatus(Notification.Status.PENDING);
         Notification saved = notificationRepository.save(n);
+        if (saved.getTargetUserId() != null) {
+            incrementUnread(saved.getTargetUserId());
+        }
         // Web Push delivery removed (legacy)
         // Publish realtime in-app notification via WebSocket/STOMP
+        Timer.Sample realtime = Timer.start(meterRegistry);
+        String realtimeOutcome = "success";
         try {
             NotificationDto dto = NotificationDto.from(saved);
             realtimeGateway.sendToUser(saved.getTargetUserId(), dto);
         } catch (Exception ignored) {
+            realtimeOutcome = "error";
         }
+        realtime.stop(dispatchTimer("realtime", realtimeOutcome));
         // Attempt native push via FCM (gated by feature flag; no-op until migrations/persistence ready)
+        Timer.Sample push = Timer.start(meterRegistry);
+        String pushOutcome = "success";
         try {
             fcmService.sendIfEnabled(saved);
         } catch (Exception ignored) {
+            pushOutcome = "error";
         }
+        push.stop(dispatchTimer("fcm", pushOutcome));
         return NotificationDto.from(saved);
     }
 
+    private Timer dispatchTimer(String channel, String outcome) {
+        return Timer.builder("menux.notifications.dispatch")
+                .description("Notification delivery per channel")
+                .tag("channel", channel)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
     /**
      * Overload that accepts a Map and converts to JSON.
      */
@@ -174,12 +219,69 @@ public class NotificationService {
 
     @Transactional
     public boolean deleteOne(Long userId, Long notificationId) {
-        return notificationRepository.deleteByIdAndTargetUserId(notificationId, userId) > 0;
+        Optional<Notification> opt = notificationRepository.findByIdAndTargetUserId(notificationId, userId);
+        if (opt.isEmpty()) return false;
+        boolean wasUnread = opt.get().getReadAt() == null;
+        deliveryAttemptRepository.deleteByNotificationId(notificationId);
+        boolean deleted = notificationRepository.deleteByIdAndTargetUserId(notificationId, userId) > 0;
+        if (deleted && wasUnread) {
+            unreadCounterRepository.decrement(userId, 1, LocalDateTime.now());
+        }
+        return deleted;
     }
 
     @Transactional
     public int deleteAll(Long userId) {
-        return notificationRepository.deleteByTargetUserId(userId);
+        deliveryAttemptRepository.deleteByNotificationTargetUserId(userId);
+        // Unread rows first so the counter drops by exactly what was deleted, never by rows created meanwhile
+        int deletedUnread = notificationRepository.deleteUnreadByTargetUserId(userId);
+        unreadCounterRepository.decrement(userId, deletedUnread, LocalDateTime.now());
+        return deletedUnread + notificationRepository.deleteReadByTargetUserId(userId);
+    }
+
+    /**
+     * Admin bulk clear over a created_at range. Rows are deleted in id-ordered chunks, each in
+     * its own short transaction, so a large range never holds locks for the whole delete.
+     * Unread counters of affected users are adjusted per chunk, and the notifications' delivery
+     * attempts are removed with them.
+     *
+     * @return total number of notifications deleted
+     */
+    public int clearByCreatedAtBetween(LocalDateTime start, LocalDateTime end) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Pageable chunk = PageRequest.of(0, Math.max(1, clearChunkSize));
+        int total = 0;
+        while (true) {
+            Integer deleted = tx.execute(status -> {
+                List<Long> ids = notificationRepository.findIdsByCreatedAtBetween(start, end, chunk);
+                if (ids.isEmpty()) return 0;
+                List<Object[]> unreadByUser = notificationRepository.countUnreadByTargetUserForIds(ids);
+                deliveryAttemptRepository.deleteByNotificationIdIn(ids);
+                int count = notificationRepository.deleteByIdIn(ids);
+                LocalDateTime now = LocalDateTime.now();
+                for (Object[] row : unreadByUser) {
+                    unreadCounterRepository.decrement((Long) row[0], ((Number) row[1]).longValue(), now);
+                }
+                return count;
+            });
+            if (deleted == null || deleted == 0) break;
+            total += deleted;
+        }
+        return total;
+    }
+
+    private void incrementUnread(Long userId) {
+        if (unreadCounterRepository.increment(userId, 1, LocalDateTime.now()) == 0) {
+            // No counter yet: seeding counts the row that was just inserted
+            seedUnreadCounter(userId);
+        }
+    }
+
+    private long seedUnreadCounter(Long userId) {
+        unreadCounterRepository.seedFromNotifications(userId);
+        return unreadCounterRepository.findById(userId)
+                .map(NotificationUnreadCounter::getUnreadCount)
+                .orElseGet(() -> notificationRepository.countByTargetUserIdAndReadAtIsNull(userId));
     }
 
     // Legacy push-subscription handlers removed
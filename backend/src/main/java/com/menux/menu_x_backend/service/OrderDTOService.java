@@ -23,6 +23,32 @@ public class OrderDTOService {
      * Safely create OrderDTO from Order entity without triggering lazy loading
      */
     public OrderDTO createOrderDTO(Order order) {
+        // Safely load order items via repository to avoid LazyInitializationException
+        List<OrderItem> orderItems = orderItemRepository.findByOrderId(order.getId());
+        return toOrderDTO(order, orderItems.stream()
+            .map(this::createOrderItemDTO)
+            .collect(Collectors.toList()));
+    }
+
+    /**
+     * Create OrderDTO for an order whose items were just saved in this request, with their menu items
+     * attached; nothing is loaded from the database
+     */
+    public OrderDTO createOrderDTO(Order order, List<OrderItem> savedItems) {
+        return toOrderDTO(order, savedItems.stream()
+            .map(item -> {
+                OrderDTO.OrderItemDTO dto = new OrderDTO.OrderItemDTO();
+                dto.setId(item.getId());
+                dto.setQuantity(item.getQuantity());
+                dto.setPrice(item.getPrice());
+                dto.setSpecialInstructions(item.getSpecialInstructions());
+                dto.setName(item.getMenuItem() != null ? item.getMenuItem().getName() : null);
+                return dto;
+            })
+            .collect(Collectors.toList()));
+    }
+
+    private OrderDTO toOrderDTO(Order order, List<OrderDTO.OrderItemDTO> items) {
         OrderDTO dto = new OrderDTO();
         dto.setId(order.getId());
         dto.setOrderNumber(order.getOrderNumber());
@@ -38,12 +64,6 @@ public class OrderDTOService {
         dto.setCreatedAt(order.getCreatedAt());
         dto.setUpdatedAt(order.getUpdatedAt());
         dto.setCompletedAt(order.getCompletedAt());
-        
-        // Safely load order items via repository to avoid LazyInitializationException
-        List<OrderItem> orderItems = orderItemRepository.findByOrderId(order.getId());
-        List<OrderDTO.OrderItemDTO> items = orderItems.stream()
-            .map(this::createOrderItemDTO)
-            .collect(Collectors.toList());
         dto.setItems(items);
         
         return dto;
@@ -0,0 +1,261 @@
+package com.menux.menu_x_backend.service;
+
+import com.menux.menu_x_backend.dto.admin.PlatformAnalyticsDTO;
+import com.menux.menu_x_backend.entity.PlatformMetricsSnapshot;
+import com.menux.menu_x_backend.repository.PlatformMetricsSnapshotRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Admin dashboard metrics. The counts and trend comparisons are computed on a schedule into the single
+ * platform_metrics_snapshots row; the dashboard reads that row and shows when it was computed.
+ * The same schedule keeps restaurant_order_totals current, which the admin restaurant listing sorts by;
+ * each pass only re-aggregates restaurants with orders created or updated since the previous one.
+ */
+@Service
+public class PlatformAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlatformAnalyticsService.class);
+
+    private static final double PRO_SUBSCRIPTION_FEE = 1500.0;
+
+    // Current totals in one round trip; user metrics count restaurant owners only (no SUPER_ADMIN)
+    private static final String TOTALS_SQL =
+            "SELECT (SELECT COUNT(*) FROM users WHERE role = 'RESTAURANT_OWNER')," +
+            " (SELECT COUNT(*) FROM users WHERE role = 'RESTAURANT_OWNER' AND is_active = TRUE)," +
+            " (SELECT COUNT(*) FROM restaurants)," +
+            " (SELECT COUNT(*) FROM restaurants WHERE subscription_plan = 'PRO')," +
+            " (SELECT COUNT(*) FROM restaurants WHERE subscription_plan = 'BASIC')," +
+            " (SELECT COUNT(*) FROM orders)," +
+            " (SELECT COALESCE(SUM(total_amount), 0) FROM orders WHERE status = 'SERVED')";
+
+    // Restaurants with an order created or updated since the watermark (orders.updated_at is set on insert too)
+    private static final String CHANGED_RESTAURANTS_SQL =
+            "SELECT DISTINCT restaurant_id FROM orders WHERE updated_at >= ?";
+
+    private static final String ORDER_TOTALS_DELETE_CHANGED_SQL =
+            "DELETE FROM restaurant_order_totals WHERE restaurant_id IN (" + CHANGED_RESTAURANTS_SQL + ")";
+
+    private static final String ORDER_TOTALS_INSERT_CHANGED_SQL =
+            "INSERT INTO restaurant_order_totals (restaurant_id, order_count, served_revenue, computed_at)" +
+            " SELECT restaurant_id, COUNT(*)," +
+            " COALESCE(SUM(CASE WHEN status = 'SERVED' THEN total_amount ELSE 0 END), 0), ?" +
+            " FROM orders WHERE restaurant_id IN (" + CHANGED_RESTAURANTS_SQL + ") GROUP BY restaurant_id";
+
+    // Orders only disappear with their restaurant, so the only stale rows are for deleted restaurants
+    private static final String ORDER_TOTALS_PRUNE_SQL =
+            "DELETE FROM restaurant_order_totals WHERE restaurant_id NOT IN (SELECT id FROM restaurants)";
+
+    // Re-scan this far behind the previous pass so orders committed just after it started are not missed
+    private static final Duration ORDER_TOTALS_OVERLAP = Duration.ofMinutes(2);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SystemHealthService systemHealthService;
+
+    @Autowired
+    private PlatformMetricsSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Start of the previous totals pass; recovered from the table after a restart
+    private volatile LocalDateTime orderTotalsWatermark;
+
+    public PlatformAnalyticsDTO getAnalytics() {
+        PlatformMetricsSnapshot snapshot = snapshotRepository.findById(PlatformMetricsSnapshot.SINGLETON_ID)
+                .orElseGet(this::refresh);
+        return toDto(snapshot);
+    }
+
+    public PlatformAnalyticsDTO refreshAnalytics() {
+        return toDto(refresh());
+    }
+
+    // Refresh interval is app.admin.analytics.refresh-ms; the first run happens at startup
+    @Scheduled(fixedDelayString = "${app.admin.analytics.refresh-ms:300000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.error("Failed to refresh platform metrics snapshot", e);
+        }
+        try {
+            refreshRestaurantOrderTotals();
+        } catch (Exception e) {
+            logger.error("Failed to rebuild restaurant order totals", e);
+        }
+    }
+
+    /**
+     * Recompute the totals of restaurants whose orders changed since the previous pass, in one transaction;
+     * readers see the previous rows until commit. Returns the number of restaurants recomputed.
+     */
+    public int refreshRestaurantOrderTotals() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime watermark = orderTotalsWatermark;
+        if (watermark == null) {
+            // After a restart: continue from the newest computed row, or aggregate everything on an empty table
+            Timestamp newest = jdbcTemplate.queryForObject("SELECT MAX(computed_at) FROM restaurant_order_totals", Timestamp.class);
+            watermark = newest != null ? newest.toLocalDateTime() : LocalDateTime.of(1970, 1, 1, 0, 0);
+        }
+        Timestamp since = Timestamp.valueOf(watermark.minus(ORDER_TOTALS_OVERLAP));
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Integer rows = tx.execute(status -> {
+            jdbcTemplate.update(ORDER_TOTALS_DELETE_CHANGED_SQL, since);
+            int inserted = jdbcTemplate.update(ORDER_TOTALS_INSERT_CHANGED_SQL, Timestamp.valueOf(startedAt), since);
+            jdbcTemplate.update(ORDER_TOTALS_PRUNE_SQL);
+            return inserted;
+        });
+        orderTotalsWatermark = startedAt;
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * Recompute every metric and overwrite the snapshot row
+     */
+    public PlatformMetricsSnapshot refresh() {
+        return Timer.builder("menux.analytics.snapshot.refresh")
+                .description("Platform metrics snapshot recomputation")
+                .register(meterRegistry)
+                .record(this::computeAndSave);
+    }
+
+    private PlatformMetricsSnapshot computeAndSave() {
+        PlatformMetricsSnapshot snapshot = jdbcTemplate.queryForObject(TOTALS_SQL, (rs, rowNum) -> {
+            PlatformMetricsSnapshot s = new PlatformMetricsSnapshot();
+            s.setTotalUsers(rs.getLong(1));
+            s.setActiveUsers(rs.getLong(2));
+            s.setTotalRestaurants(rs.getLong(3));
+            s.setProSubscriptions(rs.getLong(4));
+            s.setBasicSubscriptions(rs.getLong(5));
+            s.setTotalOrders(rs.getLong(6));
+            // Monthly revenue from actual orders and subscriptions
+            s.setMonthlyRevenue(rs.getDouble(7) + s.getProSubscriptions() * PRO_SUBSCRIPTION_FEE);
+            return s;
+        });
+
+        snapshot.setSystemHealth(systemHealthService.calculateSystemHealth());
+        // Conversion rate calculation (Pro / Total restaurants)
+        snapshot.setConversionRate(snapshot.getTotalRestaurants() > 0
+                ? ((double) snapshot.getProSubscriptions() / snapshot.getTotalRestaurants()) * 100 : 0.0);
+
+        // Percentage changes from previous month
+        snapshot.setTotalUsersChange(calculateRealTrendChange(snapshot.getTotalUsers(), "users"));
+        snapshot.setTotalRestaurantsChange(calculateRealTrendChange(snapshot.getTotalRestaurants(), "restaurants"));
+        snapshot.setProSubscriptionsChange(calculateRealTrendChange(snapshot.getProSubscriptions(), "pro_subscriptions"));
+        snapshot.setMonthlyRevenueChange(calculateRealTrendChange((long) snapshot.getMonthlyRevenue(), "revenue"));
+        snapshot.setActiveUsersChange(calculateRealTrendChange(snapshot.getActiveUsers(), "active_users"));
+
+        snapshot.setComputedAt(LocalDateTime.now());
+        return snapshotRepository.save(snapshot);
+    }
+
+    private static PlatformAnalyticsDTO toDto(PlatformMetricsSnapshot s) {
+        PlatformAnalyticsDTO dto = new PlatformAnalyticsDTO(
+            s.getTotalUsers(),
+            s.getTotalRestaurants(),
+            s.getProSubscriptions(),
+            s.getBasicSubscriptions(),
+            s.getMonthlyRevenue(),
+            s.getActiveUsers(),
+            s.getSystemHealth(),
+            s.getTotalOrders(),
+            s.getConversionRate(),
+            s.getTotalUsersChange(),
+            s.getTotalRestaurantsChange(),
+            s.getProSubscriptionsChange(),
+            s.getMonthlyRevenueChange(),
+            s.getActiveUsersChange()
+        );
+        dto.setComputedAt(s.getComputedAt());
+        return dto;
+    }
+
+    /**
+     * Calculate real trend change percentage by comparing current vs previous month data
+     */
+    private Double calculateRealTrendChange(Long currentValue, String metric) {
+        if (currentValue == null || currentValue == 0) {
+            return 0.0;
+        }
+
+        try {
+            // Get the count from 30 days ago for comparison
+            LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
+            Long previousValue = getPreviousMonthValue(metric, thirtyDaysAgo);
+
+            if (previousValue == null || previousValue == 0) {
+                // If no previous data, return 0% change
+                return 0.0;
+            }
+
+            // Calculate percentage change: ((current - previous) / previous) * 100
+            double change = ((currentValue.doubleValue() - previousValue.doubleValue()) / previousValue.doubleValue()) * 100.0;
+
+            // Round to 1 decimal place
+            return Math.round(change * 10.0) / 10.0;
+
+        } catch (Exception e) {
+            // If there's an error calculating real trends, return 0% change
+            logger.warn("Failed to calculate trend change for metric {}: {}", metric, e.getMessage());
+            return 0.0;
+        }
+    }
+
+    /**
+     * Get the count of a specific metric from a previous date
+     */
+    private Long getPreviousMonthValue(String metric, LocalDateTime date) {
+        try {
+            return switch (metric) {
+                case "users" -> jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM users WHERE created_at <= ?",
+                    Long.class, date
+                );
+                case "restaurants" -> jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM restaurants WHERE created_at <= ?",
+                    Long.class, date
+                );
+                case "pro_subscriptions" -> jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM restaurant_subscriptions WHERE subscription_plan = 'PRO' AND created_at <= ?",
+                    Long.class, date
+                );
+                case "revenue" -> {
+                    Double revenue = jdbcTemplate.queryForObject(
+                        "SELECT COALESCE(SUM(amount), 0) FROM manual_payments WHERE created_at <= ? AND created_at >= ?",
+                        Double.class, date, date.minusDays(30)
+                    );
+                    yield revenue != null ? revenue.longValue() : 0L;
+                }
+                case "active_users" -> jdbcTemplate.queryForObject(
+                    "SELECT COUNT(DISTINCT user_id) FROM menu_views WHERE created_at <= ? AND created_at >= ?",
+                    Long.class, date, date.minusDays(7)
+                );
+                default -> 0L;
+            };
+        } catch (DataAccessException e) {
+            logger.warn("Failed to get previous month value for metric {}: {}", metric, e.getMessage());
+            return 0L;
+        }
+    }
+}
@@ -135,6 +135,9 @@ public class PlatformSettingService {
         createSystemSettingIfNotExists("SUB_NOTIFY_DAYS_BEFORE_TRIAL_END", "3", PlatformSetting.ValueType.INTEGER, "Days before trial end to notify owner", false);
         createSystemSettingIfNotExists("SUB_NOTIFY_DAYS_BEFORE_PERIOD_END", "5", PlatformSetting.ValueType.INTEGER, "Days before paid period end to notify owner", false);
         createSystemSettingIfNotExists("SUB_TRIAL_ONCE_PER_RESTAURANT", "true", PlatformSetting.ValueType.BOOLEAN, "Allow only one trial per restaurant", false);
+
+        // Notifications retention
+        createSystemSettingIfNotExists("NOTIFICATIONS_RETENTION_MONTHS", "6", PlatformSetting.ValueType.INTEGER, "Months of notifications and delivery attempts to keep; older monthly partitions are dropped (0 disables)", false);
     }
     
     private void createSystemSettingIfNotExists(String key, String value, PlatformSetting.ValueType valueType, String description, Boolean isPublic) {
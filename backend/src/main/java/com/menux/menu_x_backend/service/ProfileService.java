@@ -6,10 +6,13 @@ import com.menux.menu_x_backend.entity.User;
 import com.menux.menu_x_backend.entity.UserProfile;
 import com.menux.menu_x_backend.repository.UserProfileRepository;
 import com.menux.menu_x_backend.repository.UserRepository;
+import com.menux.menu_x_backend.service.realtime.UserPresenceRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Optional;
@@ -29,6 +32,9 @@ public class ProfileService {
     @Autowired
     private RestaurantService restaurantService;
 
+    @Autowired
+    private UserPresenceRegistry presenceRegistry;
+
     public OwnerProfileResponse buildOwnerProfile(User user) {
         OwnerProfileResponse dto = new OwnerProfileResponse();
         dto.id = user.getId();
@@ -83,6 +89,7 @@ public class ProfileService {
             }
             user.setEmail(newEmail);
         }
+        boolean usernameChanged = false;
         if (req.username != null && !req.username.isBlank()) {
             String desired = req.username.trim();
             if (!desired.equals(user.getUsername())) {
@@ -93,9 +100,13 @@ public class ProfileService {
                     throw new IllegalArgumentException("Username already taken");
                 }
                 user.setUsername(desired);
+                usernameChanged = true;
             }
         }
         userRepository.save(user);
+        if (usernameChanged) {
+            invalidatePresenceAfterCommit(user.getId());
+        }
 
         if (req.business != null) {
             restaurantService.getCurrentUserRestaurant().ifPresent(restaurant -> {
@@ -110,6 +121,20 @@ public class ProfileService {
         return buildOwnerProfile(user);
     }
 
+    // A push between the invalidation and the commit would re-cache the old username, so drop it once the new one is visible
+    private void invalidatePresenceAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    presenceRegistry.invalidate(userId);
+                }
+            });
+        } else {
+            presenceRegistry.invalidate(userId);
+        }
+    }
+
     public AdminProfileResponse updateAdminProfile(User user, AdminProfileUpdateRequest req) {
         if (req == null) return buildAdminProfile(user);
         if (req.fullName != null && !req.fullName.isBlank()) user.setFullName(req.fullName.trim());
@@ -0,0 +1,336 @@
+package com.menux.menu_x_backend.service;
+
+import com.google.zxing.WriterException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed cache for rendered QR images.
+ *
+ * The key is a SHA-256 over everything that affects the pixels (URL, size, format and the
+ * customization fields), so a changed setting simply produces a new key and the hash doubles as
+ * the ETag. Entries live in a byte-bounded in-memory LRU backed by files under
+ * {@code app.qr.cache.dir/<restaurantId>/}, which survive restarts. The disk tier is byte-bounded
+ * too: an in-memory LRU index (rebuilt from the directory on startup) evicts the least recently
+ * used files past {@code app.qr.cache.disk-max-bytes}. Callers can keep ad-hoc renders (previews)
+ * out of the disk tier. Saving or resetting a restaurant's customization drops its entries from
+ * both tiers.
+ */
+@Service
+public class QRCodeCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QRCodeCacheService.class);
+
+    @FunctionalInterface
+    public interface Renderer {
+        byte[] render() throws WriterException, IOException;
+    }
+
+    public static final class CachedQRCode {
+        private final String hash;
+        private final byte[] bytes;
+
+        CachedQRCode(String hash, byte[] bytes) {
+            this.hash = hash;
+            this.bytes = bytes;
+        }
+
+        public byte[] getBytes() { return bytes; }
+
+        /** Strong ETag value, quoted */
+        public String getETag() { return "\"" + hash + "\""; }
+
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+            String etag = getETag();
+            for (String candidate : ifNoneMatch.split(",")) {
+                String value = candidate.trim();
+                if (value.startsWith("W/")) value = value.substring(2);
+                if (value.equals(etag) || value.equals("*")) return true;
+            }
+            return false;
+        }
+    }
+
+    private final boolean enabled;
+    private final long maxMemoryBytes;
+    private final Path diskDir;
+    private final long maxDiskBytes;
+    private final Map<String, byte[]> memory = new LinkedHashMap<>(128, 0.75f, true);
+    private long memoryBytes;
+
+    // "<restaurantId>/<hash>" -> file size, in access order
+    private final Map<String, Long> diskIndex = new LinkedHashMap<>(1024, 0.75f, true);
+    private long diskBytes;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong diskEvictions = new AtomicLong();
+
+    public QRCodeCacheService(@Value("${app.qr.cache.enabled:true}") boolean enabled,
+                              @Value("${app.qr.cache.memory-max-bytes:16777216}") long maxMemoryBytes,
+                              @Value("${app.qr.cache.dir:}") String dir,
+                              @Value("${app.qr.cache.disk-max-bytes:268435456}") long maxDiskBytes) {
+        this.enabled = enabled;
+        this.maxMemoryBytes = Math.max(0, maxMemoryBytes);
+        this.diskDir = dir == null || dir.isBlank() ? null : Paths.get(dir);
+        this.maxDiskBytes = Math.max(0, maxDiskBytes);
+    }
+
+    @PostConstruct
+    void init() {
+        if (!enabled || diskDir == null || !Files.isDirectory(diskDir)) return;
+        try {
+            rebuildDiskIndex();
+        } catch (IOException e) {
+            logger.warn("Could not index QR disk cache at {}: {}", diskDir, e.getMessage());
+        }
+    }
+
+    /**
+     * Return the cached image for the key material, rendering and storing it on a miss.
+     */
+    public CachedQRCode getOrRender(Long restaurantId, String keyMaterial, Renderer renderer)
+            throws WriterException, IOException {
+        return getOrRender(restaurantId, keyMaterial, renderer, true);
+    }
+
+    /**
+     * As {@link #getOrRender(Long, String, Renderer)}; with {@code persist} false a miss is kept in
+     * the memory tier only, for renders of unsaved settings that are unlikely to be asked for again.
+     */
+    public CachedQRCode getOrRender(Long restaurantId, String keyMaterial, Renderer renderer, boolean persist)
+            throws WriterException, IOException {
+        String hash = hash(keyMaterial);
+        if (!enabled) {
+            return new CachedQRCode(hash, renderer.render());
+        }
+        String memoryKey = restaurantId + "/" + hash;
+
+        byte[] bytes = fromMemory(memoryKey);
+        if (bytes != null) {
+            memoryHits.incrementAndGet();
+        } else {
+            bytes = fromDisk(restaurantId, hash);
+            if (bytes != null) {
+                diskHits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+                bytes = renderer.render();
+                if (persist) {
+                    toDisk(restaurantId, hash, bytes);
+                }
+            }
+            toMemory(memoryKey, bytes);
+        }
+        return new CachedQRCode(hash, bytes);
+    }
+
+    /**
+     * Drop every cached image of a restaurant (both tiers)
+     */
+    public void invalidateRestaurant(Long restaurantId) {
+        if (restaurantId == null) return;
+        String prefix = restaurantId + "/";
+        synchronized (memory) {
+            Iterator<Map.Entry<String, byte[]>> it = memory.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, byte[]> entry = it.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    memoryBytes -= entry.getValue().length;
+                    it.remove();
+                }
+            }
+        }
+        if (diskDir == null) return;
+        synchronized (diskIndex) {
+            Iterator<Map.Entry<String, Long>> it = diskIndex.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Long> entry = it.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    diskBytes -= entry.getValue();
+                    it.remove();
+                }
+            }
+        }
+        Path restaurantDir = diskDir.resolve(String.valueOf(restaurantId));
+        if (!Files.isDirectory(restaurantDir)) return;
+        try (Stream<Path> files = Files.walk(restaurantDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    logger.debug("Could not delete cached QR {}: {}", path, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Could not clear QR cache for restaurant {}: {}", restaurantId, e.getMessage());
+        }
+    }
+
+    public long getMemoryHitCount() { return memoryHits.get(); }
+    public long getDiskHitCount() { return diskHits.get(); }
+    public long getMissCount() { return misses.get(); }
+    public long getDiskEvictionCount() { return diskEvictions.get(); }
+
+    public long getDiskBytes() {
+        synchronized (diskIndex) {
+            return diskBytes;
+        }
+    }
+
+    public int getMemoryEntryCount() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    public long getMemoryBytes() {
+        synchronized (memory) {
+            return memoryBytes;
+        }
+    }
+
+    private byte[] fromMemory(String key) {
+        synchronized (memory) {
+            return memory.get(key);
+        }
+    }
+
+    private void toMemory(String key, byte[] bytes) {
+        if (bytes.length > maxMemoryBytes) return;
+        synchronized (memory) {
+            byte[] previous = memory.put(key, bytes);
+            if (previous != null) {
+                memoryBytes -= previous.length;
+            }
+            memoryBytes += bytes.length;
+            Iterator<Map.Entry<String, byte[]>> it = memory.entrySet().iterator();
+            while (memoryBytes > maxMemoryBytes && it.hasNext()) {
+                memoryBytes -= it.next().getValue().length;
+                it.remove();
+            }
+        }
+    }
+
+    private byte[] fromDisk(Long restaurantId, String hash) {
+        if (diskDir == null) return null;
+        String key = restaurantId + "/" + hash;
+        synchronized (diskIndex) {
+            // Only indexed files count; the lookup also marks the entry recently used
+            if (diskIndex.get(key) == null) return null;
+        }
+        Path file = diskDir.resolve(String.valueOf(restaurantId)).resolve(hash);
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            logger.debug("Could not read cached QR {}: {}", file, e.getMessage());
+            synchronized (diskIndex) {
+                Long size = diskIndex.remove(key);
+                if (size != null) diskBytes -= size;
+            }
+            return null;
+        }
+    }
+
+    private void toDisk(Long restaurantId, String hash, byte[] bytes) {
+        if (diskDir == null) return;
+        if (bytes.length > maxDiskBytes) return;
+        Path dir = diskDir.resolve(String.valueOf(restaurantId));
+        try {
+            Files.createDirectories(dir);
+            // Write to a temp file and move so readers never see a partial image
+            Path tmp = Files.createTempFile(dir, hash, ".tmp");
+            Files.write(tmp, bytes);
+            Files.move(tmp, dir.resolve(hash), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.debug("Could not write cached QR for restaurant {}: {}", restaurantId, e.getMessage());
+            return;
+        }
+        synchronized (diskIndex) {
+            Long previous = diskIndex.put(restaurantId + "/" + hash, (long) bytes.length);
+            if (previous != null) diskBytes -= previous;
+            diskBytes += bytes.length;
+        }
+        evictDiskIfNeeded();
+    }
+
+    private void evictDiskIfNeeded() {
+        List<String> victims = new ArrayList<>();
+        synchronized (diskIndex) {
+            Iterator<Map.Entry<String, Long>> it = diskIndex.entrySet().iterator();
+            while (diskBytes > maxDiskBytes && it.hasNext()) {
+                Map.Entry<String, Long> eldest = it.next();
+                diskBytes -= eldest.getValue();
+                victims.add(eldest.getKey());
+                it.remove();
+            }
+        }
+        for (String key : victims) {
+            diskEvictions.incrementAndGet();
+            try {
+                Files.deleteIfExists(diskDir.resolve(key));
+            } catch (IOException e) {
+                logger.debug("Could not delete cached QR {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    // Files are <dir>/<restaurantId>/<64-hex hash>; oldest modification first approximates LRU order
+    private void rebuildDiskIndex() throws IOException {
+        record Found(String key, long size, long lastUsed) {}
+        List<Found> found = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(diskDir, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getNameCount() - diskDir.getNameCount() != 2 || !Files.isRegularFile(file)) continue;
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                if (name.length() != 64) continue;
+                BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                found.add(new Found(file.getParent().getFileName() + "/" + name, attrs.size(),
+                        attrs.lastModifiedTime().toMillis()));
+            }
+        }
+        found.sort(Comparator.comparingLong(Found::lastUsed));
+        synchronized (diskIndex) {
+            for (Found f : found) {
+                diskIndex.put(f.key(), f.size());
+                diskBytes += f.size();
+            }
+        }
+        evictDiskIfNeeded();
+        logger.info("QR disk cache at {}: {} entries, {} bytes", diskDir, found.size(), diskBytes);
+    }
+
+    private static String hash(String keyMaterial) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(keyMaterial.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
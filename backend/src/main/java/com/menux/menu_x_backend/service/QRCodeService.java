@@ -3,28 +3,80 @@ package com.menux.menu_x_backend.service;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
 import com.menux.menu_x_backend.entity.QRCustomizationSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * QR rendering works on in-memory 1-bit images: modules are packed straight into a
+ * TYPE_BYTE_BINARY raster, branding is composited onto that image, and PNG encoding happens
+ * once at the very end. Text is drawn without antialiasing, so black/white is all we need.
+ */
 @Service
 public class QRCodeService {
 
+    private static final Map<EncodeHintType, Object> ENCODE_HINTS = new EnumMap<>(EncodeHintType.class);
+    static {
+        ENCODE_HINTS.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M);
+        ENCODE_HINTS.put(EncodeHintType.CHARACTER_SET, "UTF-8");
+        ENCODE_HINTS.put(EncodeHintType.MARGIN, 1);
+    }
+
+    private static final Font BRANDED_FONT = new Font("Arial", Font.BOLD, 16);
+    private static final Font SHEET_TABLE_FONT = new Font("Arial", Font.BOLD, 14);
+    private static final Font SHEET_NAME_FONT = new Font("Arial", Font.PLAIN, 10);
+
+    // Bump when rendering output changes so persisted cache entries are not reused
+    private static final String RENDER_VERSION = "2";
+
     @Value("${app.frontend.url:http://localhost:5173}")
     private String frontendUrl;
 
+    @Autowired
+    private QRCodeCacheService qrCodeCacheService;
+
+    @Autowired
+    @Qualifier("qrRenderExecutor")
+    private Executor qrRenderExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Max table renders in flight (and held in memory) during a bulk sheet/ZIP export
+    @Value("${app.qr.export.window:16}")
+    private int exportWindow;
+
     /**
      * Generate QR code for restaurant menu (DEPRECATED - use table-specific QR codes instead)
      * This method is kept for backward compatibility but should not be used for new QR codes
@@ -41,24 +93,73 @@ public class QRCodeService {
      * Generate QR code for specific table
      */
     public byte[] generateTableQRCode(Long restaurantId, String tableNumber, int size) throws WriterException, IOException {
-        String menuUrl = frontendUrl + "/menu/" + restaurantId + "?table=" + tableNumber;
-        return generateQRCode(menuUrl, size);
+        return toPng(renderTableQRImage(restaurantId, tableNumber, size));
+    }
+
+    /**
+     * The plain table QR image, shared by the single-table PNG and the sheet tiles
+     */
+    BufferedImage renderTableQRImage(Long restaurantId, String tableNumber, int size) throws WriterException {
+        return renderQRImage(getTableMenuUrl(restaurantId, tableNumber), size);
+    }
+
+    /**
+     * Table QR code (plain or branded per settings) served from the rendered-QR cache
+     */
+    public QRCodeCacheService.CachedQRCode getTableQRCode(Long restaurantId, String restaurantName, String tableNumber,
+                                                          int size, QRCustomizationSettings customSettings,
+                                                          String format) throws WriterException, IOException {
+        return getTableQRCode(restaurantId, restaurantName, tableNumber, size, customSettings, format, true);
+    }
+
+    /**
+     * Table QR code; with {@code persist} false a cache miss is not written to the disk tier (previews)
+     */
+    public QRCodeCacheService.CachedQRCode getTableQRCode(Long restaurantId, String restaurantName, String tableNumber,
+                                                          int size, QRCustomizationSettings customSettings,
+                                                          String format, boolean persist) throws WriterException, IOException {
+        boolean branded = Boolean.TRUE.equals(customSettings.getBranded());
+        StringBuilder key = new StringBuilder(160)
+                .append(RENDER_VERSION).append('|').append(getTableMenuUrl(restaurantId, tableNumber))
+                .append('|').append(size).append('|').append(format.toLowerCase()).append('|').append(branded);
+        if (branded) {
+            key.append('|').append(restaurantName)
+                    .append('|').append(customSettings.getRestaurantNameDisplay())
+                    .append('|').append(customSettings.getTableNameFormat())
+                    .append('|').append(customSettings.getFontSize())
+                    .append('|').append(customSettings.getTextPosition());
+        }
+
+        return qrCodeCacheService.getOrRender(restaurantId, key.toString(), () -> {
+            // Only cache misses render; hits are counted by the cache
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                return branded
+                        ? generateCustomizedBrandedTableQRCode(restaurantId, restaurantName, tableNumber, size, customSettings)
+                        : generateTableQRCode(restaurantId, tableNumber, size);
+            } finally {
+                sample.stop(Timer.builder("menux.qr.render")
+                        .description("Table QR image renders (cache misses)")
+                        .tag("branded", String.valueOf(branded))
+                        .tag("format", format.toLowerCase())
+                        .register(meterRegistry));
+            }
+        }, persist);
     }
 
     /**
      * Generate QR code with custom content
      */
     public byte[] generateQRCode(String content, int size) throws WriterException, IOException {
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-        
-        Map<EncodeHintType, Object> hints = new HashMap<>();
-        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M);
-        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
-        hints.put(EncodeHintType.MARGIN, 1);
+        return toPng(renderQRImage(content, size));
+    }
 
-        BitMatrix bitMatrix = qrCodeWriter.encode(content, BarcodeFormat.QR_CODE, size, size, hints);
-        
-        return bitMatrixToByteArray(bitMatrix, "PNG");
+    /**
+     * Render QR code into a 1-bit image (no encoding)
+     */
+    BufferedImage renderQRImage(String content, int size) throws WriterException {
+        BitMatrix bitMatrix = new QRCodeWriter().encode(content, BarcodeFormat.QR_CODE, size, size, ENCODE_HINTS);
+        return bitMatrixToImage(bitMatrix);
     }
 
     /**
@@ -72,10 +173,10 @@ public class QRCodeService {
         String menuUrl = frontendUrl + "/menu/" + restaurantId + "?table=LEGACY";
 
         // Generate base QR code
-        byte[] qrCodeBytes = generateQRCode(menuUrl, size);
+        BufferedImage qrImage = renderQRImage(menuUrl, size);
 
         // Add restaurant name below QR code
-        return addTextToQRCode(qrCodeBytes, restaurantName, size);
+        return toPng(addTextToQRCode(qrImage, restaurantName, size));
     }
 
     /**
@@ -86,11 +187,11 @@ public class QRCodeService {
         String menuUrl = frontendUrl + "/menu/" + restaurantId + "?table=" + tableNumber;
 
         // Generate base QR code
-        byte[] qrCodeBytes = generateQRCode(menuUrl, size);
+        BufferedImage qrImage = renderQRImage(menuUrl, size);
 
         // Add restaurant name and table number below QR code
         String displayText = restaurantName + "\nTable " + tableNumber;
-        return addTextToQRCode(qrCodeBytes, displayText, size);
+        return toPng(addTextToQRCode(qrImage, displayText, size));
     }
 
     /**
@@ -102,7 +203,7 @@ public class QRCodeService {
         String menuUrl = frontendUrl + "/menu/" + restaurantId + "?table=" + tableNumber;
 
         // Generate base QR code
-        byte[] qrCodeBytes = generateQRCode(menuUrl, size);
+        BufferedImage qrImage = renderQRImage(menuUrl, size);
 
         // Format restaurant name according to settings
         String formattedRestaurantName = customSettings.getFormattedRestaurantName(restaurantName);
@@ -123,39 +224,55 @@ public class QRCodeService {
 
         if (displayText.isEmpty()) {
             // No text to add, return plain QR code
-            return qrCodeBytes;
+            return toPng(qrImage);
         }
 
-        return addCustomizedTextToQRCode(qrCodeBytes, displayText, size, customSettings);
+        return toPng(addCustomizedTextToQRCode(qrImage, displayText, size, customSettings));
     }
 
     /**
-     * Convert BitMatrix to byte array
+     * Pack a BitMatrix into a TYPE_BYTE_BINARY image (palette 0 = black, 1 = white).
+     * Rows are packed a word at a time, and since every module spans several pixel rows,
+     * a row identical to the previous one is copied with a single arraycopy.
      */
-    private byte[] bitMatrixToByteArray(BitMatrix bitMatrix, String format) throws IOException {
+    static BufferedImage bitMatrixToImage(BitMatrix bitMatrix) {
         int width = bitMatrix.getWidth();
         int height = bitMatrix.getHeight();
-        
-        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                image.setRGB(x, y, bitMatrix.get(x, y) ? Color.BLACK.getRGB() : Color.WHITE.getRGB());
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+        byte[] data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        int stride = (width + 7) / 8;
+
+        BitArray row = new BitArray(width);
+        int[] previous = null;
+        for (int y = 0; y < height; y++) {
+            row = bitMatrix.getRow(y, row);
+            int[] bits = row.getBitArray();
+            int offset = y * stride;
+            if (previous != null && Arrays.equals(bits, previous)) {
+                System.arraycopy(data, offset - stride, data, offset, stride);
+                continue;
+            }
+            // BitArray stores bit x at (x & 31) of word x >> 5; the raster wants MSB-first bytes
+            for (int b = 0; b < stride; b++) {
+                int word = bits[b >> 2] >>> ((b & 3) << 3);
+                data[offset + b] = (byte) ~(Integer.reverse(word & 0xFF) >>> 24);
             }
+            previous = bits.clone();
         }
-        
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        ImageIO.write(image, format, outputStream);
+        return image;
+    }
+
+    private static byte[] toPng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(8 * 1024);
+        ImageIO.write(image, "PNG", outputStream);
         return outputStream.toByteArray();
     }
 
     /**
      * Add restaurant name text below QR code
      */
-    private byte[] addTextToQRCode(byte[] qrCodeBytes, String text, int qrSize) throws IOException {
-        // Read the QR code image
-        BufferedImage qrImage = ImageIO.read(new java.io.ByteArrayInputStream(qrCodeBytes));
-        
+    private BufferedImage addTextToQRCode(BufferedImage qrImage, String text, int qrSize) {
         // Calculate dimensions for the final image
         int textHeight = 40;
         int padding = 20;
@@ -163,7 +280,7 @@ public class QRCodeService {
         int finalHeight = qrSize + textHeight + (padding * 3);
         
         // Create final image with text
-        BufferedImage finalImage = new BufferedImage(finalWidth, finalHeight, BufferedImage.TYPE_INT_RGB);
+        BufferedImage finalImage = new BufferedImage(finalWidth, finalHeight, BufferedImage.TYPE_BYTE_BINARY);
         Graphics2D g2d = finalImage.createGraphics();
         
         // Set background to white
@@ -177,7 +294,7 @@ public class QRCodeService {
         
         // Draw restaurant name
         g2d.setColor(Color.BLACK);
-        g2d.setFont(new Font("Arial", Font.BOLD, 16));
+        g2d.setFont(BRANDED_FONT);
         FontMetrics fm = g2d.getFontMetrics();
         int textWidth = fm.stringWidth(text);
         int textX = (finalWidth - textWidth) / 2;
@@ -185,21 +302,14 @@ public class QRCodeService {
         g2d.drawString(text, textX, textY);
         
         g2d.dispose();
-
-        // Convert to byte array
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        ImageIO.write(finalImage, "PNG", outputStream);
-        return outputStream.toByteArray();
+        return finalImage;
     }
 
     /**
      * Add customized text to QR code based on settings
      */
-    private byte[] addCustomizedTextToQRCode(byte[] qrCodeBytes, String text, int qrSize,
-                                           QRCustomizationSettings customSettings) throws IOException {
-        // Read the QR code image
-        BufferedImage qrImage = ImageIO.read(new java.io.ByteArrayInputStream(qrCodeBytes));
-
+    private BufferedImage addCustomizedTextToQRCode(BufferedImage qrImage, String text, int qrSize,
+                                                    QRCustomizationSettings customSettings) {
         // Get font size from settings
         int fontSize = customSettings.getFontSizePixels();
 
@@ -225,7 +335,7 @@ public class QRCodeService {
         }
 
         // Create final image with text
-        BufferedImage finalImage = new BufferedImage(finalWidth, finalHeight, BufferedImage.TYPE_INT_RGB);
+        BufferedImage finalImage = new BufferedImage(finalWidth, finalHeight, BufferedImage.TYPE_BYTE_BINARY);
         Graphics2D g2d = finalImage.createGraphics();
 
         // Set background to white
@@ -253,11 +363,7 @@ public class QRCodeService {
         }
 
         g2d.dispose();
-
-        // Convert to byte array
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        ImageIO.write(finalImage, "PNG", outputStream);
-        return outputStream.toByteArray();
+        return finalImage;
     }
 
     /**
@@ -266,7 +372,20 @@ public class QRCodeService {
     public byte[] generateTableQRCodeSheet(Long restaurantId, String restaurantName,
                                          List<String> tableNumbers, int qrSize,
                                          int tablesPerRow) throws WriterException, IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeTableQRCodeSheet(restaurantId, restaurantName, tableNumbers, qrSize, tablesPerRow, outputStream);
+        return outputStream.toByteArray();
+    }
 
+    /**
+     * Render the QR code sheet straight into the output stream. Cells are rendered in parallel and
+     * copied in order into a one-row strip, which is PNG-encoded as soon as the row is complete.
+     * Memory is one strip (tablesPerRow x cell size at 1 bit per pixel, about 3 MB at the 20 x 1024 px
+     * maximum) plus a bounded window of cells, however many tables the sheet has.
+     */
+    public void writeTableQRCodeSheet(Long restaurantId, String restaurantName,
+                                      List<String> tableNumbers, int qrSize,
+                                      int tablesPerRow, OutputStream out) throws IOException {
         int margin = 20;
         int textHeight = 60;
         int cellWidth = qrSize + (margin * 2);
@@ -276,63 +395,139 @@ public class QRCodeService {
         int sheetWidth = tablesPerRow * cellWidth;
         int sheetHeight = rows * cellHeight;
 
-        BufferedImage sheetImage = new BufferedImage(sheetWidth, sheetHeight, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g2d = sheetImage.createGraphics();
-
-        // Set background to white
-        g2d.setColor(Color.WHITE);
-        g2d.fillRect(0, 0, sheetWidth, sheetHeight);
-
-        // Generate QR codes for each table
-        for (int i = 0; i < tableNumbers.size(); i++) {
-            String tableNumber = tableNumbers.get(i);
-            int row = i / tablesPerRow;
-            int col = i % tablesPerRow;
-
-            int x = col * cellWidth + margin;
-            int y = row * cellHeight + margin;
-
-            try {
-                // Generate table QR code
-                byte[] qrBytes = generateTableQRCode(restaurantId, tableNumber, qrSize);
-                BufferedImage qrImage = ImageIO.read(new java.io.ByteArrayInputStream(qrBytes));
-
-                // Draw QR code
-                g2d.drawImage(qrImage, x, y, null);
-
-                // Draw table information
-                g2d.setColor(Color.BLACK);
-                g2d.setFont(new Font("Arial", Font.BOLD, 14));
-                FontMetrics fm = g2d.getFontMetrics();
-
-                String tableText = "Table " + tableNumber;
-                int textWidth = fm.stringWidth(tableText);
-                int textX = x + (qrSize - textWidth) / 2;
-                int textY = y + qrSize + 20;
+        BinaryPngWriter png = new BinaryPngWriter(out, sheetWidth, sheetHeight);
+        BufferedImage strip = new BufferedImage(sheetWidth, cellHeight, BufferedImage.TYPE_BYTE_BINARY);
+        Graphics2D g2d = strip.createGraphics();
+        try {
+            // Set background to white
+            g2d.setColor(Color.WHITE);
+            g2d.fillRect(0, 0, sheetWidth, cellHeight);
+
+            // Graphics2D is not thread-safe, so workers render whole cells and this thread blits them
+            forEachRenderedInOrder(tableNumbers,
+                    tableNumber -> renderSheetCell(restaurantId, restaurantName, tableNumber, qrSize, cellWidth, cellHeight, margin),
+                    (i, cell) -> {
+                        int col = i % tablesPerRow;
+                        if (cell != null) { // A failed cell is left blank
+                            g2d.drawImage(cell, col * cellWidth, 0, null);
+                        }
+                        if (col == tablesPerRow - 1 || i == tableNumbers.size() - 1) {
+                            png.writeBand(strip, cellHeight);
+                            g2d.setColor(Color.WHITE);
+                            g2d.fillRect(0, 0, sheetWidth, cellHeight);
+                        }
+                    });
+        } finally {
+            g2d.dispose();
+        }
+        png.finish();
+    }
 
-                g2d.drawString(tableText, textX, textY);
+    /**
+     * Stream a ZIP with one PNG per table (same images as the single-table endpoint, so cache hits
+     * are reused). Entries are written in table order while later ones render in parallel.
+     */
+    public void writeTableQRCodeZip(Long restaurantId, String restaurantName, List<String> tableNumbers, int size,
+                                    QRCustomizationSettings customSettings, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        zip.setLevel(Deflater.NO_COMPRESSION); // PNG data is already compressed
+        Set<String> usedNames = new HashSet<>();
+        try {
+            forEachRenderedInOrder(tableNumbers, tableNumber -> {
+                try {
+                    return getTableQRCode(restaurantId, restaurantName, tableNumber, size, customSettings, "png").getBytes();
+                } catch (WriterException | IOException e) {
+                    return null;
+                }
+            }, (i, png) -> {
+                if (png == null) return;
+                String baseName = "table-" + tableNumbers.get(i).replaceAll("[^a-zA-Z0-9_-]", "-") + "-qr";
+                String name = baseName + ".png";
+                for (int n = 2; !usedNames.add(name); n++) {
+                    name = baseName + "-" + n + ".png";
+                }
+                zip.putNextEntry(new ZipEntry(name));
+                zip.write(png);
+                zip.closeEntry();
+            });
+        } finally {
+            zip.finish();
+        }
+    }
 
-                // Draw restaurant name (smaller)
-                g2d.setFont(new Font("Arial", Font.PLAIN, 10));
-                fm = g2d.getFontMetrics();
-                int nameWidth = fm.stringWidth(restaurantName);
-                int nameX = x + (qrSize - nameWidth) / 2;
-                int nameY = textY + 20;
+    private BufferedImage renderSheetCell(Long restaurantId, String restaurantName, String tableNumber,
+                                          int qrSize, int cellWidth, int cellHeight, int margin) {
+        try {
+            // Same image generateTableQRCode encodes, without the PNG round trip
+            BufferedImage qrImage = renderTableQRImage(restaurantId, tableNumber, qrSize);
+            BufferedImage cell = new BufferedImage(cellWidth, cellHeight, BufferedImage.TYPE_BYTE_BINARY);
+            Graphics2D g2d = cell.createGraphics();
+            g2d.setColor(Color.WHITE);
+            g2d.fillRect(0, 0, cellWidth, cellHeight);
+
+            // Draw QR code
+            g2d.drawImage(qrImage, margin, margin, null);
+
+            // Draw table information
+            g2d.setColor(Color.BLACK);
+            g2d.setFont(SHEET_TABLE_FONT);
+            FontMetrics fm = g2d.getFontMetrics();
+
+            String tableText = "Table " + tableNumber;
+            int textWidth = fm.stringWidth(tableText);
+            int textX = margin + (qrSize - textWidth) / 2;
+            int textY = margin + qrSize + 20;
+
+            g2d.drawString(tableText, textX, textY);
+
+            // Draw restaurant name (smaller)
+            g2d.setFont(SHEET_NAME_FONT);
+            fm = g2d.getFontMetrics();
+            int nameWidth = fm.stringWidth(restaurantName);
+            int nameX = margin + (qrSize - nameWidth) / 2;
+            int nameY = textY + 20;
+
+            g2d.drawString(restaurantName, nameX, nameY);
+            g2d.dispose();
+            return cell;
+        } catch (Exception e) {
+            return null;
+        }
+    }
 
-                g2d.drawString(restaurantName, nameX, nameY);
+    @FunctionalInterface
+    private interface IndexedSink<R> {
+        void accept(int index, R result) throws IOException;
+    }
 
-            } catch (Exception e) {
-                // Skip this QR code if generation fails
-                continue;
+    /**
+     * Run render on the QR executor for every item and hand results to the sink in input order,
+     * keeping at most exportWindow renders in flight.
+     */
+    private <T, R> void forEachRenderedInOrder(List<T> items, Function<T, R> render, IndexedSink<R> sink)
+            throws IOException {
+        int window = Math.max(1, exportWindow);
+        Deque<CompletableFuture<R>> inFlight = new ArrayDeque<>(window);
+        int next = 0;
+        int emitted = 0;
+        try {
+            while (emitted < items.size()) {
+                while (next < items.size() && inFlight.size() < window) {
+                    T item = items.get(next++);
+                    inFlight.addLast(CompletableFuture.supplyAsync(() -> render.apply(item), qrRenderExecutor));
+                }
+                R result;
+                try {
+                    result = inFlight.removeFirst().join();
+                } catch (CompletionException e) {
+                    result = null;
+                }
+                sink.accept(emitted++, result);
             }
+        } finally {
+            // Client went away or the sink failed: don't leave renders running for nothing
+            inFlight.forEach(f -> f.cancel(false));
         }
-
-        g2d.dispose();
-
-        // Convert to byte array
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        ImageIO.write(sheetImage, "PNG", outputStream);
-        return outputStream.toByteArray();
     }
 
     /**
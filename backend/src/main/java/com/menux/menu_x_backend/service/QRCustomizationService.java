@@ -14,6 +14,9 @@ public class QRCustomizationService {
     
     @Autowired
     private QRCustomizationSettingsRepository qrCustomizationSettingsRepository;
+
+    @Autowired
+    private QRCodeCacheService qrCodeCacheService;
     
     /**
      * Get QR customization settings for a restaurant
@@ -34,6 +37,7 @@ public class QRCustomizationService {
      * Save or update QR customization settings for a restaurant
      */
     public QRCustomizationSettings saveSettings(Long restaurantId, QRCustomizationSettings settings) {
+        qrCodeCacheService.invalidateRestaurant(restaurantId);
         Optional<QRCustomizationSettings> existingSettings = qrCustomizationSettingsRepository.findByRestaurantId(restaurantId);
         
         if (existingSettings.isPresent()) {
@@ -58,6 +62,7 @@ public class QRCustomizationService {
      * Delete QR customization settings for a restaurant
      */
     public void deleteSettings(Long restaurantId) {
+        qrCodeCacheService.invalidateRestaurant(restaurantId);
         qrCustomizationSettingsRepository.deleteByRestaurantId(restaurantId);
     }
     
@@ -1,20 +1,108 @@
 package com.menux.menu_x_backend.service;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 @Component
 public class SubscriptionScheduler {
 
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionScheduler.class);
+
     @Autowired
     private SubscriptionService subscriptionService;
 
-    // Run daily at 03:10
+    @Autowired
+    private SubscriptionTimeline subscriptionTimeline;
+
+    @Value("${app.subscriptions.timeline.enabled:true}")
+    private boolean timelineEnabled;
+
+    @Value("${app.subscriptions.timeline.tick-ms:1000}")
+    private long tickMs;
+
+    // The tick gets its own thread so long @Scheduled jobs (nightly checks, rebuilds) cannot delay transitions
+    private ScheduledExecutorService tickExecutor;
+
+    @PostConstruct
+    void startTicking() {
+        if (!timelineEnabled) return;
+        tickExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "subscription-timeline");
+            t.setDaemon(true);
+            return t;
+        });
+        long delay = Math.max(1, tickMs);
+        tickExecutor.scheduleWithFixedDelay(() -> {
+            // An escaping exception would cancel the periodic task for good
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                logger.error("Subscription timeline tick failed: {}", e.getMessage());
+            }
+        }, delay, delay, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopTicking() {
+        if (tickExecutor != null) {
+            tickExecutor.shutdownNow();
+        }
+    }
+
+    // Run daily at 03:10; runDailyChecks manages its own per-chunk transactions.
+    // With the timeline enabled this only sends reminders and catches anything the timeline missed.
     @Scheduled(cron = "0 10 3 * * *")
-    @Transactional
     public void daily() {
         subscriptionService.runDailyChecks();
     }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTimeline() {
+        if (timelineEnabled) {
+            reconcileTimeline();
+        }
+    }
+
+    // Apply transitions at their exact instant (runs on the dedicated tick thread)
+    public void tick() {
+        if (!timelineEnabled) return;
+        List<Long> due = subscriptionTimeline.pollDue();
+        if (due.isEmpty()) return;
+        try {
+            subscriptionService.applyDueTransitions(due);
+        } catch (Exception e) {
+            // Keep them on the timeline; a later tick (or the nightly run) retries
+            logger.error("Failed to apply {} subscription transitions: {}", due.size(), e.getMessage());
+            LocalDateTime retryAt = LocalDateTime.now().plusMinutes(1);
+            due.forEach(id -> subscriptionTimeline.schedule(id, retryAt));
+        }
+    }
+
+    // The database is the source of truth: periodically rebuild the timeline and drop cached access
+    @Scheduled(fixedDelayString = "${app.subscriptions.timeline.reconcile-ms:3600000}",
+               initialDelayString = "${app.subscriptions.timeline.reconcile-ms:3600000}")
+    public void reconcileTimeline() {
+        if (!timelineEnabled) return;
+        try {
+            int scheduled = subscriptionService.rebuildTimeline();
+            logger.info("Subscription timeline rebuilt: {} subscriptions scheduled", scheduled);
+        } catch (Exception e) {
+            logger.error("Failed to rebuild subscription timeline: {}", e.getMessage());
+        }
+    }
 }
@@ -1,13 +1,28 @@
 package com.menux.menu_x_backend.service;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.IntSupplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.menux.menu_x_backend.dto.subscription.SubscriptionAuditReport;
 import com.menux.menu_x_backend.entity.ManualPayment;
@@ -38,6 +53,27 @@ public class SubscriptionService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SubscriptionTimeline subscriptionTimeline;
+
+    @Value("${app.subscriptions.daily-check.chunk-size:500}")
+    private int dailyCheckChunkSize;
+
+    @Value("${app.subscriptions.audit.chunk-size:1000}")
+    private int auditChunkSize;
+
+    // Statuses the daily job can move; EXPIRED/CANCELED/SUSPENDED only change through explicit actions
+    private static final Set<RestaurantSubscription.Status> DAILY_CHECK_STATUSES = EnumSet.of(
+            RestaurantSubscription.Status.TRIALING,
+            RestaurantSubscription.Status.ACTIVE,
+            RestaurantSubscription.Status.GRACE);
+
     // Ensure a subscription row exists for a restaurant
     @Transactional
     public RestaurantSubscription ensureSubscription(Long restaurantId) {
@@ -55,6 +91,7 @@ public class SubscriptionService {
             sub.setStatus(RestaurantSubscription.Status.EXPIRED);
         }
         sub = subscriptionRepository.save(sub);
+        refreshTimeline(sub);
 
         // Log subscription creation with detailed metadata
         String metadata = String.format(
@@ -110,6 +147,7 @@ public class SubscriptionService {
         sub.setCanceledAt(null);
 
         sub = subscriptionRepository.save(sub);
+        refreshTimeline(sub);
 
         // Log trial start event with metadata
         String metadata = String.format("{\"trialDays\":%d,\"trialEndAt\":\"%s\"}",
@@ -144,6 +182,7 @@ public class SubscriptionService {
         }
 
         sub = subscriptionRepository.save(sub);
+        refreshTimeline(sub);
         eventRepository.save(new RestaurantSubscriptionEvent(sub.getId(), "TRIAL_DAYS_SET", String.format("{\"days\":%d}", days)));
         return sub;
     }
@@ -168,6 +207,7 @@ public class SubscriptionService {
         sub.setCanceledAt(null);
 
         sub = subscriptionRepository.save(sub);
+        refreshTimeline(sub);
 
         // Sync restaurant PRO status
         setRestaurantPlan(restaurantId, Restaurant.SubscriptionPlan.PRO);
@@ -204,6 +244,7 @@ public class SubscriptionService {
         sub.setCanceledAt(now);
 
         sub = subscriptionRepository.save(sub);
+        refreshTimeline(sub);
 
         // Downgrade entitlements
         setRestaurantPlan(restaurantId, Restaurant.SubscriptionPlan.BASIC);
@@ -394,6 +435,7 @@ public class SubscriptionService {
         }
 
         sub = subscriptionRepository.save(sub);
+        refreshTimeline(sub);
 
         // Sync restaurant entitlements
         setRestaurantPlan(restaurantId, planToSet);
@@ -473,6 +515,7 @@ public class SubscriptionService {
         sub.setCancelAtPeriodEnd(false);
         sub.setCanceledAt(null);
         subscriptionRepository.save(sub);
+        refreshTimeline(sub);
 
         // Sync restaurant PRO status
         setRestaurantPlan(restaurantId, Restaurant.SubscriptionPlan.PRO);
@@ -512,35 +555,15 @@ public class SubscriptionService {
      * This method checks if a restaurant currently has valid PRO access
      */
     public boolean isValidProSubscription(Long restaurantId) {
+        Boolean cached = subscriptionTimeline.cachedProAccess(restaurantId);
+        if (cached != null) return cached;
         try {
+            long version = subscriptionTimeline.accessVersion();
             RestaurantSubscription sub = ensureSubscription(restaurantId);
-            LocalDateTime now = LocalDateTime.now();
-
-            // Check if subscription is in a valid PRO state
-            switch (sub.getStatus()) {
-                case TRIALING:
-                    return sub.getTrialEndAt() != null && now.isBefore(sub.getTrialEndAt());
-                case ACTIVE:
-                    return sub.getCurrentPeriodEndAt() != null && now.isBefore(sub.getCurrentPeriodEndAt());
-                case GRACE:
-                    // Check if still within grace period using graceEndAt if available
-                    if (sub.getGraceEndAt() != null) {
-                        return now.isBefore(sub.getGraceEndAt());
-                    }
-                    // Fallback to calculated grace period
-                    int graceDays = platformSettingService.getIntegerSetting("SUB_GRACE_DAYS_DEFAULT", 3);
-                    if (sub.getTrialEndAt() != null && sub.getCurrentPeriodEndAt() == null) {
-                        return now.isBefore(sub.getTrialEndAt().plusDays(graceDays));
-                    } else if (sub.getCurrentPeriodEndAt() != null) {
-                        return now.isBefore(sub.getCurrentPeriodEndAt().plusDays(graceDays));
-                    }
-                    return false;
-                case EXPIRED:
-                case CANCELED:
-                case SUSPENDED:
-                default:
-                    return false;
-            }
+            IntSupplier graceDays = () -> platformSettingService.getIntegerSetting("SUB_GRACE_DAYS_DEFAULT", 3);
+            LocalDateTime until = proAccessUntil(sub, graceDays);
+            subscriptionTimeline.cacheProUntil(restaurantId, until, version);
+            return until != null && LocalDateTime.now().isBefore(until);
         } catch (Exception e) {
             // Log error but don't fail - return false for safety
             System.err.println("Error validating subscription for restaurant " + restaurantId + ": " + e.getMessage());
@@ -548,63 +571,236 @@ public class SubscriptionService {
         }
     }
 
+    private static boolean hasProAccess(RestaurantSubscription sub, LocalDateTime now, IntSupplier graceDays) {
+        LocalDateTime until = proAccessUntil(sub, graceDays);
+        return until != null && now.isBefore(until);
+    }
+
+    /**
+     * Instant PRO access lapses for the subscription's current state, or null if it grants none.
+     * Grace days are only needed for legacy GRACE rows without grace_end_at, so they are looked up lazily.
+     */
+    private static LocalDateTime proAccessUntil(RestaurantSubscription sub, IntSupplier graceDays) {
+        switch (sub.getStatus()) {
+            case TRIALING:
+                return sub.getTrialEndAt();
+            case ACTIVE:
+                return sub.getCurrentPeriodEndAt();
+            case GRACE:
+                // Check if still within grace period using graceEndAt if available
+                if (sub.getGraceEndAt() != null) {
+                    return sub.getGraceEndAt();
+                }
+                // Fallback to calculated grace period
+                if (sub.getTrialEndAt() != null && sub.getCurrentPeriodEndAt() == null) {
+                    return sub.getTrialEndAt().plusDays(graceDays.getAsInt());
+                } else if (sub.getCurrentPeriodEndAt() != null) {
+                    return sub.getCurrentPeriodEndAt().plusDays(graceDays.getAsInt());
+                }
+                return null;
+            case EXPIRED:
+            case CANCELED:
+            case SUSPENDED:
+            default:
+                return null;
+        }
+    }
+
+    // Next instant the lifecycle job has to look at this subscription: when its PRO access lapses.
+    // Rows in a state the job moves but without a usable end date are due immediately.
+    private static LocalDateTime nextTransitionAt(RestaurantSubscription sub, IntSupplier graceDays) {
+        if (!DAILY_CHECK_STATUSES.contains(sub.getStatus())) return null;
+        LocalDateTime until = proAccessUntil(sub, graceDays);
+        return until != null ? until : LocalDateTime.now();
+    }
+
+    // Once the change commits, drop the cached access and move the subscription's slot on the timeline.
+    // Only future instants are scheduled here; anything already due is picked up by rebuildTimeline().
+    private void refreshTimeline(RestaurantSubscription sub) {
+        Long subscriptionId = sub.getId();
+        Long restaurantId = sub.getRestaurantId();
+        LocalDateTime next = nextTransitionAt(sub, () -> platformSettingService.getIntegerSetting("SUB_GRACE_DAYS_DEFAULT", 3));
+        Runnable refresh = () -> {
+            subscriptionTimeline.evictAccess(restaurantId);
+            subscriptionTimeline.schedule(subscriptionId,
+                    next != null && next.isAfter(LocalDateTime.now()) ? next : null);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh.run();
+                }
+            });
+        } else {
+            refresh.run();
+        }
+    }
+
+    /**
+     * Reload the transition timeline from the database and drop all cached access. Subscriptions whose
+     * transition is already overdue fire on the next tick.
+     */
+    public int rebuildTimeline() {
+        int graceDays = platformSettingService.getIntegerSetting("SUB_GRACE_DAYS_DEFAULT", 3);
+        Pageable chunk = PageRequest.of(0, Math.max(1, dailyCheckChunkSize));
+        subscriptionTimeline.clearSchedule();
+        subscriptionTimeline.clearAccess();
+
+        long afterId = 0L;
+        int scheduled = 0;
+        while (true) {
+            List<RestaurantSubscription> subs = subscriptionRepository
+                    .findByStatusInAndIdGreaterThanOrderByIdAsc(DAILY_CHECK_STATUSES, afterId, chunk);
+            if (subs.isEmpty()) break;
+            for (RestaurantSubscription sub : subs) {
+                subscriptionTimeline.schedule(sub.getId(), nextTransitionAt(sub, () -> graceDays));
+                scheduled++;
+            }
+            afterId = subs.get(subs.size() - 1).getId();
+            if (subs.size() < chunk.getPageSize()) break;
+        }
+        return scheduled;
+    }
+
+    /**
+     * Apply the transitions of subscriptions the timeline reported as due, in chunked transactions.
+     */
+    public int applyDueTransitions(List<Long> subscriptionIds) {
+        int graceDays = platformSettingService.getIntegerSetting("SUB_GRACE_DAYS_DEFAULT", 3);
+        int notifyTrialBefore = platformSettingService.getIntegerSetting("SUB_NOTIFY_DAYS_BEFORE_TRIAL_END", 3);
+        int notifyPeriodBefore = platformSettingService.getIntegerSetting("SUB_NOTIFY_DAYS_BEFORE_PERIOD_END", 5);
+        LocalDateTime now = LocalDateTime.now();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int size = Math.max(1, dailyCheckChunkSize);
+
+        int transitionsCount = 0;
+        for (int from = 0; from < subscriptionIds.size(); from += size) {
+            List<Long> ids = subscriptionIds.subList(from, Math.min(subscriptionIds.size(), from + size));
+            transitionsCount += processChunk(tx, ids, now, graceDays, notifyTrialBefore, notifyPeriodBefore);
+        }
+        return transitionsCount;
+    }
+
     /**
      * Audit and repair subscription inconsistencies
      * Returns a report of issues found and fixed
      */
-    @Transactional
     public SubscriptionAuditReport auditAndRepairSubscriptions() {
+        return auditAndRepairSubscriptions(AdminJobService.Job.detached("subscription-audit"));
+    }
+
+    /**
+     * Set-based audit: every check is one anti-join/keyset query instead of a per-entity walk, and
+     * repairs are applied with bulk updates, each chunk in its own transaction. Progress goes to the job.
+     */
+    public SubscriptionAuditReport auditAndRepairSubscriptions(AdminJobService.Job job) {
         SubscriptionAuditReport report = new SubscriptionAuditReport();
         LocalDateTime now = LocalDateTime.now();
+        int graceDays = platformSettingService.getIntegerSetting("SUB_GRACE_DAYS_DEFAULT", 3);
+        LocalDateTime graceCutoff = now.minusDays(graceDays);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Pageable chunk = PageRequest.of(0, Math.max(1, auditChunkSize));
+
+        // Subscriptions pointing at deleted restaurants are reported, not repaired
+        job.setPhase("orphaned-subscriptions");
+        List<Long> orphaned = subscriptionRepository.findOrphanedIds();
+        orphaned.forEach(report::addOrphanedSubscription);
+        job.advance(orphaned.size());
+
+        job.setPhase("missing-subscriptions");
+        long afterId = 0L;
+        while (true) {
+            List<Long> restaurantIds = subscriptionRepository.findRestaurantIdsWithoutSubscription(afterId, chunk);
+            if (restaurantIds.isEmpty()) break;
+            afterId = restaurantIds.get(restaurantIds.size() - 1);
+            tx.executeWithoutResult(status -> createMissingSubscriptions(restaurantIds, report));
+            job.advance(restaurantIds.size());
+            if (restaurantIds.size() < chunk.getPageSize()) break;
+        }
 
-        List<RestaurantSubscription> allSubs = subscriptionRepository.findAll();
-
-        for (RestaurantSubscription sub : allSubs) {
-            Restaurant restaurant = restaurantRepository.findById(sub.getRestaurantId()).orElse(null);
-            if (restaurant == null) {
-                report.addOrphanedSubscription(sub.getId());
-                continue;
-            }
-
-            boolean shouldBePro = isValidProSubscription(sub.getRestaurantId());
-            boolean currentlyPro = restaurant.getSubscriptionPlan() == Restaurant.SubscriptionPlan.PRO;
+        job.setPhase("plan-mismatches");
+        afterId = 0L;
+        while (true) {
+            List<Object[]> rows = subscriptionRepository.findPlanMismatches(afterId, now, graceCutoff, chunk);
+            if (rows.isEmpty()) break;
+            afterId = ((Number) rows.get(rows.size() - 1)[0]).longValue();
+            tx.executeWithoutResult(status -> repairPlanMismatches(rows, now, report));
+            job.advance(rows.size());
+            if (rows.size() < chunk.getPageSize()) break;
+        }
 
-            if (shouldBePro != currentlyPro) {
-                // Fix the mismatch
-                Restaurant.SubscriptionPlan correctPlan = shouldBePro ?
-                    Restaurant.SubscriptionPlan.PRO : Restaurant.SubscriptionPlan.BASIC;
-                setRestaurantPlan(sub.getRestaurantId(), correctPlan);
-
-                report.addMismatchFixed(sub.getRestaurantId(), currentlyPro, shouldBePro);
-
-                // Log the fix
-                eventRepository.save(new RestaurantSubscriptionEvent(
-                    sub.getId(),
-                    "AUDIT_REPAIR",
-                    String.format("{\"from\":\"%s\",\"to\":\"%s\",\"reason\":\"Plan mismatch repair\"}",
-                        currentlyPro ? "PRO" : "BASIC",
-                        shouldBePro ? "PRO" : "BASIC")
-                ));
-            }
+        // ACTIVE subscriptions past period end + grace that the lifecycle job never expired
+        job.setPhase("lapsed-active");
+        afterId = 0L;
+        while (true) {
+            List<Long> ids = subscriptionRepository.findLapsedActiveIds(afterId, graceCutoff, chunk);
+            if (ids.isEmpty()) break;
+            afterId = ids.get(ids.size() - 1);
+            tx.executeWithoutResult(status -> expireLapsed(ids, now, report));
+            job.advance(ids.size());
+            if (ids.size() < chunk.getPageSize()) break;
+        }
 
-            // Check for expired subscriptions that should be updated
-            if (sub.getStatus() == RestaurantSubscription.Status.ACTIVE &&
-                sub.getCurrentPeriodEndAt() != null &&
-                now.isAfter(sub.getCurrentPeriodEndAt())) {
+        report.setTotalSubscriptionsChecked((int) subscriptionRepository.count());
+        job.setPhase("done");
+        return report;
+    }
 
-                int graceDays = platformSettingService.getIntegerSetting("SUB_GRACE_DAYS_DEFAULT", 3);
-                if (now.isAfter(sub.getCurrentPeriodEndAt().plusDays(graceDays))) {
-                    sub.setStatus(RestaurantSubscription.Status.EXPIRED);
-                    subscriptionRepository.save(sub);
-                    setRestaurantPlan(sub.getRestaurantId(), Restaurant.SubscriptionPlan.BASIC);
+    // Same initial state as ensureSubscription, for a chunk of restaurants at once
+    private void createMissingSubscriptions(List<Long> restaurantIds, SubscriptionAuditReport report) {
+        List<RestaurantSubscription> created = new ArrayList<>();
+        for (Restaurant restaurant : restaurantRepository.findAllById(restaurantIds)) {
+            RestaurantSubscription sub = new RestaurantSubscription();
+            sub.setRestaurantId(restaurant.getId());
+            sub.setPlan(RestaurantSubscription.Plan.PRO);
+            sub.setStatus(restaurant.getSubscriptionPlan() == Restaurant.SubscriptionPlan.PRO
+                    ? RestaurantSubscription.Status.ACTIVE : RestaurantSubscription.Status.EXPIRED);
+            created.add(sub);
+        }
+        List<RestaurantSubscriptionEvent> events = new ArrayList<>();
+        for (RestaurantSubscription sub : subscriptionRepository.saveAll(created)) {
+            events.add(new RestaurantSubscriptionEvent(sub.getId(), "CREATED", String.format(
+                "{\"action\":\"created\",\"plan\":\"%s\",\"status\":\"%s\",\"restaurantId\":%d,\"source\":\"audit\"}",
+                sub.getPlan().name(), sub.getStatus().name(), sub.getRestaurantId())));
+            report.addMissingSubscriptionCreated(sub.getRestaurantId());
+            refreshTimeline(sub);
+        }
+        insertEvents(events);
+    }
 
-                    report.addExpiredSubscriptionFixed(sub.getRestaurantId());
-                    eventRepository.save(new RestaurantSubscriptionEvent(sub.getId(), "AUDIT_EXPIRED", null));
-                }
-            }
+    private void repairPlanMismatches(List<Object[]> rows, LocalDateTime now, SubscriptionAuditReport report) {
+        List<Long> toPro = new ArrayList<>();
+        List<Long> toBasic = new ArrayList<>();
+        List<RestaurantSubscriptionEvent> events = new ArrayList<>();
+        for (Object[] row : rows) {
+            Long subscriptionId = ((Number) row[0]).longValue();
+            Long restaurantId = ((Number) row[1]).longValue();
+            boolean shouldBePro = ((Number) row[2]).intValue() == 1;
+            (shouldBePro ? toPro : toBasic).add(restaurantId);
+            report.addMismatchFixed(restaurantId, !shouldBePro, shouldBePro);
+            events.add(new RestaurantSubscriptionEvent(subscriptionId, "AUDIT_REPAIR",
+                String.format("{\"from\":\"%s\",\"to\":\"%s\",\"reason\":\"Plan mismatch repair\"}",
+                    shouldBePro ? "BASIC" : "PRO",
+                    shouldBePro ? "PRO" : "BASIC")));
         }
+        if (!toPro.isEmpty()) restaurantRepository.updateSubscriptionPlan(toPro, Restaurant.SubscriptionPlan.PRO, now);
+        if (!toBasic.isEmpty()) restaurantRepository.updateSubscriptionPlan(toBasic, Restaurant.SubscriptionPlan.BASIC, now);
+        insertEvents(events);
+    }
 
-        return report;
+    private void expireLapsed(List<Long> ids, LocalDateTime now, SubscriptionAuditReport report) {
+        List<Long> restaurantIds = new ArrayList<>();
+        List<RestaurantSubscriptionEvent> events = new ArrayList<>();
+        for (RestaurantSubscription sub : subscriptionRepository.findAllById(ids)) {
+            sub.setStatus(RestaurantSubscription.Status.EXPIRED);
+            restaurantIds.add(sub.getRestaurantId());
+            report.addExpiredSubscriptionFixed(sub.getRestaurantId());
+            events.add(new RestaurantSubscriptionEvent(sub.getId(), "AUDIT_EXPIRED", null));
+            refreshTimeline(sub);
+        }
+        restaurantRepository.updateSubscriptionPlan(restaurantIds, Restaurant.SubscriptionPlan.BASIC, now);
+        insertEvents(events);
     }
 
     /**
@@ -624,6 +820,7 @@ public class SubscriptionService {
         sub.setCanceledAt(now);
 
         sub = subscriptionRepository.save(sub);
+        refreshTimeline(sub);
 
         // Downgrade to BASIC
         setRestaurantPlan(restaurantId, Restaurant.SubscriptionPlan.BASIC);
@@ -637,47 +834,101 @@ public class SubscriptionService {
     }
 
     /**
-     * Enhanced daily checks with better edge case handling
+     * Daily lifecycle pass: reminders, grace/expiry transitions and plan sync for subscriptions with a
+     * trial/period/grace boundary in the due window. Due ids are keyset-paged off the *_end_at indexes
+     * and each chunk commits in its own short transaction; notifications go out after the chunk commits.
+     * Plan drift outside the due window is swept by two more keyset passes: terminal subscriptions whose
+     * restaurant still has PRO, and live ones whose restaurant lost it; the chunk then syncs the plan.
      */
-    @Transactional
     public void runDailyChecks() {
         int graceDays = platformSettingService.getIntegerSetting("SUB_GRACE_DAYS_DEFAULT", 3);
         int notifyTrialBefore = platformSettingService.getIntegerSetting("SUB_NOTIFY_DAYS_BEFORE_TRIAL_END", 3);
         int notifyPeriodBefore = platformSettingService.getIntegerSetting("SUB_NOTIFY_DAYS_BEFORE_PERIOD_END", 5);
         LocalDateTime now = LocalDateTime.now();
+        LocalDateTime trialHorizon = now.plusDays(notifyTrialBefore);
+        LocalDateTime periodHorizon = now.plusDays(notifyPeriodBefore);
 
-        List<RestaurantSubscription> subs = subscriptionRepository.findAll();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Pageable chunk = PageRequest.of(0, Math.max(1, dailyCheckChunkSize));
         int processedCount = 0;
         int transitionsCount = 0;
 
+        // First subscriptions with a boundary due, then terminal ones whose restaurant still has PRO,
+        // then live ones whose restaurant is not on PRO
+        List<BiFunction<Long, Pageable, List<Long>>> passes = List.of(
+                (afterId, page) -> subscriptionRepository.findDueIds(afterId, DAILY_CHECK_STATUSES, now, trialHorizon, periodHorizon, page),
+                (afterId, page) -> subscriptionRepository.findProPlanDriftIds(afterId, DAILY_CHECK_STATUSES, page),
+                (afterId, page) -> subscriptionRepository.findBasicPlanDriftIds(afterId, DAILY_CHECK_STATUSES, page));
+
+        for (BiFunction<Long, Pageable, List<Long>> pass : passes) {
+            long afterId = 0L;
+            while (true) {
+                List<Long> ids = pass.apply(afterId, chunk);
+                if (ids.isEmpty()) break;
+                afterId = ids.get(ids.size() - 1);
+
+                processedCount += ids.size();
+                transitionsCount += processChunk(tx, ids, now, graceDays, notifyTrialBefore, notifyPeriodBefore);
+                if (ids.size() < chunk.getPageSize()) break;
+            }
+        }
+
+        // Log summary of daily check execution
+        System.out.println(String.format("Daily subscription check completed: %d subscriptions processed, %d transitions made",
+            processedCount, transitionsCount));
+    }
+
+    private int processChunk(TransactionTemplate tx, List<Long> ids, LocalDateTime now, int graceDays,
+                             int notifyTrialBefore, int notifyPeriodBefore) {
+        List<Runnable> notifications = new ArrayList<>();
+        Integer transitions = tx.execute(status -> runDailyChecksChunk(ids, now, graceDays, notifyTrialBefore,
+                notifyPeriodBefore, notifications));
+        notifications.forEach(Runnable::run);
+        return transitions == null ? 0 : transitions;
+    }
+
+    private int runDailyChecksChunk(List<Long> ids, LocalDateTime now, int graceDays, int notifyTrialBefore,
+                                    int notifyPeriodBefore, List<Runnable> notifications) {
+        List<RestaurantSubscription> subs = subscriptionRepository.findAllById(ids);
+        Map<Long, Restaurant> restaurants = new HashMap<>();
+        for (Restaurant r : restaurantRepository.findAllById(subs.stream().map(RestaurantSubscription::getRestaurantId).toList())) {
+            restaurants.put(r.getId(), r);
+        }
+
+        // Subscriptions and restaurants are managed here, so state changes flush on commit
+        List<RestaurantSubscriptionEvent> events = new ArrayList<>();
+        int transitionsCount = 0;
+
         for (RestaurantSubscription sub : subs) {
-            processedCount++;
-            Restaurant restaurant = restaurantRepository.findById(sub.getRestaurantId()).orElse(null);
+            Restaurant restaurant = restaurants.get(sub.getRestaurantId());
             if (restaurant == null) continue;
             Long ownerId = restaurant.getOwnerId();
+            Long restaurantId = sub.getRestaurantId();
+            // Terminal states only change through explicit actions; they just get the plan check below
+            boolean lifecycle = DAILY_CHECK_STATUSES.contains(sub.getStatus());
 
             // Handle legacy ACTIVE subscriptions without end dates (should have been fixed by migration)
             if (sub.getStatus() == RestaurantSubscription.Status.ACTIVE &&
                 sub.getCurrentPeriodEndAt() == null && sub.getTrialEndAt() == null) {
 
                 sub.setStatus(RestaurantSubscription.Status.EXPIRED);
-                subscriptionRepository.save(sub);
-                setRestaurantPlan(sub.getRestaurantId(), Restaurant.SubscriptionPlan.BASIC);
-                eventRepository.save(new RestaurantSubscriptionEvent(sub.getId(), "LEGACY_EXPIRED",
+                restaurant.setSubscriptionPlan(Restaurant.SubscriptionPlan.BASIC);
+                events.add(new RestaurantSubscriptionEvent(sub.getId(), "LEGACY_EXPIRED",
                     "{\"reason\":\"ACTIVE subscription without end date\"}"));
+                refreshTimeline(sub);
                 transitionsCount++;
                 continue;
             }
 
             // Trial reminders and transitions
-            if (sub.getTrialEndAt() != null) {
+            if (lifecycle && sub.getTrialEndAt() != null) {
                 // Send trial reminder if still trialing
                 if (sub.getStatus() == RestaurantSubscription.Status.TRIALING) {
                     LocalDateTime remindAt = sub.getTrialEndAt().minusDays(notifyTrialBefore);
                     if (!now.isBefore(remindAt) && now.isBefore(sub.getTrialEndAt())) {
-                        notify(ownerId, sub.getRestaurantId(), "Trial ending soon",
-                            "Your trial ends on " + sub.getTrialEndAt().toLocalDate() + ".",
-                            Map.of("subscriptionId", sub.getId(), "phase", "TRIAL"));
+                        String body = "Your trial ends on " + sub.getTrialEndAt().toLocalDate() + ".";
+                        Map<String, Object> data = Map.of("subscriptionId", sub.getId(), "phase", "TRIAL");
+                        notifications.add(() -> notify(ownerId, restaurantId, "Trial ending soon", body, data));
                     }
                 }
 
@@ -690,19 +941,17 @@ public class SubscriptionService {
                         if (sub.getStatus() != RestaurantSubscription.Status.GRACE) {
                             sub.setStatus(RestaurantSubscription.Status.GRACE);
                             sub.setGraceEndAt(graceEnd); // Set the grace end date
-                            subscriptionRepository.save(sub);
-                            eventRepository.save(new RestaurantSubscriptionEvent(sub.getId(), "TRIAL_GRACE_STARTED", null));
+                            events.add(new RestaurantSubscriptionEvent(sub.getId(), "TRIAL_GRACE_STARTED", null));
                             transitionsCount++;
                         }
-                        setRestaurantPlan(sub.getRestaurantId(), Restaurant.SubscriptionPlan.PRO);
+                        restaurant.setSubscriptionPlan(Restaurant.SubscriptionPlan.PRO);
                     } else {
                         if (sub.getStatus() != RestaurantSubscription.Status.EXPIRED) {
                             sub.setStatus(RestaurantSubscription.Status.EXPIRED);
-                            subscriptionRepository.save(sub);
-                            eventRepository.save(new RestaurantSubscriptionEvent(sub.getId(), "TRIAL_EXPIRED", null));
-                            setRestaurantPlan(sub.getRestaurantId(), Restaurant.SubscriptionPlan.BASIC);
-                            notify(ownerId, sub.getRestaurantId(), "Trial expired", "Your trial has expired.",
-                                Map.of("subscriptionId", sub.getId()));
+                            events.add(new RestaurantSubscriptionEvent(sub.getId(), "TRIAL_EXPIRED", null));
+                            restaurant.setSubscriptionPlan(Restaurant.SubscriptionPlan.BASIC);
+                            Map<String, Object> data = Map.of("subscriptionId", sub.getId());
+                            notifications.add(() -> notify(ownerId, restaurantId, "Trial expired", "Your trial has expired.", data));
                             transitionsCount++;
                         }
                     }
@@ -710,15 +959,15 @@ public class SubscriptionService {
             }
 
             // Paid subscription handling
-            if (sub.getCurrentPeriodEndAt() != null) {
+            if (lifecycle && sub.getCurrentPeriodEndAt() != null) {
                 // Send reminder before period ends
                 if ((sub.getStatus() == RestaurantSubscription.Status.ACTIVE ||
                      sub.getStatus() == RestaurantSubscription.Status.GRACE)) {
                     LocalDateTime remindAt = sub.getCurrentPeriodEndAt().minusDays(notifyPeriodBefore);
                     if (!now.isBefore(remindAt) && now.isBefore(sub.getCurrentPeriodEndAt())) {
-                        notify(ownerId, sub.getRestaurantId(), "Subscription ending soon",
-                            "Your PRO period ends on " + sub.getCurrentPeriodEndAt().toLocalDate() + ".",
-                            Map.of("subscriptionId", sub.getId(), "phase", "PAID"));
+                        String body = "Your PRO period ends on " + sub.getCurrentPeriodEndAt().toLocalDate() + ".";
+                        Map<String, Object> data = Map.of("subscriptionId", sub.getId(), "phase", "PAID");
+                        notifications.add(() -> notify(ownerId, restaurantId, "Subscription ending soon", body, data));
                     }
                 }
 
@@ -729,19 +978,18 @@ public class SubscriptionService {
                         if (sub.getStatus() != RestaurantSubscription.Status.GRACE) {
                             sub.setStatus(RestaurantSubscription.Status.GRACE);
                             sub.setGraceEndAt(graceEnd); // Set the grace end date
-                            subscriptionRepository.save(sub);
-                            eventRepository.save(new RestaurantSubscriptionEvent(sub.getId(), "PERIOD_GRACE_STARTED", null));
+                            events.add(new RestaurantSubscriptionEvent(sub.getId(), "PERIOD_GRACE_STARTED", null));
                             transitionsCount++;
                         }
-                        setRestaurantPlan(sub.getRestaurantId(), Restaurant.SubscriptionPlan.PRO);
+                        restaurant.setSubscriptionPlan(Restaurant.SubscriptionPlan.PRO);
                     } else {
                         if (sub.getStatus() != RestaurantSubscription.Status.EXPIRED) {
                             sub.setStatus(RestaurantSubscription.Status.EXPIRED);
-                            subscriptionRepository.save(sub);
-                            eventRepository.save(new RestaurantSubscriptionEvent(sub.getId(), "SUBSCRIPTION_EXPIRED", null));
-                            setRestaurantPlan(sub.getRestaurantId(), Restaurant.SubscriptionPlan.BASIC);
-                            notify(ownerId, sub.getRestaurantId(), "Subscription expired",
-                                "Your PRO subscription has expired.", Map.of("subscriptionId", sub.getId()));
+                            events.add(new RestaurantSubscriptionEvent(sub.getId(), "SUBSCRIPTION_EXPIRED", null));
+                            restaurant.setSubscriptionPlan(Restaurant.SubscriptionPlan.BASIC);
+                            Map<String, Object> data = Map.of("subscriptionId", sub.getId());
+                            notifications.add(() -> notify(ownerId, restaurantId, "Subscription expired",
+                                "Your PRO subscription has expired.", data));
                             transitionsCount++;
                         }
                     }
@@ -749,24 +997,37 @@ public class SubscriptionService {
             }
 
             // Ensure subscription plan consistency
-            boolean shouldBePro = isValidProSubscription(sub.getRestaurantId());
+            boolean shouldBePro = hasProAccess(sub, now, () -> graceDays);
             boolean currentlyPro = restaurant.getSubscriptionPlan() == Restaurant.SubscriptionPlan.PRO;
 
             if (shouldBePro != currentlyPro) {
-                Restaurant.SubscriptionPlan correctPlan = shouldBePro ?
-                    Restaurant.SubscriptionPlan.PRO : Restaurant.SubscriptionPlan.BASIC;
-                setRestaurantPlan(sub.getRestaurantId(), correctPlan);
-                eventRepository.save(new RestaurantSubscriptionEvent(sub.getId(), "DAILY_CHECK_SYNC",
+                restaurant.setSubscriptionPlan(shouldBePro ?
+                    Restaurant.SubscriptionPlan.PRO : Restaurant.SubscriptionPlan.BASIC);
+                events.add(new RestaurantSubscriptionEvent(sub.getId(), "DAILY_CHECK_SYNC",
                     String.format("{\"from\":\"%s\",\"to\":\"%s\"}",
                         currentlyPro ? "PRO" : "BASIC",
                         shouldBePro ? "PRO" : "BASIC")));
                 transitionsCount++;
             }
+            refreshTimeline(sub);
         }
 
-        // Log summary of daily check execution
-        System.out.println(String.format("Daily subscription check completed: %d subscriptions processed, %d transitions made",
-            processedCount, transitionsCount));
+        insertEvents(events);
+        return transitionsCount;
+    }
+
+    // One JDBC batch per chunk; the IDENTITY id on the entity would otherwise force row-by-row inserts
+    private void insertEvents(List<RestaurantSubscriptionEvent> events) {
+        if (events.isEmpty()) return;
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO restaurant_subscription_events (subscription_id, event_type, metadata, created_at) VALUES (?, ?, ?, ?)",
+            events, events.size(), (ps, event) -> {
+                ps.setLong(1, event.getSubscriptionId());
+                ps.setString(2, event.getEventType());
+                ps.setString(3, event.getMetadata());
+                ps.setTimestamp(4, createdAt);
+            });
     }
 
     private void notify(Long userId, Long restaurantId, String title, String body, Map<String, Object> data) {
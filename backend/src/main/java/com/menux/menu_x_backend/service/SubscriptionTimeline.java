@@ -0,0 +1,103 @@
+package com.menux.menu_x_backend.service;
+
+import com.menux.menu_x_backend.util.HierarchicalTimingWheel;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory view of upcoming subscription transitions.
+ *
+ * A one-second timing wheel holds the next transition instant of every TRIALING/ACTIVE/GRACE subscription
+ * so SubscriptionScheduler can apply it when it is due instead of at the nightly sweep, and a per-restaurant
+ * "PRO until" cache lets isValidProSubscription answer without a query. The database stays the source of
+ * truth: firing only re-evaluates a row, and the scheduler rebuilds both structures periodically.
+ */
+@Component
+public class SubscriptionTimeline {
+
+    static final long NO_ACCESS = Long.MIN_VALUE;
+
+    private final HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, System.currentTimeMillis());
+
+    // restaurantId -> epoch millis until which the restaurant has PRO access (NO_ACCESS if none)
+    private final Map<Long, Long> proUntil = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction so a lookup that raced with a write does not cache what it read
+    private final AtomicLong accessVersion = new AtomicLong();
+
+    private final AtomicLong accessHits = new AtomicLong();
+    private final AtomicLong accessMisses = new AtomicLong();
+
+    public void schedule(Long subscriptionId, LocalDateTime at) {
+        if (at == null) {
+            wheel.cancel(subscriptionId);
+        } else {
+            wheel.schedule(subscriptionId, toEpochMillis(at));
+        }
+    }
+
+    public List<Long> pollDue() {
+        return wheel.advance(System.currentTimeMillis());
+    }
+
+    public void clearSchedule() {
+        wheel.clear();
+    }
+
+    public int getScheduledCount() {
+        return wheel.size();
+    }
+
+    public long accessVersion() {
+        return accessVersion.get();
+    }
+
+    /**
+     * Cached PRO access for a restaurant: TRUE/FALSE, or null when not cached
+     */
+    public Boolean cachedProAccess(Long restaurantId) {
+        Long until = proUntil.get(restaurantId);
+        if (until == null) {
+            accessMisses.incrementAndGet();
+            return null;
+        }
+        accessHits.incrementAndGet();
+        return until != NO_ACCESS && System.currentTimeMillis() < until;
+    }
+
+    public void cacheProUntil(Long restaurantId, LocalDateTime until, long version) {
+        long value = until == null ? NO_ACCESS : toEpochMillis(until);
+        proUntil.put(restaurantId, value);
+        if (accessVersion.get() != version) {
+            // A write landed while the caller was reading; drop rather than risk a stale entry
+            proUntil.remove(restaurantId, value);
+        }
+    }
+
+    public void evictAccess(Long restaurantId) {
+        accessVersion.incrementAndGet();
+        proUntil.remove(restaurantId);
+    }
+
+    public void clearAccess() {
+        accessVersion.incrementAndGet();
+        proUntil.clear();
+    }
+
+    public int getCachedAccessCount() {
+        return proUntil.size();
+    }
+
+    public long getAccessHitCount() { return accessHits.get(); }
+    public long getAccessMissCount() { return accessMisses.get(); }
+
+    private static long toEpochMillis(LocalDateTime at) {
+        return at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
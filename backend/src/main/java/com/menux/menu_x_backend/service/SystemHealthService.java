@@ -1,157 +1,283 @@
 package com.menux.menu_x_backend.service;
 
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.DataAccessException;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
+/**
+ * System health for the admin dashboard and the health probes. The status is computed on a background
+ * schedule from cheap signals only (connection validation, pool saturation and the request metrics of the
+ * last window) and served from memory, so no health call ever reads table data. The refresh runs on its
+ * own thread so long jobs on the shared scheduler cannot delay it, and readiness treats a status older
+ * than a few refresh intervals as not ready.
+ *
+ * Waiting for a pooled connection is pool saturation, not a database fault: it is reported by the
+ * service check, while the database check times only the validation round trip. Long-lived endpoints
+ * (SSE streams) are left out of the latency mean since their duration is the connection lifetime.
+ */
 @Service
 public class SystemHealthService {
 
     private static final Logger logger = LoggerFactory.getLogger(SystemHealthService.class);
 
+    // A status this many refresh intervals old means the refresh itself is stuck
+    private static final int STALE_AFTER_REFRESHES = 3;
+
+    @Autowired
+    private DataSource dataSource;
+
     @Autowired
-    private JdbcTemplate jdbcTemplate;
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.health.refresh-ms:15000}")
+    private long refreshMs;
+
+    @Value("${app.health.db-timeout-seconds:2}")
+    private int dbTimeoutSeconds;
+
+    @Value("${app.health.max-db-response-ms:1000}")
+    private long maxDbResponseMs;
+
+    @Value("${app.health.max-mean-response-ms:500}")
+    private double maxMeanResponseMs;
+
+    @Value("${app.health.max-error-rate:0.05}")
+    private double maxErrorRate;
+
+    // Below this many requests in a window the error rate and mean latency are too noisy to judge
+    @Value("${app.health.min-window-requests:20}")
+    private long minWindowRequests;
+
+    // Route patterns whose duration is a connection lifetime rather than a response time
+    @Value("${app.health.latency-excluded-uris:/api/**/stream,/ws/**}")
+    private List<String> latencyExcludedUris;
+
+    private final AntPathMatcher uriMatcher = new AntPathMatcher();
+
+    private volatile SystemHealthStatus current;
+    private volatile long currentAtMs;
+
+    private ScheduledExecutorService refreshExecutor;
+
+    // Request metric totals at the previous refresh; the difference is the rolling window
+    private long lastRequestCount;
+    private long lastErrorCount;
+    private long lastTimedRequestCount;
+    private double lastTotalTimeMs;
+
+    // Last conclusive database verdict, kept while the pool is too busy to hand out a connection
+    private boolean lastDbHealthy = true;
 
     /**
      * Calculate overall system health percentage based on various metrics
      */
     public Double calculateSystemHealth() {
+        return getDetailedHealthStatus().getOverallHealth();
+    }
+
+    /**
+     * Get detailed health status for debugging (the most recent background result)
+     */
+    public SystemHealthStatus getDetailedHealthStatus() {
+        SystemHealthStatus status = current;
+        return status != null ? status : refresh();
+    }
+
+    /**
+     * Readiness: the database check of a status recent enough to trust
+     */
+    public boolean isReady() {
+        SystemHealthStatus status = getDetailedHealthStatus();
+        return status.isDatabaseHealthy() && !isStale();
+    }
+
+    boolean isStale() {
+        return System.currentTimeMillis() - currentAtMs > STALE_AFTER_REFRESHES * Math.max(1, refreshMs);
+    }
+
+    @PostConstruct
+    void startRefreshing() {
+        refreshExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "system-health");
+            t.setDaemon(true);
+            return t;
+        });
+        refreshExecutor.scheduleWithFixedDelay(this::scheduledRefresh, 0, Math.max(1, refreshMs), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopRefreshing() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    void scheduledRefresh() {
+        // An escaping exception would cancel the periodic task for good
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.warn("System health refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute the status from connection validation, pool saturation and request metrics
+     */
+    public synchronized SystemHealthStatus refresh() {
+        DatabaseProbe probe = checkDatabase();
+        boolean dbHealthy;
+        if (probe.poolExhausted()) {
+            dbHealthy = lastDbHealthy;
+        } else {
+            dbHealthy = probe.validateMs() >= 0 && probe.validateMs() < maxDbResponseMs;
+            lastDbHealthy = dbHealthy;
+        }
+
+        // Rolling request window since the previous refresh
+        long requests = 0;
+        long errors = 0;
+        long timedRequests = 0;
+        double totalTimeMs = 0;
+        for (Timer timer : meterRegistry.find("http.server.requests").timers()) {
+            requests += timer.count();
+            if ("SERVER_ERROR".equals(timer.getId().getTag("outcome"))) {
+                errors += timer.count();
+            }
+            if (!isLatencyExcluded(timer.getId().getTag("uri"))) {
+                timedRequests += timer.count();
+                totalTimeMs += timer.totalTime(TimeUnit.MILLISECONDS);
+            }
+        }
+        long windowRequests = Math.max(0, requests - lastRequestCount);
+        long windowErrors = Math.max(0, errors - lastErrorCount);
+        long windowTimedRequests = Math.max(0, timedRequests - lastTimedRequestCount);
+        double windowTimeMs = Math.max(0, totalTimeMs - lastTotalTimeMs);
+        lastRequestCount = requests;
+        lastErrorCount = errors;
+        lastTimedRequestCount = timedRequests;
+        lastTotalTimeMs = totalTimeMs;
+
+        double errorRate = windowRequests > 0 ? (double) windowErrors / windowRequests : 0.0;
+        double meanResponseMs = windowTimedRequests > 0 ? windowTimeMs / windowTimedRequests : 0.0;
+        boolean apiHealthy = windowTimedRequests < minWindowRequests || meanResponseMs < maxMeanResponseMs;
+        boolean errorHealthy = windowRequests < minWindowRequests || errorRate <= maxErrorRate;
+
+        // Pool saturation: healthy while no request is queued for a connection
+        int poolActive = -1;
+        int poolPending = -1;
+        HikariPoolMXBean pool = hikariPool();
+        if (pool != null) {
+            poolActive = pool.getActiveConnections();
+            poolPending = pool.getThreadsAwaitingConnection();
+        }
+        boolean serviceHealthy = poolPending <= 0 && !probe.poolExhausted();
+
         List<HealthCheck> checks = new ArrayList<>();
-        
-        // Database connectivity check (40% weight)
-        checks.add(new HealthCheck(checkDatabaseHealth(), 40.0));
-        
-        // API response time check (30% weight)
-        checks.add(new HealthCheck(checkApiResponseTime(), 30.0));
-        
-        // Recent error rate check (20% weight)
-        checks.add(new HealthCheck(checkErrorRate(), 20.0));
-        
-        // Service availability check (10% weight)
-        checks.add(new HealthCheck(checkServiceAvailability(), 10.0));
-        
-        // Calculate weighted average
+        checks.add(new HealthCheck(dbHealthy, 40.0));
+        checks.add(new HealthCheck(apiHealthy, 30.0));
+        checks.add(new HealthCheck(errorHealthy, 20.0));
+        checks.add(new HealthCheck(serviceHealthy, 10.0));
+
         double totalWeight = 0.0;
         double weightedSum = 0.0;
-        
         for (HealthCheck check : checks) {
             if (check.isHealthy()) {
                 weightedSum += check.getWeight();
             }
             totalWeight += check.getWeight();
         }
-        
         double healthPercentage = totalWeight > 0 ? (weightedSum / totalWeight) * 100.0 : 0.0;
-        
-        // Ensure health is between 0 and 100
-        return Math.max(0.0, Math.min(100.0, healthPercentage));
+
+        SystemHealthStatus status = new SystemHealthStatus(
+            Math.max(0.0, Math.min(100.0, healthPercentage)),
+            dbHealthy,
+            apiHealthy,
+            errorHealthy,
+            serviceHealthy,
+            LocalDateTime.now()
+        );
+        status.dbResponseMs = probe.validateMs();
+        status.poolWaitMs = probe.acquireMs();
+        status.windowRequests = windowRequests;
+        status.errorRate = errorRate;
+        status.meanResponseMs = meanResponseMs;
+        status.poolActiveConnections = poolActive;
+        status.poolPendingThreads = poolPending;
+        current = status;
+        currentAtMs = System.currentTimeMillis();
+        return status;
     }
 
     /**
-     * Check database connectivity and response time
+     * Validate one pooled connection, timing the pool checkout and the validation round trip apart
      */
-    private boolean checkDatabaseHealth() {
+    private DatabaseProbe checkDatabase() {
+        long startTime = System.currentTimeMillis();
+        Connection connection;
         try {
-            long startTime = System.currentTimeMillis();
-            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
-            long responseTime = System.currentTimeMillis() - startTime;
-            
-            // Consider healthy if response time is under 1000ms
-            return responseTime < 1000;
-        } catch (DataAccessException e) {
+            connection = dataSource.getConnection();
+        } catch (SQLTransientConnectionException e) {
+            // Hikari's checkout timeout: every connection is busy, which says nothing about the database
+            logger.warn("Database health check could not get a pooled connection: {}", e.getMessage());
+            return new DatabaseProbe(System.currentTimeMillis() - startTime, -1, true);
+        } catch (Exception e) {
             logger.warn("Database health check failed: {}", e.getMessage());
-            return false;
+            return new DatabaseProbe(System.currentTimeMillis() - startTime, -1, false);
         }
-    }
-
-    /**
-     * Check API response time by measuring a simple database query
-     */
-    private boolean checkApiResponseTime() {
-        try {
-            long startTime = System.currentTimeMillis();
-            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
-            long responseTime = System.currentTimeMillis() - startTime;
-            
-            // Consider healthy if response time is under 500ms
-            return responseTime < 500;
-        } catch (DataAccessException e) {
-            logger.warn("API response time check failed: {}", e.getMessage());
-            return false;
+        long acquireMs = System.currentTimeMillis() - startTime;
+        try (connection) {
+            long validateStart = System.currentTimeMillis();
+            boolean valid = connection.isValid(dbTimeoutSeconds);
+            return new DatabaseProbe(acquireMs, valid ? System.currentTimeMillis() - validateStart : -1, false);
+        } catch (Exception e) {
+            logger.warn("Database health check failed: {}", e.getMessage());
+            return new DatabaseProbe(acquireMs, -1, false);
         }
     }
 
-    /**
-     * Check recent error rate by examining audit logs or application logs
-     */
-    private boolean checkErrorRate() {
-        try {
-            // Check for recent errors in the last hour
-            LocalDateTime oneHourAgo = LocalDateTime.now().minus(1, ChronoUnit.HOURS);
-            
-            // Count total audit log entries in the last hour
-            Long totalActions = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM audit_logs WHERE created_at > ?", 
-                Long.class, oneHourAgo
-            );
-            
-            if (totalActions == null || totalActions == 0) {
-                return true; // No activity, assume healthy
-            }
-            
-            // For now, assume healthy since we don't track error-specific audit logs
-            // In a real implementation, you would count error actions vs total actions
-            return true;
-        } catch (DataAccessException e) {
-            logger.warn("Error rate check failed: {}", e.getMessage());
-            return false;
+    private boolean isLatencyExcluded(String uri) {
+        if (uri == null || latencyExcludedUris == null) return false;
+        for (String pattern : latencyExcludedUris) {
+            if (uriMatcher.match(pattern.trim(), uri)) return true;
         }
+        return false;
     }
 
-    /**
-     * Check service availability by verifying core services are running
-     */
-    private boolean checkServiceAvailability() {
+    // validateMs is -1 when validation failed or never ran
+    private record DatabaseProbe(long acquireMs, long validateMs, boolean poolExhausted) {}
+
+    private HikariPoolMXBean hikariPool() {
         try {
-            // Check if we can access core tables
-            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users LIMIT 1", Long.class);
-            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM restaurants LIMIT 1", Long.class);
-            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders LIMIT 1", Long.class);
-            
-            return true;
-        } catch (DataAccessException e) {
-            logger.warn("Service availability check failed: {}", e.getMessage());
-            return false;
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            }
+        } catch (Exception e) {
+            logger.debug("Hikari pool metrics unavailable: {}", e.getMessage());
         }
-    }
-
-    /**
-     * Get detailed health status for debugging
-     */
-    public SystemHealthStatus getDetailedHealthStatus() {
-        boolean dbHealth = checkDatabaseHealth();
-        boolean apiHealth = checkApiResponseTime();
-        boolean errorHealth = checkErrorRate();
-        boolean serviceHealth = checkServiceAvailability();
-        
-        Double overallHealth = calculateSystemHealth();
-        
-        return new SystemHealthStatus(
-            overallHealth,
-            dbHealth,
-            apiHealth,
-            errorHealth,
-            serviceHealth,
-            LocalDateTime.now()
-        );
+        return null;
     }
 
     /**
@@ -180,6 +306,13 @@ public class SystemHealthService {
         private final boolean errorRateHealthy;
         private final boolean serviceHealthy;
         private final LocalDateTime timestamp;
+        private long dbResponseMs;
+        private long poolWaitMs;
+        private long windowRequests;
+        private double errorRate;
+        private double meanResponseMs;
+        private int poolActiveConnections;
+        private int poolPendingThreads;
 
         public SystemHealthStatus(Double overallHealth, boolean databaseHealthy, 
                                 boolean apiHealthy, boolean errorRateHealthy, 
@@ -199,5 +332,12 @@ public class SystemHealthService {
         public boolean isErrorRateHealthy() { return errorRateHealthy; }
         public boolean isServiceHealthy() { return serviceHealthy; }
         public LocalDateTime getTimestamp() { return timestamp; }
+        public long getDbResponseMs() { return dbResponseMs; }
+        public long getPoolWaitMs() { return poolWaitMs; }
+        public long getWindowRequests() { return windowRequests; }
+        public double getErrorRate() { return errorRate; }
+        public double getMeanResponseMs() { return meanResponseMs; }
+        public int getPoolActiveConnections() { return poolActiveConnections; }
+        public int getPoolPendingThreads() { return poolPendingThreads; }
     }
 }
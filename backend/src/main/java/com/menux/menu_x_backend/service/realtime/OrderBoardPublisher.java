@@ -0,0 +1,201 @@
+package com.menux.menu_x_backend.service.realtime;
+
+import com.menux.menu_x_backend.dto.order.OrderBoardEvent;
+import com.menux.menu_x_backend.dto.order.OrderBoardReplay;
+import com.menux.menu_x_backend.repository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Pushes order board deltas to STOMP topic /topic/restaurant/{id}/orders and, as a fallback,
+ * to the owner's SSE stream as "order-board" events.
+ *
+ * Every restaurant has its own monotonically increasing sequence and a small replay buffer so a
+ * reconnecting client can ask for everything after the last sequence it saw. Sequences are
+ * in-memory; the epoch changes on restart so clients know to reload instead of resuming.
+ *
+ * Events are stamped and handed to both transports under the restaurant's stream lock, so they
+ * leave in sequence order (the STOMP broker preserves publish order per session, SSE queues per
+ * connection). Replay buffers of restaurants with no events for the idle TTL are dropped; the
+ * sequence is kept so a later resume gets a reset instead of colliding numbers.
+ */
+@Service
+public class OrderBoardPublisher {
+    private static final Logger log = LoggerFactory.getLogger(OrderBoardPublisher.class);
+
+    public static final String SSE_EVENT_NAME = "order-board";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SseEmitterRegistry sseRegistry;
+    private final RestaurantRepository restaurantRepository;
+
+    private final String epoch = UUID.randomUUID().toString();
+    private final Map<Long, Stream> streams = new ConcurrentHashMap<>();
+    private final Map<Long, Long> ownerByRestaurant = new ConcurrentHashMap<>();
+
+    @Value("${app.notifications.features.ws:true}")
+    private boolean wsEnabled;
+
+    @Value("${app.realtime.order-board.replay-size:200}")
+    private int replaySize;
+
+    @Value("${app.realtime.order-board.idle-ttl-ms:3600000}")
+    private long idleTtlMs;
+
+    public OrderBoardPublisher(SimpMessagingTemplate messagingTemplate,
+                               SseEmitterRegistry sseRegistry,
+                               RestaurantRepository restaurantRepository) {
+        this.messagingTemplate = messagingTemplate;
+        this.sseRegistry = sseRegistry;
+        this.restaurantRepository = restaurantRepository;
+    }
+
+    public static String topicFor(Long restaurantId) {
+        return "/topic/restaurant/" + restaurantId + "/orders";
+    }
+
+    /**
+     * Stamp and broadcast an order board event. Never throws; delivery is best effort and the
+     * resume handshake covers anything a client missed.
+     */
+    public void publish(Long restaurantId, Long ownerId, OrderBoardEvent event) {
+        publish(restaurantId, ownerId, () -> event);
+    }
+
+    /**
+     * Same as {@link #publish(Long, Long, OrderBoardEvent)}, but the event is built inside the guard, so
+     * a failure to build the payload is logged like any other publish failure instead of reaching the caller.
+     */
+    public void publish(Long restaurantId, Long ownerId, Supplier<OrderBoardEvent> eventSupplier) {
+        if (restaurantId == null || eventSupplier == null) return;
+        try {
+            OrderBoardEvent event = eventSupplier.get();
+            if (event == null) return;
+            event.setRestaurantId(restaurantId);
+            event.setEpoch(epoch);
+            // Resolved outside the stream lock: may hit the database once per restaurant
+            Long owner = ownerId != null ? ownerId : resolveOwner(restaurantId);
+            streams.computeIfAbsent(restaurantId, id -> new Stream()).publish(event, replaySize, stamped -> {
+                // Both sends only enqueue (broker channel, per-connection SSE queue), so holding the lock is cheap
+                if (wsEnabled) {
+                    try {
+                        messagingTemplate.convertAndSend(topicFor(restaurantId), stamped);
+                    } catch (Exception e) {
+                        log.debug("WS order board publish failed restaurantId={} err={}", restaurantId, e.getMessage());
+                    }
+                }
+                if (owner != null) {
+                    sseRegistry.sendEventToUser(owner, SSE_EVENT_NAME, String.valueOf(stamped.getSequence()), stamped);
+                }
+            });
+        } catch (Exception e) {
+            log.debug("Order board publish failed restaurantId={} err={}", restaurantId, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop replay buffers of restaurants that published nothing for the idle TTL
+     */
+    @Scheduled(fixedDelayString = "${app.realtime.order-board.sweep-ms:300000}")
+    public void evictIdleStreams() {
+        long cutoff = System.currentTimeMillis() - idleTtlMs;
+        for (Stream stream : streams.values()) {
+            stream.dropBufferIfIdleSince(cutoff);
+        }
+    }
+
+    int bufferedEventCount() {
+        int total = 0;
+        for (Stream stream : streams.values()) {
+            total += stream.bufferedCount();
+        }
+        return total;
+    }
+
+    /**
+     * Resume handshake: returns buffered events with a sequence greater than {@code since}.
+     * A mismatched epoch or a gap older than the replay buffer yields {@code resetRequired}.
+     */
+    public OrderBoardReplay replay(Long restaurantId, String clientEpoch, long since) {
+        Stream stream = streams.get(restaurantId);
+        if (stream == null) {
+            boolean reset = clientEpoch != null && !epoch.equals(clientEpoch) && since > 0;
+            return new OrderBoardReplay(epoch, 0L, reset, List.of());
+        }
+        if (clientEpoch != null && !epoch.equals(clientEpoch)) {
+            return new OrderBoardReplay(epoch, stream.currentSequence(), true, List.of());
+        }
+        return stream.since(epoch, since);
+    }
+
+    private Long resolveOwner(Long restaurantId) {
+        Long cached = ownerByRestaurant.get(restaurantId);
+        if (cached != null) return cached;
+        Long owner = restaurantRepository.findById(restaurantId).map(r -> r.getOwnerId()).orElse(null);
+        if (owner != null) {
+            ownerByRestaurant.put(restaurantId, owner);
+        }
+        return owner;
+    }
+
+    private static final class Stream {
+        private long sequence = 0L;
+        private long lastAppendAt = System.currentTimeMillis();
+        private final ArrayDeque<OrderBoardEvent> buffer = new ArrayDeque<>();
+
+        synchronized void publish(OrderBoardEvent event, int capacity, Consumer<OrderBoardEvent> deliver) {
+            event.setSequence(++sequence);
+            lastAppendAt = System.currentTimeMillis();
+            buffer.addLast(event);
+            while (buffer.size() > Math.max(1, capacity)) {
+                buffer.removeFirst();
+            }
+            deliver.accept(event);
+        }
+
+        // An empty buffer makes any resume from an older sequence a reset
+        synchronized void dropBufferIfIdleSince(long cutoff) {
+            if (lastAppendAt < cutoff && !buffer.isEmpty()) {
+                buffer.clear();
+            }
+        }
+
+        synchronized int bufferedCount() {
+            return buffer.size();
+        }
+
+        synchronized long currentSequence() {
+            return sequence;
+        }
+
+        synchronized OrderBoardReplay since(String epoch, long since) {
+            if (since >= sequence) {
+                return new OrderBoardReplay(epoch, sequence, false, List.of());
+            }
+            OrderBoardEvent oldest = buffer.peekFirst();
+            if (since < 0 || oldest == null || oldest.getSequence() > since + 1) {
+                return new OrderBoardReplay(epoch, sequence, true, List.of());
+            }
+            List<OrderBoardEvent> events = new ArrayList<>();
+            for (OrderBoardEvent e : buffer) {
+                if (e.getSequence() > since) {
+                    events.add(e);
+                }
+            }
+            return new OrderBoardReplay(epoch, sequence, false, events);
+        }
+    }
+}
@@ -18,25 +18,28 @@ public class RealtimeNotificationGateway {
     private final SimpMessagingTemplate messagingTemplate;
     private final UserRepository userRepository;
     private final SseEmitterRegistry sseRegistry;
+    private final UserPresenceRegistry presenceRegistry;
 
     @Value("${app.notifications.features.ws:true}")
     private boolean wsEnabled;
 
     public RealtimeNotificationGateway(SimpMessagingTemplate messagingTemplate,
                                        UserRepository userRepository,
-                                       SseEmitterRegistry sseRegistry) {
+                                       SseEmitterRegistry sseRegistry,
+                                       UserPresenceRegistry presenceRegistry) {
         this.messagingTemplate = messagingTemplate;
         this.userRepository = userRepository;
         this.sseRegistry = sseRegistry;
+        this.presenceRegistry = presenceRegistry;
     }
 
     public void sendToUser(Long userId, NotificationDto payload) {
-        // STOMP/WS
-        if (wsEnabled) {
+        if (userId == null) return;
+        // STOMP/WS - only when the user has a live session on this instance
+        if (wsEnabled && presenceRegistry.isOnline(userId)) {
             try {
-                Optional<User> userOpt = userRepository.findById(userId);
-                if (userOpt.isPresent()) {
-                    String username = userOpt.get().getUsername();
+                String username = resolveUsername(userId);
+                if (username != null) {
                     messagingTemplate.convertAndSendToUser(username, "/queue/notifications", payload);
                 }
             } catch (Exception e) {
@@ -44,10 +47,27 @@ public class RealtimeNotificationGateway {
             }
         }
         // SSE fallback (no-op if disabled or no listeners)
-        try {
-            sseRegistry.sendToUser(userId, payload);
-        } catch (Exception e) {
-            log.debug("SSE sendToUser failed userId={} err={}", userId, e.getMessage());
+        if (sseRegistry.hasConnections(userId)) {
+            try {
+                sseRegistry.sendToUser(userId, payload);
+            } catch (Exception e) {
+                log.debug("SSE sendToUser failed userId={} err={}", userId, e.getMessage());
+            }
+        }
+    }
+
+    private String resolveUsername(Long userId) {
+        String cached = presenceRegistry.getCachedUsername(userId);
+        if (cached != null) {
+            return cached;
+        }
+        // Cache entry evicted or invalidated after a username change
+        Optional<User> userOpt = userRepository.findById(userId);
+        if (userOpt.isEmpty()) {
+            return null;
         }
+        String username = userOpt.get().getUsername();
+        presenceRegistry.rememberUsername(userId, username);
+        return username;
     }
 }
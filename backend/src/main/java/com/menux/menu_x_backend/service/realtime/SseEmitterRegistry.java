@@ -1,19 +1,47 @@
 package com.menux.menu_x_backend.service.realtime;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Keeps SSE connections per user and delivers events without blocking the caller.
+ *
+ * Each connection owns a bounded outbound queue that is drained by a small sender pool, one
+ * drain task per connection at a time so event order is preserved. A slow or stalled client
+ * only fills its own queue; once it overflows the configured policy either drops the oldest
+ * queued event or evicts the connection. Heartbeats are coalesced: at most one is pending per
+ * connection and it is skipped when real data was written during the last interval.
+ *
+ * A write that stays blocked past the stall timeout gets its connection dropped on the next heartbeat
+ * tick. The sender pool grows by one thread for each such pinned write, so stalled clients cannot
+ * hold up everyone else. Emitters are completed on a separate closer executor because
+ * {@code complete()} waits on the same monitor as the blocked {@code send()}. That executor is
+ * bounded too: when all its threads are parked and its queue is full, further close tasks are
+ * dropped, which is safe because the connection has already left the registry.
+ */
 @Service
 public class SseEmitterRegistry {
+    private static final Logger log = LoggerFactory.getLogger(SseEmitterRegistry.class);
 
-    private final Map<Long, CopyOnWriteArrayList<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    public enum OverflowPolicy { DROP_OLDEST, EVICT }
+
+    private static final int CLOSER_QUEUE_CAPACITY = 256;
+
+    private final Map<Long, CopyOnWriteArrayList<Connection>> connections = new ConcurrentHashMap<>();
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong evictedConnections = new AtomicLong();
 
     @Value("${app.notifications.features.sse:true}")
     private boolean sseEnabled;
@@ -21,75 +49,319 @@ public class SseEmitterRegistry {
     @Value("${app.notifications.sse.heartbeat-ms:25000}")
     private long heartbeatMs;
 
+    @Value("${app.notifications.sse.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.notifications.sse.sender-threads:4}")
+    private int senderThreads;
+
+    // Upper bound for the sender pool including threads added to cover stalled writes
+    @Value("${app.notifications.sse.max-sender-threads:32}")
+    private int maxSenderThreads;
+
+    // Threads completing evicted emitters; each one parks behind a blocked write until it fails
+    @Value("${app.notifications.sse.closer-threads:4}")
+    private int closerThreads;
+
+    @Value("${app.notifications.sse.stall-timeout-ms:30000}")
+    private long stallTimeoutMs;
+
+    @Value("${app.notifications.sse.overflow-policy:EVICT}")
+    private OverflowPolicy overflowPolicy;
+
     private final ScheduledExecutorService heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
         Thread t = new Thread(r, "sse-heartbeat");
         t.setDaemon(true);
         return t;
     });
 
+    private ThreadPoolExecutor senderPool;
+    private ThreadPoolExecutor closerPool;
+
     @PostConstruct
-    void initHeartbeat() {
+    void init() {
+        AtomicLong threadSeq = new AtomicLong();
+        int threads = Math.max(1, senderThreads);
+        senderPool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "sse-sender-" + threadSeq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicLong closerSeq = new AtomicLong();
+        int closers = Math.max(1, closerThreads);
+        closerPool = new ThreadPoolExecutor(closers, closers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(CLOSER_QUEUE_CAPACITY), r -> {
+            Thread t = new Thread(r, "sse-closer-" + closerSeq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+        closerPool.allowCoreThreadTimeOut(true);
         heartbeatScheduler.scheduleAtFixedRate(this::sendHeartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
     }
 
+    @PreDestroy
+    void shutdown() {
+        heartbeatScheduler.shutdownNow();
+        if (senderPool != null) {
+            senderPool.shutdownNow();
+        }
+        if (closerPool != null) {
+            closerPool.shutdownNow();
+        }
+    }
+
     public SseEmitter register(Long userId) {
         if (!sseEnabled) {
             return null;
         }
-        // Keep-alive: use a very long timeout; we'll send periodic heartbeats
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
-        emitters.computeIfAbsent(userId, k -> new CopyOnWriteArrayList<>()).add(emitter);
+        SseEmitter emitter = newEmitter();
+        Connection connection = new Connection(userId, emitter, queueCapacity);
+        connections.computeIfAbsent(userId, k -> new CopyOnWriteArrayList<>()).add(connection);
 
-        emitter.onCompletion(() -> removeEmitter(userId, emitter));
-        emitter.onTimeout(() -> removeEmitter(userId, emitter));
-        emitter.onError(e -> removeEmitter(userId, emitter));
+        emitter.onCompletion(() -> removeConnection(connection));
+        emitter.onTimeout(() -> removeConnection(connection));
+        emitter.onError(e -> removeConnection(connection));
 
-        try {
-            // Initial event to open stream on some proxies
-            emitter.send(SseEmitter.event().name("init").data("ok"));
-        } catch (IOException e) {
-            removeEmitter(userId, emitter);
-        }
+        // Initial event to open stream on some proxies
+        enqueue(connection, SseEmitter.event().name("init").data("ok"));
         return emitter;
     }
 
+    SseEmitter newEmitter() {
+        // Keep-alive: use a very long timeout; we'll send periodic heartbeats
+        return new SseEmitter(Long.MAX_VALUE);
+    }
+
     public void sendToUser(Long userId, Object payload) {
         if (!sseEnabled) return;
-        List<SseEmitter> list = emitters.get(userId);
+        List<Connection> list = connections.get(userId);
         if (list == null || list.isEmpty()) return;
-        for (SseEmitter emitter : list) {
-            try {
-                emitter.send(payload);
-            } catch (IOException e) {
-                removeEmitter(userId, emitter);
+        for (Connection connection : list) {
+            enqueue(connection, payload);
+        }
+    }
+
+    /**
+     * Send a named event (with id) to every connection of the user. Builders are not reusable,
+     * so one is created per connection.
+     */
+    public void sendEventToUser(Long userId, String name, String id, Object data) {
+        if (!sseEnabled) return;
+        List<Connection> list = connections.get(userId);
+        if (list == null || list.isEmpty()) return;
+        for (Connection connection : list) {
+            enqueue(connection, SseEmitter.event().name(name).id(id).data(data));
+        }
+    }
+
+    public boolean hasConnections(Long userId) {
+        List<Connection> list = connections.get(userId);
+        return list != null && !list.isEmpty();
+    }
+
+    /** Number of open SSE connections across all users. */
+    public int getConnectionCount() {
+        int count = 0;
+        for (List<Connection> list : connections.values()) {
+            count += list.size();
+        }
+        return count;
+    }
+
+    /** Total number of events waiting in outbound queues. */
+    public int getQueuedEventCount() {
+        int depth = 0;
+        for (List<Connection> list : connections.values()) {
+            for (Connection c : list) {
+                depth += c.queue.size();
+            }
+        }
+        return depth;
+    }
+
+    /** Deepest single outbound queue; a value near capacity points at a slow client. */
+    public int getMaxQueueDepth() {
+        int max = 0;
+        for (List<Connection> list : connections.values()) {
+            for (Connection c : list) {
+                max = Math.max(max, c.queue.size());
+            }
+        }
+        return max;
+    }
+
+    public long getDroppedEventCount() {
+        return droppedEvents.get();
+    }
+
+    public long getEvictedConnectionCount() {
+        return evictedConnections.get();
+    }
+
+    private void enqueue(Connection connection, Object payload) {
+        if (connection.closed.get()) return;
+        if (!connection.queue.offer(payload)) {
+            if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+                // Make room by discarding the oldest pending event; retry once
+                if (connection.queue.poll() != null) {
+                    droppedEvents.incrementAndGet();
+                }
+                if (!connection.queue.offer(payload)) {
+                    droppedEvents.incrementAndGet();
+                }
+            } else {
+                droppedEvents.incrementAndGet();
+                evict(connection, "queue overflow");
+                return;
             }
         }
+        scheduleDrain(connection);
+    }
+
+    private void scheduleDrain(Connection connection) {
+        if (!connection.draining.compareAndSet(false, true)) {
+            return; // a drain task is already running and will pick the new work up
+        }
+        try {
+            senderPool.execute(() -> drain(connection));
+        } catch (RejectedExecutionException e) {
+            connection.draining.set(false);
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            while (!connection.closed.get()) {
+                Object next = connection.queue.poll();
+                if (next == null) {
+                    if (connection.heartbeatPending.compareAndSet(true, false)) {
+                        // Send comment-only heartbeat so clients don't receive onmessage
+                        next = SseEmitter.event().comment("keepalive");
+                    } else {
+                        break;
+                    }
+                }
+                connection.sendingSince = System.currentTimeMillis();
+                try {
+                    if (next instanceof SseEmitter.SseEventBuilder event) {
+                        connection.emitter.send(event);
+                    } else {
+                        connection.emitter.send(next);
+                    }
+                    connection.lastSentAt = System.currentTimeMillis();
+                } catch (Exception e) {
+                    removeConnection(connection);
+                    return;
+                } finally {
+                    connection.sendingSince = 0L;
+                    releaseStallThread(connection);
+                }
+            }
+        } finally {
+            connection.draining.set(false);
+        }
+        // Work may have been enqueued after the last poll but before the flag was cleared
+        if (!connection.closed.get() && (!connection.queue.isEmpty() || connection.heartbeatPending.get())) {
+            scheduleDrain(connection);
+        }
     }
 
     private void sendHeartbeat() {
         if (!sseEnabled) return;
-        for (Map.Entry<Long, CopyOnWriteArrayList<SseEmitter>> entry : emitters.entrySet()) {
-            Long userId = entry.getKey();
-            List<SseEmitter> list = entry.getValue();
-            if (list == null || list.isEmpty()) continue;
-            for (SseEmitter emitter : list) {
-                try {
-                    // Send comment-only heartbeat so clients don't receive onmessage
-                    emitter.send(SseEmitter.event().comment("keepalive"));
-                } catch (IOException e) {
-                    removeEmitter(userId, emitter);
+        long now = System.currentTimeMillis();
+        for (List<Connection> list : connections.values()) {
+            for (Connection connection : list) {
+                long sendingSince = connection.sendingSince;
+                if (sendingSince > 0 && now - sendingSince > stallTimeoutMs) {
+                    addStallThread(connection);
+                    evict(connection, "send stalled for " + (now - sendingSince) + "ms");
+                    continue;
+                }
+                // Any event written during the last interval already kept the stream alive
+                if (now - connection.lastSentAt < heartbeatMs) {
+                    continue;
+                }
+                if (connection.heartbeatPending.compareAndSet(false, true)) {
+                    scheduleDrain(connection);
                 }
             }
         }
     }
 
-    private void removeEmitter(Long userId, SseEmitter emitter) {
-        CopyOnWriteArrayList<SseEmitter> list = emitters.get(userId);
-        if (list != null) {
-            list.remove(emitter);
-            if (list.isEmpty()) {
-                emitters.remove(userId);
+    /**
+     * Drop the connection and its queue right away; completing the emitter can block behind an
+     * in-flight write, so it runs on the closer pool and finishes once that write returns or fails.
+     * A saturated (or shut down) closer pool discards the task; the blocked write still fails on its own.
+     */
+    private void evict(Connection connection, String reason) {
+        if (connection.closed.get()) return;
+        log.debug("Evicting SSE connection userId={} reason={}", connection.userId, reason);
+        evictedConnections.incrementAndGet();
+        removeConnection(connection);
+        closerPool.execute(() -> {
+            try {
+                connection.emitter.complete();
+            } catch (Exception ignored) {
+                // connection is already unusable
+            }
+        });
+    }
+
+    int closerThreadCount() {
+        return closerPool.getPoolSize();
+    }
+
+    /**
+     * The writer of a stalled connection is pinned until its send returns; add a sender thread in
+     * its place (up to max-sender-threads) so the other connections keep draining
+     */
+    private void addStallThread(Connection connection) {
+        synchronized (senderPool) {
+            if (senderPool.getMaximumPoolSize() >= Math.max(senderThreads, maxSenderThreads)) {
+                return;
+            }
+            if (connection.stallThreadAdded.compareAndSet(false, true)) {
+                senderPool.setMaximumPoolSize(senderPool.getMaximumPoolSize() + 1);
+                // Starts a thread for the drains queued behind the pinned one
+                senderPool.setCorePoolSize(senderPool.getCorePoolSize() + 1);
             }
         }
     }
+
+    private void releaseStallThread(Connection connection) {
+        if (!connection.stallThreadAdded.compareAndSet(true, false)) {
+            return;
+        }
+        synchronized (senderPool) {
+            senderPool.setCorePoolSize(senderPool.getCorePoolSize() - 1);
+            senderPool.setMaximumPoolSize(senderPool.getMaximumPoolSize() - 1);
+        }
+    }
+
+    private void removeConnection(Connection connection) {
+        connection.closed.set(true);
+        connection.queue.clear();
+        connections.computeIfPresent(connection.userId, (id, list) -> {
+            list.remove(connection);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private static final class Connection {
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<Object> queue;
+        final AtomicBoolean draining = new AtomicBoolean(false);
+        final AtomicBoolean heartbeatPending = new AtomicBoolean(false);
+        final AtomicBoolean closed = new AtomicBoolean(false);
+        final AtomicBoolean stallThreadAdded = new AtomicBoolean(false);
+        volatile long lastSentAt = System.currentTimeMillis();
+        volatile long sendingSince = 0L;
+
+        Connection(Long userId, SseEmitter emitter, int capacity) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        }
+    }
 }
@@ -0,0 +1,93 @@
+package com.menux.menu_x_backend.service.realtime;
+
+import com.menux.menu_x_backend.security.WebSocketAuthHandshakeHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks which users currently have a live STOMP session on this instance and caches the
+ * user id to principal name mapping needed for convertAndSendToUser.
+ *
+ * Entries are filled at WebSocket handshake time, so pushing to an online user does not need a
+ * user lookup. The name cache is a bounded LRU; ProfileService invalidates entries when a
+ * username changes.
+ */
+@Service
+public class UserPresenceRegistry {
+
+    private final Map<Long, AtomicInteger> sessionsByUser = new ConcurrentHashMap<>();
+    private final Map<String, Long> userBySession = new ConcurrentHashMap<>();
+    private final Map<Long, String> usernames;
+
+    public UserPresenceRegistry(@Value("${app.notifications.ws.username-cache-size:10000}") int cacheSize) {
+        int maxEntries = Math.max(16, cacheSize);
+        this.usernames = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public void rememberUsername(Long userId, String username) {
+        if (userId == null || username == null) return;
+        synchronized (usernames) {
+            usernames.put(userId, username);
+        }
+    }
+
+    public String getCachedUsername(Long userId) {
+        synchronized (usernames) {
+            return usernames.get(userId);
+        }
+    }
+
+    public void invalidate(Long userId) {
+        synchronized (usernames) {
+            usernames.remove(userId);
+        }
+    }
+
+    /** True when the user has at least one live STOMP session on this instance. */
+    public boolean isOnline(Long userId) {
+        AtomicInteger count = userId != null ? sessionsByUser.get(userId) : null;
+        return count != null && count.get() > 0;
+    }
+
+    public int getOnlineUserCount() {
+        return sessionsByUser.size();
+    }
+
+    @EventListener
+    public void onSessionConnect(SessionConnectEvent event) {
+        Long userId = userIdOf(event.getUser());
+        String sessionId = (String) event.getMessage().getHeaders().get("simpSessionId");
+        if (userId == null || sessionId == null) return;
+        if (userBySession.putIfAbsent(sessionId, userId) == null) {
+            sessionsByUser.computeIfAbsent(userId, id -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        Long userId = userBySession.remove(event.getSessionId());
+        if (userId == null) return;
+        sessionsByUser.computeIfPresent(userId, (id, count) -> count.decrementAndGet() <= 0 ? null : count);
+    }
+
+    private Long userIdOf(Principal principal) {
+        if (principal instanceof WebSocketAuthHandshakeHandler.StompPrincipal stompPrincipal) {
+            return stompPrincipal.getUserId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,153 @@
+package com.menux.menu_x_backend.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel holding at most one deadline per key.
+ *
+ * Four levels of 64 slots; level 0 slots are one tick wide and each higher level is 64 times coarser,
+ * so with one-second ticks the wheel spans ~194 days. Deadlines further out wait in an overflow set that
+ * is re-examined whenever level 2 wraps. Entries cascade down a level when the slot they sit in comes up,
+ * so schedule/cancel are O(1) and {@link #advance(long)} costs O(elapsed ticks + fired keys).
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final List<List<Set<K>>> levels = new ArrayList<>(LEVELS);
+    private final Set<K> overflow = new HashSet<>();
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+
+    // Next tick to be processed by advance(); deadlines are never placed before it
+    private long nextTick;
+
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be > 0");
+        this.tickMillis = tickMillis;
+        this.nextTick = startMillis / tickMillis;
+        for (int level = 0; level < LEVELS; level++) {
+            List<Set<K>> slots = new ArrayList<>(SLOTS);
+            for (int i = 0; i < SLOTS; i++) slots.add(new HashSet<>());
+            levels.add(slots);
+        }
+    }
+
+    /**
+     * Schedule (or move) the deadline for a key. Deadlines are rounded up to the next tick, so a key
+     * never fires before its deadline; deadlines already in the past fire on the next advance.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long tick = Math.max(nextTick, ceilDiv(deadlineMillis, tickMillis));
+        Entry<K> entry = new Entry<>(key, tick);
+        entries.put(key, entry);
+        place(entry);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) return false;
+        entry.bucket.remove(key);
+        return true;
+    }
+
+    /**
+     * Process every tick up to and including {@code nowMillis} and return the keys whose deadlines passed.
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        List<K> due = new ArrayList<>();
+        while (nextTick <= nowTick) {
+            int index = (int) (nextTick & MASK);
+            if (index == 0) {
+                cascade(1);
+            }
+            Set<K> slot = levels.get(0).get(index);
+            if (!slot.isEmpty()) {
+                for (K key : slot) {
+                    entries.remove(key);
+                    due.add(key);
+                }
+                slot.clear();
+            }
+            nextTick++;
+        }
+        return due;
+    }
+
+    public synchronized void clear() {
+        for (List<Set<K>> slots : levels) {
+            for (Set<K> slot : slots) slot.clear();
+        }
+        overflow.clear();
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    // Move the entries of the current slot of `level` one level down; recurse when this level wrapped too
+    private void cascade(int level) {
+        int index = (int) ((nextTick >>> (BITS * level)) & MASK);
+        if (index == 0) {
+            if (level + 1 < LEVELS) {
+                cascade(level + 1);
+            }
+            if (level == 2) {
+                reinsert(overflow);
+            }
+        }
+        reinsert(levels.get(level).get(index));
+    }
+
+    private void reinsert(Set<K> bucket) {
+        if (bucket.isEmpty()) return;
+        List<K> keys = new ArrayList<>(bucket);
+        bucket.clear();
+        for (K key : keys) {
+            place(entries.get(key));
+        }
+    }
+
+    private void place(Entry<K> entry) {
+        long delta = entry.tick - nextTick;
+        Set<K> bucket = overflow;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (BITS * (level + 1))) {
+                bucket = levels.get(level).get((int) ((entry.tick >>> (BITS * level)) & MASK));
+                break;
+            }
+        }
+        bucket.add(entry.key);
+        entry.bucket = bucket;
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+
+    private static final class Entry<K> {
+        final K key;
+        final long tick;
+        Set<K> bucket;
+
+        Entry(K key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+-- Denormalized per-user unread notification counter so the unread badge is a single-row read
+
+CREATE TABLE IF NOT EXISTS notification_unread_counters (
+    user_id BIGINT PRIMARY KEY,
+    unread_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP,
+
+    CONSTRAINT fk_notification_unread_counters_user
+        FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Backfill from existing notifications
+INSERT INTO notification_unread_counters (user_id, unread_count, updated_at)
+SELECT n.target_user_id, COUNT(*), NOW()
+FROM notifications n
+WHERE n.target_user_id IS NOT NULL
+  AND n.read_at IS NULL
+GROUP BY n.target_user_id
+ON CONFLICT (user_id) DO NOTHING;
+
+-- Supports the unread-only list and the set-based mark-all-read
+CREATE INDEX IF NOT EXISTS idx_notifications_target_unread
+    ON notifications(target_user_id, created_at DESC)
+    WHERE read_at IS NULL;
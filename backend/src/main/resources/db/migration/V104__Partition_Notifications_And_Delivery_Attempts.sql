@@ -0,0 +1,140 @@
+-- Convert notifications and delivery_attempts into monthly RANGE-partitioned tables.
+-- Old months are removed by NotificationRetentionService (DETACH + DROP PARTITION) instead of
+-- large DELETEs; per-partition indexes keep the per-user list queries index-local.
+--
+-- Notes:
+--  * A partitioned table's primary key must include the partition key, so the keys become
+--    (id, created_at) / (id, attempt_at). Ids still come from the original sequences.
+--  * delivery_attempts can no longer reference notifications(id) with a foreign key; the
+--    application deletes attempts together with their notifications.
+--  * A DEFAULT partition catches rows outside the pre-created months.
+
+-- Helper: create the monthly partition of parent_table that contains month_start (idempotent)
+CREATE OR REPLACE FUNCTION menux_ensure_monthly_partition(parent_table TEXT, month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    from_date DATE := date_trunc('month', month_start)::DATE;
+    to_date DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := parent_table || '_p' || to_char(month_start, 'YYYYMM');
+BEGIN
+    IF to_regclass('public.' || partition_name) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, parent_table, from_date, to_date);
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 1) notifications ----------------------------------------------------------------------------
+
+ALTER TABLE notifications RENAME TO notifications_legacy;
+ALTER INDEX notifications_pkey RENAME TO notifications_legacy_pkey;
+ALTER SEQUENCE notifications_id_seq OWNED BY NONE;
+
+CREATE TABLE notifications (
+    id BIGINT NOT NULL DEFAULT nextval('notifications_id_seq'),
+    target_user_id BIGINT,
+    restaurant_id BIGINT,
+    type VARCHAR(50) NOT NULL CHECK (type IN (
+        'NEW_ORDER', 'FEEDBACK_RECEIVED', 'ITEM_OUT_OF_STOCK', 'TABLE_CALLED', 'GENERIC'
+    )),
+    title VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    data JSONB,
+    priority VARCHAR(10) NOT NULL DEFAULT 'NORMAL' CHECK (priority IN ('LOW','NORMAL','HIGH')),
+    status VARCHAR(10) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING','SENT','READ','FAILED')),
+    read_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+
+    PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_notifications_p_target_user
+        FOREIGN KEY (target_user_id) REFERENCES users(id) ON DELETE SET NULL,
+    CONSTRAINT fk_notifications_p_restaurant
+        FOREIGN KEY (restaurant_id) REFERENCES restaurants(id) ON DELETE SET NULL
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE notifications_id_seq OWNED BY notifications.id;
+
+CREATE TABLE notifications_default PARTITION OF notifications DEFAULT;
+
+-- Months covering existing rows plus three months ahead
+SELECT menux_ensure_monthly_partition('notifications', m::DATE)
+FROM generate_series(
+    date_trunc('month', COALESCE((SELECT MIN(created_at) FROM notifications_legacy), CURRENT_TIMESTAMP)),
+    date_trunc('month', CURRENT_TIMESTAMP) + INTERVAL '3 months',
+    INTERVAL '1 month'
+) AS m;
+
+INSERT INTO notifications (id, target_user_id, restaurant_id, type, title, body, data, priority, status,
+                           read_at, created_at, updated_at)
+SELECT id, target_user_id, restaurant_id, type, title, body, data, priority, status,
+       read_at, created_at, updated_at
+FROM notifications_legacy;
+
+-- 2) delivery_attempts ------------------------------------------------------------------------
+
+ALTER TABLE delivery_attempts RENAME TO delivery_attempts_legacy;
+ALTER INDEX delivery_attempts_pkey RENAME TO delivery_attempts_legacy_pkey;
+ALTER SEQUENCE delivery_attempts_id_seq OWNED BY NONE;
+
+CREATE TABLE delivery_attempts (
+    id BIGINT NOT NULL DEFAULT nextval('delivery_attempts_id_seq'),
+    notification_id BIGINT NOT NULL,
+    channel VARCHAR(20) NOT NULL CHECK (channel IN ('IN_APP','WEB_PUSH','EMAIL','SMS','FCM')),
+    status VARCHAR(20) NOT NULL CHECK (status IN ('PENDING','SENT','FAILED','RETRY','SUPPRESSED')),
+    provider_message_id VARCHAR(255),
+    response_code VARCHAR(50),
+    error_message TEXT,
+    attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    retry_count INT NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (id, attempt_at)
+) PARTITION BY RANGE (attempt_at);
+
+ALTER SEQUENCE delivery_attempts_id_seq OWNED BY delivery_attempts.id;
+
+CREATE TABLE delivery_attempts_default PARTITION OF delivery_attempts DEFAULT;
+
+SELECT menux_ensure_monthly_partition('delivery_attempts', m::DATE)
+FROM generate_series(
+    date_trunc('month', COALESCE((SELECT MIN(attempt_at) FROM delivery_attempts_legacy), CURRENT_TIMESTAMP)),
+    date_trunc('month', CURRENT_TIMESTAMP) + INTERVAL '3 months',
+    INTERVAL '1 month'
+) AS m;
+
+INSERT INTO delivery_attempts (id, notification_id, channel, status, provider_message_id, response_code,
+                               error_message, attempt_at, retry_count)
+SELECT id, notification_id, channel, status, provider_message_id, response_code,
+       error_message, attempt_at, retry_count
+FROM delivery_attempts_legacy;
+
+DROP TABLE delivery_attempts_legacy;
+DROP TABLE notifications_legacy;
+
+-- 3) Indexes (created on the parents, propagated to every partition) -------------------------
+
+CREATE INDEX IF NOT EXISTS idx_notifications_target_status_created
+    ON notifications(target_user_id, status, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_notifications_target_created
+    ON notifications(target_user_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_notifications_restaurant_created
+    ON notifications(restaurant_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_notifications_target_unread
+    ON notifications(target_user_id, created_at DESC)
+    WHERE read_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_notifications_id
+    ON notifications(id);
+
+CREATE INDEX IF NOT EXISTS idx_delivery_attempts_notification
+    ON delivery_attempts(notification_id);
+CREATE INDEX IF NOT EXISTS idx_delivery_attempts_channel_status_time
+    ON delivery_attempts(channel, status, attempt_at DESC);
+
+-- 4) Retention setting (months of history kept; 0 disables automatic cleanup) ----------------
+
+INSERT INTO platform_settings (setting_key, setting_value, description, value_type, is_public, is_system)
+VALUES ('NOTIFICATIONS_RETENTION_MONTHS', '6',
+        'Months of notifications and delivery attempts to keep; older monthly partitions are dropped (0 disables)',
+        'INTEGER', FALSE, TRUE)
+ON CONFLICT (setting_key) DO NOTHING;
@@ -0,0 +1,21 @@
+-- Materialized admin dashboard metrics: one row (id = 1) rewritten by PlatformAnalyticsService on a
+-- schedule, so loading the dashboard is a primary-key read instead of a dozen counts over large tables
+
+CREATE TABLE IF NOT EXISTS platform_metrics_snapshots (
+    id BIGINT PRIMARY KEY,
+    total_users BIGINT NOT NULL,
+    total_restaurants BIGINT NOT NULL,
+    pro_subscriptions BIGINT NOT NULL,
+    basic_subscriptions BIGINT NOT NULL,
+    monthly_revenue DOUBLE PRECISION NOT NULL,
+    active_users BIGINT NOT NULL,
+    system_health DOUBLE PRECISION NOT NULL,
+    total_orders BIGINT NOT NULL,
+    conversion_rate DOUBLE PRECISION NOT NULL,
+    total_users_change DOUBLE PRECISION NOT NULL,
+    total_restaurants_change DOUBLE PRECISION NOT NULL,
+    pro_subscriptions_change DOUBLE PRECISION NOT NULL,
+    monthly_revenue_change DOUBLE PRECISION NOT NULL,
+    active_users_change DOUBLE PRECISION NOT NULL,
+    computed_at TIMESTAMP NOT NULL
+);
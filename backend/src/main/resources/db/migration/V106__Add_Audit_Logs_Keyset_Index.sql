@@ -0,0 +1,6 @@
+-- Keyset browsing of audit history orders by (created_at, id) descending; the composite index serves
+-- both the order and the "older than cursor" predicate and supersedes the created_at-only index
+
+CREATE INDEX IF NOT EXISTS idx_audit_logs_created_at_id ON audit_logs(created_at, id);
+
+DROP INDEX IF EXISTS idx_audit_logs_created_at;
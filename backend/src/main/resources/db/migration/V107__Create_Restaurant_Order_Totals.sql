@@ -0,0 +1,21 @@
+-- Per-restaurant order totals rebuilt on the platform analytics schedule; the admin restaurant listing
+-- sorts by these instead of aggregating every order on each page request
+
+CREATE TABLE IF NOT EXISTS restaurant_order_totals (
+    restaurant_id BIGINT PRIMARY KEY,
+    order_count BIGINT NOT NULL,
+    served_revenue NUMERIC(14, 2) NOT NULL,
+    computed_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_restaurant_order_totals_order_count ON restaurant_order_totals(order_count);
+CREATE INDEX IF NOT EXISTS idx_restaurant_order_totals_served_revenue ON restaurant_order_totals(served_revenue);
+
+-- Live totals for a listing page aggregate only that page's restaurants
+CREATE INDEX IF NOT EXISTS idx_orders_restaurant_status ON orders(restaurant_id, status);
+
+INSERT INTO restaurant_order_totals (restaurant_id, order_count, served_revenue, computed_at)
+SELECT restaurant_id, COUNT(*), COALESCE(SUM(CASE WHEN status = 'SERVED' THEN total_amount ELSE 0 END), 0), NOW()
+FROM orders
+GROUP BY restaurant_id
+ON CONFLICT (restaurant_id) DO NOTHING;
@@ -0,0 +1,2 @@
+-- The restaurant_order_totals refresh only re-aggregates restaurants with orders changed since its last pass
+CREATE INDEX IF NOT EXISTS idx_orders_updated_at ON orders(updated_at);
@@ -0,0 +1,55 @@
+package com.menux.menu_x_backend.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        // The test application.yml replaces the main one, so mirror its management settings here
+        properties = { "management.server.port=0", "management.server.address=127.0.0.1",
+                "management.endpoints.web.exposure.include=health,prometheus" })
+// Test contexts disable metrics export unless asked, which would hide the Prometheus endpoint
+@AutoConfigureObservability
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.profiles.active=test")
+class ActuatorExposureTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    private int get(int port, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Test
+    @DisplayName("Prometheus and actuator health are served only on the management port")
+    void actuatorOnlyOnManagementPort() throws Exception {
+        assertThat(managementPort).isNotEqualTo(serverPort);
+
+        assertThat(get(managementPort, "/actuator/prometheus")).isEqualTo(200);
+        assertThat(get(managementPort, "/actuator/health")).isEqualTo(200);
+
+        assertThat(get(serverPort, "/actuator/prometheus")).isIn(401, 403, 404);
+        assertThat(get(serverPort, "/actuator/health")).isIn(401, 403, 404);
+        // Public probes stay on the application port
+        assertThat(get(serverPort, "/api/health/live")).isEqualTo(200);
+    }
+}
@@ -0,0 +1,150 @@
+package com.menux.menu_x_backend.service;
+
+import com.menux.menu_x_backend.dto.admin.RestaurantManagementDTO;
+import com.menux.menu_x_backend.entity.Order;
+import com.menux.menu_x_backend.entity.Restaurant;
+import com.menux.menu_x_backend.repository.OrderRepository;
+import com.menux.menu_x_backend.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.profiles.active=test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AdminServiceTest {
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private PlatformAnalyticsService platformAnalyticsService;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Restaurant quiet;
+    private Restaurant busy;
+    private Restaurant medium;
+    private long nextOwnerId = 5001L;
+
+    // Restaurants seeded at startup are filtered out by searching for this prefix
+    @BeforeEach
+    void seed() {
+        quiet = restaurant("Quiet");
+        busy = restaurant("Busy");
+        medium = restaurant("Medium");
+        orders(busy, 5, 2);
+        orders(medium, 2, 1);
+    }
+
+    private Restaurant restaurant(String name) {
+        Restaurant r = new Restaurant();
+        r.setName("Zeta " + name);
+        r.setAddress("Dhaka, BD");
+        r.setOwnerId(nextOwnerId++);
+        return restaurantRepository.save(r);
+    }
+
+    // count orders of 10.00, the first `served` of them SERVED
+    private void orders(Restaurant restaurant, int count, int served) {
+        for (int i = 0; i < count; i++) {
+            Order order = new Order(restaurant, new BigDecimal("10.00"));
+            order.setOrderNumber(restaurant.getName() + "-" + i);
+            if (i < served) order.setStatus(Order.OrderStatus.SERVED);
+            orderRepository.save(order);
+        }
+    }
+
+    @Test
+    @DisplayName("A listing page carries live order totals for just its restaurants")
+    void pageHasLiveTotals() {
+        Page<RestaurantManagementDTO> page = adminService.getRestaurants("zeta", null, null,
+                PageRequest.of(0, 2, Sort.by("name")));
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(RestaurantManagementDTO::getName).containsExactly("Zeta Busy", "Zeta Medium");
+        assertThat(page.getContent()).extracting(RestaurantManagementDTO::getTotalOrders).containsExactly(5L, 2L);
+        assertThat(page.getContent()).extracting(RestaurantManagementDTO::getMonthlyRevenue).containsExactly(20.0, 10.0);
+
+        RestaurantManagementDTO single = adminService.getRestaurantById(quiet.getId());
+        assertThat(single.getTotalOrders()).isZero();
+        assertThat(single.getMonthlyRevenue()).isZero();
+    }
+
+    @Test
+    @DisplayName("Sorting by order totals follows the rebuilt totals table")
+    void sortsByTotalsTable() {
+        assertThat(platformAnalyticsService.refreshRestaurantOrderTotals()).isEqualTo(2);
+
+        Page<RestaurantManagementDTO> byOrders = adminService.getRestaurants("zeta", null, null,
+                PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "totalOrders")));
+        assertThat(byOrders.getContent()).extracting(RestaurantManagementDTO::getId)
+                .containsExactly(busy.getId(), medium.getId(), quiet.getId());
+
+        Page<RestaurantManagementDTO> byRevenue = adminService.getRestaurants("zeta", null, null,
+                PageRequest.of(0, 3, Sort.by(Sort.Direction.ASC, "monthlyRevenue")));
+        assertThat(byRevenue.getContent()).extracting(RestaurantManagementDTO::getId)
+                .containsExactly(quiet.getId(), medium.getId(), busy.getId());
+
+        // A later rebuild picks up new orders
+        orders(quiet, 9, 9);
+        platformAnalyticsService.refreshRestaurantOrderTotals();
+        assertThat(adminService.getRestaurants("zeta", null, null,
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "totalOrders"))).getContent())
+                .extracting(RestaurantManagementDTO::getId).containsExactly(quiet.getId());
+    }
+
+    @Test
+    @DisplayName("A totals refresh only recomputes restaurants whose orders changed since the previous pass")
+    void refreshOnlyRecomputesChangedRestaurants() {
+        platformAnalyticsService.refreshRestaurantOrderTotals();
+        // Age every order past the re-scan overlap, as if placed long before the previous pass
+        jdbcTemplate.update("UPDATE orders SET updated_at = ?", Timestamp.valueOf(LocalDateTime.now().minusHours(1)));
+        platformAnalyticsService.refreshRestaurantOrderTotals();
+        assertThat(platformAnalyticsService.refreshRestaurantOrderTotals()).isZero();
+
+        Order order = orderRepository.findAll().stream()
+                .filter(o -> o.getOrderNumber().equals("Zeta Busy-4")).findFirst().orElseThrow();
+        order.setStatus(Order.OrderStatus.SERVED);
+        orderRepository.save(order);
+
+        assertThat(platformAnalyticsService.refreshRestaurantOrderTotals()).isEqualTo(1);
+        BigDecimal revenue = jdbcTemplate.queryForObject(
+                "SELECT served_revenue FROM restaurant_order_totals WHERE restaurant_id = ?", BigDecimal.class, busy.getId());
+        assertThat(revenue).isEqualByComparingTo("30.00");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT order_count FROM restaurant_order_totals WHERE restaurant_id = ?", Long.class, medium.getId()))
+                .isEqualTo(2L);
+
+        // Rows of deleted restaurants are pruned
+        jdbcTemplate.update("DELETE FROM orders WHERE restaurant_id = ?", medium.getId());
+        jdbcTemplate.update("DELETE FROM restaurants WHERE id = ?", medium.getId());
+        platformAnalyticsService.refreshRestaurantOrderTotals();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM restaurant_order_totals WHERE restaurant_id = ?", Long.class, medium.getId()))
+                .isZero();
+    }
+}
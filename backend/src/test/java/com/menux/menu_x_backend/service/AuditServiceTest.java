@@ -0,0 +1,199 @@
+package com.menux.menu_x_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class AuditServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final AuditService service = new AuditService();
+    // Actions of the rows handed to the database, one entry per successful batchUpdate call
+    private final List<List<String>> writes = new ArrayList<>();
+
+    private void start(int capacity, int batchSize, long flushMs) {
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "insertSql", "INSERT INTO audit_logs VALUES (?)");
+        ReflectionTestUtils.setField(service, "bufferCapacity", capacity);
+        ReflectionTestUtils.setField(service, "batchSize", batchSize);
+        ReflectionTestUtils.setField(service, "flushMs", flushMs);
+        ReflectionTestUtils.setField(service, "shutdownDrainMs", 5000L);
+        ReflectionTestUtils.setField(service, "maxRetries", 3);
+        ReflectionTestUtils.setField(service, "retryBackoffMs", 1L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private interface BatchAnswer {
+        int[][] answer(List<String> actions);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onBatch(BatchAnswer answer) {
+        doAnswer(invocation -> {
+            List<String> actions = new ArrayList<>();
+            for (Object event : (Collection<Object>) invocation.getArgument(1)) {
+                actions.add((String) event.getClass().getMethod("action").invoke(event));
+            }
+            int[][] result = answer.answer(actions);
+            synchronized (writes) {
+                writes.add(actions);
+            }
+            return result;
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private int writtenRows() {
+        synchronized (writes) {
+            return writes.stream().mapToInt(List::size).sum();
+        }
+    }
+
+    @Test
+    @DisplayName("Transient write failures are retried and the batch lands once")
+    void retriesTransientFailures() {
+        start(100, 50, 10);
+        AtomicInteger attempts = new AtomicInteger();
+        onBatch(actions -> {
+            if (attempts.incrementAndGet() <= 2) {
+                throw new TransientDataAccessResourceException("connection reset");
+            }
+            return new int[0][];
+        });
+
+        service.log("a", "T", "1", null);
+        service.shutdown();
+
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(service.getWrittenCount()).isEqualTo(1);
+        assertThat(service.getFailedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("A non-transient batch failure is retried row by row so only the bad event is lost")
+    void isolatesBadEvent() throws Exception {
+        start(100, 50, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        onBatch(actions -> {
+            if (actions.contains("hold")) {
+                await(release);
+            } else if (actions.contains("bad")) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return new int[0][];
+        });
+
+        // Park the writer so the next three events are drained as one batch
+        service.log("hold", "T", "0", null);
+        awaitTrue(() -> service.getBufferedCount() == 0);
+        service.log("ok-1", "T", "1", null);
+        service.log("bad", "T", "2", null);
+        service.log("ok-2", "T", "3", null);
+        release.countDown();
+        service.shutdown();
+
+        assertThat(service.getWrittenCount()).isEqualTo(3);
+        assertThat(service.getFailedCount()).isEqualTo(1);
+        assertThat(writes).contains(List.of("ok-1"), List.of("ok-2"));
+    }
+
+    @Test
+    @DisplayName("Shutdown drains everything still buffered")
+    void drainsOnShutdown() {
+        start(1000, 7, 1000);
+        onBatch(actions -> new int[0][]);
+
+        for (int i = 0; i < 100; i++) {
+            service.log("e" + i, "T", String.valueOf(i), null);
+        }
+        service.shutdown();
+
+        assertThat(service.getBufferedCount()).isZero();
+        assertThat(service.getWrittenCount()).isEqualTo(100);
+        assertThat(writtenRows()).isEqualTo(100);
+
+        // Events logged after the drain are written synchronously
+        service.log("late", "T", "x", null);
+        assertThat(service.getWrittenCount()).isEqualTo(101);
+    }
+
+    @Test
+    @DisplayName("Events offered to a full buffer are dropped and counted")
+    void countsOverflow() throws Exception {
+        start(2, 50, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        onBatch(actions -> {
+            if (actions.contains("hold")) await(release);
+            return new int[0][];
+        });
+
+        service.log("hold", "T", "0", null);
+        awaitTrue(() -> service.getBufferedCount() == 0);
+        for (int i = 0; i < 5; i++) {
+            service.log("e" + i, "T", String.valueOf(i), null);
+        }
+        assertThat(service.getDroppedCount()).isEqualTo(3);
+        assertThat(service.getWriterStats()).containsEntry("dropped", 3L).containsEntry("enqueued", 3L);
+
+        release.countDown();
+        service.shutdown();
+        assertThat(service.getWrittenCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Metadata that cannot be serialized falls back to a JSON string")
+    void wrapsUnserializableMetadataAsJsonString() {
+        start(10, 10, 10);
+        Object unserializable = new Object() {
+            public Object getSelf() { return this; }
+            @Override public String toString() { return "say \"hi\""; }
+        };
+
+        assertThat(service.serializeMetadata(unserializable)).isEqualTo("\"say \\\"hi\\\"\"");
+        assertThat(service.serializeMetadata(java.util.Map.of("k", 1))).isEqualTo("{\"k\":1}");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitTrue(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("condition not met within 5s");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.menux.menu_x_backend.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinaryPngWriterTest {
+
+    @Test
+    @DisplayName("Bands streamed one after another decode to the full image")
+    void bandsDecodeToFullImage() throws Exception {
+        int width = 1003;
+        int bandHeight = 300;
+        int height = 700; // last band only partly used
+        Random random = new Random(7);
+        BufferedImage expected = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryPngWriter png = new BinaryPngWriter(out, width, height);
+        BufferedImage band = new BufferedImage(width, bandHeight, BufferedImage.TYPE_BYTE_BINARY);
+        for (int top = 0; top < height; top += bandHeight) {
+            int rows = Math.min(bandHeight, height - top);
+            for (int y = 0; y < rows; y++) {
+                for (int x = 0; x < width; x++) {
+                    int rgb = random.nextBoolean() ? 0xFFFFFFFF : 0xFF000000;
+                    band.setRGB(x, y, rgb);
+                    expected.setRGB(x, top + y, rgb);
+                }
+            }
+            png.writeBand(band, rows);
+        }
+        png.finish();
+
+        // Noise does not compress, so this also spans several IDAT chunks
+        assertThat(out.size()).isGreaterThan(64 * 1024);
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(decoded.getWidth()).isEqualTo(width);
+        assertThat(decoded.getHeight()).isEqualTo(height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (decoded.getRGB(x, y) != expected.getRGB(x, y)) {
+                    throw new AssertionError("pixel mismatch at " + x + "," + y);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Finishing before every row is written fails instead of emitting a truncated PNG")
+    void rejectsShortImage() throws Exception {
+        BinaryPngWriter png = new BinaryPngWriter(new ByteArrayOutputStream(), 10, 10);
+        png.writeBand(new BufferedImage(10, 5, BufferedImage.TYPE_BYTE_BINARY), 5);
+        assertThrows(IllegalStateException.class, png::finish);
+    }
+}
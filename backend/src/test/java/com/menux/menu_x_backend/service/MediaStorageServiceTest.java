@@ -0,0 +1,130 @@
+package com.menux.menu_x_backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.InputStream;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MediaStorageServiceTest {
+
+    private RestTemplate restTemplate;
+    private MediaCacheService mediaCacheService;
+    private MediaStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate = mock(RestTemplate.class);
+        mediaCacheService = mock(MediaCacheService.class);
+        service = new MediaStorageService(restTemplate, mediaCacheService, mock(MediaVariantService.class), Runnable::run);
+        ReflectionTestUtils.setField(service, "supabaseUrl", "https://storage.test");
+        ReflectionTestUtils.setField(service, "supabaseServiceKey", "key");
+        ReflectionTestUtils.setField(service, "bucket", "menu-images");
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<HttpEntity<Map<String, Object>>> stubSign() {
+        ArgumentCaptor<HttpEntity<Map<String, Object>>> captor = ArgumentCaptor.forClass(HttpEntity.class);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), captor.capture(), eq(String.class)))
+                .thenReturn(ResponseEntity.ok("{\"signedURL\":\"/storage/v1/object/sign/menu-images/a.jpg?token=t\"}"));
+        return captor;
+    }
+
+    @Test
+    @DisplayName("Signed URLs are signed with headroom and reused only while they cover the requested validity")
+    void reusesOnlyWhenRemainingValidityCoversRequest() {
+        ArgumentCaptor<HttpEntity<Map<String, Object>>> sign = stubSign();
+
+        String first = service.generateSignedUrl("restaurants/1/a.jpg", 3600);
+        // Same bucket, shorter or equal request: served from cache
+        assertThat(service.generateSignedUrl("restaurants/1/a.jpg", 3600)).isEqualTo(first);
+        assertThat(service.generateSignedUrl("restaurants/1/a.jpg", 3500)).isEqualTo(first);
+
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class));
+        assertThat(sign.getValue().getBody()).containsEntry("expiresIn", 3900);
+        assertThat(first).startsWith("https://storage.test/storage/v1/object/sign/");
+    }
+
+    @Test
+    @DisplayName("Expiry inputs are clamped before bucketing so huge values cannot overflow")
+    void clampsBeforeBucketing() {
+        assertThat(MediaStorageService.clampExpiry(Integer.MAX_VALUE)).isEqualTo(365 * 24 * 3600);
+        assertThat(MediaStorageService.clampExpiry(-5)).isEqualTo(1);
+        int bucket = MediaStorageService.expiryBucket(MediaStorageService.clampExpiry(Integer.MAX_VALUE));
+        assertThat(bucket).isPositive().isGreaterThanOrEqualTo(365 * 24 * 3600);
+        assertThat(MediaStorageService.signedLifetime(bucket)).isPositive();
+        assertThat(MediaStorageService.expiryBucket(1)).isEqualTo(300);
+        assertThat(MediaStorageService.expiryBucket(301)).isEqualTo(600);
+    }
+
+    private void stubObject(byte[] body) {
+        when(mediaCacheService.isEnabled()).thenReturn(true);
+        when(mediaCacheService.getMaxObjectBytes()).thenReturn(8L);
+        when(restTemplate.execute(anyString(), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> {
+                    MockClientHttpResponse upstream = new MockClientHttpResponse(body, HttpStatus.OK);
+                    upstream.getHeaders().setContentLength(body.length);
+                    upstream.getHeaders().set(HttpHeaders.CONTENT_TYPE, "image/jpeg");
+                    return invocation.<ResponseExtractor<?>>getArgument(3).extractData(upstream);
+                });
+    }
+
+    @Test
+    @DisplayName("A cache miss too large for the cache is relayed from its single upstream GET")
+    void relaysOversizeMissFromOneGet() throws Exception {
+        byte[] body = "0123456789abcdef".getBytes();
+        stubObject(body);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        service.streamObject("restaurants/1/a.jpg", null, new MockHttpServletRequest(), response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(body);
+        verify(restTemplate, times(1)).execute(anyString(), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class));
+        verify(mediaCacheService, never()).store(anyString(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("A cacheable miss is relayed in full even when the local cache write gives up part way")
+    void relaysCacheableMissWhileFilling() throws Exception {
+        byte[] body = "01234567".getBytes();
+        stubObject(body);
+        // Reads a little and fails, as a disk error would
+        when(mediaCacheService.store(anyString(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            invocation.<InputStream>getArgument(1).readNBytes(3);
+            return null;
+        });
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        service.streamObject("restaurants/1/a.jpg", null, new MockHttpServletRequest(), response);
+
+        assertThat(response.getContentAsByteArray()).isEqualTo(body);
+        assertThat(response.getContentType()).isEqualTo("image/jpeg");
+        verify(restTemplate, times(1)).execute(anyString(), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class));
+        verify(mediaCacheService).store(eq("restaurants/1/a.jpg"), any(), eq("image/jpeg"), any(), any());
+    }
+}
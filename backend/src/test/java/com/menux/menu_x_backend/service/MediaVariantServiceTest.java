@@ -0,0 +1,113 @@
+package com.menux.menu_x_backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MediaVariantServiceTest {
+
+    private final MediaVariantService service = new MediaVariantService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "jpegQuality", 0.8f);
+        ReflectionTestUtils.setField(service, "maxPixels", 50_000_000L);
+    }
+
+    @Test
+    @DisplayName("An image declaring more pixels than the budget is rejected from its header")
+    void rejectsDeclaredDimensionsOverBudget() throws IOException {
+        byte[] bomb = pngHeaderOnly(50_000, 50_000);
+        IOException error = assertThrows(IOException.class, () -> service.renderVariants(bomb));
+        assertThat(error.getMessage()).contains("50000x50000");
+    }
+
+    @Test
+    @DisplayName("Large images are decoded subsampled and still yield full-size variants")
+    void rendersVariantsFromSubsampledDecode() throws IOException {
+        BufferedImage image = new BufferedImage(4000, 1000, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "PNG", png);
+
+        Map<Integer, byte[]> variants = service.renderVariants(png.toByteArray());
+
+        assertThat(variants).containsOnlyKeys(320, 800, 1600);
+        BufferedImage full = ImageIO.read(new ByteArrayInputStream(variants.get(1600)));
+        assertThat(full.getWidth()).isEqualTo(1600);
+        assertThat(full.getHeight()).isEqualTo(400);
+        BufferedImage thumb = ImageIO.read(new ByteArrayInputStream(variants.get(320)));
+        assertThat(thumb.getWidth()).isEqualTo(320);
+        assertThat(thumb.getHeight()).isEqualTo(80);
+    }
+
+    @Test
+    @DisplayName("Images narrower than a variant are never upscaled")
+    void neverUpscales() throws IOException {
+        BufferedImage image = new BufferedImage(500, 250, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "PNG", png);
+
+        Map<Integer, byte[]> variants = service.renderVariants(png.toByteArray());
+
+        assertThat(ImageIO.read(new ByteArrayInputStream(variants.get(1600))).getWidth()).isEqualTo(500);
+        assertThat(ImageIO.read(new ByteArrayInputStream(variants.get(320))).getWidth()).isEqualTo(320);
+    }
+
+    @Test
+    @DisplayName("Tall images are capped by height and decoded subsampled along both axes")
+    void capsTallImagesByHeight() throws IOException {
+        BufferedImage image = new BufferedImage(400, 20_000, BufferedImage.TYPE_BYTE_GRAY);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "PNG", png);
+
+        Map<Integer, byte[]> variants = service.renderVariants(png.toByteArray());
+
+        BufferedImage full = ImageIO.read(new ByteArrayInputStream(variants.get(1600)));
+        assertThat(full.getHeight()).isEqualTo(1600 * MediaVariantService.MAX_ASPECT);
+        assertThat(full.getWidth()).isEqualTo(96);
+        BufferedImage thumb = ImageIO.read(new ByteArrayInputStream(variants.get(320)));
+        assertThat(thumb.getHeight()).isEqualTo(320 * MediaVariantService.MAX_ASPECT);
+
+        // 1000 x 50000 fits the pixel budget but decodes at step 10, not full resolution
+        assertThat(MediaVariantService.variantSize(1600, 1000, 50_000)).containsExactly(96, 4800);
+        assertThat(MediaVariantService.decodeStep(1000, 50_000)).isEqualTo(10);
+        assertThat(MediaVariantService.decodeStep(4000, 1000)).isEqualTo(2);
+    }
+
+    // PNG signature plus an IHDR chunk only: enough for a reader to report dimensions
+    private static byte[] pngHeaderOnly(int width, int height) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n' });
+
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(chunk);
+        data.write("IHDR".getBytes(StandardCharsets.US_ASCII));
+        data.writeInt(width);
+        data.writeInt(height);
+        data.write(new byte[] { 8, 2, 0, 0, 0 });
+        byte[] typeAndData = chunk.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(typeAndData);
+        out.writeInt(typeAndData.length - 4);
+        out.write(typeAndData);
+        out.writeInt((int) crc.getValue());
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,104 @@
+package com.menux.menu_x_backend.service;
+
+import com.menux.menu_x_backend.entity.Notification;
+import com.menux.menu_x_backend.repository.NotificationRepository;
+import com.menux.menu_x_backend.service.realtime.RealtimeNotificationGateway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.profiles.active=test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@SuppressWarnings("removal")
+class NotificationServiceTest {
+
+    private static final Long USER_ID = 4242L;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository realRepository;
+
+    // Delegates to the real repository; individual statements are stubbed to interleave a concurrent insert
+    private NotificationRepository notificationRepository;
+
+    @MockBean
+    private RealtimeNotificationGateway realtimeGateway;
+
+    @MockBean
+    private FcmService fcmService;
+
+    @BeforeEach
+    void interceptRepository() {
+        notificationRepository = mock(NotificationRepository.class, delegatesTo(realRepository));
+        NotificationService target = AopTestUtils.getTargetObject(notificationService);
+        ReflectionTestUtils.setField(target, "notificationRepository", notificationRepository);
+    }
+
+    private void create(String title) {
+        notificationService.createNotification(USER_ID, null, Notification.Type.GENERIC, title, "body", (String) null);
+    }
+
+    @Test
+    @DisplayName("markAllRead keeps a notification created between the UPDATE and the counter write")
+    void markAllReadKeepsConcurrentInsertCounted() {
+        create("first");
+        create("second");
+        assertThat(notificationService.unreadCount(USER_ID)).isEqualTo(2);
+
+        doAnswer(invocation -> {
+            int updated = realRepository.markAllReadByTargetUserId(USER_ID, invocation.getArgument(1), invocation.getArgument(2));
+            create("arrived mid-way");
+            return updated;
+        }).when(notificationRepository).markAllReadByTargetUserId(eq(USER_ID), any(), any());
+
+        assertThat(notificationService.markAllRead(USER_ID)).isEqualTo(2);
+
+        assertThat(notificationService.unreadCount(USER_ID)).isEqualTo(1);
+        assertThat(notificationRepository.countByTargetUserIdAndReadAtIsNull(USER_ID)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("deleteAll keeps a notification created between the DELETE and the counter write")
+    void deleteAllKeepsConcurrentInsertCounted() {
+        create("first");
+        create("second");
+        Long readId = notificationRepository
+                .findByTargetUserIdAndReadAtIsNullOrderByCreatedAtDesc(USER_ID, PageRequest.of(0, 1))
+                .getContent().get(0).getId();
+        notificationService.markRead(USER_ID, readId);
+        create("third");
+        assertThat(notificationService.unreadCount(USER_ID)).isEqualTo(2);
+
+        doAnswer(invocation -> {
+            int deleted = realRepository.deleteUnreadByTargetUserId(USER_ID);
+            create("arrived mid-way");
+            return deleted;
+        }).when(notificationRepository).deleteUnreadByTargetUserId(anyLong());
+
+        assertThat(notificationService.deleteAll(USER_ID)).isEqualTo(3);
+
+        assertThat(notificationService.unreadCount(USER_ID)).isEqualTo(1);
+        assertThat(notificationRepository.countByTargetUserIdAndReadAtIsNull(USER_ID)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,78 @@
+package com.menux.menu_x_backend.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QRCodeCacheServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private QRCodeCacheService cache(long diskMaxBytes) {
+        // Memory tier disabled so every lookup goes to disk
+        QRCodeCacheService cache = new QRCodeCacheService(true, 0, dir.toString(), diskMaxBytes);
+        cache.init();
+        return cache;
+    }
+
+    private static long files(Path dir) throws Exception {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    @DisplayName("The disk tier evicts least recently used images past its byte budget")
+    void evictsLeastRecentlyUsedPastBudget() throws Exception {
+        QRCodeCacheService cache = cache(250);
+        cache.getOrRender(1L, "a", () -> new byte[100]);
+        cache.getOrRender(1L, "b", () -> new byte[100]);
+        cache.getOrRender(1L, "a", () -> new byte[100]); // disk hit, "a" becomes most recent
+        cache.getOrRender(2L, "c", () -> new byte[100]);
+
+        assertThat(cache.getDiskBytes()).isEqualTo(200);
+        assertThat(cache.getDiskEvictionCount()).isEqualTo(1);
+        assertThat(files(dir)).isEqualTo(2);
+
+        long misses = cache.getMissCount();
+        cache.getOrRender(1L, "a", () -> new byte[100]);
+        assertThat(cache.getMissCount()).isEqualTo(misses);
+        cache.getOrRender(1L, "b", () -> new byte[100]);
+        assertThat(cache.getMissCount()).isEqualTo(misses + 1);
+    }
+
+    @Test
+    @DisplayName("Renders that are not persisted never reach the disk tier")
+    void previewsStayOffDisk() throws Exception {
+        QRCodeCacheService cache = cache(1 << 20);
+        cache.getOrRender(1L, "preview", () -> new byte[100], false);
+
+        assertThat(files(dir)).isZero();
+        assertThat(cache.getDiskBytes()).isZero();
+    }
+
+    @Test
+    @DisplayName("The disk index is rebuilt on startup and trimmed to the budget")
+    void rebuildsIndexOnStartup() throws Exception {
+        QRCodeCacheService first = cache(1 << 20);
+        first.getOrRender(1L, "a", () -> new byte[100]);
+        first.getOrRender(1L, "b", () -> new byte[100]);
+        first.getOrRender(2L, "c", () -> new byte[100]);
+
+        QRCodeCacheService restarted = cache(250);
+        assertThat(restarted.getDiskBytes()).isEqualTo(200);
+        assertThat(files(dir)).isEqualTo(2);
+
+        // Index and files stay in step when a restaurant is dropped
+        restarted.invalidateRestaurant(2L);
+        assertThat(Files.exists(dir.resolve("2"))).isFalse();
+        assertThat(restarted.getDiskBytes()).isEqualTo(files(dir) * 100);
+    }
+}
@@ -0,0 +1,124 @@
+package com.menux.menu_x_backend.service;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QRCodeServiceTest {
+
+    private final QRCodeService service = new QRCodeService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "frontendUrl", "https://menu.test");
+        ReflectionTestUtils.setField(service, "qrRenderExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(service, "exportWindow", 4);
+    }
+
+    @Test
+    @DisplayName("The bit-packed renderer matches the per-pixel renderer it replaced")
+    void bitPackedMatchesLegacyRenderer() throws Exception {
+        Map<EncodeHintType, Object> hints = new HashMap<>();
+        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M);
+        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
+        hints.put(EncodeHintType.MARGIN, 1);
+        for (int size : new int[] { 128, 129, 250, 333, 1024 }) {
+            for (String content : List.of("https://menu.test/menu/1?table=1", "https://menu.test/menu/98765?table=Terrace-12")) {
+                BitMatrix matrix = new QRCodeWriter().encode(content, BarcodeFormat.QR_CODE, size, size, hints);
+                assertSamePixels(QRCodeService.bitMatrixToImage(matrix), legacyImage(matrix));
+            }
+        }
+
+        // Arbitrary widths and noise exercise partial words and rows that differ from the previous one
+        Random random = new Random(42);
+        for (int width : new int[] { 1, 7, 8, 31, 32, 33, 65, 100 }) {
+            BitMatrix matrix = new BitMatrix(width, 9);
+            for (int y = 0; y < 9; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (random.nextBoolean()) matrix.set(x, y);
+                }
+            }
+            assertSamePixels(QRCodeService.bitMatrixToImage(matrix), legacyImage(matrix));
+        }
+    }
+
+    @Test
+    @DisplayName("Sheet tiles are the same image as the single-table QR code")
+    void sheetTilesMatchSingleTableQRCode() throws Exception {
+        List<String> tables = List.of("1", "2", "A-7", "10", "11");
+        int qrSize = 150;
+        int tablesPerRow = 2;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeTableQRCodeSheet(5L, "Bistro", tables, qrSize, tablesPerRow, out);
+        BufferedImage sheet = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+
+        int margin = 20;
+        int cellWidth = qrSize + margin * 2;
+        int cellHeight = qrSize + 60 + margin * 2;
+        assertThat(sheet.getWidth()).isEqualTo(tablesPerRow * cellWidth);
+        assertThat(sheet.getHeight()).isEqualTo(3 * cellHeight);
+
+        for (int i = 0; i < tables.size(); i++) {
+            BufferedImage single = ImageIO.read(new ByteArrayInputStream(service.generateTableQRCode(5L, tables.get(i), qrSize)));
+            BufferedImage tile = sheet.getSubimage((i % tablesPerRow) * cellWidth + margin,
+                    (i / tablesPerRow) * cellHeight + margin, single.getWidth(), single.getHeight());
+            assertSamePixels(tile, single);
+        }
+
+        // The unused cell of the last strip stays blank
+        BufferedImage blank = sheet.getSubimage(cellWidth, 2 * cellHeight, cellWidth, cellHeight);
+        for (int y = 0; y < cellHeight; y++) {
+            for (int x = 0; x < cellWidth; x++) {
+                assertThat(blank.getRGB(x, y)).isEqualTo(0xFFFFFFFF);
+            }
+        }
+    }
+
+    // The renderer used before bit packing: one setRGB per module pixel on an RGB image
+    private static BufferedImage legacyImage(BitMatrix bitMatrix) throws IOException {
+        int width = bitMatrix.getWidth();
+        int height = bitMatrix.getHeight();
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, bitMatrix.get(x, y) ? Color.BLACK.getRGB() : Color.WHITE.getRGB());
+            }
+        }
+        // Round trip through PNG like the old code path did
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "PNG", png);
+        return ImageIO.read(new ByteArrayInputStream(png.toByteArray()));
+    }
+
+    private static void assertSamePixels(BufferedImage actual, BufferedImage expected) {
+        assertThat(actual.getWidth()).isEqualTo(expected.getWidth());
+        assertThat(actual.getHeight()).isEqualTo(expected.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                if (actual.getRGB(x, y) != expected.getRGB(x, y)) {
+                    throw new AssertionError("pixel mismatch at " + x + "," + y);
+                }
+            }
+        }
+    }
+}
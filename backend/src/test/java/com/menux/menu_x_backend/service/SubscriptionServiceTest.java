@@ -1,5 +1,6 @@
 package com.menux.menu_x_backend.service;
 
+import com.menux.menu_x_backend.dto.subscription.SubscriptionAuditReport;
 import com.menux.menu_x_backend.entity.ManualPayment;
 import com.menux.menu_x_backend.entity.Restaurant;
 import com.menux.menu_x_backend.entity.RestaurantSubscription;
@@ -22,6 +23,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -50,6 +53,9 @@ class SubscriptionServiceTest {
     @Autowired
     private RestaurantSubscriptionEventRepository eventRepository;
 
+    @Autowired
+    private AdminJobService adminJobService;
+
     @MockBean
     private PlatformSettingService platformSettingService;
 
@@ -233,4 +239,164 @@ class SubscriptionServiceTest {
         assertThat(events.stream().anyMatch(e -> e.getEventType().equals("PERIOD_GRACE_STARTED"))).isTrue();
         assertThat(events.stream().anyMatch(e -> e.getEventType().equals("SUBSCRIPTION_EXPIRED"))).isTrue();
     }
+
+    @Test
+    @DisplayName("runDailyChecks restores PRO for a live subscription outside the due window")
+    @Transactional
+    void testRunDailyChecksUpgradesLiveSubscriptionOnBasic() {
+        RestaurantSubscription sub = subscriptionService.ensureSubscription(restaurantId);
+        sub.setStatus(RestaurantSubscription.Status.TRIALING);
+        sub.setTrialStartAt(LocalDateTime.now().minusDays(1));
+        sub.setTrialEndAt(LocalDateTime.now().plusDays(30)); // well past the reminder horizon
+        subscriptionRepository.save(sub);
+
+        Restaurant restaurant = restaurantRepository.findById(restaurantId).orElseThrow();
+        restaurant.setSubscriptionPlan(Restaurant.SubscriptionPlan.BASIC);
+        restaurantRepository.save(restaurant);
+
+        subscriptionService.runDailyChecks();
+
+        Restaurant synced = restaurantRepository.findById(restaurantId).orElseThrow();
+        assertEquals(Restaurant.SubscriptionPlan.PRO, synced.getSubscriptionPlan());
+        assertThat(eventRepository.findAll().stream().anyMatch(e -> e.getEventType().equals("DAILY_CHECK_SYNC"))).isTrue();
+    }
+
+    private long nextOwnerId = 2000L;
+
+    // Restaurant on the given plan with a subscription in the given state, saved outside any test transaction
+    private RestaurantSubscription subscribedRestaurant(Restaurant.SubscriptionPlan plan, RestaurantSubscription.Status status,
+                                                        LocalDateTime trialEndAt, LocalDateTime periodEndAt) {
+        Restaurant r = new Restaurant();
+        r.setName("Audit R");
+        r.setAddress("Dhaka, BD");
+        r.setOwnerId(nextOwnerId++);
+        r.setSubscriptionPlan(plan);
+        Long id = restaurantRepository.save(r).getId();
+
+        RestaurantSubscription sub = new RestaurantSubscription();
+        sub.setRestaurantId(id);
+        sub.setStatus(status);
+        sub.setTrialEndAt(trialEndAt);
+        sub.setCurrentPeriodEndAt(periodEndAt);
+        return subscriptionRepository.save(sub);
+    }
+
+    private Restaurant.SubscriptionPlan planOf(RestaurantSubscription sub) {
+        return restaurantRepository.findById(sub.getRestaurantId()).orElseThrow().getSubscriptionPlan();
+    }
+
+    @Test
+    @DisplayName("Audit repairs plan mismatches in both directions, including legacy GRACE rows without grace_end_at")
+    void testAuditRepairsPlanMismatches() {
+        LocalDateTime now = LocalDateTime.now();
+        RestaurantSubscription activeOnBasic = subscribedRestaurant(Restaurant.SubscriptionPlan.BASIC,
+                RestaurantSubscription.Status.ACTIVE, null, now.plusDays(10));
+        RestaurantSubscription expiredOnPro = subscribedRestaurant(Restaurant.SubscriptionPlan.PRO,
+                RestaurantSubscription.Status.EXPIRED, null, now.minusDays(30));
+        // Legacy GRACE: no grace_end_at, PRO while the period ended less than the default grace days ago
+        RestaurantSubscription graceInWindow = subscribedRestaurant(Restaurant.SubscriptionPlan.BASIC,
+                RestaurantSubscription.Status.GRACE, null, now.minusDays(1));
+        RestaurantSubscription graceLapsed = subscribedRestaurant(Restaurant.SubscriptionPlan.PRO,
+                RestaurantSubscription.Status.GRACE, null, now.minusDays(10));
+        // Legacy trial GRACE: no period at all, the window runs from the trial end
+        RestaurantSubscription trialGrace = subscribedRestaurant(Restaurant.SubscriptionPlan.BASIC,
+                RestaurantSubscription.Status.GRACE, now.minusDays(2), null);
+        RestaurantSubscription consistent = subscribedRestaurant(Restaurant.SubscriptionPlan.PRO,
+                RestaurantSubscription.Status.TRIALING, now.plusDays(5), null);
+
+        SubscriptionAuditReport report = subscriptionService.auditAndRepairSubscriptions();
+
+        assertEquals(Restaurant.SubscriptionPlan.PRO, planOf(activeOnBasic));
+        assertEquals(Restaurant.SubscriptionPlan.BASIC, planOf(expiredOnPro));
+        assertEquals(Restaurant.SubscriptionPlan.PRO, planOf(graceInWindow));
+        assertEquals(Restaurant.SubscriptionPlan.BASIC, planOf(graceLapsed));
+        assertEquals(Restaurant.SubscriptionPlan.PRO, planOf(trialGrace));
+        assertEquals(Restaurant.SubscriptionPlan.PRO, planOf(consistent));
+
+        assertThat(report.getMismatchesFixed())
+                .extracting(SubscriptionAuditReport.MismatchRepair::getRestaurantId)
+                .contains(activeOnBasic.getRestaurantId(), expiredOnPro.getRestaurantId(),
+                        graceInWindow.getRestaurantId(), graceLapsed.getRestaurantId(), trialGrace.getRestaurantId())
+                .doesNotContain(consistent.getRestaurantId());
+        assertThat(eventRepository.findAll().stream().filter(e -> e.getEventType().equals("AUDIT_REPAIR")
+                && e.getSubscriptionId().equals(graceInWindow.getId()))).hasSize(1);
+
+        // Repaired rows are consistent, so a second pass finds nothing to fix
+        assertThat(subscriptionService.auditAndRepairSubscriptions().getMismatchesFixed()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Audit expires lapsed ACTIVE rows, creates missing subscriptions and reports orphans")
+    void testAuditExpiresLapsedCreatesMissingAndReportsOrphans() {
+        LocalDateTime now = LocalDateTime.now();
+        RestaurantSubscription lapsed = subscribedRestaurant(Restaurant.SubscriptionPlan.PRO,
+                RestaurantSubscription.Status.ACTIVE, null, now.minusDays(10));
+        // Within grace of its period end: left to the daily lifecycle pass
+        RestaurantSubscription recent = subscribedRestaurant(Restaurant.SubscriptionPlan.BASIC,
+                RestaurantSubscription.Status.ACTIVE, null, now.minusDays(1));
+
+        Restaurant unsubscribed = new Restaurant();
+        unsubscribed.setName("Audit R");
+        unsubscribed.setAddress("Dhaka, BD");
+        unsubscribed.setOwnerId(nextOwnerId++);
+        unsubscribed.setSubscriptionPlan(Restaurant.SubscriptionPlan.PRO);
+        Long unsubscribedId = restaurantRepository.save(unsubscribed).getId();
+
+        RestaurantSubscription orphan = new RestaurantSubscription();
+        orphan.setRestaurantId(987654L);
+        orphan.setStatus(RestaurantSubscription.Status.ACTIVE);
+        Long orphanId = subscriptionRepository.save(orphan).getId();
+
+        SubscriptionAuditReport report = subscriptionService.auditAndRepairSubscriptions();
+
+        assertThat(report.getExpiredSubscriptionsFixed()).containsExactly(lapsed.getRestaurantId());
+        assertEquals(RestaurantSubscription.Status.EXPIRED, subscriptionRepository.findById(lapsed.getId()).orElseThrow().getStatus());
+        assertEquals(Restaurant.SubscriptionPlan.BASIC, planOf(lapsed));
+        assertEquals(RestaurantSubscription.Status.ACTIVE, subscriptionRepository.findById(recent.getId()).orElseThrow().getStatus());
+
+        assertThat(report.getMissingSubscriptionsCreated()).contains(unsubscribedId, restaurantId);
+        RestaurantSubscription created = subscriptionRepository.findByRestaurantId(unsubscribedId).orElseThrow();
+        assertEquals(RestaurantSubscription.Status.ACTIVE, created.getStatus());
+        assertEquals(RestaurantSubscription.Status.EXPIRED,
+                subscriptionRepository.findByRestaurantId(restaurantId).orElseThrow().getStatus());
+
+        assertThat(report.getOrphanedSubscriptions()).containsExactly(orphanId);
+        assertThat(subscriptionRepository.findById(orphanId)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Audit runs as a background job and a second request returns the running one")
+    void testAuditRunsAsBackgroundJob() throws Exception {
+        RestaurantSubscription activeOnBasic = subscribedRestaurant(Restaurant.SubscriptionPlan.BASIC,
+                RestaurantSubscription.Status.ACTIVE, null, LocalDateTime.now().plusDays(10));
+
+        CountDownLatch release = new CountDownLatch(1);
+        AdminJobService.Job running = adminJobService.submit("subscription-audit", job -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return subscriptionService.auditAndRepairSubscriptions(job);
+        });
+        AdminJobService.Job duplicate = adminJobService.submit("subscription-audit", subscriptionService::auditAndRepairSubscriptions);
+        assertThat(duplicate).isSameAs(running);
+        assertEquals(AdminJobService.Status.RUNNING, running.getStatus());
+
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (running.getStatus() == AdminJobService.Status.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(AdminJobService.Status.COMPLETED, running.getStatus());
+        assertEquals("done", running.getPhase());
+        assertThat(running.getProcessed()).isPositive();
+        assertThat(running.getResult()).isInstanceOf(SubscriptionAuditReport.class);
+        assertThat(adminJobService.get(running.getId())).containsSame(running);
+        assertEquals(Restaurant.SubscriptionPlan.PRO, planOf(activeOnBasic));
+
+        // Once finished, a new request starts a new job
+        assertThat(adminJobService.submit("subscription-audit", job -> null)).isNotSameAs(running);
+    }
 }
@@ -0,0 +1,127 @@
+package com.menux.menu_x_backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SystemHealthServiceTest {
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SystemHealthService service = new SystemHealthService();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        ReflectionTestUtils.setField(service, "dataSource", dataSource);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "refreshMs", 15_000L);
+        ReflectionTestUtils.setField(service, "dbTimeoutSeconds", 2);
+        ReflectionTestUtils.setField(service, "maxDbResponseMs", 30L);
+        ReflectionTestUtils.setField(service, "maxMeanResponseMs", 500.0);
+        ReflectionTestUtils.setField(service, "maxErrorRate", 0.05);
+        ReflectionTestUtils.setField(service, "minWindowRequests", 20L);
+        ReflectionTestUtils.setField(service, "latencyExcludedUris", List.of("/api/**/stream", "/ws/**"));
+        when(connection.isValid(anyInt())).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Waiting for a pooled connection does not mark the database unhealthy")
+    void poolWaitIsNotDatabaseLatency() throws SQLException {
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            Thread.sleep(80); // longer than maxDbResponseMs
+            return connection;
+        });
+
+        SystemHealthService.SystemHealthStatus status = service.refresh();
+
+        assertThat(status.isDatabaseHealthy()).isTrue();
+        assertThat(status.getPoolWaitMs()).isGreaterThanOrEqualTo(80);
+        assertThat(status.getDbResponseMs()).isLessThan(30);
+    }
+
+    @Test
+    @DisplayName("An exhausted pool keeps the last database verdict and fails the service check instead")
+    void exhaustedPoolKeepsDatabaseVerdict() throws SQLException {
+        when(dataSource.getConnection())
+                .thenThrow(new SQLTransientConnectionException("Connection is not available, request timed out"));
+
+        SystemHealthService.SystemHealthStatus status = service.refresh();
+        assertThat(status.isDatabaseHealthy()).isTrue();
+        assertThat(status.isServiceHealthy()).isFalse();
+
+        // A real connection failure still flips the database check
+        doThrow(new SQLException("Connection refused")).when(dataSource).getConnection();
+        assertThat(service.refresh().isDatabaseHealthy()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Long-lived stream endpoints are left out of the latency mean")
+    void streamsAreExcludedFromLatency() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        service.refresh(); // baseline window
+
+        Timer stream = timer("/api/notifications/stream");
+        Timer menu = timer("/api/public/menu/{id}");
+        for (int i = 0; i < 30; i++) {
+            stream.record(Duration.ofMinutes(10));
+            menu.record(Duration.ofMillis(20));
+        }
+
+        SystemHealthService.SystemHealthStatus status = service.refresh();
+        assertThat(status.isApiHealthy()).isTrue();
+        assertThat(status.getMeanResponseMs()).isEqualTo(20.0);
+        assertThat(status.getWindowRequests()).isEqualTo(60);
+    }
+
+    @Test
+    @DisplayName("Too few requests in a window never fail the latency check")
+    void latencyNeedsMinimumWindow() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        service.refresh();
+
+        Timer slow = timer("/api/admin/analytics");
+        for (int i = 0; i < 3; i++) {
+            slow.record(Duration.ofSeconds(5));
+        }
+        assertThat(service.refresh().isApiHealthy()).isTrue();
+
+        for (int i = 0; i < 25; i++) {
+            slow.record(Duration.ofSeconds(5));
+        }
+        assertThat(service.refresh().isApiHealthy()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Readiness fails once the cached status is a few refresh intervals old")
+    void staleStatusIsNotReady() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        service.refresh();
+        assertThat(service.isReady()).isTrue();
+
+        ReflectionTestUtils.setField(service, "currentAtMs", System.currentTimeMillis() - 46_000L);
+        assertThat(service.isStale()).isTrue();
+        assertThat(service.isReady()).isFalse();
+    }
+
+    private Timer timer(String uri) {
+        return Timer.builder("http.server.requests").tag("uri", uri).tag("outcome", "SUCCESS").register(meterRegistry);
+    }
+}
@@ -0,0 +1,104 @@
+package com.menux.menu_x_backend.service.realtime;
+
+import com.menux.menu_x_backend.dto.order.OrderBoardEvent;
+import com.menux.menu_x_backend.dto.order.OrderBoardReplay;
+import com.menux.menu_x_backend.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class OrderBoardPublisherTest {
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final SseEmitterRegistry sseRegistry = mock(SseEmitterRegistry.class);
+    private final OrderBoardPublisher publisher =
+            new OrderBoardPublisher(messagingTemplate, sseRegistry, mock(RestaurantRepository.class));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(publisher, "wsEnabled", true);
+        ReflectionTestUtils.setField(publisher, "replaySize", 200);
+        ReflectionTestUtils.setField(publisher, "idleTtlMs", 3_600_000L);
+    }
+
+    @Test
+    @DisplayName("Concurrent publishers hand events to both transports in sequence order")
+    void deliversInSequenceOrder() throws Exception {
+        List<Long> topic = new ArrayList<>();
+        List<Long> sse = new ArrayList<>();
+        // Not synchronized: the stream lock must serialize the callbacks
+        doAnswer(invocation -> topic.add(((OrderBoardEvent) invocation.getArgument(1)).getSequence()))
+                .when(messagingTemplate).convertAndSend(anyString(), any(Object.class));
+        doAnswer(invocation -> sse.add(Long.valueOf((String) invocation.getArgument(2))))
+                .when(sseRegistry).sendEventToUser(eq(9L), anyString(), anyString(), any());
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 400; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                publisher.publish(1L, 9L, new OrderBoardEvent());
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(topic).hasSize(400).isSorted();
+        assertThat(sse).hasSize(400).isSorted();
+    }
+
+    @Test
+    @DisplayName("Idle replay buffers are dropped and a later resume is told to reset")
+    void idleBuffersAreDropped() {
+        publisher.publish(1L, 9L, new OrderBoardEvent());
+        publisher.publish(1L, 9L, new OrderBoardEvent());
+        OrderBoardReplay before = publisher.replay(1L, null, 0);
+        assertThat(before.getEvents()).hasSize(2);
+
+        ReflectionTestUtils.setField(publisher, "idleTtlMs", -1L);
+        publisher.evictIdleStreams();
+
+        assertThat(publisher.bufferedEventCount()).isZero();
+        OrderBoardReplay after = publisher.replay(1L, before.getEpoch(), 1);
+        assertThat(after.isResetRequired()).isTrue();
+        assertThat(after.getSequence()).isEqualTo(2);
+
+        // Sequences continue instead of restarting for live clients
+        publisher.publish(1L, 9L, new OrderBoardEvent());
+        assertThat(publisher.replay(1L, before.getEpoch(), 2).getEvents())
+                .extracting(OrderBoardEvent::getSequence).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("A payload that fails to build is swallowed and takes no sequence number")
+    void failingPayloadIsSwallowed() {
+        publisher.publish(1L, 9L, () -> {
+            throw new IllegalStateException("mapping failed");
+        });
+        publisher.publish(1L, 9L, OrderBoardEvent::new);
+
+        assertThat(publisher.replay(1L, null, 0).getEvents())
+                .extracting(OrderBoardEvent::getSequence).containsExactly(1L);
+    }
+}
@@ -0,0 +1,161 @@
+package com.menux.menu_x_backend.service.realtime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseEmitterRegistryTest {
+
+    private final CountDownLatch unblock = new CountDownLatch(1);
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private volatile boolean nextEmitterBlocks;
+
+    private final SseEmitterRegistry registry = new SseEmitterRegistry() {
+        @Override
+        SseEmitter newEmitter() {
+            RecordingEmitter emitter = new RecordingEmitter(nextEmitterBlocks ? unblock : null);
+            emitters.add(emitter);
+            return emitter;
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        unblock.countDown();
+        registry.shutdown();
+    }
+
+    private void start(int senderThreads) {
+        ReflectionTestUtils.setField(registry, "sseEnabled", true);
+        ReflectionTestUtils.setField(registry, "heartbeatMs", 50L);
+        ReflectionTestUtils.setField(registry, "queueCapacity", 16);
+        ReflectionTestUtils.setField(registry, "senderThreads", senderThreads);
+        ReflectionTestUtils.setField(registry, "maxSenderThreads", 8);
+        ReflectionTestUtils.setField(registry, "closerThreads", 1);
+        ReflectionTestUtils.setField(registry, "stallTimeoutMs", 150L);
+        ReflectionTestUtils.setField(registry, "overflowPolicy", SseEmitterRegistry.OverflowPolicy.EVICT);
+        registry.init();
+    }
+
+    @Test
+    @DisplayName("A blocked send is evicted by the heartbeat and does not hold up other connections")
+    void blockedEmitterIsEvictedWithoutStallingOthers() throws Exception {
+        start(1);
+
+        nextEmitterBlocks = true;
+        registry.register(1L);
+        RecordingEmitter stalled = emitters.get(0);
+        assertThat(stalled.sendStarted.await(2, TimeUnit.SECONDS)).isTrue();
+
+        // The only sender thread is now pinned inside the stalled send
+        nextEmitterBlocks = false;
+        registry.register(2L);
+        RecordingEmitter healthy = emitters.get(1);
+        registry.sendToUser(2L, "order-update");
+
+        // Eviction must not wait for the blocked write; the pool grows to drain user 2
+        awaitTrue(() -> !registry.hasConnections(1L));
+        assertThat(registry.getEvictedConnectionCount()).isEqualTo(1);
+        awaitTrue(() -> healthy.sent.size() >= 2);
+        assertThat(stalled.completed).isFalse();
+
+        // Once the write returns, the closer completes the evicted emitter
+        unblock.countDown();
+        awaitTrue(() -> stalled.completed);
+        assertThat(registry.hasConnections(2L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Evicting many stalled clients never grows the closer pool past its bound")
+    void closerPoolIsBounded() throws Exception {
+        start(1);
+
+        nextEmitterBlocks = true;
+        for (long user = 1; user <= 5; user++) {
+            registry.register(user);
+        }
+        awaitTrue(() -> registry.getEvictedConnectionCount() == 5);
+        assertThat(registry.closerThreadCount()).isEqualTo(1);
+
+        // The queued closes run once the parked closer is released
+        unblock.countDown();
+        awaitTrue(() -> emitters.stream().allMatch(emitter -> emitter.completed));
+    }
+
+    @Test
+    @DisplayName("Events are delivered in order per connection")
+    void deliversInOrder() throws Exception {
+        start(2);
+        registry.register(7L);
+        RecordingEmitter emitter = emitters.get(0);
+        for (int i = 0; i < 10; i++) {
+            registry.sendToUser(7L, "e" + i);
+        }
+        awaitTrue(() -> emitter.sent.size() == 11);
+        // Snapshot first: a heartbeat may still be appended while asserting
+        assertThat(List.copyOf(emitter.sent).subList(1, 11)).containsExactly("e0", "e1", "e2", "e3", "e4", "e5", "e6", "e7", "e8", "e9");
+    }
+
+    private static void awaitTrue(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("condition not met within 5s");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Mirrors ResponseBodyEmitter: send and complete share the emitter monitor
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch blockOn;
+        final CountDownLatch sendStarted = new CountDownLatch(1);
+        final List<Object> sent = new CopyOnWriteArrayList<>();
+        volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch blockOn) {
+            super(Long.MAX_VALUE);
+            this.blockOn = blockOn;
+        }
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) throws IOException {
+            record(builder);
+        }
+
+        @Override
+        public synchronized void send(Object object) throws IOException {
+            record(object);
+        }
+
+        private void record(Object payload) throws IOException {
+            sendStarted.countDown();
+            if (blockOn != null) {
+                try {
+                    blockOn.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("client gone");
+            }
+            sent.add(payload);
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+    }
+}
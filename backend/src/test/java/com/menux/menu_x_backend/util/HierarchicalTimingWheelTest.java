@@ -0,0 +1,135 @@
+package com.menux.menu_x_backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 1000;
+
+    @Test
+    @DisplayName("Deadlines are rounded up to the next tick and never fire early")
+    void firesAtRoundedUpTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 0);
+        wheel.schedule("a", 1500);
+        wheel.schedule("b", 2000);
+
+        assertThat(wheel.advance(1999)).isEmpty();
+        assertThat(wheel.advance(2000)).containsExactlyInAnyOrder("a", "b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Entries cascade down at every level boundary and fire on their exact tick")
+    void cascadesAtLevelBoundaries() {
+        // Start off a boundary so slot indexes and deltas do not line up trivially
+        long startTick = 37;
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, startTick * TICK);
+        long[] offsets = { 0, 1, 63, 64, 65, 4095, 4096, 4097, 262_143, 262_144, 262_145, 300_000 };
+        for (long offset : offsets) {
+            wheel.schedule(offset, (startTick + offset) * TICK);
+        }
+        // Absolute boundaries as well, so cascades happen exactly when a slot index wraps
+        for (long tick : new long[] { 64, 4096, 262_144 }) {
+            wheel.schedule(-tick, tick * TICK);
+        }
+
+        for (long offset : offsets) {
+            assertFiresExactlyAt(wheel, offset, startTick + offset);
+        }
+        for (long tick : new long[] { 64, 4096, 262_144 }) {
+            assertThat(wheel.contains(-tick)).isFalse();
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deadlines beyond the wheel wait in overflow and re-enter in time")
+    void overflowReentersWheel() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 0);
+        long beyond = (1L << 24) + 5; // past the four levels
+        wheel.schedule("far", beyond * TICK);
+        wheel.schedule("farther", (beyond + (1L << 20)) * TICK);
+
+        assertThat(wheel.advance((beyond - 1) * TICK)).isEmpty();
+        assertThat(wheel.advance(beyond * TICK)).containsExactly("far");
+        assertThat(wheel.advance((beyond + (1L << 20) - 1) * TICK)).isEmpty();
+        assertThat(wheel.advance((beyond + (1L << 20)) * TICK)).containsExactly("farther");
+    }
+
+    @Test
+    @DisplayName("Deadlines already in the past are clamped and fire on the next tick processed")
+    void clampsPastDeadlines() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 0);
+        assertThat(wheel.advance(10_000)).isEmpty();
+
+        wheel.schedule("late", 5_000);
+        wheel.schedule("ancient", -1_000_000);
+        assertThat(wheel.contains("late")).isTrue();
+        assertThat(wheel.advance(10_999)).isEmpty();
+        assertThat(wheel.advance(11_000)).containsExactlyInAnyOrder("late", "ancient");
+    }
+
+    @Test
+    @DisplayName("Rescheduling moves the single deadline of a key and cancel removes it")
+    void cancelAndReschedule() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 0);
+        wheel.schedule("moved-earlier", 100_000 * TICK);
+        wheel.schedule("moved-earlier", 10 * TICK);
+        wheel.schedule("moved-later", 10 * TICK);
+        wheel.schedule("moved-later", 5_000 * TICK);
+        wheel.schedule("cancelled", 10 * TICK);
+        assertThat(wheel.size()).isEqualTo(3);
+
+        assertThat(wheel.cancel("cancelled")).isTrue();
+        assertThat(wheel.cancel("cancelled")).isFalse();
+        assertThat(wheel.size()).isEqualTo(2);
+
+        assertThat(wheel.advance(10 * TICK)).containsExactly("moved-earlier");
+        assertThat(wheel.advance(4_999 * TICK)).isEmpty();
+        assertThat(wheel.advance(5_000 * TICK)).containsExactly("moved-later");
+        assertThat(wheel.advance(200_000 * TICK)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Random deadlines and advance steps match a brute-force schedule")
+    void matchesBruteForce() {
+        Random random = new Random(11);
+        long startTick = 1_000;
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK, startTick * TICK);
+        Map<Integer, Long> expected = new HashMap<>();
+        for (int key = 0; key < 2_000; key++) {
+            long deadlineMillis = startTick * TICK + (long) (random.nextDouble() * 400_000 * TICK) - 50 * TICK;
+            wheel.schedule(key, deadlineMillis);
+            expected.put(key, Math.max(startTick, Math.floorDiv(deadlineMillis + TICK - 1, TICK)));
+        }
+
+        long now = startTick;
+        while (!expected.isEmpty()) {
+            long previous = now;
+            now += 1 + random.nextInt(5_000);
+            List<Integer> fired = wheel.advance(now * TICK);
+            List<Integer> due = new ArrayList<>();
+            for (Map.Entry<Integer, Long> e : expected.entrySet()) {
+                if (e.getValue() <= now) due.add(e.getKey());
+            }
+            assertThat(fired).as("window (%d, %d]", previous, now).containsExactlyInAnyOrderElementsOf(due);
+            due.forEach(expected::remove);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    private static void assertFiresExactlyAt(HierarchicalTimingWheel<Long> wheel, long key, long tick) {
+        List<Long> before = wheel.advance((tick - 1) * TICK);
+        assertThat(before).as("fired before tick %d", tick).doesNotContain(key);
+        assertThat(wheel.advance(tick * TICK)).as("tick %d", tick).contains(key);
+    }
+}